@@ -0,0 +1,177 @@
+package eu.europeana.api.translation.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.europeana.api.translation.config.LanguageRoutingTable;
+import eu.europeana.api.translation.config.TranslationServiceProvider;
+import eu.europeana.api.translation.config.services.TranslationCfg;
+import eu.europeana.api.translation.config.services.TranslationLangPairCfg;
+import eu.europeana.api.translation.config.services.TranslationMappingCfg;
+import eu.europeana.api.translation.config.services.TranslationServiceCfg;
+import eu.europeana.api.translation.config.services.TranslationServicesConfiguration;
+import eu.europeana.api.translation.definitions.language.LanguagePair;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+import eu.europeana.api.translation.service.TranslationService;
+
+/**
+ * Compares the routing of translation requests with the compiled routing table against the
+ * previous implementation (key concatenation, map lookup and scans of the supported language
+ * lists). The default service configurations are used, the requests cycle over all supported
+ * language pairs and a few unsupported ones. The allocation rate is reported with:
+ * java -jar translation-benchmarks/target/benchmarks.jar LanguageRoutingBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LanguageRoutingBenchmark {
+
+  private TranslationCfg translationCfg;
+  private Map<String, TranslationService> translationServices;
+  private Map<String, TranslationService> langMappings;
+  private LanguageRoutingTable routingTable;
+
+  private String[] srcLangs;
+  private String[] targetLangs;
+  private int next;
+
+  @Setup
+  public void setup() throws IOException {
+    try (InputStream input = TranslationServiceProvider.class
+        .getResourceAsStream(TranslationServiceProvider.DEFAULT_SERVICE_CONFIG_FILE)) {
+      translationCfg = new ObjectMapper()
+          .readValue(input, TranslationServicesConfiguration.class).getTranslationConfig();
+    }
+
+    translationServices = new HashMap<>();
+    for (TranslationServiceCfg serviceCfg : translationCfg.getServices()) {
+      translationServices.put(serviceCfg.getId(), new StubTranslationService(serviceCfg.getId()));
+    }
+    langMappings = new HashMap<>();
+    if (translationCfg.getMappings() != null) {
+      for (TranslationMappingCfg mappingCfg : translationCfg.getMappings()) {
+        for (String srcLang : mappingCfg.getSrcLang()) {
+          for (String targetLang : mappingCfg.getTrgLang()) {
+            langMappings.put(LanguagePair.generateKey(srcLang, targetLang),
+                translationServices.get(mappingCfg.getServiceId()));
+          }
+        }
+      }
+    }
+    routingTable = LanguageRoutingTable.compile(translationCfg, translationServices);
+
+    // all supported pairs, the requests with language detection and some unsupported pairs
+    List<String[]> pairs = new ArrayList<>();
+    for (TranslationLangPairCfg langPairCfg : translationCfg.getSupported()) {
+      for (String srcLang : langPairCfg.getSrcLang()) {
+        for (String targetLang : langPairCfg.getTargetLang()) {
+          pairs.add(new String[] {srcLang, targetLang});
+        }
+      }
+    }
+    pairs.add(new String[] {null, "en"});
+    pairs.add(new String[] {"xx", "en"});
+    pairs.add(new String[] {"de", "xx"});
+    srcLangs = pairs.stream().map(pair -> pair[0]).toArray(String[]::new);
+    targetLangs = pairs.stream().map(pair -> pair[1]).toArray(String[]::new);
+  }
+
+  private int nextPair() {
+    next = (next + 1) % srcLangs.length;
+    return next;
+  }
+
+  @Benchmark
+  public void routingTable(Blackhole blackhole) {
+    final int pair = nextPair();
+    final String srcLang = srcLangs[pair];
+    final String targetLang = targetLangs[pair];
+    blackhole.consume(routingTable.isSupported(srcLang, targetLang));
+    TranslationService service = routingTable.getMappedService(srcLang, targetLang);
+    blackhole.consume(service == null ? routingTable.getDefaultService() : service);
+  }
+
+  @Benchmark
+  public void configLookup(Blackhole blackhole) {
+    final int pair = nextPair();
+    final String srcLang = srcLangs[pair];
+    final String targetLang = targetLangs[pair];
+    blackhole.consume(isSupportedInConfig(srcLang, targetLang));
+    TranslationService service = null;
+    if (srcLang != null) {
+      service = langMappings.get(LanguagePair.generateKey(srcLang, targetLang));
+    }
+    blackhole.consume(
+        service == null ? translationServices.get(translationCfg.getDefaultServiceId()) : service);
+  }
+
+  private boolean isSupportedInConfig(String srcLang, String targetLang) {
+    for (TranslationLangPairCfg langPairCfg : translationCfg.getSupported()) {
+      if ((srcLang == null || langPairCfg.getSrcLang().contains(srcLang))
+          && langPairCfg.getTargetLang().contains(targetLang)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Placeholder for the translation services, only the routing is measured
+   */
+  private static class StubTranslationService implements TranslationService {
+    private String serviceId;
+
+    StubTranslationService(String serviceId) {
+      this.serviceId = serviceId;
+    }
+
+    @Override
+    public String getServiceId() {
+      return serviceId;
+    }
+
+    @Override
+    public void setServiceId(String serviceId) {
+      this.serviceId = serviceId;
+    }
+
+    @Override
+    public boolean isSupported(String srcLang, String trgLang) {
+      return true;
+    }
+
+    @Override
+    public void translate(List<TranslationObj> translationStrings) {
+      // not used
+    }
+
+    @Override
+    public void close() {
+      // nothing to close
+    }
+
+    @Override
+    public String getExternalServiceEndPoint() {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package eu.europeana.api.translation.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import eu.europeana.api.translation.service.pangeanic.PangeanicTranslationUtils;
+
+/**
+ * Compares building and reading the Pangeanic translate payloads through Jettison trees (previous
+ * implementation) against the Jackson streaming generation and parsing. The allocation rate is
+ * reported with:
+ * java -jar translation-benchmarks/target/benchmarks.jar PangeanicPayloadBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PangeanicPayloadBenchmark {
+
+  @Param({"10", "500"})
+  private int texts;
+
+  private List<String> sources;
+  private byte[] response;
+
+  @Setup
+  public void setup() throws JSONException {
+    sources = new ArrayList<>(texts);
+    JSONArray translations = new JSONArray();
+    for (int i = 0; i < texts; i++) {
+      String text = "Eine Textzeile Nummer " + i
+          + " des Datensatzes, mit \"zitierten\" Wörtern und Sonderzeichen: äöü ß €";
+      sources.add(text);
+      JSONObject translation = new JSONObject();
+      translation.put(PangeanicTranslationUtils.TRANSLATE_SOURCE, text);
+      translation.put(PangeanicTranslationUtils.TRANSLATE_TARGET, "A line of text number " + i
+          + " of the record, with \"quoted\" words and special characters: äöü ß €");
+      translation.put(PangeanicTranslationUtils.TRANSLATE_SCORE, 0.8465479813471155);
+      translations.put(translation);
+    }
+    JSONObject body = new JSONObject();
+    body.put(PangeanicTranslationUtils.TRANSLATIONS, translations);
+    body.put(PangeanicTranslationUtils.SOURCE_LANG, "de");
+    body.put(PangeanicTranslationUtils.TARGET_LANG, "en");
+    response = body.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public byte[] jettisonRequest() throws JSONException {
+    JSONObject body = new JSONObject();
+    JSONArray textArray = new JSONArray();
+    for (String text : sources) {
+      textArray.put(text);
+    }
+    body.put("apikey", "");
+    body.put(PangeanicTranslationUtils.MODE, PangeanicTranslationUtils.MODE_EUROPEANA);
+    body.put(PangeanicTranslationUtils.TRANSLATE_SOURCE, textArray);
+    body.put(PangeanicTranslationUtils.SOURCE_LANG, "de");
+    body.put(PangeanicTranslationUtils.INCLUDE_SRC, "true");
+    body.put(PangeanicTranslationUtils.TARGET_LANG, "en");
+    return body.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public byte[] streamingRequest() {
+    return PangeanicTranslationUtils.createTranslateRequestBody(sources, "en", "de", "", true);
+  }
+
+  @Benchmark
+  public void jettisonResponse(Blackhole blackhole) throws JSONException {
+    JSONObject body = new JSONObject(new String(response, StandardCharsets.UTF_8));
+    JSONArray translations = body.getJSONArray(PangeanicTranslationUtils.TRANSLATIONS);
+    for (int i = 0; i < translations.length(); i++) {
+      JSONObject translation = (JSONObject) translations.get(i);
+      blackhole.consume(translation.getDouble(PangeanicTranslationUtils.TRANSLATE_SCORE));
+      blackhole.consume(translation.getString(PangeanicTranslationUtils.TRANSLATE_TARGET));
+    }
+  }
+
+  @Benchmark
+  public int streamingResponse(Blackhole blackhole) throws IOException {
+    return PangeanicTranslationUtils.readTranslations(response, (index, translation, score) -> {
+      blackhole.consume(score);
+      blackhole.consume(translation);
+    });
+  }
+}
@@ -0,0 +1,99 @@
+package eu.europeana.api.translation.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.europeana.api.translation.config.SerializationConfig;
+import eu.europeana.api.translation.definitions.model.TranslationResponse;
+import eu.europeana.api.translation.serialization.JsonLdSerializer;
+
+/**
+ * Compares the rendering of large translation responses into a String (previous implementation,
+ * the String is encoded again when written to the response) against the streaming to the output
+ * stream, with and without the blackbird module. The allocation rate is reported with:
+ * java -jar translation-benchmarks/target/benchmarks.jar ResponseSerializationBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+  @Param({"100", "5000"})
+  private int translations;
+
+  @Param({"false", "true"})
+  private boolean blackbird;
+
+  private JsonLdSerializer serializer;
+  private TranslationResponse response;
+  private OutputStream out;
+
+  @Setup
+  public void setup(Blackhole blackhole) {
+    ObjectMapper mapper = new ObjectMapper();
+    SerializationConfig.registerModules(mapper, blackbird);
+    serializer = new JsonLdSerializer(mapper);
+
+    List<String> texts = new ArrayList<>(translations);
+    for (int i = 0; i < translations; i++) {
+      texts.add("Translated text number " + i
+          + " of the record, with some \"quoted\" words and non ascii characters: äöü ñ €");
+    }
+    response = new TranslationResponse();
+    response.setTranslations(texts);
+    response.setLang("en");
+    response.setService("PANGEANIC");
+    out = new BlackholeOutputStream(blackhole);
+  }
+
+  @Benchmark
+  public void serializeToString() throws IOException {
+    out.write(serializer.serializeObject(response).getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Benchmark
+  public void writeToStream() throws IOException {
+    serializer.writeObject(response, out);
+  }
+
+  /**
+   * Stands for the servlet output stream, the written bytes are only consumed
+   */
+  private static class BlackholeOutputStream extends OutputStream {
+    private final Blackhole blackhole;
+
+    BlackholeOutputStream(Blackhole blackhole) {
+      this.blackhole = blackhole;
+    }
+
+    @Override
+    public void write(int b) {
+      blackhole.consume(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      blackhole.consume(b);
+      blackhole.consume(len);
+    }
+  }
+}
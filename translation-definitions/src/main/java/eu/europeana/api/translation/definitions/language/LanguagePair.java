@@ -1,5 +1,6 @@
 package eu.europeana.api.translation.definitions.language;
 
+import java.util.Objects;
 import javax.validation.constraints.NotNull;
 import org.apache.commons.lang3.StringUtils;
 import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
@@ -60,7 +61,8 @@ public class LanguagePair implements Comparable<LanguagePair> {
 
   @Override
   public int hashCode() {
-    return srcLang == null ? targetLang.hashCode() : srcLang.hashCode() + targetLang.hashCode();
+    // not symmetric, de-en and en-de must not collide
+    return 31 * Objects.hashCode(srcLang) + targetLang.hashCode();
   }
 
   public String getTargetLang() {
@@ -0,0 +1,35 @@
+package eu.europeana.api.translation.definitions.model;
+
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+
+@JsonInclude(value = JsonInclude.Include.NON_EMPTY)
+@JsonIgnoreProperties(ignoreUnknown = true)
+/**
+ * The representation of a batch translation request body, each of the sub-requests has its own
+ * source, target and service
+ *
+ */
+public class BatchTranslationRequest {
+
+  private List<TranslationRequest> requests;
+
+  public BatchTranslationRequest() {
+    super();
+  }
+
+  @JsonGetter(TranslationAppConstants.REQUESTS)
+  public List<TranslationRequest> getRequests() {
+    return requests;
+  }
+
+  @JsonSetter(TranslationAppConstants.REQUESTS)
+  public void setRequests(List<TranslationRequest> requests) {
+    this.requests = requests;
+  }
+
+}
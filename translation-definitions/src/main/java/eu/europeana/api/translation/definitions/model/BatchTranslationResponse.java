@@ -0,0 +1,31 @@
+package eu.europeana.api.translation.definitions.model;
+
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+
+@JsonInclude(value = JsonInclude.Include.NON_ABSENT)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BatchTranslationResponse {
+
+  private List<BatchTranslationResult> results;
+
+  public BatchTranslationResponse() {
+    super();
+  }
+
+  public BatchTranslationResponse(List<BatchTranslationResult> results) {
+    this.results = results;
+  }
+
+  @JsonGetter(TranslationAppConstants.RESULTS)
+  public List<BatchTranslationResult> getResults() {
+    return results;
+  }
+
+  public void setResults(List<BatchTranslationResult> results) {
+    this.results = results;
+  }
+}
@@ -0,0 +1,50 @@
+package eu.europeana.api.translation.definitions.model;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+
+/**
+ * The result of one sub-request of a batch translation. The status indicates if the sub-request
+ * was processed successfully (200), in which case the translations are available, otherwise the
+ * error message is provided.
+ */
+@JsonInclude(value = JsonInclude.Include.NON_ABSENT)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({TranslationAppConstants.STATUS, TranslationAppConstants.TRANSLATIONS,
+    TranslationAppConstants.LANG, TranslationAppConstants.SERVICE, TranslationAppConstants.ERROR})
+public class BatchTranslationResult extends TranslationResponse {
+
+  private int status;
+  private String error;
+
+  public BatchTranslationResult() {
+    super();
+  }
+
+  public BatchTranslationResult(int status, String error) {
+    this();
+    this.status = status;
+    this.error = error;
+  }
+
+  @JsonGetter(TranslationAppConstants.STATUS)
+  public int getStatus() {
+    return status;
+  }
+
+  public void setStatus(int status) {
+    this.status = status;
+  }
+
+  @JsonGetter(TranslationAppConstants.ERROR)
+  public String getError() {
+    return error;
+  }
+
+  public void setError(String error) {
+    this.error = error;
+  }
+}
@@ -14,6 +14,8 @@ public class LangDetectRequest {
   private String lang;
   private String service;
   private String fallback;
+  //time budget in milliseconds, the server default is used if not provided
+  private Long timeout;
 
   public LangDetectRequest() {
     super();
@@ -55,5 +57,13 @@ public class LangDetectRequest {
     this.fallback = fallback;
   }
 
-}
+  public Long getTimeout() {
+    return timeout;
+  }
 
+  @JsonSetter(TranslationAppConstants.TIMEOUT)
+  public void setTimeout(Long timeout) {
+    this.timeout = timeout;
+  }
+
+}
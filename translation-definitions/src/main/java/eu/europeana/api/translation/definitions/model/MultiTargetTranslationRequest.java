@@ -0,0 +1,35 @@
+package eu.europeana.api.translation.definitions.model;
+
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+
+@JsonInclude(value = JsonInclude.Include.NON_EMPTY)
+@JsonIgnoreProperties(ignoreUnknown = true)
+/**
+ * The representation of a translation request body with several target languages, the texts are
+ * translated into each of the targets
+ *
+ */
+public class MultiTargetTranslationRequest extends TranslationRequest {
+
+  private List<String> targets;
+
+  public MultiTargetTranslationRequest() {
+    super();
+  }
+
+  @JsonGetter(TranslationAppConstants.TARGET_LANGS)
+  public List<String> getTargets() {
+    return targets;
+  }
+
+  @JsonSetter(TranslationAppConstants.TARGET_LANGS)
+  public void setTargets(List<String> targets) {
+    this.targets = targets;
+  }
+
+}
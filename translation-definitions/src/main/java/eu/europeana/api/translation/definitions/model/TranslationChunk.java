@@ -0,0 +1,50 @@
+package eu.europeana.api.translation.definitions.model;
+
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+
+/**
+ * A part of a streamed translation response. The translations correspond to the input texts
+ * indicated by the index list (positions in the text list of the request). If the translation of
+ * the chunk failed, the error message is provided instead of the translations.
+ */
+@JsonInclude(value = JsonInclude.Include.NON_ABSENT)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({TranslationAppConstants.INDEX, TranslationAppConstants.TRANSLATIONS,
+    TranslationAppConstants.LANG, TranslationAppConstants.SERVICE, TranslationAppConstants.ERROR})
+public class TranslationChunk extends TranslationResponse {
+
+  private List<Integer> index;
+  private String error;
+
+  public TranslationChunk() {
+    super();
+  }
+
+  public TranslationChunk(List<Integer> index) {
+    this();
+    this.index = index;
+  }
+
+  @JsonGetter(TranslationAppConstants.INDEX)
+  public List<Integer> getIndex() {
+    return index;
+  }
+
+  public void setIndex(List<Integer> index) {
+    this.index = index;
+  }
+
+  @JsonGetter(TranslationAppConstants.ERROR)
+  public String getError() {
+    return error;
+  }
+
+  public void setError(String error) {
+    this.error = error;
+  }
+}
@@ -0,0 +1,125 @@
+package eu.europeana.api.translation.definitions.model;
+
+import java.util.Date;
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+
+/**
+ * The status and progress of an asynchronous translation job
+ */
+@JsonInclude(value = JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({TranslationAppConstants.JOB_ID, TranslationAppConstants.STATUS,
+    TranslationAppConstants.TOTAL, TranslationAppConstants.PROCESSED, TranslationAppConstants.LANG,
+    TranslationAppConstants.SERVICE, TranslationAppConstants.ERROR, TranslationAppConstants.CREATED,
+    TranslationAppConstants.MODIFIED})
+public class TranslationJob {
+
+  private String id;
+  private TranslationJobStatus status;
+  private int total;
+  private int processed;
+  private String lang;
+  private String service;
+  private String error;
+  private Date created;
+  private Date modified;
+
+  public TranslationJob() {
+    super();
+  }
+
+  @JsonGetter(TranslationAppConstants.JOB_ID)
+  public String getId() {
+    return id;
+  }
+
+  @JsonSetter(TranslationAppConstants.JOB_ID)
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  @JsonGetter(TranslationAppConstants.STATUS)
+  public TranslationJobStatus getStatus() {
+    return status;
+  }
+
+  @JsonSetter(TranslationAppConstants.STATUS)
+  public void setStatus(TranslationJobStatus status) {
+    this.status = status;
+  }
+
+  @JsonGetter(TranslationAppConstants.TOTAL)
+  public int getTotal() {
+    return total;
+  }
+
+  @JsonSetter(TranslationAppConstants.TOTAL)
+  public void setTotal(int total) {
+    this.total = total;
+  }
+
+  @JsonGetter(TranslationAppConstants.PROCESSED)
+  public int getProcessed() {
+    return processed;
+  }
+
+  @JsonSetter(TranslationAppConstants.PROCESSED)
+  public void setProcessed(int processed) {
+    this.processed = processed;
+  }
+
+  @JsonGetter(TranslationAppConstants.LANG)
+  public String getLang() {
+    return lang;
+  }
+
+  @JsonSetter(TranslationAppConstants.LANG)
+  public void setLang(String lang) {
+    this.lang = lang;
+  }
+
+  @JsonGetter(TranslationAppConstants.SERVICE)
+  public String getService() {
+    return service;
+  }
+
+  @JsonSetter(TranslationAppConstants.SERVICE)
+  public void setService(String service) {
+    this.service = service;
+  }
+
+  @JsonGetter(TranslationAppConstants.ERROR)
+  public String getError() {
+    return error;
+  }
+
+  @JsonSetter(TranslationAppConstants.ERROR)
+  public void setError(String error) {
+    this.error = error;
+  }
+
+  @JsonGetter(TranslationAppConstants.CREATED)
+  public Date getCreated() {
+    return created;
+  }
+
+  @JsonSetter(TranslationAppConstants.CREATED)
+  public void setCreated(Date created) {
+    this.created = created;
+  }
+
+  @JsonGetter(TranslationAppConstants.MODIFIED)
+  public Date getModified() {
+    return modified;
+  }
+
+  @JsonSetter(TranslationAppConstants.MODIFIED)
+  public void setModified(Date modified) {
+    this.modified = modified;
+  }
+}
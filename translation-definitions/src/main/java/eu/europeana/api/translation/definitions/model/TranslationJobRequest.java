@@ -0,0 +1,34 @@
+package eu.europeana.api.translation.definitions.model;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+
+/**
+ * The representation of an asynchronous translation job request. Next to the fields of the
+ * translation request, an optional callback url can be provided, which is notified when the job
+ * is finished
+ */
+@JsonInclude(value = JsonInclude.Include.NON_EMPTY)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TranslationJobRequest extends TranslationRequest {
+
+  private String callback;
+
+  public TranslationJobRequest() {
+    super();
+  }
+
+  @JsonGetter(TranslationAppConstants.CALLBACK)
+  public String getCallback() {
+    return callback;
+  }
+
+  @JsonSetter(TranslationAppConstants.CALLBACK)
+  public void setCallback(String callback) {
+    this.callback = callback;
+  }
+
+}
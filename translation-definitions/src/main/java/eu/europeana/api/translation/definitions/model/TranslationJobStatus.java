@@ -0,0 +1,16 @@
+package eu.europeana.api.translation.definitions.model;
+
+/**
+ * The processing states of asynchronous translation jobs
+ */
+public enum TranslationJobStatus {
+  QUEUED, RUNNING, COMPLETED, FAILED;
+
+  /**
+   * Indicates if the job processing is finished
+   * @return true for completed and failed jobs
+   */
+  public boolean isFinished() {
+    return this == COMPLETED || this == FAILED;
+  }
+}
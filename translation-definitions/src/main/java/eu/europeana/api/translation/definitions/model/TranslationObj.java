@@ -8,6 +8,9 @@ public class TranslationObj extends LanguageObj {
   private String sourceLang;
   private String targetLang;
   private String translation;
+  // the provider output and its quality score, kept also when the score is below the threshold
+  private String rawTranslation;
+  private Double score;
 
   public String getSourceLang() {
     return sourceLang;
@@ -32,4 +35,28 @@ public class TranslationObj extends LanguageObj {
   public void setTranslation(String translation) {
     this.translation = translation;
   }
+
+  /**
+   * The translation returned by the provider before applying the quality threshold
+   * @return the translation, null if the provider does not return quality scores
+   */
+  public String getRawTranslation() {
+    return rawTranslation;
+  }
+
+  public void setRawTranslation(String rawTranslation) {
+    this.rawTranslation = rawTranslation;
+  }
+
+  /**
+   * The quality score of the raw translation
+   * @return the score, null if the provider does not return quality scores
+   */
+  public Double getScore() {
+    return score;
+  }
+
+  public void setScore(Double score) {
+    this.score = score;
+  }
 }
@@ -23,6 +23,8 @@ public class TranslationRequest {
   private List<String> text;
   //caching enabled by default
   private Boolean caching = Boolean.TRUE;
+  //time budget in milliseconds, the server default is used if not provided
+  private Long timeout;
 
   public TranslationRequest() {
     super();
@@ -96,4 +98,14 @@ public class TranslationRequest {
     this.caching = caching;
   }
 
+  @JsonGetter(TranslationAppConstants.TIMEOUT)
+  public Long getTimeout() {
+    return timeout;
+  }
+
+  @JsonSetter(TranslationAppConstants.TIMEOUT)
+  public void setTimeout(Long timeout) {
+    this.timeout = timeout;
+  }
+
 }
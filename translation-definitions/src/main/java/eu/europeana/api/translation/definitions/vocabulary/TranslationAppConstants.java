@@ -8,11 +8,34 @@ public class TranslationAppConstants {
   //api type constants
   public static final String DETECT_ENDPOINT = "detect";
   public static final String TRANSLATE_ENDPOINT = "translate";
+  public static final String BATCH_ENDPOINT = "batch";
+  public static final String STREAM_ENDPOINT = "stream";
+  public static final String MULTI_TARGET_ENDPOINT = "multi";
+  public static final String JOBS_ENDPOINT = "jobs";
   
   //app configuration fields
   public static final String SERVICE_ID = "id";
   public static final String DEFAULT_SERVICE_ID = "default";
   public static final String CLASSNAME = "classname";
+  public static final String LIMITS = "limits";
+  public static final String MAX_ITEMS = "maxItems";
+  public static final String MAX_CHARS = "maxChars";
+  public static final String MAX_BYTES = "maxBytes";
+  public static final String PARALLELISM = "parallelism";
+  public static final String BULKHEAD = "bulkhead";
+  public static final String MAX_CONCURRENT = "maxConcurrent";
+  public static final String MAX_QUEUE = "maxQueue";
+  public static final String MAX_WAIT_MILLIS = "maxWaitMillis";
+  public static final String ROUTING = "routing";
+  public static final String POLICY = "policy";
+  public static final String SLO_MILLIS = "sloMillis";
+  public static final String MAX_ERROR_RATE = "maxErrorRate";
+  public static final String DECAY = "decay";
+  public static final String MIN_SAMPLES = "minSamples";
+  public static final String RECOVERY_MILLIS = "recoveryMillis";
+  public static final String EXPLORATION_RATE = "explorationRate";
+  public static final String COST = "cost";
+  public static final String WEIGHT = "weight";
   public static final String SUPPORTED_LANGUAGES = "supported";
   public static final String MAPPINGS = "mappings";
   public static final String SERVICES = "services";
@@ -20,7 +43,13 @@ public class TranslationAppConstants {
   public static final String FALLBACK = "fallback";
   public static final String SOURCE_LANG = "source";
   public static final String TARGET_LANG = "target";
+  public static final String TARGET_LANGS = "targets";
   public static final String CACHING = "caching";
+  public static final String TIMEOUT = "timeout";
+  public static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout";
+  public static final String RATE_LIMIT_LIMIT_HEADER = "X-RateLimit-Limit";
+  public static final String RATE_LIMIT_REMAINING_HEADER = "X-RateLimit-Remaining";
+  public static final String RATE_LIMIT_RESET_HEADER = "X-RateLimit-Reset";
   public static final char LANG_DELIMITER = '-';
   
   //api request/response fields
@@ -29,6 +58,17 @@ public class TranslationAppConstants {
   public static final String LANG = "lang";
   public static final String DETECT_BOOL = "detect";
   public static final String TRANSLATIONS = "translations";
+  public static final String REQUESTS = "requests";
+  public static final String RESULTS = "results";
+  public static final String STATUS = "status";
+  public static final String ERROR = "error";
+  public static final String INDEX = "index";
+  public static final String JOB_ID = "id";
+  public static final String CALLBACK = "callback";
+  public static final String TOTAL = "total";
+  public static final String PROCESSED = "processed";
+  public static final String CREATED = "created";
+  public static final String MODIFIED = "modified";
   public static final String BUILD_INFO = "build";
   public static final String APP_INFO = "app";
   public static final String CONFIG_INFO = "config";
@@ -0,0 +1,78 @@
+package eu.europeana.api.translation.service;
+
+import java.util.List;
+import eu.europeana.api.translation.definitions.model.LanguageDetectionObj;
+import eu.europeana.api.translation.service.exception.BulkheadFullException;
+import eu.europeana.api.translation.service.exception.DeadlineExceededException;
+import eu.europeana.api.translation.service.exception.LanguageDetectionException;
+
+/**
+ * Language detection service decorator limiting the concurrent calls to the wrapped service
+ * through a {@link ServiceBulkhead}. Rejected calls fail with a
+ * {@link LanguageDetectionException} caused by a {@link BulkheadFullException}, or by a
+ * {@link DeadlineExceededException} if the request deadline expired before a permit was obtained.
+ */
+public class BulkheadLangDetectService implements LanguageDetectionService {
+
+  private static final int SERVICE_UNAVAILABLE = 503;
+  private static final int GATEWAY_TIMEOUT = 504;
+
+  private final LanguageDetectionService langDetectService;
+  private final ServiceBulkhead bulkhead;
+
+  public BulkheadLangDetectService(LanguageDetectionService langDetectService,
+      ServiceBulkhead bulkhead) {
+    this.langDetectService = langDetectService;
+    this.bulkhead = bulkhead;
+  }
+
+  @Override
+  public void detectLang(List<LanguageDetectionObj> languageDetectionObjs)
+      throws LanguageDetectionException {
+    try {
+      bulkhead.acquire();
+    } catch (BulkheadFullException e) {
+      throw new LanguageDetectionException(e.getMessage(), SERVICE_UNAVAILABLE, e);
+    } catch (DeadlineExceededException e) {
+      throw new LanguageDetectionException(e.getMessage(), GATEWAY_TIMEOUT, e);
+    }
+    try {
+      langDetectService.detectLang(languageDetectionObjs);
+    } finally {
+      bulkhead.release();
+    }
+  }
+
+  public LanguageDetectionService getLangDetectService() {
+    return langDetectService;
+  }
+
+  public ServiceBulkhead getBulkhead() {
+    return bulkhead;
+  }
+
+  @Override
+  public boolean isSupported(String srcLang) {
+    return langDetectService.isSupported(srcLang);
+  }
+
+  @Override
+  public String getServiceId() {
+    return langDetectService.getServiceId();
+  }
+
+  @Override
+  public void setServiceId(String serviceId) {
+    langDetectService.setServiceId(serviceId);
+  }
+
+  @Override
+  public void close() {
+    langDetectService.close();
+  }
+
+  @Override
+  public String getExternalServiceEndPoint() {
+    return langDetectService.getExternalServiceEndPoint();
+  }
+}
@@ -0,0 +1,101 @@
+package eu.europeana.api.translation.service;
+
+import java.util.List;
+import java.util.Map;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+import eu.europeana.api.translation.service.exception.BulkheadFullException;
+import eu.europeana.api.translation.service.exception.DeadlineExceededException;
+import eu.europeana.api.translation.service.exception.TranslationException;
+
+/**
+ * Translation service decorator limiting the concurrent calls to the wrapped service through a
+ * {@link ServiceBulkhead}. Rejected calls fail with a {@link TranslationException} caused by a
+ * {@link BulkheadFullException}, or by a {@link DeadlineExceededException} if the request deadline
+ * expired before a permit was obtained.
+ */
+public class BulkheadTranslationService implements TranslationService {
+
+  private static final int SERVICE_UNAVAILABLE = 503;
+  private static final int GATEWAY_TIMEOUT = 504;
+
+  private final TranslationService translationService;
+  private final ServiceBulkhead bulkhead;
+
+  public BulkheadTranslationService(TranslationService translationService,
+      ServiceBulkhead bulkhead) {
+    this.translationService = translationService;
+    this.bulkhead = bulkhead;
+  }
+
+  @Override
+  public void translate(List<TranslationObj> translationObjs) throws TranslationException {
+    acquire();
+    try {
+      translationService.translate(translationObjs);
+    } finally {
+      bulkhead.release();
+    }
+  }
+
+  /**
+   * A multi-target request is a single call to the wrapped service, it takes a single permit
+   */
+  @Override
+  public void translateMultiTarget(Map<String, List<TranslationObj>> translationObjsByTarget)
+      throws TranslationException {
+    acquire();
+    try {
+      translationService.translateMultiTarget(translationObjsByTarget);
+    } finally {
+      bulkhead.release();
+    }
+  }
+
+  private void acquire() throws TranslationException {
+    try {
+      bulkhead.acquire();
+    } catch (BulkheadFullException e) {
+      throw new TranslationException(e.getMessage(), SERVICE_UNAVAILABLE, e);
+    } catch (DeadlineExceededException e) {
+      throw new TranslationException(e.getMessage(), GATEWAY_TIMEOUT, e);
+    }
+  }
+
+  public TranslationService getTranslationService() {
+    return translationService;
+  }
+
+  public ServiceBulkhead getBulkhead() {
+    return bulkhead;
+  }
+
+  @Override
+  public String getServiceId() {
+    return translationService.getServiceId();
+  }
+
+  @Override
+  public void setServiceId(String serviceId) {
+    translationService.setServiceId(serviceId);
+  }
+
+  @Override
+  public boolean isSupported(String srcLang, String trgLang) {
+    return translationService.isSupported(srcLang, trgLang);
+  }
+
+  @Override
+  public boolean isAcceptedScore(String srcLang, double score) {
+    return translationService.isAcceptedScore(srcLang, score);
+  }
+
+  @Override
+  public void close() {
+    translationService.close();
+  }
+
+  @Override
+  public String getExternalServiceEndPoint() {
+    return translationService.getExternalServiceEndPoint();
+  }
+}
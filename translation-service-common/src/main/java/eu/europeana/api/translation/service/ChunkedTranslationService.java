@@ -0,0 +1,188 @@
+package eu.europeana.api.translation.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+import eu.europeana.api.translation.service.exception.DeadlineExceededException;
+import eu.europeana.api.translation.service.exception.TranslationException;
+import eu.europeana.api.translation.service.util.Deadline;
+import eu.europeana.api.translation.service.util.TranslationChunker;
+
+/**
+ * Translation service decorator splitting large requests in chunks which respect the limits of the
+ * external service. The chunks are translated in parallel, with at most the configured
+ * parallelism, and the translations are written back into the original objects, so that the order
+ * of the results is preserved. The chunks which were not started before the request deadline
+ * expired are not sent to the external service anymore.
+ */
+public class ChunkedTranslationService implements TranslationService {
+
+  private static final int STATUS_GATEWAY_TIMEOUT = 504;
+
+  private final TranslationService translationService;
+  private final TranslationServiceLimits limits;
+  private final ExecutorService executor;
+  private final Logger logger = LogManager.getLogger(getClass());
+
+  /**
+   * Constructor
+   * @param translationService the service invoked for each chunk
+   * @param limits the limits of the service
+   * @param executor the executor used to translate the chunks in parallel
+   */
+  public ChunkedTranslationService(TranslationService translationService,
+      TranslationServiceLimits limits, ExecutorService executor) {
+    this.translationService = translationService;
+    this.limits = limits;
+    this.executor = executor;
+  }
+
+  @Override
+  public void translate(List<TranslationObj> translationObjs) throws TranslationException {
+    List<List<TranslationObj>> chunks = TranslationChunker.chunk(translationObjs, limits);
+    if (chunks.size() == 1) {
+      translationService.translate(translationObjs);
+      return;
+    }
+
+    if (logger.isDebugEnabled()) {
+      logger.debug("Translating {} texts in {} chunks with service {}", translationObjs.size(),
+          chunks.size(), getServiceId());
+    }
+
+    // the workers pick the next chunk from the list, the current thread is one of the workers
+    final AtomicInteger nextChunk = new AtomicInteger();
+    final AtomicBoolean failed = new AtomicBoolean();
+    final int workers = Math.min(limits.getParallelism(), chunks.size());
+    List<Future<Void>> futures = new ArrayList<>(workers - 1);
+    for (int i = 1; i < workers; i++) {
+      futures.add(executor.submit(Deadline.propagate(() -> {
+        translateChunks(chunks, nextChunk, failed);
+        return null;
+      })));
+    }
+
+    try {
+      translateChunks(chunks, nextChunk, failed);
+    } catch (TranslationException e) {
+      futures.forEach(future -> future.cancel(true));
+      throw e;
+    }
+    waitForChunks(futures);
+  }
+
+  /**
+   * The multi-target requests are passed to the wrapped service only if the texts fit into one
+   * chunk, the larger ones are translated target by target, in chunks
+   */
+  @Override
+  public void translateMultiTarget(Map<String, List<TranslationObj>> translationObjsByTarget)
+      throws TranslationException {
+    final List<TranslationObj> texts = translationObjsByTarget.values().iterator().next();
+    if (TranslationChunker.chunk(texts, limits).size() == 1) {
+      translationService.translateMultiTarget(translationObjsByTarget);
+    } else {
+      TranslationService.super.translateMultiTarget(translationObjsByTarget);
+    }
+  }
+
+  private void translateChunks(List<List<TranslationObj>> chunks, AtomicInteger nextChunk,
+      AtomicBoolean failed) throws TranslationException {
+    int chunk;
+    while (!failed.get() && (chunk = nextChunk.getAndIncrement()) < chunks.size()) {
+      try {
+        checkDeadline(chunk);
+        translationService.translate(chunks.get(chunk));
+      } catch (TranslationException | RuntimeException e) {
+        // stop the other workers, the whole translation fails anyway
+        failed.set(true);
+        throw e;
+      }
+    }
+  }
+
+  private void checkDeadline(int chunk) throws TranslationException {
+    try {
+      Deadline.checkCurrent("translation of chunk " + chunk);
+    } catch (DeadlineExceededException e) {
+      throw new TranslationException(e.getMessage(), STATUS_GATEWAY_TIMEOUT, e);
+    }
+  }
+
+  private void waitForChunks(List<Future<Void>> futures) throws TranslationException {
+    final Deadline deadline = Deadline.current();
+    for (Future<Void> future : futures) {
+      try {
+        if (deadline == null) {
+          future.get();
+        } else {
+          future.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+        }
+      } catch (TimeoutException e) {
+        // cancel the calls in progress, the response cannot be sent in time anyway
+        futures.forEach(f -> f.cancel(true));
+        final String msg = "Request deadline exceeded while waiting for the translation chunks!";
+        throw new TranslationException(msg, STATUS_GATEWAY_TIMEOUT,
+            new DeadlineExceededException(msg, deadline.getTimeoutMillis()));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        futures.forEach(f -> f.cancel(true));
+        throw new TranslationException("Interrupted while waiting for the translation chunks!");
+      } catch (ExecutionException e) {
+        futures.forEach(f -> f.cancel(true));
+        if (e.getCause() instanceof TranslationException) {
+          throw (TranslationException) e.getCause();
+        }
+        throw new TranslationException("Translation of chunk failed!", -1, e.getCause());
+      }
+    }
+  }
+
+  public TranslationService getTranslationService() {
+    return translationService;
+  }
+
+  public TranslationServiceLimits getLimits() {
+    return limits;
+  }
+
+  @Override
+  public String getServiceId() {
+    return translationService.getServiceId();
+  }
+
+  @Override
+  public void setServiceId(String serviceId) {
+    translationService.setServiceId(serviceId);
+  }
+
+  @Override
+  public boolean isSupported(String srcLang, String trgLang) {
+    return translationService.isSupported(srcLang, trgLang);
+  }
+
+  @Override
+  public boolean isAcceptedScore(String srcLang, double score) {
+    return translationService.isAcceptedScore(srcLang, score);
+  }
+
+  @Override
+  public void close() {
+    translationService.close();
+  }
+
+  @Override
+  public String getExternalServiceEndPoint() {
+    return translationService.getExternalServiceEndPoint();
+  }
+}
@@ -0,0 +1,119 @@
+package eu.europeana.api.translation.service;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import eu.europeana.api.translation.service.exception.BulkheadFullException;
+import eu.europeana.api.translation.service.exception.DeadlineExceededException;
+import eu.europeana.api.translation.service.util.Deadline;
+
+/**
+ * Limits the number of concurrent calls to an external service. Calls exceeding the limit wait in
+ * a bounded queue for at most the configured time, when the queue is full the calls are rejected
+ * immediately. This isolates the services from each other, so that a slow service cannot block all
+ * request threads of the application.
+ */
+public class ServiceBulkhead {
+
+  private final String name;
+  private final int maxConcurrent;
+  private final int maxQueue;
+  private final long maxWaitMillis;
+  private final Semaphore permits;
+  private final AtomicInteger queued = new AtomicInteger();
+  private final AtomicLong rejected = new AtomicLong();
+
+  /**
+   * Constructor
+   * 
+   * @param name the name of the bulkhead, used in error messages
+   * @param maxConcurrent max number of concurrent calls
+   * @param maxQueue max number of calls waiting for a permit
+   * @param maxWaitMillis max time to wait for a permit
+   */
+  public ServiceBulkhead(String name, int maxConcurrent, int maxQueue, long maxWaitMillis) {
+    this.name = name;
+    this.maxConcurrent = Math.max(maxConcurrent, 1);
+    this.maxQueue = Math.max(maxQueue, 0);
+    this.maxWaitMillis = Math.max(maxWaitMillis, 0);
+    this.permits = new Semaphore(this.maxConcurrent, true);
+  }
+
+  /**
+   * Acquires a permit for calling the service, the permit must be released after the call
+   * 
+   * @throws BulkheadFullException if no permit is available within the max wait time or the queue
+   *         is full
+   * @throws DeadlineExceededException if the deadline of the request expired before or while
+   *         waiting for a permit, the service is not saturated in this case
+   */
+  public void acquire() throws BulkheadFullException, DeadlineExceededException {
+    Deadline.checkCurrent("calling the service " + name);
+    if (permits.tryAcquire()) {
+      return;
+    }
+
+    if (queued.incrementAndGet() > maxQueue) {
+      queued.decrementAndGet();
+      throw reject("the wait queue is full");
+    }
+    try {
+      // do not wait longer than the remaining time budget of the request
+      final long waitMillis = Deadline.remainingMillis(maxWaitMillis);
+      if (!permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+        // waiting was cut short by the deadline, not by the max wait time
+        Deadline.checkCurrent("calling the service " + name);
+        throw reject("no permit available within " + waitMillis + " ms");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw reject("interrupted while waiting for a permit");
+    } finally {
+      queued.decrementAndGet();
+    }
+  }
+
+  public void release() {
+    permits.release();
+  }
+
+  private BulkheadFullException reject(String reason) {
+    rejected.incrementAndGet();
+    return new BulkheadFullException(
+        "The service " + name + " is saturated, " + reason + "!", getRetryAfterSeconds());
+  }
+
+  /**
+   * The time after which a rejected request should be retried, at least 1 second
+   * 
+   * @return the retry delay in seconds
+   */
+  public int getRetryAfterSeconds() {
+    return (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(maxWaitMillis + 999));
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  public int getMaxQueue() {
+    return maxQueue;
+  }
+
+  public int getActiveCalls() {
+    return maxConcurrent - permits.availablePermits();
+  }
+
+  public int getQueuedCalls() {
+    return queued.get();
+  }
+
+  public long getRejectedCalls() {
+    return rejected.get();
+  }
+}
@@ -1,6 +1,7 @@
 package eu.europeana.api.translation.service;
 
 import java.util.List;
+import java.util.Map;
 import eu.europeana.api.translation.definitions.model.TranslationObj;
 import eu.europeana.api.translation.service.exception.TranslationException;
 
@@ -33,7 +34,33 @@ public interface TranslationService {
    * @throws TranslationException
    */
   void translate(List<TranslationObj> translationStrings) throws TranslationException;
+
+  /**
+   * Translates the same texts into several target languages. The lists of all targets contain the
+   * objects for the same texts, in the same order. By default the targets are translated one after
+   * the other, the services accepting several target languages per request override this method.
+   * @param translationObjsByTarget the objects to translate, by target language
+   * @throws TranslationException if the translation fails for any of the targets
+   */
+  default void translateMultiTarget(Map<String, List<TranslationObj>> translationObjsByTarget)
+      throws TranslationException {
+    for (List<TranslationObj> translationObjs : translationObjsByTarget.values()) {
+      translate(translationObjs);
+    }
+  }
     
+  /**
+   * Verifies if a translation with the given quality score is good enough to be returned. It is
+   * applied when the translation is received and again when it is read from the cache, so the
+   * thresholds may change at runtime.
+   * @param srcLang the source language of the translation
+   * @param score the quality score returned by the provider
+   * @return true if the translation is accepted, by default all scores are accepted
+   */
+  default boolean isAcceptedScore(String srcLang, double score) {
+    return true;
+  }
+
   /**
    * to close the engine
    */
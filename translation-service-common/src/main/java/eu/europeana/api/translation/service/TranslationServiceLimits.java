@@ -0,0 +1,58 @@
+package eu.europeana.api.translation.service;
+
+/**
+ * Limits of an external translation service for one request, and the number of requests which
+ * may be sent in parallel when a translation must be split in multiple chunks. A value of 0
+ * indicates that the respective limit is not applicable.
+ */
+public class TranslationServiceLimits {
+
+  private final int maxItems;
+  private final int maxChars;
+  private final int maxBytes;
+  private final int parallelism;
+
+  /**
+   * Constructor
+   * @param maxItems max number of texts in one request
+   * @param maxChars max number of characters (sum over all texts) in one request
+   * @param maxBytes max number of bytes (sum over all UTF-8 encoded texts) in one request
+   * @param parallelism max number of requests sent in parallel for one translation
+   */
+  public TranslationServiceLimits(int maxItems, int maxChars, int maxBytes, int parallelism) {
+    this.maxItems = Math.max(maxItems, 0);
+    this.maxChars = Math.max(maxChars, 0);
+    this.maxBytes = Math.max(maxBytes, 0);
+    this.parallelism = Math.max(parallelism, 1);
+  }
+
+  public int getMaxItems() {
+    return maxItems;
+  }
+
+  public int getMaxChars() {
+    return maxChars;
+  }
+
+  public int getMaxBytes() {
+    return maxBytes;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Indicates if any limit is configured
+   * @return true if the translation requests need to be chunked
+   */
+  public boolean isLimited() {
+    return maxItems > 0 || maxChars > 0 || maxBytes > 0;
+  }
+
+  @Override
+  public String toString() {
+    return "maxItems=" + maxItems + ", maxChars=" + maxChars + ", maxBytes=" + maxBytes
+        + ", parallelism=" + parallelism;
+  }
+}
@@ -0,0 +1,26 @@
+package eu.europeana.api.translation.service.exception;
+
+/**
+ * Exception thrown when a service cannot accept more requests, as all concurrent calls allowed
+ * for the service are in progress and the wait queue is full (or the max wait time was exceeded)
+ */
+public class BulkheadFullException extends Exception {
+
+  private static final long serialVersionUID = 5419383418209416702L;
+  private final int retryAfterSeconds;
+
+  /**
+   * Constructor
+   * 
+   * @param msg the error message
+   * @param retryAfterSeconds the time after which the client may retry the request
+   */
+  public BulkheadFullException(String msg, int retryAfterSeconds) {
+    super(msg);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public int getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
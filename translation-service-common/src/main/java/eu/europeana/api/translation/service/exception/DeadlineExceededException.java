@@ -0,0 +1,26 @@
+package eu.europeana.api.translation.service.exception;
+
+/**
+ * Exception thrown when the deadline of a request expired before the processing was completed, the
+ * remaining work is cancelled
+ */
+public class DeadlineExceededException extends Exception {
+
+  private static final long serialVersionUID = -3196744612410287390L;
+  private final long timeoutMillis;
+
+  /**
+   * Constructor
+   *
+   * @param msg the error message
+   * @param timeoutMillis the time budget of the request
+   */
+  public DeadlineExceededException(String msg, long timeoutMillis) {
+    super(msg);
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  public long getTimeoutMillis() {
+    return timeoutMillis;
+  }
+}
@@ -0,0 +1,45 @@
+package eu.europeana.api.translation.service.exception;
+
+import java.util.Map;
+
+/**
+ * Exception thrown by the multi-target translations when some of the target languages failed, the
+ * translations of the other targets are available. The status and cause are the ones of the first
+ * failed target.
+ */
+public class MultiTargetTranslationException extends TranslationException {
+
+  private static final long serialVersionUID = 4718208370582713472L;
+  private final String serviceId;
+  private final transient Map<String, TranslationException> targetErrors;
+
+  /**
+   * Constructor
+   * @param msg the error message
+   * @param serviceId the id of the service which translated the other targets
+   * @param targetErrors the errors of the failed targets, by target language (not empty)
+   */
+  public MultiTargetTranslationException(String msg, String serviceId,
+      Map<String, TranslationException> targetErrors) {
+    super(msg, targetErrors.values().iterator().next().getRemoteStatusCode(),
+        targetErrors.values().iterator().next());
+    this.serviceId = serviceId;
+    this.targetErrors = targetErrors;
+  }
+
+  /**
+   * The service which produced the available translations
+   * @return the service id
+   */
+  public String getServiceId() {
+    return serviceId;
+  }
+
+  /**
+   * The errors of the failed targets
+   * @return the errors by target language
+   */
+  public Map<String, TranslationException> getTargetErrors() {
+    return targetErrors;
+  }
+}
@@ -0,0 +1,120 @@
+package eu.europeana.api.translation.service.http;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Non-blocking http transport, a single I/O reactor serves the requests of all services sharing
+ * the transport and the calling threads are not blocked while the requests are in progress. The
+ * requests are multiplexed over HTTP/2 when enabled and negotiated by the endpoint (i.e. TLS with
+ * ALPN), otherwise they are sent over pooled HTTP/1.1 connections. The returned futures are
+ * completed on the I/O threads, the continuations must not block.
+ */
+public class AsyncHttpTransport extends HttpTransport {
+
+  private static final Logger LOG = LogManager.getLogger(AsyncHttpTransport.class);
+
+  private final PoolingAsyncClientConnectionManager connectionManager;
+  private final CloseableHttpAsyncClient httpClient;
+
+  /**
+   * Creates and starts the transport
+   * @param config the pool, timeout and I/O settings
+   */
+  public AsyncHttpTransport(HttpTransportConfig config) {
+    super(config);
+    PoolingAsyncClientConnectionManagerBuilder poolBuilder =
+        PoolingAsyncClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(config.getMaxConnections())
+            .setMaxConnPerRoute(config.getMaxConnections())
+            .setValidateAfterInactivity(
+                TimeValue.ofMilliseconds(config.getValidateAfterInactivityMillisec()));
+    if (config.getConnectionTtlMillisec() > 0) {
+      poolBuilder.setConnectionTimeToLive(
+          TimeValue.ofMilliseconds(config.getConnectionTtlMillisec()));
+    }
+    this.connectionManager = poolBuilder.build();
+
+    IOReactorConfig.Builder ioReactorConfig = IOReactorConfig.custom().setSoKeepAlive(true);
+    if (config.getIoThreads() > 0) {
+      ioReactorConfig.setIoThreadCount(config.getIoThreads());
+    }
+    HttpAsyncClientBuilder clientBuilder = HttpAsyncClients.custom()
+        .setConnectionManager(connectionManager)
+        .setVersionPolicy(
+            config.isHttp2() ? HttpVersionPolicy.NEGOTIATE : HttpVersionPolicy.FORCE_HTTP_1)
+        .setIOReactorConfig(ioReactorConfig.build())
+        // the requests sent with deadline override these timeouts, see getRequestConfig(Deadline)
+        .setDefaultRequestConfig(getDefaultRequestConfig()).evictExpiredConnections();
+    if (config.getIdleEvictionMillisec() > 0) {
+      clientBuilder.evictIdleConnections(TimeValue.ofMilliseconds(config.getIdleEvictionMillisec()));
+    }
+    this.httpClient = clientBuilder.build();
+    httpClient.start();
+  }
+
+  /**
+   * Transport with the default settings, used by the services which are not given a shared one
+   * @return the started transport
+   */
+  public static AsyncHttpTransport withDefaults() {
+    return new AsyncHttpTransport(new HttpTransportConfig());
+  }
+
+  /**
+   * Sends the request without blocking
+   * @param request the request, including the body
+   * @return the future completed with the response, or with the error of the request
+   */
+  public CompletableFuture<SimpleHttpResponse> execute(SimpleHttpRequest request) {
+    CompletableFuture<SimpleHttpResponse> response = new CompletableFuture<>();
+    httpClient.execute(request, new FutureCallback<SimpleHttpResponse>() {
+      @Override
+      public void completed(SimpleHttpResponse result) {
+        response.complete(result);
+      }
+
+      @Override
+      public void failed(Exception ex) {
+        response.completeExceptionally(ex);
+      }
+
+      @Override
+      public void cancelled() {
+        response.completeExceptionally(
+            new CancellationException("Http request cancelled: " + request.getPath()));
+      }
+    });
+    return response;
+  }
+
+  @Override
+  public ConnPoolControl<HttpRoute> getConnectionPool() {
+    return connectionManager;
+  }
+
+  @Override
+  public void close() {
+    try {
+      httpClient.close(CloseMode.GRACEFUL);
+    } catch (RuntimeException e) {
+      LOG.error("Error closing the async http transport", e);
+    }
+  }
+}
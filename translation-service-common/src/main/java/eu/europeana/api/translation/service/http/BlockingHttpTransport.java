@@ -0,0 +1,88 @@
+package eu.europeana.api.translation.service.http;
+
+import java.io.IOException;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Http transport with pooled connections, the calling threads are blocked until the responses
+ * are received. Used by the services streaming large request bodies or requiring the
+ * authentication challenges of the classic client (e.g. digest auth).
+ */
+public class BlockingHttpTransport extends HttpTransport {
+
+  private static final Logger LOG = LogManager.getLogger(BlockingHttpTransport.class);
+
+  private final PoolingHttpClientConnectionManager connectionManager;
+  private final CloseableHttpClient httpClient;
+
+  /**
+   * Creates the transport
+   * @param config the pool and timeout settings
+   */
+  public BlockingHttpTransport(HttpTransportConfig config) {
+    super(config);
+    PoolingHttpClientConnectionManagerBuilder poolBuilder =
+        PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(config.getMaxConnections())
+            .setMaxConnPerRoute(config.getMaxConnections())
+            .setDefaultSocketConfig(SocketConfig.custom().setSoKeepAlive(true)
+                .setSoTimeout(Timeout.ofMilliseconds(config.getSocketTimeoutMillisec())).build())
+            .setValidateAfterInactivity(
+                TimeValue.ofMilliseconds(config.getValidateAfterInactivityMillisec()));
+    if (config.getConnectionTtlMillisec() > 0) {
+      poolBuilder.setConnectionTimeToLive(
+          TimeValue.ofMilliseconds(config.getConnectionTtlMillisec()));
+    }
+    this.connectionManager = poolBuilder.build();
+
+    HttpClientBuilder clientBuilder = HttpClients.custom().setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(getDefaultRequestConfig()).evictExpiredConnections();
+    if (config.getIdleEvictionMillisec() > 0) {
+      clientBuilder.evictIdleConnections(TimeValue.ofMilliseconds(config.getIdleEvictionMillisec()));
+    }
+    this.httpClient = clientBuilder.build();
+  }
+
+  /**
+   * Sends the request and waits for the response
+   * @param <T> the type of the result
+   * @param request the request, including the body
+   * @param context the execution context, e.g. holding the credentials and the auth cache
+   * @param responseHandler reads the response, the connection is returned to the pool afterwards
+   * @return the result of the response handler
+   * @throws IOException if the request fails or the response cannot be read
+   */
+  public <T> T execute(ClassicHttpRequest request, HttpContext context,
+      HttpClientResponseHandler<? extends T> responseHandler) throws IOException {
+    return httpClient.execute(request, context, responseHandler);
+  }
+
+  @Override
+  public ConnPoolControl<HttpRoute> getConnectionPool() {
+    return connectionManager;
+  }
+
+  @Override
+  public void close() {
+    try {
+      httpClient.close(CloseMode.GRACEFUL);
+    } catch (RuntimeException e) {
+      LOG.error("Error closing the http transport", e);
+    }
+  }
+}
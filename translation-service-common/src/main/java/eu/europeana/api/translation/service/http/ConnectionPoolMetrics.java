@@ -0,0 +1,57 @@
+package eu.europeana.api.translation.service.http;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exposes the usage of the connection pool of a {@link HttpTransport}: leased, available and
+ * pending connections and the pool limits. The meter names are the ones of the micrometer binder
+ * for the httpclient 4 pools (httpcomponents.httpclient.pool.*), tagged with the client name.
+ */
+public class ConnectionPoolMetrics implements MeterBinder {
+
+  private static final String PREFIX = "httpcomponents.httpclient.pool.";
+  private static final String TAG_CLIENT = "httpclient";
+  private static final String TAG_STATE = "state";
+
+  private final ConnPoolControl<HttpRoute> connectionPool;
+  private final Tags tags;
+
+  /**
+   * Constructor
+   * @param connectionPool the pool of the transport
+   * @param name the name of the client, e.g. the name of the external service
+   */
+  public ConnectionPoolMetrics(ConnPoolControl<HttpRoute> connectionPool, String name) {
+    this.connectionPool = connectionPool;
+    this.tags = Tags.of(TAG_CLIENT, name);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder(PREFIX + "total.max", connectionPool,
+        pool -> pool.getTotalStats().getMax())
+        .description("The configured maximum number of allowed persistent connections for all routes.")
+        .tags(tags).register(registry);
+    Gauge.builder(PREFIX + "total.connections", connectionPool,
+        pool -> pool.getTotalStats().getAvailable())
+        .description("The number of persistent and available connections for all routes.")
+        .tags(tags).tag(TAG_STATE, "available").register(registry);
+    Gauge.builder(PREFIX + "total.connections", connectionPool,
+        pool -> pool.getTotalStats().getLeased())
+        .description("The number of persistent and leased connections for all routes.")
+        .tags(tags).tag(TAG_STATE, "leased").register(registry);
+    Gauge.builder(PREFIX + "total.pending", connectionPool,
+        pool -> pool.getTotalStats().getPending())
+        .description("The number of connection requests being blocked awaiting a free connection for all routes.")
+        .tags(tags).register(registry);
+    Gauge.builder(PREFIX + "route.max.default", connectionPool,
+        ConnPoolControl::getDefaultMaxPerRoute)
+        .description("The configured default maximum number of allowed persistent connections per route.")
+        .tags(tags).register(registry);
+  }
+}
@@ -0,0 +1,66 @@
+package eu.europeana.api.translation.service.http;
+
+import java.io.Closeable;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.util.Timeout;
+import eu.europeana.api.translation.service.util.Deadline;
+
+/**
+ * Base class of the pooled http transports shared by the services calling external http
+ * endpoints. The pool size, the timeouts and the eviction of the connections are configured with
+ * {@link HttpTransportConfig}, the pool usage is exposed with {@link ConnectionPoolMetrics}.
+ */
+public abstract class HttpTransport implements Closeable {
+
+  protected final HttpTransportConfig config;
+
+  protected HttpTransport(HttpTransportConfig config) {
+    this.config = config;
+  }
+
+  /**
+   * The timeouts applied to the requests sent without deadline
+   * @return the default request config
+   */
+  protected RequestConfig getDefaultRequestConfig() {
+    return getRequestConfig(Long.MAX_VALUE);
+  }
+
+  /**
+   * The configured timeouts, limited to the time remaining until the given deadline
+   * @param deadline the deadline of the api request, may be null
+   * @return the request config
+   */
+  public RequestConfig getRequestConfig(Deadline deadline) {
+    return deadline == null ? getDefaultRequestConfig()
+        : getRequestConfig(deadline.remainingMillis());
+  }
+
+  private RequestConfig getRequestConfig(long maxMillis) {
+    return RequestConfig.custom()
+        .setConnectTimeout(toTimeout(config.getConnectTimeoutMillisec(), maxMillis))
+        .setConnectionRequestTimeout(
+            toTimeout(config.getConnectionRequestTimeoutMillisec(), maxMillis))
+        .setResponseTimeout(toTimeout(config.getSocketTimeoutMillisec(), maxMillis)).build();
+  }
+
+  private static Timeout toTimeout(long configuredMillis, long maxMillis) {
+    // 0 means infinite timeout for the http client
+    return Timeout.ofMilliseconds(Math.max(Math.min(configuredMillis, maxMillis), 1));
+  }
+
+  /**
+   * The connection pool of the transport, e.g. for exposing the pool metrics
+   * @return the connection manager
+   */
+  public abstract ConnPoolControl<HttpRoute> getConnectionPool();
+
+  public HttpTransportConfig getConfig() {
+    return config;
+  }
+
+  @Override
+  public abstract void close();
+}
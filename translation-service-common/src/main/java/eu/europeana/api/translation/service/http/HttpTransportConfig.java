@@ -0,0 +1,132 @@
+package eu.europeana.api.translation.service.http;
+
+/**
+ * Settings of the http transports used for calling the external services: size of the connection
+ * pool, connect/read/pool-acquire timeouts and the eviction of the idle and expired connections
+ */
+public class HttpTransportConfig {
+
+  public static final int DEFAULT_MAX_CONNECTIONS = 100;
+  public static final long DEFAULT_CONNECT_TIMEOUT_MILLISEC = 5000;
+  public static final long DEFAULT_SOCKET_TIMEOUT_MILLISEC = 60000;
+  public static final long DEFAULT_CONNECTION_REQUEST_TIMEOUT_MILLISEC = 5000;
+  public static final long DEFAULT_CONNECTION_TTL_MILLISEC = 300000;
+  public static final long DEFAULT_IDLE_EVICTION_MILLISEC = 30000;
+  public static final long DEFAULT_VALIDATE_AFTER_INACTIVITY_MILLISEC = 2000;
+
+  private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+  private long connectTimeoutMillisec = DEFAULT_CONNECT_TIMEOUT_MILLISEC;
+  private long socketTimeoutMillisec = DEFAULT_SOCKET_TIMEOUT_MILLISEC;
+  private long connectionRequestTimeoutMillisec = DEFAULT_CONNECTION_REQUEST_TIMEOUT_MILLISEC;
+  private long connectionTtlMillisec = DEFAULT_CONNECTION_TTL_MILLISEC;
+  private long idleEvictionMillisec = DEFAULT_IDLE_EVICTION_MILLISEC;
+  private long validateAfterInactivityMillisec = DEFAULT_VALIDATE_AFTER_INACTIVITY_MILLISEC;
+  private int ioThreads;
+  private boolean http2 = true;
+
+  /**
+   * Max size of the connection pool, all connections may be used for the same endpoint
+   * @return the max number of connections
+   */
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  public void setMaxConnections(int maxConnections) {
+    this.maxConnections = maxConnections;
+  }
+
+  public long getConnectTimeoutMillisec() {
+    return connectTimeoutMillisec;
+  }
+
+  public void setConnectTimeoutMillisec(long connectTimeoutMillisec) {
+    this.connectTimeoutMillisec = connectTimeoutMillisec;
+  }
+
+  /**
+   * Max time to wait for the response data, also used by the async transport as response timeout
+   * @return the read timeout in milliseconds
+   */
+  public long getSocketTimeoutMillisec() {
+    return socketTimeoutMillisec;
+  }
+
+  public void setSocketTimeoutMillisec(long socketTimeoutMillisec) {
+    this.socketTimeoutMillisec = socketTimeoutMillisec;
+  }
+
+  /**
+   * Max time to wait for a connection from the pool when all connections are leased
+   * @return the pool acquire timeout in milliseconds
+   */
+  public long getConnectionRequestTimeoutMillisec() {
+    return connectionRequestTimeoutMillisec;
+  }
+
+  public void setConnectionRequestTimeoutMillisec(long connectionRequestTimeoutMillisec) {
+    this.connectionRequestTimeoutMillisec = connectionRequestTimeoutMillisec;
+  }
+
+  /**
+   * The pooled connections are not reused after this time, they are closed when released or
+   * evicted. The connections in use are not closed, their requests are completed
+   * @return the time to live in milliseconds, 0 for unlimited
+   */
+  public long getConnectionTtlMillisec() {
+    return connectionTtlMillisec;
+  }
+
+  public void setConnectionTtlMillisec(long connectionTtlMillisec) {
+    this.connectionTtlMillisec = connectionTtlMillisec;
+  }
+
+  /**
+   * The pooled connections are closed by a background thread when idle for this time
+   * @return the max idle time in milliseconds, 0 to disable the eviction
+   */
+  public long getIdleEvictionMillisec() {
+    return idleEvictionMillisec;
+  }
+
+  public void setIdleEvictionMillisec(long idleEvictionMillisec) {
+    this.idleEvictionMillisec = idleEvictionMillisec;
+  }
+
+  /**
+   * The pooled connections idle for this time are checked before reuse, as they may have been
+   * closed by the server meanwhile
+   * @return the inactivity time in milliseconds
+   */
+  public long getValidateAfterInactivityMillisec() {
+    return validateAfterInactivityMillisec;
+  }
+
+  public void setValidateAfterInactivityMillisec(long validateAfterInactivityMillisec) {
+    this.validateAfterInactivityMillisec = validateAfterInactivityMillisec;
+  }
+
+  /**
+   * Number of I/O threads of the async transport
+   * @return the number of threads, the number of processors is used if not positive
+   */
+  public int getIoThreads() {
+    return ioThreads;
+  }
+
+  public void setIoThreads(int ioThreads) {
+    this.ioThreads = ioThreads;
+  }
+
+  /**
+   * Negotiate HTTP/2 with the endpoints (async transport only, requires TLS with ALPN)
+   * @return true if HTTP/2 is enabled
+   */
+  public boolean isHttp2() {
+    return http2;
+  }
+
+  public void setHttp2(boolean http2) {
+    this.http2 = http2;
+  }
+}
@@ -0,0 +1,144 @@
+package eu.europeana.api.translation.service.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import eu.europeana.api.translation.service.exception.DeadlineExceededException;
+
+/**
+ * The point in time until which a request must be completed. The deadline of the request in
+ * progress is bound to the current thread, so that the services can adapt their timeouts to the
+ * remaining time budget without changing their interfaces. The tasks submitted to executors must
+ * be wrapped with {@link #propagate(Callable)} or {@link #propagate(Runnable)} to keep the
+ * deadline of the submitting thread.
+ */
+public final class Deadline {
+
+  private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+  private final long timeoutMillis;
+  private final long expiresAtNanos;
+
+  private Deadline(long timeoutMillis) {
+    this.timeoutMillis = timeoutMillis;
+    this.expiresAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+  }
+
+  /**
+   * Creates a new deadline
+   * @param timeoutMillis the time budget, starting now
+   * @return the deadline
+   */
+  public static Deadline after(long timeoutMillis) {
+    return new Deadline(Math.max(timeoutMillis, 0));
+  }
+
+  /**
+   * Returns the deadline bound to the current thread
+   * @return the deadline or null if the current thread does not process a request with deadline
+   */
+  public static Deadline current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Limits the given timeout to the time remaining until the deadline of the current thread
+   * @param timeoutMillis the timeout configured for the operation
+   * @return the smaller of the given timeout and the remaining time (0 if the deadline expired)
+   */
+  public static long remainingMillis(long timeoutMillis) {
+    Deadline deadline = current();
+    if (deadline == null) {
+      return timeoutMillis;
+    }
+    return Math.min(timeoutMillis, deadline.remainingMillis());
+  }
+
+  /**
+   * Verifies that the deadline of the current thread did not expire
+   * @param operation the operation which is about to start, used in the error message
+   * @throws DeadlineExceededException if the deadline expired
+   */
+  public static void checkCurrent(String operation) throws DeadlineExceededException {
+    Deadline deadline = current();
+    if (deadline != null && deadline.isExpired()) {
+      throw new DeadlineExceededException(
+          "Request deadline of " + deadline.getTimeoutMillis() + " ms exceeded before: " + operation,
+          deadline.getTimeoutMillis());
+    }
+  }
+
+  /**
+   * Binds this deadline to the current thread
+   * @return the scope which must be closed to restore the previous deadline of the thread
+   */
+  public Scope attach() {
+    final Deadline previous = CURRENT.get();
+    CURRENT.set(this);
+    return () -> {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    };
+  }
+
+  /**
+   * Wraps the task so that it is executed with the deadline of the current thread
+   * @param task the task to submit to an executor
+   * @return the wrapped task, or the task itself if the current thread has no deadline
+   */
+  public static <T> Callable<T> propagate(Callable<T> task) {
+    final Deadline deadline = current();
+    if (deadline == null) {
+      return task;
+    }
+    return () -> {
+      try (Scope scope = deadline.attach()) {
+        return task.call();
+      }
+    };
+  }
+
+  /**
+   * Wraps the task so that it is executed with the deadline of the current thread
+   * @param task the task to submit to an executor
+   * @return the wrapped task, or the task itself if the current thread has no deadline
+   */
+  public static Runnable propagate(Runnable task) {
+    final Deadline deadline = current();
+    if (deadline == null) {
+      return task;
+    }
+    return () -> {
+      try (Scope scope = deadline.attach()) {
+        task.run();
+      }
+    };
+  }
+
+  public long getTimeoutMillis() {
+    return timeoutMillis;
+  }
+
+  /**
+   * Computes the remaining time budget
+   * @return the remaining time in milliseconds, 0 if the deadline expired
+   */
+  public long remainingMillis() {
+    return Math.max(TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime()), 0);
+  }
+
+  public boolean isExpired() {
+    return expiresAtNanos - System.nanoTime() <= 0;
+  }
+
+  /**
+   * Binding of a deadline to the current thread, to be used in try-with-resources blocks
+   */
+  @FunctionalInterface
+  public interface Scope extends AutoCloseable {
+    @Override
+    void close();
+  }
+}
@@ -0,0 +1,105 @@
+package eu.europeana.api.translation.service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+import eu.europeana.api.translation.service.TranslationServiceLimits;
+
+/**
+ * Splits the translation objects in chunks respecting the limits of the translation services. The
+ * texts are distributed over the minimal number of chunks needed to respect all limits, while the
+ * size of the chunks is balanced so that the chunks can be translated in similar time. The chunks
+ * are contiguous sub lists, therefore the original order of the texts is preserved.
+ */
+public class TranslationChunker {
+
+  private TranslationChunker() {
+  }
+
+  /**
+   * Splits the given list in chunks
+   *
+   * @param translationObjs the objects to translate
+   * @param limits the limits of the translation service
+   * @return the list of chunks, or a list containing only the input list if no split is needed
+   */
+  public static List<List<TranslationObj>> chunk(List<TranslationObj> translationObjs,
+      TranslationServiceLimits limits) {
+    final int size = translationObjs.size();
+    if (size <= 1 || !limits.isLimited()) {
+      return Collections.singletonList(translationObjs);
+    }
+
+    final int[] chars = new int[size];
+    final int[] bytes = new int[size];
+    long totalChars = 0;
+    long totalBytes = 0;
+    for (int i = 0; i < size; i++) {
+      final String text = translationObjs.get(i).getText();
+      chars[i] = text == null ? 0 : text.length();
+      totalChars += chars[i];
+      // counting the bytes requires encoding, do it only if needed
+      if (limits.getMaxBytes() > 0 && text != null) {
+        bytes[i] = text.getBytes(StandardCharsets.UTF_8).length;
+        totalBytes += bytes[i];
+      }
+    }
+
+    // minimal number of chunks required by each limit
+    long chunks = Math.max(ceilDiv(size, limits.getMaxItems()),
+        Math.max(ceilDiv(totalChars, limits.getMaxChars()),
+            ceilDiv(totalBytes, limits.getMaxBytes())));
+    if (chunks <= 1) {
+      return Collections.singletonList(translationObjs);
+    }
+
+    // balanced targets, never larger than the limits
+    final double targetItems = (double) size / chunks;
+    final double targetChars = (double) totalChars / chunks;
+    final double targetBytes = (double) totalBytes / chunks;
+
+    List<List<TranslationObj>> result = new ArrayList<>((int) chunks + 1);
+    int start = 0;
+    int chunkChars = 0;
+    int chunkBytes = 0;
+    for (int i = 0; i < size; i++) {
+      final int chunkItems = i - start;
+      if (chunkItems > 0 && (exceedsLimits(limits, chunkItems + 1, chunkChars + chars[i],
+          chunkBytes + bytes[i])
+          || isBalanced(chunkItems, targetItems, chunkChars, targetChars, chunkBytes,
+              targetBytes))) {
+        result.add(translationObjs.subList(start, i));
+        start = i;
+        chunkChars = 0;
+        chunkBytes = 0;
+      }
+      chunkChars += chars[i];
+      chunkBytes += bytes[i];
+    }
+    result.add(translationObjs.subList(start, size));
+    return result;
+  }
+
+  private static boolean exceedsLimits(TranslationServiceLimits limits, int items, long chars,
+      long bytes) {
+    return (limits.getMaxItems() > 0 && items > limits.getMaxItems())
+        || (limits.getMaxChars() > 0 && chars > limits.getMaxChars())
+        || (limits.getMaxBytes() > 0 && bytes > limits.getMaxBytes());
+  }
+
+  private static boolean isBalanced(int items, double targetItems, long chars, double targetChars,
+      long bytes, double targetBytes) {
+    // the chunk is full when it reached its share for the dominant dimension
+    return items >= targetItems || (targetChars > 0 && chars >= targetChars)
+        || (targetBytes > 0 && bytes >= targetBytes);
+  }
+
+  private static long ceilDiv(long value, int limit) {
+    if (limit <= 0) {
+      return 1;
+    }
+    return (value + limit - 1) / limit;
+  }
+}
@@ -0,0 +1,134 @@
+package eu.europeana.api.translation.service.etranslation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.Topic;
+
+/**
+ * Registry of the eTranslation requests waiting for their callback. The eTranslation callbacks may
+ * be received by any instance of the API, they are published to redis on the channel named after
+ * the external reference of the request. Each instance subscribes once to all eTranslation channels
+ * (see {@link #TOPIC}) and completes the pending future registered for the reference, the messages
+ * for references registered by other instances are ignored. The messages are the plain UTF-8 bytes
+ * of the callback content. The jobs having several target languages receive one callback per
+ * language, these are published on the target channels of the job (see {@link #callbackChannel}).
+ */
+public class ETranslationCallbackRegistry implements MessageListener {
+
+  private static final Logger LOGGER = LogManager.getLogger(ETranslationCallbackRegistry.class);
+  public static final String CHANNEL_PREFIX = "et:";
+  // the multi-target references are recognized by the callback controller
+  public static final String MULTI_TARGET_PREFIX = CHANNEL_PREFIX + "mt:";
+  public static final Topic TOPIC = new PatternTopic(CHANNEL_PREFIX + "*");
+
+  private final Map<String, CompletableFuture<String>> pendingCallbacks =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Generates a new external reference, unique across requests and instances, which is also used as
+   * channel name for the callback
+   * @return the external reference
+   */
+  public String newExternalReference() {
+    return CHANNEL_PREFIX + UUID.randomUUID();
+  }
+
+  /**
+   * Generates a new external reference for a job with several target languages, the callbacks of
+   * each language are awaited on separate channels
+   * @return the external reference
+   */
+  public String newMultiTargetReference() {
+    return MULTI_TARGET_PREFIX + UUID.randomUUID();
+  }
+
+  /**
+   * The channel on which the callback of the given target language is published, which is the
+   * external reference itself for the jobs with a single target language
+   * @param externalReference the external reference of the eTranslation request
+   * @param targetLang the target language of the callback, may be null
+   * @return the channel name
+   */
+  public static String callbackChannel(String externalReference, String targetLang) {
+    if (targetLang == null || !externalReference.startsWith(MULTI_TARGET_PREFIX)) {
+      return externalReference;
+    }
+    return externalReference + ":" + targetLang.toUpperCase(Locale.ENGLISH);
+  }
+
+  /**
+   * Registers a request waiting for its callback. The caller must unregister the reference if the
+   * callback is not awaited anymore (e.g. on timeout).
+   * @param externalReference the external reference of the eTranslation request
+   * @return the future completed with the content of the callback
+   */
+  public CompletableFuture<String> register(String externalReference) {
+    CompletableFuture<String> callback = new CompletableFuture<>();
+    pendingCallbacks.put(externalReference, callback);
+    return callback;
+  }
+
+  /**
+   * Removes the request from the registry, the callbacks received later are ignored
+   * @param externalReference the external reference of the eTranslation request
+   */
+  public void unregister(String externalReference) {
+    pendingCallbacks.remove(externalReference);
+  }
+
+  /**
+   * The references of the requests waiting for their callback in this instance
+   * @return a view of the pending references
+   */
+  public Set<String> getPendingReferences() {
+    return pendingCallbacks.keySet();
+  }
+
+  public int getPendingCount() {
+    return pendingCallbacks.size();
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    final String externalReference = new String(message.getChannel(), StandardCharsets.UTF_8);
+    final CompletableFuture<String> callback = pendingCallbacks.remove(externalReference);
+    if (callback == null && externalReference.startsWith(MULTI_TARGET_PREFIX)) {
+      // the error callbacks without target languages are sent once for all targets of the job,
+      // the errors of single targets are published on their own channels
+      completeAllTargets(externalReference, message.getBody());
+      return;
+    }
+    if (callback == null) {
+      // registered by another instance, or no longer awaited
+      if (LOGGER.isTraceEnabled()) {
+        LOGGER.trace("Ignoring eTranslation callback for reference: {}", externalReference);
+      }
+      return;
+    }
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("eTranslation callback received for reference: {}", externalReference);
+    }
+    callback.complete(new String(message.getBody(), StandardCharsets.UTF_8));
+  }
+
+  private void completeAllTargets(String externalReference, byte[] body) {
+    final String targetChannelPrefix = externalReference + ":";
+    final String content = new String(body, StandardCharsets.UTF_8);
+    for (Map.Entry<String, CompletableFuture<String>> pending : pendingCallbacks.entrySet()) {
+      if (pending.getKey().startsWith(targetChannelPrefix)
+          && pendingCallbacks.remove(pending.getKey(), pending.getValue())) {
+        pending.getValue().complete(content);
+      }
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package eu.europeana.api.translation.service.etranslation;
+
+import eu.europeana.api.translation.service.http.HttpTransportConfig;
+
+/**
+ * Settings of the eTranslation client: connection pool and timeouts of the http transport used for
+ * submitting the requests, the multiplexing of concurrent requests into shared documents and the
+ * splitting of large requests into parallel jobs
+ */
+public class ETranslationClientConfig extends HttpTransportConfig {
+
+  public static final int DEFAULT_MAX_CONNECTIONS = 20;
+  public static final long DEFAULT_SOCKET_TIMEOUT_MILLISEC = 30000;
+  public static final long DEFAULT_CONNECTION_TTL_MILLISEC = 60000;
+  public static final long DEFAULT_MULTIPLEX_WINDOW_MILLISEC = 0;
+  public static final int DEFAULT_MAX_DOCUMENT_CHARS =
+      ETranslationTranslationService.ETRANSLATION_SNIPPET_LIMIT;
+  public static final int DEFAULT_MAX_PARALLEL_JOBS = 0;
+
+  private long multiplexWindowMillisec = DEFAULT_MULTIPLEX_WINDOW_MILLISEC;
+  private int maxDocumentChars = DEFAULT_MAX_DOCUMENT_CHARS;
+  private int maxParallelJobs = DEFAULT_MAX_PARALLEL_JOBS;
+
+  public ETranslationClientConfig() {
+    // the requests are submitted to a single endpoint, which responds quickly with the request id
+    setMaxConnections(DEFAULT_MAX_CONNECTIONS);
+    setSocketTimeoutMillisec(DEFAULT_SOCKET_TIMEOUT_MILLISEC);
+    setConnectionTtlMillisec(DEFAULT_CONNECTION_TTL_MILLISEC);
+  }
+
+  /**
+   * The concurrent requests for the same language pair received within this time are sent as one
+   * document, 0 to send each request separately
+   * @return the multiplexing window in milliseconds
+   */
+  public long getMultiplexWindowMillisec() {
+    return multiplexWindowMillisec;
+  }
+
+  public void setMultiplexWindowMillisec(long multiplexWindowMillisec) {
+    this.multiplexWindowMillisec = multiplexWindowMillisec;
+  }
+
+  /**
+   * Max size of the multiplexed documents, including the delimiters between the texts. The size is
+   * capped at the snippet limit, the shared documents are sent as text snippets.
+   * @return the max number of characters
+   */
+  public int getMaxDocumentChars() {
+    return maxDocumentChars;
+  }
+
+  public void setMaxDocumentChars(int maxDocumentChars) {
+    this.maxDocumentChars = maxDocumentChars;
+  }
+
+  /**
+   * The requests exceeding the snippet limit are split into text snippet jobs, of which at most
+   * this number is running at a time for one request. With 0, such requests are sent as one
+   * document.
+   * @return the max number of parallel jobs per request
+   */
+  public int getMaxParallelJobs() {
+    return maxParallelJobs;
+  }
+
+  public void setMaxParallelJobs(int maxParallelJobs) {
+    this.maxParallelJobs = maxParallelJobs;
+  }
+}
@@ -0,0 +1,140 @@
+package eu.europeana.api.translation.service.etranslation;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+
+/**
+ * Request entity of the eTranslation document requests. The texts are joined and base64 encoded
+ * while the entity is written to the connection, so that neither the joined text nor its encoding
+ * are held in memory. The content length is computed upfront (the base64 encoded size of the UTF-8
+ * bytes), the entity can be written several times, e.g. after the digest auth challenge.
+ */
+final class ETranslationDocumentEntity extends AbstractHttpEntity {
+
+  private static final byte[] DELIMITER =
+      ETranslationTranslationService.MARKUP_DELIMITER.getBytes(StandardCharsets.UTF_8);
+  private static final int WRITER_BUFFER_SIZE = 8192;
+
+  private final byte[] head;
+  private final byte[] tail;
+  private final List<TranslationObj> translationObjs;
+  private final long contentLength;
+
+  /**
+   * Constructor
+   * @param jsonHead the json request up to the opening quote of the document content
+   * @param jsonTail the json request after the closing quote of the document content
+   * @param translationObjs the texts of the document
+   */
+  ETranslationDocumentEntity(String jsonHead, String jsonTail,
+      List<TranslationObj> translationObjs) {
+    super(ContentType.APPLICATION_JSON, null);
+    this.head = jsonHead.getBytes(StandardCharsets.UTF_8);
+    this.tail = jsonTail.getBytes(StandardCharsets.UTF_8);
+    this.translationObjs = translationObjs;
+    long documentBytes = (long) (translationObjs.size() - 1) * DELIMITER.length;
+    for (TranslationObj translationObj : translationObjs) {
+      documentBytes += utf8Length(translationObj.getText());
+    }
+    this.contentLength = head.length + 4 * ((documentBytes + 2) / 3) + tail.length;
+  }
+
+  /**
+   * Number of bytes written by an UTF-8 writer, the unpaired surrogates are replaced by '?'
+   */
+  static long utf8Length(String text) {
+    long bytes = 0;
+    for (int i = 0; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      if (c < 0x80) {
+        bytes++;
+      } else if (c < 0x800) {
+        bytes += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+          && Character.isLowSurrogate(text.charAt(i + 1))) {
+        bytes += 4;
+        i++;
+      } else if (Character.isSurrogate(c)) {
+        bytes++;
+      } else {
+        bytes += 3;
+      }
+    }
+    return bytes;
+  }
+
+  @Override
+  public void writeTo(OutputStream outStream) throws IOException {
+    outStream.write(head);
+    // closing the writer completes the base64 encoding, but must not close the connection
+    try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+        Base64.getEncoder().wrap(new NonClosingOutputStream(outStream)), StandardCharsets.UTF_8),
+        WRITER_BUFFER_SIZE)) {
+      for (int i = 0; i < translationObjs.size(); i++) {
+        if (i > 0) {
+          writer.write(ETranslationTranslationService.MARKUP_DELIMITER);
+        }
+        writer.write(translationObjs.get(i).getText());
+      }
+    }
+    outStream.write(tail);
+    outStream.flush();
+  }
+
+  @Override
+  public InputStream getContent() throws IOException {
+    // not used by the http client, only for completeness of the entity contract
+    ByteArrayOutputStream content = new ByteArrayOutputStream((int) contentLength);
+    writeTo(content);
+    return new ByteArrayInputStream(content.toByteArray());
+  }
+
+  @Override
+  public long getContentLength() {
+    return contentLength;
+  }
+
+  @Override
+  public boolean isRepeatable() {
+    return true;
+  }
+
+  @Override
+  public boolean isStreaming() {
+    return false;
+  }
+
+  @Override
+  public void close() {
+    // the texts are kept by the translation objects, nothing to release
+  }
+
+  private static final class NonClosingOutputStream extends FilterOutputStream {
+    NonClosingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
+  }
+}
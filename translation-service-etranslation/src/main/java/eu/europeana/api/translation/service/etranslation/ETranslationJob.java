@@ -0,0 +1,53 @@
+package eu.europeana.api.translation.service.etranslation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+import eu.europeana.api.translation.service.exception.TranslationException;
+
+/**
+ * The metadata of a submitted eTranslation job, as stored by {@link ETranslationJobStore}
+ */
+public class ETranslationJob {
+
+  private final boolean asDocument;
+  private final int segmentCount;
+  private final Map<Integer, TranslationObj> cachedSegments;
+
+  ETranslationJob(boolean asDocument, int segmentCount,
+      Map<Integer, TranslationObj> cachedSegments) {
+    this.asDocument = asDocument;
+    this.segmentCount = segmentCount;
+    this.cachedSegments = cachedSegments;
+  }
+
+  /**
+   * Extracts the translations of the cacheable segments from the content of the callback
+   * @param response the content of the eTranslation callback
+   * @return the cacheable segments, with the translations filled in
+   * @throws TranslationException if the response does not match the segments of the job
+   */
+  public List<TranslationObj> fillTranslations(String response) throws TranslationException {
+    final List<String> translations =
+        ETranslationTranslationService.extractTranslations(response, asDocument);
+    if (translations.size() != segmentCount) {
+      throw new TranslationException(
+          "The eTranslation response and the stored job have different size.");
+    }
+    List<TranslationObj> segments = new ArrayList<>(cachedSegments.size());
+    for (Map.Entry<Integer, TranslationObj> entry : cachedSegments.entrySet()) {
+      entry.getValue().setTranslation(translations.get(entry.getKey()));
+      segments.add(entry.getValue());
+    }
+    return segments;
+  }
+
+  public boolean isAsDocument() {
+    return asDocument;
+  }
+
+  public int getSegmentCount() {
+    return segmentCount;
+  }
+}
@@ -0,0 +1,110 @@
+package eu.europeana.api.translation.service.etranslation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+
+/**
+ * Keeps the metadata of the submitted eTranslation jobs in redis, so that the callbacks received
+ * after the caller stopped waiting (or by another instance) can still be written into the
+ * translation cache. Only the segments having a cache key are stored, the jobs without cacheable
+ * segments are not stored at all.
+ */
+public class ETranslationJobStore {
+
+  private static final Logger LOGGER = LogManager.getLogger(ETranslationJobStore.class);
+  static final String KEY_PREFIX = "translation:etranslation:job:";
+  static final String FIELD_SOURCE_LANG = "src";
+  static final String FIELD_TARGET_LANG = "trg";
+  static final String FIELD_DOCUMENT = "doc";
+  static final String FIELD_SEGMENTS = "n";
+  static final String FIELD_TEXT_PREFIX = "t";
+  static final String FIELD_CACHE_KEY_PREFIX = "k";
+
+  private final StringRedisTemplate redisTemplate;
+  private final long ttlMillis;
+
+  /**
+   * Constructor
+   * @param redisTemplate the template used for storing the jobs
+   * @param ttlMillis the time after which the jobs without callback are removed from redis
+   */
+  public ETranslationJobStore(StringRedisTemplate redisTemplate, long ttlMillis) {
+    this.redisTemplate = redisTemplate;
+    this.ttlMillis = ttlMillis;
+  }
+
+  /**
+   * Stores the metadata of a submitted job. The failures are only logged, the translation request
+   * does not depend on the stored metadata.
+   * @param externalReference the external reference of the eTranslation request
+   * @param translationObjs the segments sent for translation, in the order of the request
+   * @param asDocument true if the segments were sent as document
+   */
+  public void save(String externalReference, List<TranslationObj> translationObjs,
+      boolean asDocument) {
+    Map<String, String> fields = new HashMap<>();
+    for (int i = 0; i < translationObjs.size(); i++) {
+      final TranslationObj translationObj = translationObjs.get(i);
+      if (translationObj.getCacheKey() != null) {
+        fields.put(FIELD_TEXT_PREFIX + i, translationObj.getText());
+        fields.put(FIELD_CACHE_KEY_PREFIX + i, translationObj.getCacheKey());
+      }
+    }
+    if (fields.isEmpty()) {
+      return;
+    }
+    fields.put(FIELD_SOURCE_LANG, translationObjs.get(0).getSourceLang());
+    fields.put(FIELD_TARGET_LANG, translationObjs.get(0).getTargetLang());
+    fields.put(FIELD_DOCUMENT, String.valueOf(asDocument));
+    fields.put(FIELD_SEGMENTS, String.valueOf(translationObjs.size()));
+
+    final String key = KEY_PREFIX + externalReference;
+    try {
+      redisTemplate.opsForHash().putAll(key, fields);
+      redisTemplate.expire(key, ttlMillis, TimeUnit.MILLISECONDS);
+    } catch (RuntimeException e) {
+      LOGGER.warn("Cannot store the eTranslation job metadata for reference: {}",
+          externalReference, e);
+    }
+  }
+
+  /**
+   * Reads and removes the metadata of a job
+   * @param externalReference the external reference of the eTranslation request
+   * @return the job, or null if it was not stored or has already been removed
+   */
+  public ETranslationJob remove(String externalReference) {
+    final String key = KEY_PREFIX + externalReference;
+    HashOperations<String, String, String> hashOps = redisTemplate.opsForHash();
+    Map<String, String> fields = hashOps.entries(key);
+    if (fields.isEmpty()) {
+      return null;
+    }
+    redisTemplate.delete(key);
+
+    final String sourceLang = fields.get(FIELD_SOURCE_LANG);
+    final String targetLang = fields.get(FIELD_TARGET_LANG);
+    final int segmentCount = Integer.parseInt(fields.get(FIELD_SEGMENTS));
+    Map<Integer, TranslationObj> cachedSegments = new HashMap<>();
+    for (int i = 0; i < segmentCount; i++) {
+      final String cacheKey = fields.get(FIELD_CACHE_KEY_PREFIX + i);
+      if (cacheKey != null) {
+        TranslationObj segment = new TranslationObj();
+        segment.setText(fields.get(FIELD_TEXT_PREFIX + i));
+        segment.setSourceLang(sourceLang);
+        segment.setTargetLang(targetLang);
+        segment.setCacheKey(cacheKey);
+        cachedSegments.put(i, segment);
+      }
+    }
+    return new ETranslationJob(Boolean.parseBoolean(fields.get(FIELD_DOCUMENT)), segmentCount,
+        cachedSegments);
+  }
+}
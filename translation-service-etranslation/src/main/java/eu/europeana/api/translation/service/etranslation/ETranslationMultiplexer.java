@@ -0,0 +1,198 @@
+package eu.europeana.api.translation.service.etranslation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import eu.europeana.api.translation.definitions.language.LanguagePair;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+import eu.europeana.api.translation.service.exception.TranslationException;
+
+/**
+ * Joins the concurrent eTranslation requests for the same language pair into shared documents, as
+ * the per job overhead of eTranslation is much higher than the translation time of the texts. The
+ * requests received within the multiplexing window are appended to the open document of their
+ * language pair (using the {@link ETranslationTranslationService#MARKUP_DELIMITER}), which is
+ * submitted as one job when the window ends or when the next request would exceed the max document
+ * size. The documents are submitted with copies of the translation objects, the translated copies
+ * are handed back through the futures of the callers, which fill their own objects only if they
+ * are still waiting. The callers which gave up (e.g. on timeout) before the submission are left
+ * out of the document.
+ */
+class ETranslationMultiplexer {
+
+  private static final Logger LOGGER = LogManager.getLogger(ETranslationMultiplexer.class);
+  private static final int DELIMITER_LENGTH =
+      ETranslationTranslationService.MARKUP_DELIMITER.length();
+
+  /**
+   * Submits one eTranslation job for the given objects
+   */
+  @FunctionalInterface
+  interface JobSubmitter {
+    CompletableFuture<Void> submit(List<TranslationObj> translationObjs)
+        throws TranslationException;
+  }
+
+  private final JobSubmitter jobSubmitter;
+  private final long windowMillis;
+  private final int maxDocumentChars;
+  private final Map<LanguagePair, PendingDocument> openDocuments = new HashMap<>();
+  private final ScheduledExecutorService scheduler = Executors
+      .newSingleThreadScheduledExecutor(new CustomizableThreadFactory("etranslation-multiplexer-"));
+  // the submissions block on the eTranslation endpoint, they must not delay the other windows
+  private final ExecutorService submitExecutor = Executors
+      .newCachedThreadPool(new CustomizableThreadFactory("etranslation-multiplexer-submit-"));
+
+  ETranslationMultiplexer(JobSubmitter jobSubmitter, long windowMillis, int maxDocumentChars) {
+    this.jobSubmitter = jobSubmitter;
+    this.windowMillis = windowMillis;
+    this.maxDocumentChars = maxDocumentChars;
+  }
+
+  /**
+   * Adds the objects to the open document of their language pair
+   * @param translationObjs the objects to translate, all having the same language pair
+   * @return the future completed with the translated objects (in the order of the given objects)
+   *         when the document containing them is translated
+   * @throws TranslationException if the objects are submitted directly and the submission fails
+   */
+  CompletableFuture<List<TranslationObj>> add(List<TranslationObj> translationObjs)
+      throws TranslationException {
+    final int chars = ETranslationTranslationService.joinedLength(translationObjs);
+    if (chars >= maxDocumentChars) {
+      // nothing to share
+      return jobSubmitter.submit(translationObjs).thenApply(result -> translationObjs);
+    }
+    final LanguagePair languagePair = new LanguagePair(translationObjs.get(0).getSourceLang(),
+        translationObjs.get(0).getTargetLang());
+    final CompletableFuture<List<TranslationObj>> result = new CompletableFuture<>();
+    PendingDocument fullDocument = null;
+    synchronized (openDocuments) {
+      PendingDocument document = openDocuments.get(languagePair);
+      if (document != null && document.chars + DELIMITER_LENGTH + chars > maxDocumentChars) {
+        openDocuments.remove(languagePair);
+        fullDocument = document;
+        document = null;
+      }
+      if (document == null) {
+        document = new PendingDocument(languagePair);
+        openDocuments.put(languagePair, document);
+        final PendingDocument scheduled = document;
+        scheduler.schedule(() -> submitAsync(scheduled), windowMillis, TimeUnit.MILLISECONDS);
+      }
+      document.add(translationObjs, chars, result);
+    }
+    if (fullDocument != null) {
+      submitAsync(fullDocument);
+    }
+    return result;
+  }
+
+  private void submitAsync(PendingDocument document) {
+    try {
+      submitExecutor.execute(() -> flush(document));
+    } catch (RejectedExecutionException e) {
+      // shutting down
+      document.callers.forEach(caller -> caller.future.completeExceptionally(e));
+    }
+  }
+
+  private void flush(PendingDocument document) {
+    synchronized (openDocuments) {
+      // no objects are added to the document once removed from the open documents
+      if (document.flushed) {
+        return;
+      }
+      document.flushed = true;
+      openDocuments.remove(document.languagePair, document);
+    }
+    // the callers which already gave up are not translated
+    final List<Caller> callers =
+        document.callers.stream().filter(caller -> !caller.future.isDone()).toList();
+    if (callers.isEmpty()) {
+      return;
+    }
+    List<TranslationObj> copies = new ArrayList<>();
+    callers.forEach(caller -> copies.addAll(caller.copies));
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Submitting eTranslation document for {} with {} requests and {} texts",
+          document.languagePair, callers.size(), copies.size());
+    }
+    try {
+      jobSubmitter.submit(copies).whenComplete((result, error) -> {
+        for (Caller caller : callers) {
+          if (error == null) {
+            caller.complete();
+          } else {
+            caller.future.completeExceptionally(error);
+          }
+        }
+      });
+    } catch (TranslationException | RuntimeException e) {
+      callers.forEach(caller -> caller.future.completeExceptionally(e));
+    }
+  }
+
+  void shutdown() {
+    scheduler.shutdown();
+    submitExecutor.shutdown();
+  }
+
+  /**
+   * A request waiting for the translation of its objects
+   */
+  private static final class Caller {
+    private final List<TranslationObj> copies;
+    private final CompletableFuture<List<TranslationObj>> future;
+
+    Caller(List<TranslationObj> translationObjs, CompletableFuture<List<TranslationObj>> future) {
+      this.future = future;
+      this.copies = new ArrayList<>(translationObjs.size());
+      for (TranslationObj translationObj : translationObjs) {
+        TranslationObj copy = new TranslationObj();
+        copy.setSourceLang(translationObj.getSourceLang());
+        copy.setTargetLang(translationObj.getTargetLang());
+        copy.setText(translationObj.getText());
+        // the late callbacks are cached under this key, see ETranslationJobStore
+        copy.setCacheKey(translationObj.getCacheKey());
+        copies.add(copy);
+      }
+    }
+
+    void complete() {
+      // a caller which gave up already is not completed again, its objects are left untouched
+      future.complete(copies);
+    }
+  }
+
+  /**
+   * The requests joined into one document
+   */
+  private static final class PendingDocument {
+    private final LanguagePair languagePair;
+    private final List<Caller> callers = new ArrayList<>();
+    // guarded by the open documents
+    private boolean flushed;
+    private int chars = -DELIMITER_LENGTH;
+
+    PendingDocument(LanguagePair languagePair) {
+      this.languagePair = languagePair;
+    }
+
+    void add(List<TranslationObj> objs, int objsChars,
+        CompletableFuture<List<TranslationObj>> caller) {
+      chars += DELIMITER_LENGTH + objsChars;
+      callers.add(new Caller(objs, caller));
+    }
+  }
+}
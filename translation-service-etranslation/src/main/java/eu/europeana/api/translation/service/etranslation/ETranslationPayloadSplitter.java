@@ -0,0 +1,173 @@
+package eu.europeana.api.translation.service.etranslation;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+
+/**
+ * Splits the requests exceeding the eTranslation snippet limit into snippet-sized chunks, so that
+ * they can be translated as concurrent text snippet jobs instead of one (slower) document job. The
+ * texts are packed into the chunks in their original order, the texts exceeding the limit on their
+ * own are cut at sentence boundaries (or at the last whitespace for very long sentences) and their
+ * translations are joined back by {@link SplitPayload#reassemble()}. The whitespaces between the
+ * parts are not sent, they are put back between the translations of the parts, so that the texts
+ * without whitespaces between the sentences (e.g. Chinese or Japanese) are joined without them.
+ */
+final class ETranslationPayloadSplitter {
+
+  private static final int DELIMITER_LENGTH = ETranslationTranslationService.MARKUP_DELIMITER.length();
+
+  private final int maxChars;
+
+  /**
+   * Constructor
+   * @param maxChars max size of the chunks, including the delimiters between the texts
+   */
+  ETranslationPayloadSplitter(int maxChars) {
+    this.maxChars = maxChars;
+  }
+
+  /**
+   * Splits the objects into chunks. The objects which fit into a chunk are sent themselves, the
+   * others are replaced by their parts.
+   * @param translationObjs the objects to translate, all having the same language pair
+   * @return the chunks and the mapping of the parts to the original objects
+   */
+  SplitPayload split(List<TranslationObj> translationObjs) {
+    SplitPayload payload = new SplitPayload();
+    final Locale locale = Locale.forLanguageTag(translationObjs.get(0).getSourceLang());
+    for (TranslationObj translationObj : translationObjs) {
+      if (translationObj.getText().length() <= maxChars) {
+        payload.addSegment(translationObj, maxChars);
+        continue;
+      }
+      List<Part> parts = new ArrayList<>();
+      for (String text : splitText(translationObj.getText(), locale)) {
+        final String stripped = text.strip();
+        final int start = stripped.isEmpty() ? text.length() : text.indexOf(stripped);
+        if (!parts.isEmpty()) {
+          // the whitespaces between the parts are kept as they are
+          parts.get(parts.size() - 1).trailing.append(text, 0, start);
+        }
+        if (stripped.isEmpty()) {
+          continue;
+        }
+        TranslationObj segment = new TranslationObj();
+        segment.setText(stripped);
+        segment.setSourceLang(translationObj.getSourceLang());
+        segment.setTargetLang(translationObj.getTargetLang());
+        payload.addSegment(segment, maxChars);
+        Part part = new Part(segment);
+        part.trailing.append(text, start + stripped.length(), text.length());
+        parts.add(part);
+      }
+      payload.splitObjs.add(translationObj);
+      payload.splitParts.add(parts);
+    }
+    return payload;
+  }
+
+  /**
+   * Cuts the text into parts not exceeding the max size, preferably at sentence boundaries. The
+   * parts keep their whitespaces, they are joined back into the text.
+   * @param text the text to split
+   * @param locale the language of the text, used for the detection of the sentence boundaries
+   * @return the parts of the text
+   */
+  List<String> splitText(String text, Locale locale) {
+    List<String> parts = new ArrayList<>();
+    BreakIterator sentences = BreakIterator.getSentenceInstance(locale);
+    sentences.setText(text);
+    int partStart = 0;
+    int lastBoundary = 0;
+    for (int end = sentences.next(); end != BreakIterator.DONE; end = sentences.next()) {
+      if (end - partStart > maxChars) {
+        if (lastBoundary > partStart) {
+          addPart(parts, text.substring(partStart, lastBoundary));
+          partStart = lastBoundary;
+        }
+        // sentences longer than the limit are cut at whitespaces
+        while (end - partStart > maxChars) {
+          final int cut = findCut(text, partStart);
+          addPart(parts, text.substring(partStart, cut));
+          partStart = cut;
+        }
+      }
+      lastBoundary = end;
+    }
+    if (partStart < text.length()) {
+      addPart(parts, text.substring(partStart));
+    }
+    return parts;
+  }
+
+  private int findCut(String text, int start) {
+    final int limit = start + maxChars;
+    for (int i = limit - 1; i > start; i--) {
+      if (Character.isWhitespace(text.charAt(i))) {
+        return i + 1;
+      }
+    }
+    // no whitespace at all, avoid cutting a surrogate pair
+    return Character.isHighSurrogate(text.charAt(limit - 1)) ? limit - 1 : limit;
+  }
+
+  private static void addPart(List<String> parts, String part) {
+    if (!part.isEmpty()) {
+      parts.add(part);
+    }
+  }
+
+  /**
+   * A part of a split text, with the whitespaces following it in the original text
+   */
+  private static final class Part {
+    private final TranslationObj segment;
+    private final StringBuilder trailing = new StringBuilder();
+
+    Part(TranslationObj segment) {
+      this.segment = segment;
+    }
+  }
+
+  /**
+   * The chunks to be sent as separate jobs
+   */
+  static final class SplitPayload {
+    private final List<List<TranslationObj>> chunks = new ArrayList<>();
+    private int lastChunkChars;
+    private final List<TranslationObj> splitObjs = new ArrayList<>();
+    private final List<List<Part>> splitParts = new ArrayList<>();
+
+    private void addSegment(TranslationObj segment, int maxChars) {
+      final int chars = segment.getText().length();
+      if (chunks.isEmpty() || lastChunkChars + DELIMITER_LENGTH + chars > maxChars) {
+        chunks.add(new ArrayList<>());
+        lastChunkChars = chars;
+      } else {
+        lastChunkChars += DELIMITER_LENGTH + chars;
+      }
+      chunks.get(chunks.size() - 1).add(segment);
+    }
+
+    List<List<TranslationObj>> getChunks() {
+      return chunks;
+    }
+
+    /**
+     * Joins the translations of the parts into the translations of the split objects
+     */
+    void reassemble() {
+      for (int i = 0; i < splitObjs.size(); i++) {
+        StringBuilder translation = new StringBuilder();
+        for (Part part : splitParts.get(i)) {
+          translation.append(part.segment.getTranslation()).append(part.trailing);
+        }
+        // as for the texts sent without splitting
+        splitObjs.get(i).setTranslation(translation.toString().strip());
+      }
+    }
+  }
+}
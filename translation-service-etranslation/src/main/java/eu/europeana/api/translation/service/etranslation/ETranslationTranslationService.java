@@ -1,38 +1,46 @@
 package eu.europeana.api.translation.service.etranslation;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
-import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.http.HttpStatus;
-import org.apache.http.StatusLine;
-import org.apache.http.auth.AuthScope;
-import org.apache.http.auth.UsernamePasswordCredentials;
-import org.apache.http.client.CredentialsProvider;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.BasicCredentialsProvider;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.util.EntityUtils;
+import org.apache.hc.client5.http.auth.AuthCache;
+import org.apache.hc.client5.http.auth.AuthScope;
+import org.apache.hc.client5.http.auth.CredentialsProvider;
+import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.impl.auth.BasicAuthCache;
+import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.ParseException;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.codehaus.jettison.json.JSONArray;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
-import org.springframework.data.redis.listener.ChannelTopic;
-import org.springframework.data.redis.listener.RedisMessageListenerContainer;
-import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
 import eu.europeana.api.translation.definitions.model.TranslationObj;
 import eu.europeana.api.translation.service.AbstractTranslationService;
+import eu.europeana.api.translation.service.exception.DeadlineExceededException;
+import eu.europeana.api.translation.service.exception.MultiTargetTranslationException;
 import eu.europeana.api.translation.service.exception.TranslationException;
-import eu.europeana.api.translation.service.util.TranslationUtils;
+import eu.europeana.api.translation.service.http.BlockingHttpTransport;
+import eu.europeana.api.translation.service.util.Deadline;
 
 public class ETranslationTranslationService extends AbstractTranslationService {
 
@@ -41,8 +49,9 @@ public class ETranslationTranslationService extends AbstractTranslationService {
   public static final String FAKE_BASE_URL_FOR_TESTING = "base-url-for-testing";
   // base64 encoded string (as in generateRedisKey()) within the [notranslate] tag
   public static final String MARKUP_DELIMITER = "\n[notranslate]deenPVsaOg[/notranslate]\n";
+  private static final String MARKUP_DELIMITER_TEXT = MARKUP_DELIMITER.strip();
   public static final String MARKUP_DELIMITER_WITHOUT_NEWLINE =
-      Pattern.quote("[notranslate]deenPVsaOg[/notranslate]");
+      Pattern.quote(MARKUP_DELIMITER_TEXT);
   public static final String ERROR_CALLBACK_MARKUP = "eTranslationErrorCallback";
   public static final String PATH_CALLBACK = "/etranslation/callback";
   public static final String PATH_ERROR_CALLBACK = "/etranslation/error-callback";
@@ -58,7 +67,14 @@ public class ETranslationTranslationService extends AbstractTranslationService {
   private final String credentialUsername;
   private final String credentialPwd;
   private final int maxWaitMillisec;
-  private final RedisMessageListenerContainer redisMessageListenerContainer;
+  private final ETranslationCallbackRegistry callbackRegistry;
+  private final ETranslationJobStore jobStore;
+  private final ETranslationMultiplexer multiplexer;
+  private final int maxParallelJobs;
+  private final BlockingHttpTransport httpTransport;
+  private final CredentialsProvider credentialsProvider;
+  // cached digest auth schemes, shared by all requests
+  private final AuthCache authCache = new BasicAuthCache();
 
   /**
    * Contructor for etranslation service using dependency injection
@@ -68,12 +84,15 @@ public class ETranslationTranslationService extends AbstractTranslationService {
    * @param maxWaitMillisec timeout for eTranslation callback 
    * @param username eTranslation credential
    * @param password eTranslation credential
-   * @param redisMessageListenerContainer container for PUB/SUB redis message listeners
+   * @param callbackRegistry registry of the requests waiting for the eTranslation callbacks
+   * @param jobStore store of the job metadata used for caching the late callbacks, may be null
+   * @param clientConfig the connection pool and timeout settings of the http client
    * @throws TranslationException thrown in case that the translation cannot be performed/retrieved 
    */
   public ETranslationTranslationService(String etranslationServiceBaseUrl, String domain,
       String translationApiBaseUrl, int maxWaitMillisec, String username, String password,
-      RedisMessageListenerContainer redisMessageListenerContainer) throws TranslationException {
+      ETranslationCallbackRegistry callbackRegistry, ETranslationJobStore jobStore,
+      ETranslationClientConfig clientConfig) throws TranslationException {
     if (!FAKE_BASE_URL_FOR_TESTING.equals(etranslationServiceBaseUrl)) {
       validateETranslConfigParams(etranslationServiceBaseUrl, domain, translationApiBaseUrl,
           maxWaitMillisec, username, password);
@@ -84,7 +103,20 @@ public class ETranslationTranslationService extends AbstractTranslationService {
     this.maxWaitMillisec = maxWaitMillisec;
     this.credentialUsername = username;
     this.credentialPwd = password;
-    this.redisMessageListenerContainer = redisMessageListenerContainer;
+    this.callbackRegistry = callbackRegistry;
+    this.jobStore = jobStore;
+
+    BasicCredentialsProvider credentials = new BasicCredentialsProvider();
+    credentials.setCredentials(new AuthScope(null, -1), new UsernamePasswordCredentials(
+        StringUtils.defaultString(username), StringUtils.defaultString(password).toCharArray()));
+    this.credentialsProvider = credentials;
+    this.httpTransport = new BlockingHttpTransport(clientConfig);
+    // the shared documents are sent as text snippets, a larger request is sent on its own
+    this.multiplexer = clientConfig.getMultiplexWindowMillisec() > 0
+        ? new ETranslationMultiplexer(this::submitJob, clientConfig.getMultiplexWindowMillisec(),
+            Math.min(clientConfig.getMaxDocumentChars(), getSnippetLimit()))
+        : null;
+    this.maxParallelJobs = clientConfig.getMaxParallelJobs();
   }
 
   private String getTranslationErrorCallbackUrl() {
@@ -126,223 +158,442 @@ public class ETranslationTranslationService extends AbstractTranslationService {
 
   @Override
   public void translate(List<TranslationObj> translationObjs) throws TranslationException {
-    String sourceLang = translationObjs.get(0).getSourceLang();
-    if (sourceLang == null) {
+    try {
+      translateAsync(translationObjs).get();
+    } catch (ExecutionException e) {
+      throw unwrapTranslationError(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TranslationException("Interrupted while waiting for the eTranslation callback.",
+          HttpStatus.SC_SERVICE_UNAVAILABLE, e);
+    }
+  }
+
+  /**
+   * Sends one eTranslation job for all target languages, the callbacks of the languages are
+   * received separately and the translations are filled into the lists of the respective target.
+   * The texts exceeding the snippet limit are sent as document, they are not split for the
+   * multi-target jobs. The failed targets are reported with a
+   * {@link MultiTargetTranslationException}, the translations of the other targets are filled.
+   */
+  @Override
+  public void translateMultiTarget(Map<String, List<TranslationObj>> translationObjsByTarget)
+      throws TranslationException {
+    if (translationObjsByTarget.size() == 1) {
+      translate(translationObjsByTarget.values().iterator().next());
+      return;
+    }
+    try {
+      submitMultiTargetJob(translationObjsByTarget).get();
+    } catch (ExecutionException e) {
+      throw unwrapTranslationError(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TranslationException("Interrupted while waiting for the eTranslation callback.",
+          HttpStatus.SC_SERVICE_UNAVAILABLE, e);
+    }
+  }
+
+  /**
+   * Sends the translation request and returns without waiting for the eTranslation callback. The
+   * translations are filled into the given objects when the callback is received, the returned
+   * future fails with a {@link TranslationException} if the callback reports an error, or if it is
+   * not received within the max wait time (limited by the deadline of the request). The requests
+   * exceeding the snippet limit are split into several text snippet jobs if parallel jobs are
+   * enabled, see {@link ETranslationPayloadSplitter}. When multiplexing is enabled, the other
+   * requests are sent together with the concurrent requests for the same language pair, see
+   * {@link ETranslationMultiplexer}.
+   * 
+   * @param translationObjs the objects to translate, all having the same language pair
+   * @return the future completed when the translations are available
+   * @throws TranslationException if the request cannot be sent
+   */
+  public CompletableFuture<Void> translateAsync(List<TranslationObj> translationObjs)
+      throws TranslationException {
+    validateSourceLanguage(translationObjs);
+    validateTexts(translationObjs);
+    if (maxParallelJobs > 0 && isSnippetLimitExceeded(joinedLength(translationObjs))) {
+      return submitSplitJobs(translationObjs);
+    }
+    if (multiplexer == null) {
+      return submitJob(translationObjs);
+    }
+    final long waitMillis;
+    try {
+      Deadline.checkCurrent("eTranslation request");
+      waitMillis = Deadline.remainingMillis(maxWaitMillisec);
+    } catch (DeadlineExceededException e) {
+      throw new TranslationException(e.getMessage(), HttpStatus.SC_GATEWAY_TIMEOUT, e);
+    }
+    // the shared job may take longer than the deadline of this request
+    return multiplexer.add(translationObjs).orTimeout(waitMillis, TimeUnit.MILLISECONDS)
+        .handle((translated, error) -> {
+          if (error != null) {
+            throw new CompletionException(toTranslationError(error, waitMillis));
+          }
+          // only reached if the document was translated before the timeout
+          for (int i = 0; i < translationObjs.size(); i++) {
+            translationObjs.get(i).setTranslation(translated.get(i).getTranslation());
+          }
+          return null;
+        });
+  }
+
+  /**
+   * Sends the request as several snippet-sized jobs, at most maxParallelJobs at a time. The
+   * remaining jobs are not sent anymore once a job failed.
+   */
+  private CompletableFuture<Void> submitSplitJobs(List<TranslationObj> translationObjs) {
+    final ETranslationPayloadSplitter.SplitPayload payload =
+        new ETranslationPayloadSplitter(getSnippetLimit()).split(translationObjs);
+    final List<List<TranslationObj>> chunks = payload.getChunks();
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Splitting eTranslation request with {} texts into {} jobs",
+          translationObjs.size(), chunks.size());
+    }
+    // the jobs are submitted from the callback threads, which need the deadline of the request
+    final Deadline deadline = Deadline.current();
+    final AtomicInteger nextChunk = new AtomicInteger();
+    final int parallelJobs = Math.min(maxParallelJobs, chunks.size());
+    CompletableFuture<?>[] lanes = new CompletableFuture<?>[parallelJobs];
+    for (int i = 0; i < parallelJobs; i++) {
+      lanes[i] = submitNextChunk(chunks, nextChunk, deadline);
+    }
+    return CompletableFuture.allOf(lanes).thenRun(payload::reassemble);
+  }
+
+  private CompletableFuture<Void> submitNextChunk(List<List<TranslationObj>> chunks,
+      AtomicInteger nextChunk, Deadline deadline) {
+    final int index = nextChunk.getAndIncrement();
+    if (index >= chunks.size()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    try (Deadline.Scope scope = deadline == null ? null : deadline.attach()) {
+      return submitJob(chunks.get(index))
+          .whenComplete((result, error) -> {
+            if (error != null) {
+              nextChunk.set(chunks.size());
+            }
+          })
+          .thenCompose(result -> submitNextChunk(chunks, nextChunk, deadline));
+    } catch (TranslationException e) {
+      nextChunk.set(chunks.size());
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private void validateSourceLanguage(List<TranslationObj> translationObjs)
+      throws TranslationException {
+    if (translationObjs.get(0).getSourceLang() == null) {
       throw new TranslationException(
           "The source language cannot be null for the eTranslation service.");
     }
-    String eTranslJointStr = generateJointStringForTranslation(translationObjs);
-    MessageListenerAdapter redisMessageListenerAdapter = null;
+  }
+
+  /**
+   * The texts are joined with the delimiter markup, a text containing it would shift the
+   * translations of all texts sent in the same job (e.g. of the other multiplexed requests)
+   * @param text the text to check
+   * @return true if the text contains the delimiter markup
+   */
+  public static boolean containsDelimiter(String text) {
+    return text != null && text.contains(MARKUP_DELIMITER_TEXT);
+  }
+
+  /**
+   * The requests of the API are validated already, see {@link #containsDelimiter(String)}
+   */
+  private void validateTexts(List<TranslationObj> translationObjs) throws TranslationException {
+    for (TranslationObj translationObj : translationObjs) {
+      if (containsDelimiter(translationObj.getText())) {
+        throw new TranslationException(
+            "The texts sent to the eTranslation service cannot contain the delimiter markup.",
+            HttpStatus.SC_BAD_REQUEST);
+      }
+    }
+  }
+
+  /**
+   * Sends one eTranslation job for the given objects
+   * @param translationObjs the objects to translate, all having the same language pair
+   * @return the future completed when the translations are available
+   * @throws TranslationException if the request cannot be sent
+   */
+  private CompletableFuture<Void> submitJob(List<TranslationObj> translationObjs)
+      throws TranslationException {
+    final boolean asDocument = isSnippetLimitExceeded(joinedLength(translationObjs));
 
     /*
-     * create an eTransl request with an external reference and send it. The same external reference
-     * is received in the eTransl callback. That reference is used for the name of the channel for
-     * the redis message subscriber listener created below, which will be notified from the redis
-     * publisher after the eTransl callback comes. The publisher will publish to the same channel
-     * using the external reference from the eTransl callback.
+     * the external reference is sent with the eTranslation request and received back with the
+     * callback, which is published to the redis channel having the same name, see
+     * ETranslationCallbackRegistry
      */
-    // create external reference for eTransl service
-    String eTranslExtRef = TranslationUtils.generateRedisKey(eTranslJointStr,
-        translationObjs.get(0).getSourceLang(), translationObjs.get(0).getTargetLang(), "et:");
-
+    final String eTranslExtRef = callbackRegistry.newExternalReference();
+    final long waitMillis;
+    CompletableFuture<String> callback = null;
     try {
-      //create request body
-      String body =
-          createTranslationRequestBody(eTranslJointStr, translationObjs.get(0).getSourceLang(),
-              translationObjs.get(0).getTargetLang(), eTranslExtRef);
-
-      // register redis channel
-      redisMessageListenerAdapter = registerRedisChannel(eTranslExtRef, eTranslJointStr.length());
+      // the eTranslation callback cannot arrive in time if the request deadline already expired
+      Deadline.checkCurrent("eTranslation request");
+      waitMillis = Deadline.remainingMillis(maxWaitMillisec);
+      HttpEntity body = createTranslationRequestEntity(translationObjs, asDocument, eTranslExtRef,
+          List.of(translationObjs.get(0).getTargetLang()));
+
+      // register before sending, the callback may arrive before the response of the request
+      callback = callbackRegistry.register(eTranslExtRef);
+      if (jobStore != null) {
+        // the callback may arrive after the caller stopped waiting, the result is cached anyway
+        jobStore.save(eTranslExtRef, translationObjs, asDocument);
+      }
 
       //send the eTransl request, if not fake url
       if (!FAKE_BASE_URL_FOR_TESTING.equals(baseUrl)) {
         sendTranslationRequest(body);
       }
-      // read translation response
-      readTranslationResponseFromRedis(redisMessageListenerAdapter, translationObjs, eTranslJointStr.length());
-      
-    } catch (JSONException | UnsupportedEncodingException e) {
+    } catch (JSONException e) {
+      callbackRegistry.unregister(eTranslExtRef);
       throw new TranslationException(
           "Exception during the eTranslation http request body creation.", 0, e);
     } catch (IOException e) {
+      callbackRegistry.unregister(eTranslExtRef);
       throw new TranslationException(
           "Exception during sending the eTranslation http request.", 0, e);
-    } finally {
-      /*
-       * unsubscibe this listener which automatically deletes the created pub/sub channel, which
-       * also gets deleted if the app is stopped or anyhow broken.
-       */
-      if(redisMessageListenerAdapter != null) {
-        redisMessageListenerContainer.removeMessageListener(redisMessageListenerAdapter);
-      }
+    } catch (DeadlineExceededException e) {
+      throw new TranslationException(e.getMessage(), HttpStatus.SC_GATEWAY_TIMEOUT, e);
+    } catch (TranslationException | RuntimeException e) {
+      callbackRegistry.unregister(eTranslExtRef);
+      throw e;
     }
+
+    return awaitCallback(eTranslExtRef, callback, translationObjs, asDocument, waitMillis);
   }
 
- 
-  private void readTranslationResponseFromRedis(MessageListenerAdapter redisMessageListenerAdapter, List<TranslationObj> translationObjs,
-      int textSize) throws TranslationException {
-    
-    if(redisMessageListenerAdapter == null) {
-      //if channel not registered, cannot read results
-      return;
+  /**
+   * Sends one eTranslation job with several target languages, each language is awaited on its own
+   * callback channel, see {@link ETranslationCallbackRegistry#callbackChannel(String, String)}
+   */
+  private CompletableFuture<Void> submitMultiTargetJob(
+      Map<String, List<TranslationObj>> translationObjsByTarget) throws TranslationException {
+    final List<TranslationObj> texts = translationObjsByTarget.values().iterator().next();
+    validateTexts(texts);
+    for (List<TranslationObj> translationObjs : translationObjsByTarget.values()) {
+      validateSourceLanguage(translationObjs);
+      if (translationObjs.size() != texts.size()) {
+        throw new TranslationException(
+            "The texts of the multi-target eTranslation request must be the same for all targets.");
+      }
     }
-    
-    String response =
-        readMessageFromChannel(redisMessageListenerAdapter);
+    final boolean asDocument = isSnippetLimitExceeded(joinedLength(texts));
+    final String eTranslExtRef = callbackRegistry.newMultiTargetReference();
+    final long waitMillis;
+    Map<String, CompletableFuture<String>> callbacks = new LinkedHashMap<>();
+    try {
+      Deadline.checkCurrent("eTranslation request");
+      waitMillis = Deadline.remainingMillis(maxWaitMillisec);
+      HttpEntity body = createTranslationRequestEntity(texts, asDocument, eTranslExtRef,
+          List.copyOf(translationObjsByTarget.keySet()));
+
+      for (Map.Entry<String, List<TranslationObj>> target : translationObjsByTarget.entrySet()) {
+        final String channel =
+            ETranslationCallbackRegistry.callbackChannel(eTranslExtRef, target.getKey());
+        callbacks.put(channel, callbackRegistry.register(channel));
+        if (jobStore != null) {
+          jobStore.save(channel, target.getValue(), asDocument);
+        }
+      }
 
-    if (response == null) {
+      if (!FAKE_BASE_URL_FOR_TESTING.equals(baseUrl)) {
+        sendTranslationRequest(body);
+      }
+    } catch (JSONException e) {
+      callbacks.keySet().forEach(callbackRegistry::unregister);
       throw new TranslationException(
+          "Exception during the eTranslation http request body creation.", 0, e);
+    } catch (IOException e) {
+      callbacks.keySet().forEach(callbackRegistry::unregister);
+      throw new TranslationException(
+          "Exception during sending the eTranslation http request.", 0, e);
+    } catch (DeadlineExceededException e) {
+      throw new TranslationException(e.getMessage(), HttpStatus.SC_GATEWAY_TIMEOUT, e);
+    } catch (TranslationException | RuntimeException e) {
+      callbacks.keySet().forEach(callbackRegistry::unregister);
+      throw e;
+    }
+
+    // the targets fail independently, e.g. with the error callback of a single language
+    Map<String, CompletableFuture<TranslationException>> targetErrors = new LinkedHashMap<>();
+    for (Map.Entry<String, List<TranslationObj>> target : translationObjsByTarget.entrySet()) {
+      final String channel =
+          ETranslationCallbackRegistry.callbackChannel(eTranslExtRef, target.getKey());
+      targetErrors.put(target.getKey(),
+          awaitCallback(channel, callbacks.get(channel), target.getValue(), asDocument, waitMillis)
+              .handle((result, error) -> error == null ? null : unwrapTranslationError(error)));
+    }
+    return CompletableFuture.allOf(targetErrors.values().toArray(new CompletableFuture<?>[0]))
+        .thenApply(done -> {
+          Map<String, TranslationException> errors = new LinkedHashMap<>();
+          targetErrors.forEach((target, error) -> {
+            if (error.join() != null) {
+              errors.put(target, error.join());
+            }
+          });
+          if (!errors.isEmpty()) {
+            throw new CompletionException(new MultiTargetTranslationException(
+                "The eTranslation request failed for the target languages: " + errors.keySet(),
+                getServiceId(), errors));
+          }
+          return null;
+        });
+  }
+
+  private CompletableFuture<Void> awaitCallback(String channel, CompletableFuture<String> callback,
+      List<TranslationObj> translationObjs, boolean asDocument, long waitMillis) {
+    return callback.orTimeout(waitMillis, TimeUnit.MILLISECONDS)
+        .whenComplete((response, error) -> callbackRegistry.unregister(channel))
+        .handle((response, error) -> {
+          if (error != null) {
+            throw new CompletionException(toTranslationError(error, waitMillis));
+          }
+          try {
+            fillTranslationsFromCallback(translationObjs, response, asDocument);
+            return null;
+          } catch (TranslationException e) {
+            throw new CompletionException(e);
+          }
+        });
+  }
+
+  private TranslationException toTranslationError(Throwable error, long waitMillis) {
+    final Throwable cause = error instanceof CompletionException && error.getCause() != null
+        ? error.getCause() : error;
+    if (cause instanceof TimeoutException) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(
+            "eTranslation response has not been received after waiting for: {} milliseconds.",
+            waitMillis);
+      }
+      return new TranslationException(
           "No response received from external eTranslation Service within expected interval of seconds: "
-              + toSeconds(maxWaitMillisec),
-          HttpStatus.SC_GATEWAY_TIMEOUT);
+              + toSeconds(waitMillis),
+          HttpStatus.SC_GATEWAY_TIMEOUT, cause);
     }
+    return unwrapTranslationError(cause);
+  }
 
+  private TranslationException unwrapTranslationError(Throwable error) {
+    final Throwable cause = error instanceof CompletionException && error.getCause() != null
+        ? error.getCause() : error;
+    if (cause instanceof TranslationException) {
+      return (TranslationException) cause;
+    }
+    return new TranslationException("Unexpected error when processing the eTranslation callback.",
+        0, cause);
+  }
+
+  private void fillTranslationsFromCallback(List<TranslationObj> translationObjs, String response,
+      boolean responseAsDocument) throws TranslationException {
     // message received, populate the translations
     if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("Received message from redis message listener is: {}", response);
+      LOGGER.debug("Received eTranslation callback content: {}", response);
     }
 
-    if (response.contains(ETranslationTranslationService.ERROR_CALLBACK_MARKUP)) {
+    if (response.startsWith(ETranslationTranslationService.ERROR_CALLBACK_MARKUP)) {
       // eTtransl error callback received
       throw new TranslationException(response, HttpStatus.SC_UNPROCESSABLE_ENTITY);
     }
 
     // fill translations into the provided translation list
-    fillTranslationsFromRemoteResponse(translationObjs, response, isSnippetLimitExceeded(textSize));
+    fillTranslationsFromRemoteResponse(translationObjs, response, responseAsDocument);
   }
 
-  private int toSeconds(int maxWaitMillisec) {
-    return maxWaitMillisec / SECOND_MILIS;
+  private long toSeconds(long waitMillis) {
+    return waitMillis / SECOND_MILIS;
   }
 
   private boolean isSnippetLimitExceeded(int textSize) {
-    // use smaller limit for the tests (e.g. 200)
-    if (FAKE_BASE_URL_FOR_TESTING.equals(baseUrl)) {
-      return (textSize > ETRANSLATION_SNIPPET_LIMIT_TESTS);
-    } else {
-      return (textSize > ETRANSLATION_SNIPPET_LIMIT);
-    }
-  }
-
-  private String readMessageFromChannel(MessageListenerAdapter redisMessageListenerAdapter){
-    
-    RedisMessageListener redisMessageListener =
-        (RedisMessageListener) redisMessageListenerAdapter.getDelegate();
-   
-    if(redisMessageListener == null) {
-      throw new IllegalArgumentException("ETranslation callback handling was not propetly initilized, the message listener must not be null!");
-    }
-    
-    
-    synchronized (redisMessageListener) {
-      /*
-       * While loop as a good practice to ensure spurious wake-ups
-       * (https://www.baeldung.com/java-wait-notify). In addition, time is measured to not wait
-       * again and again the same max time, in case of spurious wake-ups
-       */
-      long sleepTimeMillisec = 0;
-      while (redisMessageListener.getMessage() == null) {
-        try {
-          long goSleepTimeNanosec = System.nanoTime();
-          if (sleepTimeMillisec < maxWaitMillisec) {
-            //wait for redis notification
-            redisMessageListener.wait(maxWaitMillisec - sleepTimeMillisec);
-          } else {
-            if (LOGGER.isDebugEnabled()) {
-              LOGGER.debug(
-                  "eTranslation response has not been received after waiting for: {} milliseconds.",
-                  maxWaitMillisec);
-            }
-            //timeout expired, stop the sleep loop
-            break;
-          }
-          //send back to sleep if the eTranslation response (message) was not received yet  
-          long wakeUpTimeNanosec = System.nanoTime();
-          sleepTimeMillisec += (wakeUpTimeNanosec - goSleepTimeNanosec) / 1000000.0;
-        } catch (InterruptedException e) {
-          //log interruption exceptions
-          if (LOGGER.isWarnEnabled()) {
-            LOGGER.warn("Redis Message Listener Interruption exception!", e);
-          }
-        }
-      }
-
-      // get translation response from message listener
-      return redisMessageListener.getMessage();
-    }
+    return textSize > getSnippetLimit();
   }
 
-  private MessageListenerAdapter registerRedisChannel(String eTranslExtRef, int textSize) {
-    boolean requestAsDocument = isSnippetLimitExceeded(textSize);
-    MessageListenerAdapter redisMessageListenerAdapter =
-        new MessageListenerAdapter(new RedisMessageListener(requestAsDocument));
-    redisMessageListenerContainer.addMessageListener(redisMessageListenerAdapter,
-        ChannelTopic.of(eTranslExtRef));
-    return redisMessageListenerAdapter;
+  private int getSnippetLimit() {
+    // use smaller limit for the tests (e.g. 200)
+    return FAKE_BASE_URL_FOR_TESTING.equals(baseUrl) ? ETRANSLATION_SNIPPET_LIMIT_TESTS
+        : ETRANSLATION_SNIPPET_LIMIT;
   }
 
   private void fillTranslationsFromRemoteResponse(List<TranslationObj> translationObjs,
       String response, boolean responseAsDocument) throws TranslationException {
-    if (responseAsDocument) {
-      fillTranslationsFromDocumentTranslationResponse(translationObjs, response);
-    } else {
-      fillTranslationsFromTextSnippetTranslationResponse(translationObjs, response);
+    // the translations are filled in while the response is scanned
+    final int segments = TranslationSegmentScanner.scan(response, responseAsDocument,
+        (index, translation) -> {
+          if (index >= translationObjs.size()) {
+            return false;
+          }
+          translationObjs.get(index).setTranslation(translation);
+          return true;
+        });
+    if (segments != translationObjs.size()) {
+      translationObjs.forEach(translationObj -> translationObj.setTranslation(null));
+      throw new TranslationException(
+          "The eTranslation response and the input texts have different size.");
     }
   }
 
-
   /**
-   * This method extracts the translations from the eTransl txt document response (the request is
-   * sent as an txt base64 encoded document).
+   * Splits the content of the eTranslation callback into the translations of the joined texts. The
+   * documents (i.e. requests sent as base64 encoded txt document) are decoded while scanned, the
+   * text snippets are received as plain text.
    * 
-   * @param translationObjs
-   * @param redisMessageListenerAdapter
-   * @param response
-   * @throws TranslationException
+   * @param response the content of the callback
+   * @param responseAsDocument true if the request was sent as document
+   * @return the translations, in the order of the texts in the request
    */
-  private void fillTranslationsFromDocumentTranslationResponse(List<TranslationObj> translationObjs,
-      String response) throws TranslationException {
-    // first base64 decode
-    String respBase64Decoded = new String(Base64.decodeBase64(response), StandardCharsets.UTF_8);
-    fillTranslationsFromTextSnippetTranslationResponse(translationObjs, respBase64Decoded);
+  static List<String> extractTranslations(String response, boolean responseAsDocument) {
+    List<String> translations = new ArrayList<>();
+    TranslationSegmentScanner.scan(response, responseAsDocument, (index, translation) -> {
+      translations.add(translation);
+      return true;
+    });
+    return translations;
   }
 
   /**
-   * Extracts the translations in case the text snippet is sent in the request (as a
-   * text-to-translate parameter)
-   * 
-   * @param translationObjs
-   * @param redisMessageListenerAdapter
-   * @param response
-   * @throws TranslationException
+   * The length of the texts joined with the markup delimiter, without joining them
+   * @param translationObjs the texts to join
+   * @return the number of characters
    */
-
-  private void fillTranslationsFromTextSnippetTranslationResponse(
-      List<TranslationObj> translationObjs, String response) throws TranslationException {
-    String[] translations = response.split(MARKUP_DELIMITER_WITHOUT_NEWLINE);
-    if (translations.length != translationObjs.size()) {
-      throw new TranslationException(
-          "The eTranslation response and the input texts have different size.");
-    }
-    for (int i = 0; i < translations.length; i++) {
-      translationObjs.get(i).setTranslation(translations[i].strip());
+  static int joinedLength(List<TranslationObj> translationObjs) {
+    int chars = (translationObjs.size() - 1) * MARKUP_DELIMITER.length();
+    for (TranslationObj translationObj : translationObjs) {
+      chars += translationObj.getText().length();
     }
+    return chars;
   }
 
-
   private String generateJointStringForTranslation(List<TranslationObj> translationObjs) {
 
     List<String> texts = translationObjs.stream().map(to -> to.getText()).toList();
     return String.join(MARKUP_DELIMITER, texts);
   }
 
-  private String createTranslationRequestBody(String text, String sourceLang, String targetLang,
-      String externalReference) throws JSONException {
-    if (isSnippetLimitExceeded(text.length())) {
-      return createTranslationBodyWithDocument(text, sourceLang, targetLang, externalReference);
+  private HttpEntity createTranslationRequestEntity(List<TranslationObj> translationObjs,
+      boolean asDocument, String externalReference, List<String> targetLangs)
+      throws JSONException {
+    final String sourceLang = translationObjs.get(0).getSourceLang();
+    if (asDocument) {
+      return createTranslationBodyWithDocument(translationObjs, sourceLang, targetLangs,
+          externalReference);
     } else {
-      return createTranslationBodyWithTextSnippet(text, sourceLang, targetLang, externalReference);
+      return new StringEntity(createTranslationBodyWithTextSnippet(
+          generateJointStringForTranslation(translationObjs), sourceLang, targetLangs,
+          externalReference), ContentType.APPLICATION_JSON);
+    }
+  }
+
+  private JSONArray toTargetLanguages(List<String> targetLangs) {
+    JSONArray targetLanguages = new JSONArray();
+    for (String targetLang : targetLangs) {
+      targetLanguages.put(targetLang.toUpperCase(Locale.ENGLISH));
     }
+    return targetLanguages;
   }
 
   /**
@@ -350,13 +601,13 @@ public class ETranslationTranslationService extends AbstractTranslationService {
    * 
    * @param text
    * @param sourceLang
-   * @param targetLang
+   * @param targetLangs
    * @param externalReference
    * @return
    * @throws JSONException
    */
   private String createTranslationBodyWithTextSnippet(String text, String sourceLang,
-      String targetLang, String externalReference) throws JSONException {
+      List<String> targetLangs, String externalReference) throws JSONException {
     JSONObject jsonBody = new JSONObject().put("priority", 0)
         .put("requesterCallback", getTranslatioCallbackUrl())
         .put("errorCallback", getTranslationErrorCallbackUrl())
@@ -365,7 +616,7 @@ public class ETranslationTranslationService extends AbstractTranslationService {
             new JSONObject().put("application", credentialUsername).put("username",
                 credentialUsername))
         .put("sourceLanguage", sourceLang.toUpperCase(Locale.ENGLISH))
-        .put("targetLanguages", new JSONArray().put(0, targetLang.toUpperCase(Locale.ENGLISH)))
+        .put("targetLanguages", toTargetLanguages(targetLangs))
         .put("domain", domain)
         .put("textToTranslate", text);
 
@@ -374,19 +625,20 @@ public class ETranslationTranslationService extends AbstractTranslationService {
 
   /**
    * This method creates the translation request body with a document to translate. The response is
-   * sent back to the application over a specified callback URL (REST service).
+   * sent back to the application over a specified callback URL (REST service). The document is
+   * joined and base64 encoded only while the entity is written, see
+   * {@link ETranslationDocumentEntity}.
    * 
-   * @param text
+   * @param translationObjs
    * @param sourceLang
-   * @param targetLang
+   * @param targetLangs
    * @param externalReference
    * @return
    * @throws JSONException
-   * @throws UnsupportedEncodingException
    */
-  private String createTranslationBodyWithDocument(String text, String sourceLang,
-      String targetLang, String externalReference) throws JSONException {
-    String base64EncodedText = Base64.encodeBase64String(text.getBytes(StandardCharsets.UTF_8));
+  private ETranslationDocumentEntity createTranslationBodyWithDocument(
+      List<TranslationObj> translationObjs, String sourceLang, List<String> targetLangs,
+      String externalReference) throws JSONException {
     JSONObject jsonBody = new JSONObject().put("priority", 0)
         .put("requesterCallback", getTranslatioCallbackUrl())
         .put("errorCallback", getTranslationErrorCallbackUrl())
@@ -395,36 +647,41 @@ public class ETranslationTranslationService extends AbstractTranslationService {
             new JSONObject().put("application", credentialUsername).put("username",
                 credentialUsername))
         .put("sourceLanguage", sourceLang.toUpperCase(Locale.ENGLISH))
-        .put("targetLanguages", new JSONArray().put(0, targetLang.toUpperCase(Locale.ENGLISH)))
+        .put("targetLanguages", toTargetLanguages(targetLangs))
         .put("domain", domain)
         .put("destinations",
             new JSONObject().put("httpDestinations",
-                new JSONArray().put(0, getTranslatioCallbackUrl())))
-        // .put("textToTranslate", text);
-        .put("documentToTranslateBase64",
-            new JSONObject().put("content", base64EncodedText).put("format", "txt"));
-    return jsonBody.toString();
+                new JSONArray().put(0, getTranslatioCallbackUrl())));
+    // the documentToTranslateBase64 field is appended to the serialized object
+    final String json = jsonBody.toString();
+    final String head = json.substring(0, json.length() - 1)
+        + ",\"documentToTranslateBase64\":{\"format\":\"txt\",\"content\":\"";
+    return new ETranslationDocumentEntity(head, "\"}}", translationObjs);
   }
 
-  private long sendTranslationRequest(String content) throws TranslationException, IOException {
-    CredentialsProvider credsProvider = new BasicCredentialsProvider();
-    credsProvider.setCredentials(AuthScope.ANY,
-        new UsernamePasswordCredentials(credentialUsername, credentialPwd));
-    CloseableHttpClient httpClient =
-        HttpClientBuilder.create().setDefaultCredentialsProvider(credsProvider).build();
+  private long sendTranslationRequest(HttpEntity body) throws TranslationException, IOException {
     HttpPost request = new HttpPost(baseUrl);
-    StringEntity body = new StringEntity(content, "UTF-8");
-    request.addHeader("content-type", "application/json");
+    // the content type is provided by the entity
     request.setEntity(body);
-
-    CloseableHttpResponse response = httpClient.execute(request);
-    StatusLine respStatusLine = response.getStatusLine();
-    String respBody = EntityUtils.toString(response.getEntity(), "UTF-8");
-
-    if (HttpStatus.SC_OK != respStatusLine.getStatusCode()) {
+    // the timeouts must not exceed the deadline of the api request
+    request.setConfig(httpTransport.getRequestConfig(Deadline.current()));
+
+    // the context shares the auth cache, so that the digest challenge is not repeated for each call
+    HttpClientContext context = HttpClientContext.create();
+    context.setCredentialsProvider(credentialsProvider);
+    context.setAuthCache(authCache);
+
+    // the entity is consumed by the handler, so that the connection is returned to the pool
+    final Map.Entry<Integer, String> response = httpTransport.execute(request, context,
+        resp -> Map.entry(resp.getCode(),
+            EntityUtils.toString(resp.getEntity(), StandardCharsets.UTF_8)));
+    final int statusCode = response.getKey();
+    final String respBody = response.getValue();
+
+    if (HttpStatus.SC_OK != statusCode) {
       throw new TranslationException(
           "The translation request could not be successfully registered. ETranslation response: "
-              + respStatusLine.getStatusCode() + ", response body: " + respBody);
+              + statusCode + ", response body: " + respBody);
     }
 
     long requestNumber;
@@ -432,7 +689,7 @@ public class ETranslationTranslationService extends AbstractTranslationService {
       requestNumber = Long.parseLong(respBody);
       if (LOGGER.isDebugEnabled()) {
         LOGGER.debug("eTranslation request sent with the request-id: {} and body: {}.",
-            requestNumber, sanitizeRequestBodyForLogging(content));
+            requestNumber, sanitizeRequestBodyForLogging(describeForLogging(body)));
       }
       if (requestNumber < 0) {
         throw wrapETranslationErrorResponse(respBody);
@@ -444,6 +701,18 @@ public class ETranslationTranslationService extends AbstractTranslationService {
     return requestNumber;
   }
 
+  private String describeForLogging(HttpEntity body) throws IOException {
+    if (body instanceof ETranslationDocumentEntity) {
+      // the document is not materialized for logging
+      return "document of " + body.getContentLength() + " bytes";
+    }
+    try {
+      return EntityUtils.toString(body, StandardCharsets.UTF_8);
+    } catch (ParseException e) {
+      throw new IOException("Cannot read the eTranslation request body", e);
+    }
+  }
+
   private String sanitizeRequestBodyForLogging(String content) {
     if(content != null) {
       return content.replace(getCredentialUsername(), "*****")
@@ -476,7 +745,18 @@ public class ETranslationTranslationService extends AbstractTranslationService {
 
   @Override
   public void close() {
-    //nothing to do here
+    if (multiplexer != null) {
+      multiplexer.shutdown();
+    }
+    httpTransport.close();
+  }
+
+  /**
+   * The http transport used for submitting the requests, e.g. for exposing the pool metrics
+   * @return the transport
+   */
+  public BlockingHttpTransport getHttpTransport() {
+    return httpTransport;
   }
 
   @Override
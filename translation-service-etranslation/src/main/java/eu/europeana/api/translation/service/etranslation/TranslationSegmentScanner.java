@@ -0,0 +1,136 @@
+package eu.europeana.api.translation.service.etranslation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Splits the translated text of the eTranslation callbacks at the markup delimiters, without
+ * regular expressions and without building intermediate copies of the text. The documents are
+ * base64 decoded while they are scanned.
+ */
+final class TranslationSegmentScanner {
+
+  private static final char[] DELIMITER =
+      ETranslationTranslationService.MARKUP_DELIMITER.strip().toCharArray();
+  // KMP failure function of the delimiter
+  private static final int[] FALLBACK = computeFallback(DELIMITER);
+  private static final int READ_BUFFER_SIZE = 8192;
+
+  /**
+   * Receives the segments in the order of the text
+   */
+  @FunctionalInterface
+  interface SegmentHandler {
+    /**
+     * @param index the index of the segment
+     * @param segment the segment, stripped of the surrounding whitespaces
+     * @return false to stop the scanning
+     */
+    boolean accept(int index, String segment);
+  }
+
+  private TranslationSegmentScanner() {}
+
+  /**
+   * Scans the content of the callback
+   * @param response the translated text, or the base64 encoded document
+   * @param asDocument true if the response is a base64 encoded document
+   * @param handler the receiver of the segments
+   * @return the number of segments passed to the handler
+   */
+  static int scan(String response, boolean asDocument, SegmentHandler handler) {
+    try (Reader reader = asDocument ? decodingReader(response) : new StringReader(response)) {
+      return scan(reader, handler);
+    } catch (IOException e) {
+      // only in-memory readers are used
+      throw new IllegalStateException("Cannot read the eTranslation response", e);
+    }
+  }
+
+  static int scan(Reader reader, SegmentHandler handler) throws IOException {
+    final char[] buffer = new char[READ_BUFFER_SIZE];
+    StringBuilder segment = new StringBuilder();
+    int matched = 0;
+    int segments = 0;
+    int read;
+    while ((read = reader.read(buffer)) != -1) {
+      for (int i = 0; i < read; i++) {
+        final char c = buffer[i];
+        while (matched > 0 && c != DELIMITER[matched]) {
+          matched = FALLBACK[matched - 1];
+        }
+        if (c == DELIMITER[matched]) {
+          matched++;
+        }
+        segment.append(c);
+        if (matched == DELIMITER.length) {
+          segment.setLength(segment.length() - DELIMITER.length);
+          if (!handler.accept(segments++, segment.toString().strip())) {
+            return segments;
+          }
+          segment.setLength(0);
+          matched = 0;
+        }
+      }
+    }
+    handler.accept(segments++, segment.toString().strip());
+    return segments;
+  }
+
+  private static Reader decodingReader(String base64) {
+    // the mime decoder ignores the line breaks which may be present in the callback body
+    return new BufferedReader(new InputStreamReader(
+        Base64.getMimeDecoder().wrap(new AsciiInputStream(base64)), StandardCharsets.UTF_8),
+        READ_BUFFER_SIZE);
+  }
+
+  private static int[] computeFallback(char[] pattern) {
+    int[] fallback = new int[pattern.length];
+    int k = 0;
+    for (int i = 1; i < pattern.length; i++) {
+      while (k > 0 && pattern[i] != pattern[k]) {
+        k = fallback[k - 1];
+      }
+      if (pattern[i] == pattern[k]) {
+        k++;
+      }
+      fallback[i] = k;
+    }
+    return fallback;
+  }
+
+  /**
+   * Reads the characters of a base64 string as bytes, without copying the string
+   */
+  private static final class AsciiInputStream extends InputStream {
+    private final String text;
+    private int position;
+
+    AsciiInputStream(String text) {
+      this.text = text;
+    }
+
+    @Override
+    public int read() {
+      return position < text.length() ? text.charAt(position++) & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (position >= text.length()) {
+        return -1;
+      }
+      final int count = Math.min(len, text.length() - position);
+      for (int i = 0; i < count; i++) {
+        b[off + i] = (byte) text.charAt(position++);
+      }
+      return count;
+    }
+  }
+}
@@ -11,7 +11,9 @@ import com.google.cloud.translate.v3.DetectLanguageRequest.Builder;
 import com.google.cloud.translate.v3.DetectLanguageResponse;
 import com.google.cloud.translate.v3.LocationName;
 import eu.europeana.api.translation.service.LanguageDetectionService;
+import eu.europeana.api.translation.service.exception.DeadlineExceededException;
 import eu.europeana.api.translation.service.exception.LanguageDetectionException;
+import eu.europeana.api.translation.service.util.Deadline;
 
 /**
  * Translation service implementing remote invocation of google language detection service
@@ -21,6 +23,7 @@ import eu.europeana.api.translation.service.exception.LanguageDetectionException
 public class GoogleLangDetectService implements LanguageDetectionService {
    
   protected static final Logger LOG = LogManager.getLogger(GoogleLangDetectService.class);
+  private static final int HTTP_GATEWAY_TIMEOUT = 504;
   private GoogleTranslationServiceClientWrapper clientWrapper;
   private final String googleProjectId;
   private LocationName locationName;
@@ -62,7 +65,9 @@ public class GoogleLangDetectService implements LanguageDetectionService {
             .setContent(object.getText())
             .build();        
 
-        DetectLanguageResponse response = clientWrapper.getClient().detectLanguage(request);
+        Deadline.checkCurrent("google language detection");
+        DetectLanguageResponse response = clientWrapper.getClient().detectLanguageCallable()
+            .call(request, clientWrapper.createCallContext());
 
         //Display list of detected languages sorted by detection confidence. The most probable language is first.
         //The language detected: getLanguageCode()
@@ -77,6 +82,8 @@ public class GoogleLangDetectService implements LanguageDetectionService {
     } catch (ApiException ex) {
       final int remoteStatusCode = ex.getStatusCode().getCode().getHttpStatusCode();
       throw new LanguageDetectionException("Exception occured during Google language detection!", remoteStatusCode, ex);
+    } catch (DeadlineExceededException ex) {
+      throw new LanguageDetectionException(ex.getMessage(), HTTP_GATEWAY_TIMEOUT, ex);
     }
   }
   
@@ -9,7 +9,9 @@ import com.google.cloud.translate.v3.TranslateTextResponse;
 import com.google.cloud.translate.v3.TranslationOrBuilder;
 import eu.europeana.api.translation.definitions.model.TranslationObj;
 import eu.europeana.api.translation.service.AbstractTranslationService;
+import eu.europeana.api.translation.service.exception.DeadlineExceededException;
 import eu.europeana.api.translation.service.exception.TranslationException;
+import eu.europeana.api.translation.service.util.Deadline;
 
 /**
  * Translation service implementing remote invocation of google language detection service
@@ -21,6 +23,7 @@ import eu.europeana.api.translation.service.exception.TranslationException;
 public class GoogleTranslationService extends AbstractTranslationService {
 
   private static final String MIME_TYPE_TEXT = "text/plain";
+  private static final int HTTP_GATEWAY_TIMEOUT = 504;
   private final String googleProjectId;
 
   private GoogleTranslationServiceClientWrapper clientWrapper;
@@ -48,10 +51,12 @@ public class GoogleTranslationService extends AbstractTranslationService {
       if(translationStrings.isEmpty()) {
         return;
       }
+      Deadline.checkCurrent("google translation");
       //build request
       TranslateTextRequest request = buildTranslationRequest(translationStrings);
-      //extract response
-      TranslateTextResponse response = this.clientWrapper.getClient().translateText(request);
+      //extract response, the call is limited to the remaining time of the request
+      TranslateTextResponse response = this.clientWrapper.getClient().translateTextCallable()
+          .call(request, clientWrapper.createCallContext());
 
       //check if the translation is complete / successful
       if(translationStrings.size() != response.getTranslationsCount()) {
@@ -67,7 +72,9 @@ public class GoogleTranslationService extends AbstractTranslationService {
     catch (ApiException ex) {
       final int remoteStatusCode = ex.getStatusCode().getCode().getHttpStatusCode();
       throw new TranslationException("Exception occured during Google translation!", remoteStatusCode, ex);
-    } 
+    } catch (DeadlineExceededException ex) {
+      throw new TranslationException(ex.getMessage(), HTTP_GATEWAY_TIMEOUT, ex);
+    }
     
   }
 
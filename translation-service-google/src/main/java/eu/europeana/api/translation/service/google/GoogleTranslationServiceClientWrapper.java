@@ -3,10 +3,14 @@ package eu.europeana.api.translation.service.google;
 import java.io.IOException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import com.google.api.gax.grpc.GrpcCallContext;
+import com.google.api.gax.httpjson.HttpJsonCallContext;
+import com.google.api.gax.rpc.ApiCallContext;
 import com.google.api.gax.rpc.TransportChannelProvider;
 import com.google.cloud.tasks.v2.stub.CloudTasksStubSettings;
 import com.google.cloud.translate.v3.TranslationServiceClient;
 import com.google.cloud.translate.v3.TranslationServiceSettings;
+import eu.europeana.api.translation.service.util.Deadline;
 
 /**
  * Wrapper for google client to handle the proper behavior for different configurations
@@ -25,8 +29,10 @@ public class GoogleTranslationServiceClientWrapper {
    */
   private TranslationServiceClient client;
   private boolean closed;
+  private final boolean useHttpClient;
   
   public GoogleTranslationServiceClientWrapper(String projectId, boolean useHttpClient) throws IOException {
+    this.useHttpClient = useHttpClient;
     initClient(projectId, useHttpClient);
   }
   
@@ -71,6 +77,24 @@ public class GoogleTranslationServiceClientWrapper {
     return client;
   }
   
+  /**
+   * Creates the context for calling the client, which limits the duration of the call to the time
+   * remaining until the deadline of the current request
+   * @return the call context, or null if the current thread has no deadline (the default timeouts
+   *         of the client are used)
+   */
+  public ApiCallContext createCallContext() {
+    Deadline deadline = Deadline.current();
+    if (deadline == null) {
+      return null;
+    }
+    ApiCallContext context =
+        useHttpClient ? HttpJsonCallContext.createDefault() : GrpcCallContext.createDefault();
+    // a zero timeout is interpreted by gax as "no timeout", an expired deadline fails immediately
+    return context
+        .withTimeout(org.threeten.bp.Duration.ofMillis(Math.max(deadline.remainingMillis(), 1)));
+  }
+
   //only for the tests (mocked client)
   public void setClient(TranslationServiceClient client) {
     this.client=client;
@@ -1,6 +1,7 @@
 package eu.europeana.api.translation.service.pangeanic;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import eu.europeana.api.translation.definitions.model.LanguageDetectionObj;
 import org.apache.commons.lang3.StringUtils;
@@ -28,4 +29,14 @@ public class DummyPangLangDetectService extends PangeanicLangDetectService {
       obj.setDetectedLang(value);
     }
   }
+
+  @Override
+  public CompletableFuture<Void> detectLangAsync(List<LanguageDetectionObj> languageDetectionObjs) {
+    try {
+      detectLang(languageDetectionObjs);
+      return CompletableFuture.completedFuture(null);
+    } catch (LanguageDetectionException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
 }
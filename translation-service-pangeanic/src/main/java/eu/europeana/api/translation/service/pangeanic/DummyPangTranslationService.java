@@ -1,6 +1,7 @@
 package eu.europeana.api.translation.service.pangeanic;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import eu.europeana.api.translation.definitions.model.TranslationObj;
 import eu.europeana.api.translation.service.exception.TranslationException;
 import eu.europeana.api.translation.service.exception.TranslationServiceConfigurationException;
@@ -27,4 +28,12 @@ public class DummyPangTranslationService extends PangeanicTranslationService{
     }
   }
 
+  @Override
+  public CompletableFuture<Void> translateAsync(List<TranslationObj> translationObjs) {
+    for(TranslationObj obj : translationObjs) {
+      obj.setTranslation(obj.getText());
+    }
+    return CompletableFuture.completedFuture(null);
+  }
+
 }
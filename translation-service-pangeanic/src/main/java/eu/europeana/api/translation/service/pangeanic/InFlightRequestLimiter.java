@@ -0,0 +1,103 @@
+package eu.europeana.api.translation.service.pangeanic;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of concurrent requests sent for one api request, the requests above the limit
+ * are queued and sent when one of the requests in flight completes. Used for the detect and
+ * translate requests sent without waiting for the responses, so that a large request without
+ * source language does not occupy the whole connection pool of the shared transport. The queued
+ * priority requests (the translations of the already detected texts) are sent before the other
+ * ones, so that the first translations do not wait for the detection of all texts.
+ */
+final class InFlightRequestLimiter {
+
+  private final int maxInFlight;
+  // guarded by this
+  private final Queue<Runnable> waitingPriority = new ArrayDeque<>();
+  private final Queue<Runnable> waiting = new ArrayDeque<>();
+  private int inFlight;
+  // a thread is sending the queued requests
+  private boolean dispatching;
+
+  /**
+   * Constructor
+   * @param maxInFlight max number of requests in progress, must be positive
+   */
+  InFlightRequestLimiter(int maxInFlight) {
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Sends the request now, or as soon as the number of requests in flight allows it
+   * @param <T> the type of the result
+   * @param request sends the request, called only once
+   * @param priority true if the request is sent before the queued requests without priority
+   * @return the future completed with the result of the request
+   */
+  <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> request, boolean priority) {
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    final Runnable send = () -> start(request).whenComplete((value, error) -> {
+      release();
+      if (error == null) {
+        result.complete(value);
+      } else {
+        result.completeExceptionally(error);
+      }
+    });
+    synchronized (this) {
+      (priority ? waitingPriority : waiting).add(send);
+    }
+    dispatch();
+    return result;
+  }
+
+  private static <T> CompletableFuture<T> start(Supplier<CompletableFuture<T>> request) {
+    try {
+      return request.get();
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private void release() {
+    synchronized (this) {
+      inFlight--;
+    }
+    dispatch();
+  }
+
+  /**
+   * Sends the queued requests while permits are available. The requests completed synchronously
+   * release their permit within the loop, only one thread sends at a time so that these releases
+   * continue the loop instead of nesting the calls.
+   */
+  private void dispatch() {
+    synchronized (this) {
+      if (dispatching) {
+        return;
+      }
+      dispatching = true;
+    }
+    while (true) {
+      final Runnable next;
+      synchronized (this) {
+        next = inFlight < maxInFlight ? pollNext() : null;
+        if (next == null) {
+          dispatching = false;
+          return;
+        }
+        inFlight++;
+      }
+      next.run();
+    }
+  }
+
+  private Runnable pollNext() {
+    final Runnable next = waitingPriority.poll();
+    return next != null ? next : waiting.poll();
+  }
+}
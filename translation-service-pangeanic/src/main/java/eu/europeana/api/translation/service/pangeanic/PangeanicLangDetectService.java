@@ -1,28 +1,29 @@
 package eu.europeana.api.translation.service.pangeanic;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 import eu.europeana.api.translation.definitions.model.LanguageDetectionObj;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.http.HttpStatus;
-import org.apache.http.client.ClientProtocolException;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.config.SocketConfig;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
-import org.apache.http.util.EntityUtils;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.codehaus.jettison.json.JSONArray;
-import org.codehaus.jettison.json.JSONException;
-import org.codehaus.jettison.json.JSONObject;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
 import eu.europeana.api.translation.service.LanguageDetectionService;
+import eu.europeana.api.translation.service.exception.DeadlineExceededException;
 import eu.europeana.api.translation.service.exception.LanguageDetectionException;
+import eu.europeana.api.translation.service.http.AsyncHttpTransport;
+import eu.europeana.api.translation.service.util.Deadline;
 
 public class PangeanicLangDetectService implements LanguageDetectionService {
 
@@ -34,32 +35,51 @@ public class PangeanicLangDetectService implements LanguageDetectionService {
   private Set<String> supportedLanguages = Set.of("sk", "ro", "bg", "pl", "hr", "sv", "fr", "it",
       "es", "cs", "de", "lv", "nl", "el", "fi", "da", "sl", "hu", "pt", "et", "lt", "ga", "en");
 
-  protected CloseableHttpClient detectClient;
+  protected final AsyncHttpTransport transport;
+  // the transport is closed with the service only if it was created by the service
+  private final boolean ownsTransport;
+  // detected languages by hint and hash of the text, null if disabled
+  private final Cache<String, String> detectionCache;
 
   public PangeanicLangDetectService(String endPoint) {
-    this.externalServiceEndpoint = endPoint;
-    init();
+    this(endPoint, null);
+  }
 
+  /**
+   * Constructor
+   * @param endPoint the detect endpoint
+   * @param transport the http transport shared with the translation service, a new one is created
+   *        if null
+   */
+  public PangeanicLangDetectService(String endPoint, AsyncHttpTransport transport) {
+    this(endPoint, transport, PangeanicTranslationUtils.DETECTION_CACHE_SIZE);
   }
 
   /**
-   * Creates a new client that can send translation requests to Google Cloud Translate. Note that
-   * the client needs to be closed when it's not used anymore
-   * 
-   * @throws IOException when there is a problem retrieving the first token
-   * @throws JSONException when there is a problem decoding the received token
+   * Constructor
+   * @param endPoint the detect endpoint
+   * @param transport the http transport shared with the translation service, a new one is created
+   *        if null
+   * @param detectionCacheSize max number of detected languages kept in memory, 0 to disable the
+   *        cache
    */
+  public PangeanicLangDetectService(String endPoint, AsyncHttpTransport transport,
+      int detectionCacheSize) {
+    this.externalServiceEndpoint = endPoint;
+    this.ownsTransport = transport == null && StringUtils.isNotBlank(endPoint);
+    this.transport = ownsTransport ? AsyncHttpTransport.withDefaults() : transport;
+    this.detectionCache = detectionCacheSize <= 0 ? null
+        : CacheBuilder.newBuilder().maximumSize(detectionCacheSize)
+            .expireAfterWrite(PangeanicTranslationUtils.DETECTION_CACHE_TTL, TimeUnit.MILLISECONDS)
+            .build();
+    init();
+  }
+
   private void init() {
     if(StringUtils.isBlank(getExternalServiceEndPoint())) {
       return;
     }
     
-    PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
-    cm.setMaxTotal(PangeanicTranslationUtils.MAX_CONNECTIONS);
-    cm.setDefaultMaxPerRoute(PangeanicTranslationUtils.MAX_CONNECTIONS_PER_ROUTE);
-    cm.setDefaultSocketConfig(
-        SocketConfig.custom().setSoKeepAlive(true).setSoTimeout(3600000).build());
-    detectClient = HttpClients.custom().setConnectionManager(cm).build();
     if(LOG.isInfoEnabled()) {
       LOG.info(
           "Pangeanic Language Detection service is initialized with detect language Endpoint - {}",
@@ -75,20 +95,62 @@ public class PangeanicLangDetectService implements LanguageDetectionService {
   @Override
   public void detectLang(List<LanguageDetectionObj> languageDetectionObjs)
       throws LanguageDetectionException {
+    try {
+      detectLangAsync(languageDetectionObjs).join();
+    } catch (CompletionException e) {
+      throw toLanguageDetectionException(e.getCause());
+    }
+  }
+
+  /**
+   * Sends the language detection request without waiting for the response, the detected languages
+   * are filled into the given objects when the response is received. The languages found in the
+   * detection cache are filled in immediately, only the other texts are sent to Pangeanic.
+   * @param languageDetectionObjs the objects to process
+   * @return the future completed when the languages are filled in, or with a
+   *         {@link LanguageDetectionException}
+   */
+  public CompletableFuture<Void> detectLangAsync(List<LanguageDetectionObj> languageDetectionObjs) {
     if (languageDetectionObjs.isEmpty()) {
-      return;
+      return CompletableFuture.completedFuture(null);
+    }
+
+    String langHint = languageDetectionObjs.get(0).getHint();
+    List<LanguageDetectionObj> toDetect = fillFromDetectionCache(languageDetectionObjs);
+    if (toDetect.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
     }
 
     // get values for the request
     List<String> texts = new ArrayList<>();
-    languageDetectionObjs.stream().forEach(obj -> texts.add(obj.getText()));
+    toDetect.stream().forEach(obj -> texts.add(obj.getText()));
 
-    String langHint = languageDetectionObjs.get(0).getHint();
-
-    HttpPost post = PangeanicTranslationUtils
+    SimpleHttpRequest post = PangeanicTranslationUtils
         .createDetectlanguageRequest(getExternalServiceEndPoint(), texts, langHint, "");
-    List<String> results = sendDetectRequestAndParse(post);
+    try {
+      PangeanicTranslationUtils.applyDeadline(post, Deadline.current(), transport);
+    } catch (DeadlineExceededException e) {
+      return CompletableFuture.failedFuture(
+          new LanguageDetectionException(e.getMessage(), HttpStatus.SC_GATEWAY_TIMEOUT, e));
+    }
+
+    return transport.execute(post).handle((response, error) -> {
+      try {
+        if (error != null) {
+          throw new LanguageDetectionException("Remote service invocation error.", -1,
+              error instanceof CompletionException ? error.getCause() : error);
+        }
+        fillDetectedLanguages(toDetect, parseDetectResponse(response));
+        storeInDetectionCache(toDetect);
+        return null;
+      } catch (LanguageDetectionException e) {
+        throw new CompletionException(e);
+      }
+    });
+  }
 
+  private void fillDetectedLanguages(List<LanguageDetectionObj> languageDetectionObjs,
+      List<String> results) throws LanguageDetectionException {
     // fallback check - if the lang detection is complete / successful
     if (results.size() != languageDetectionObjs.size()) {
       throw new LanguageDetectionException("The Language detection is not completed successfully. Expected "
@@ -102,96 +164,115 @@ public class PangeanicLangDetectService implements LanguageDetectionService {
   }
 
   /**
-   * Send the request to Pangeanic and parses the response in the list of strings NOTE : We do not
+   * Fills the languages available in the detection cache
+   * @param languageDetectionObjs the objects to process
+   * @return the objects for which the language must be detected by Pangeanic
+   */
+  private List<LanguageDetectionObj> fillFromDetectionCache(
+      List<LanguageDetectionObj> languageDetectionObjs) {
+    if (detectionCache == null) {
+      return languageDetectionObjs;
+    }
+    List<LanguageDetectionObj> toDetect = new ArrayList<>(languageDetectionObjs.size());
+    String detectedLang;
+    for (LanguageDetectionObj obj : languageDetectionObjs) {
+      detectedLang = detectionCache.getIfPresent(detectionCacheKey(obj));
+      if (detectedLang == null) {
+        toDetect.add(obj);
+      } else {
+        obj.setDetectedLang(detectedLang);
+      }
+    }
+    return toDetect.size() == languageDetectionObjs.size() ? languageDetectionObjs : toDetect;
+  }
+
+  private void storeInDetectionCache(List<LanguageDetectionObj> languageDetectionObjs) {
+    if (detectionCache == null) {
+      return;
+    }
+    for (LanguageDetectionObj obj : languageDetectionObjs) {
+      // the texts without accepted detection are sent again, the results may change over time
+      if (obj.getDetectedLang() != null) {
+        detectionCache.put(detectionCacheKey(obj), obj.getDetectedLang());
+      }
+    }
+  }
+
+  private static String detectionCacheKey(LanguageDetectionObj obj) {
+    // the hint is sent with the request and may change the detected language, the texts are not
+    // kept in memory
+    return StringUtils.defaultString(obj.getHint()) + '\n'
+        + Hashing.sha256().hashString(obj.getText(), StandardCharsets.UTF_8);
+  }
+
+  static LanguageDetectionException toLanguageDetectionException(Throwable error) {
+    if (error instanceof LanguageDetectionException) {
+      return (LanguageDetectionException) error;
+    }
+    return new LanguageDetectionException("Remote service invocation error.", -1, error);
+  }
+
+  /**
+   * Parses the Pangeanic response in the list of strings NOTE : We do not
    * accept results if the threshold is lower than 0.5 For anything not recognised or present or not
    * acceptable , we add null values in the list
    *
-   * @param post http post request with body
+   * @param response the response of the detect request
    * @return list of languages detected in the same sequence
-   * @throws IOException
-   * @throws JSONException
    * @throws LanguageDetectionException
    */
-  private List<String> sendDetectRequestAndParse(HttpPost post) throws LanguageDetectionException {
+  private List<String> parseDetectResponse(SimpleHttpResponse response)
+      throws LanguageDetectionException {
     //initialize with unknown
     int remoteStatusCode = -1;
-    try (CloseableHttpResponse response = detectClient.execute(post)) {
+    try {
       // Pageanic BUG - sometimes language detect sends 400 Bad request with proper response and
       // error message
-      if (response == null || response.getStatusLine() == null) {
+      if (response == null) {
         throw new LanguageDetectionException(
             "Invalid reponse received from Pangeanic service, no response or status line available!");
       } 
       
-      remoteStatusCode = response.getStatusLine().getStatusCode(); 
+      remoteStatusCode = response.getCode(); 
       boolean failedRequest = remoteStatusCode != HttpStatus.SC_OK;
-      String json = response.getEntity() == null ? "" : EntityUtils.toString(response.getEntity());
       if ( failedRequest ) {
+        String json = response.getBodyText() == null ? "" : response.getBodyText();
         throw new LanguageDetectionException(
             "Error from Pangeanic Language Detect API: " + json,
             remoteStatusCode);
       } else {
+        byte[] json = response.getBodyBytes();
         // sometimes language detect sends 200 ok status with empty response data
-        if (json.isEmpty()) {
+        if (json == null || json.length == 0) {
           throw new LanguageDetectionException("Language detect returned an empty response",
               remoteStatusCode);
         }
-        JSONObject obj = new JSONObject(json);
+        List<String> result = new ArrayList<>();
+        int detectedLangs = PangeanicTranslationUtils.readDetectedLanguages(json,
+            (index, lang, langScore) ->
+                // if lang detected is lower than 0.5 score then don't accept the results
+                // when no detected lang is returned (ideally, this should not happen) the
+                // values as well will remain non-translated
+                result.add(langScore >= THRESHOLD ? lang : null));
 
         // if json doesn't have detected lanaguge throw a error
-        if (!obj.has(PangeanicTranslationUtils.DETECTED_LANGUAGE)) {
+        if (detectedLangs < 0) {
           throw new LanguageDetectionException(
               "Language detect response doesn't have detected_langs tags",
               remoteStatusCode);
         }
-
-        return extractDetectedLanguages(obj);
+        return result;
       }
-    } catch (ClientProtocolException e) {
-      throw new LanguageDetectionException("Remote service invocation error.",
-          remoteStatusCode, e);
-    } catch (JSONException | IOException e) {
+    } catch (IOException e) {
       throw new LanguageDetectionException("Cannot read pangeanic service response.",
           remoteStatusCode, e);
     }
   }
 
-  private List<String> extractDetectedLanguages(JSONObject obj) throws JSONException {
-    List<String> result = new ArrayList<>();
-    JSONArray detectedLangs = obj.getJSONArray(PangeanicTranslationUtils.DETECTED_LANGUAGE);
-    for (int i = 0; i < detectedLangs.length(); i++) {
-      JSONObject object = (JSONObject) detectedLangs.get(i);
-      if (hasLanguageAndScoreDetected(object)) {
-        double langScore = object.getDouble(PangeanicTranslationUtils.SOURCE_LANG_SCORE);
-        // if lang detected is lower than 0.5 score then don't accept the results
-        if (langScore >= THRESHOLD) {
-          result.add(object.getString(PangeanicTranslationUtils.SOURCE_DETECTED));
-        } else {
-          result.add(null);
-        }
-      } else {
-        // when no detected lang is returned. Ideally, this should not happen
-        // But there are time Pangeanic returns no src_detected value
-        // These values as well will remain non-translated
-        result.add(null);
-      }
-    }
-    return result;
-  }
-
-  private boolean hasLanguageAndScoreDetected(JSONObject object) {
-    return object.has(PangeanicTranslationUtils.SOURCE_DETECTED)
-        && object.has(PangeanicTranslationUtils.SOURCE_LANG_SCORE);
-  }
-
   @Override
   public void close() {
-    if (detectClient != null) {
-      try {
-        this.detectClient.close();
-      } catch (IOException e) {
-        LOG.error("Error closing connection to Pangeanic Translation API", e);
-      }
+    if (ownsTransport) {
+      transport.close();
     }
   }
 
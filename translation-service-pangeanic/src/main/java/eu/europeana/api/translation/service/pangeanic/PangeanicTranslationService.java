@@ -6,31 +6,29 @@ import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.http.HttpStatus;
-import org.apache.http.client.ClientProtocolException;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.config.SocketConfig;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
-import org.apache.http.util.EntityUtils;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.codehaus.jettison.json.JSONArray;
-import org.codehaus.jettison.json.JSONException;
-import org.codehaus.jettison.json.JSONObject;
+import com.google.common.collect.Lists;
 import eu.europeana.api.commons.definitions.utils.LoggingUtils;
 import eu.europeana.api.translation.definitions.model.LanguageDetectionObj;
 import eu.europeana.api.translation.definitions.model.TranslationObj;
 import eu.europeana.api.translation.service.AbstractTranslationService;
+import eu.europeana.api.translation.service.exception.DeadlineExceededException;
 import eu.europeana.api.translation.service.exception.LanguageDetectionException;
 import eu.europeana.api.translation.service.exception.TranslationException;
 import eu.europeana.api.translation.service.exception.TranslationServiceConfigurationException;
+import eu.europeana.api.translation.service.http.AsyncHttpTransport;
+import eu.europeana.api.translation.service.util.Deadline;
 
 /**
  * Service to send data to translate to Pangeanic Translate API V2
@@ -45,11 +43,16 @@ public class PangeanicTranslationService extends AbstractTranslationService {
   protected static final Logger LOG = LogManager.getLogger(PangeanicTranslationService.class);
   public final String externalServiceEndpoint;
 
-  protected CloseableHttpClient translateClient;
+  protected final AsyncHttpTransport transport;
+  // the transport is closed with the service only if it was created by the service
+  private final boolean ownsTransport;
   private String serviceId;
+  private int detectChunkSize = PangeanicTranslationUtils.DETECT_CHUNK_SIZE;
+  private int maxConcurrentRequests = PangeanicTranslationUtils.MAX_CONCURRENT_REQUESTS;
   
   
-  private final EnumMap<PangeanicThresholds, Double> configuredThresholds = new EnumMap<>(PangeanicThresholds.class);
+  // replaced as a whole when the thresholds are reloaded
+  private volatile Map<PangeanicThresholds, Double> configuredThresholds = new EnumMap<>(PangeanicThresholds.class);
 
   
   public PangeanicTranslationService(String externalServiceEndpoint,
@@ -59,19 +62,32 @@ public class PangeanicTranslationService extends AbstractTranslationService {
   
   public PangeanicTranslationService(String externalServiceEndpoint,
       PangeanicLangDetectService langDetectService, Properties thresholds) throws TranslationServiceConfigurationException {
+    this(externalServiceEndpoint, langDetectService, thresholds, null);
+  }
+
+  /**
+   * Constructor
+   * @param externalServiceEndpoint the translate endpoint
+   * @param langDetectService the service used when the source language is not provided
+   * @param thresholds optional properties containing threshold configurations for pangeanic languages
+   * @param transport the http transport shared with the detect service, a new one is created if null
+   * @throws TranslationServiceConfigurationException if the thresholds are invalid
+   */
+  public PangeanicTranslationService(String externalServiceEndpoint,
+      PangeanicLangDetectService langDetectService, Properties thresholds,
+      AsyncHttpTransport transport) throws TranslationServiceConfigurationException {
     this.externalServiceEndpoint = externalServiceEndpoint;
     this.langDetectService = langDetectService;
+    this.ownsTransport = transport == null && StringUtils.isNotBlank(externalServiceEndpoint);
+    this.transport = ownsTransport ? AsyncHttpTransport.withDefaults() : transport;
     init(thresholds);
   }
 
 
   /**
-   * Creates a new client that can send translation requests to Google Cloud Translate. Note that
-   * the client needs to be closed when it's not used anymore
+   * Initializes the service. Note that the service needs to be closed when it's not used anymore
    * @param thresholds optional properties containing threshold configurations for pangeanic languages
    * @throws TranslationServiceConfigurationException 
-   * @throws IOException when there is a problem retrieving the first token
-   * @throws JSONException when there is a problem decoding the received token
    */
   private void init(Properties thresholds) throws TranslationServiceConfigurationException {
     initTranslateClient();
@@ -82,15 +98,33 @@ public class PangeanicTranslationService extends AbstractTranslationService {
     if(thresholds == null || thresholds.isEmpty()) {
       return;
     }
-    
+    updateThresholds(thresholds);
+  }
+
+  /**
+   * Replaces the configured thresholds, e.g. when the thresholds file is changed. The translations
+   * read from the cache are filtered with the new thresholds, no new translation is needed.
+   * @param thresholds the thresholds by language, the default thresholds are used for the missing
+   *        languages
+   * @throws TranslationServiceConfigurationException if a threshold is not a number, the previous
+   *         thresholds are kept in this case
+   */
+  public void updateThresholds(Properties thresholds) throws TranslationServiceConfigurationException {
+    EnumMap<PangeanicThresholds, Double> newThresholds = new EnumMap<>(PangeanicThresholds.class);
     //fill thresholds map
     String key;
     for(PangeanicThresholds language : PangeanicThresholds.values()) {
       key = language.name().toLowerCase(Locale.ENGLISH);
-      if(thresholds.containsKey(key)) {
-         configuredThresholds.put(language, Double.valueOf(thresholds.getProperty(key)));
+      if(thresholds != null && thresholds.containsKey(key)) {
+        try {
+          newThresholds.put(language, Double.valueOf(thresholds.getProperty(key)));
+        } catch (NumberFormatException e) {
+          throw new TranslationServiceConfigurationException(
+              "Invalid pangeanic threshold for language: " + key, e);
+        }
       }
     }
+    configuredThresholds = newThresholds;
   }
 
 
@@ -99,15 +133,6 @@ public class PangeanicTranslationService extends AbstractTranslationService {
       return;
     }
 
-    PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
-    cm.setMaxTotal(PangeanicTranslationUtils.MAX_CONNECTIONS);
-    cm.setDefaultMaxPerRoute(PangeanicTranslationUtils.MAX_CONNECTIONS_PER_ROUTE);
-    cm.setDefaultSocketConfig(
-        SocketConfig.custom().setSoKeepAlive(true).setSoTimeout(3600000).build());
-    // SocketConfig socketConfig =
-    // SocketConfig.custom().setSoKeepAlive(true).setSoTimeout(3600000).build(); //We need to set
-    // socket keep alive
-    translateClient = HttpClients.custom().setConnectionManager(cm).build();
     if (LOG.isInfoEnabled()) {
       LOG.info("Pangeanic translation service is initialized with translate Endpoint - {}",
           getExternalServiceEndPoint());
@@ -138,25 +163,55 @@ public class PangeanicTranslationService extends AbstractTranslationService {
   @Override
   public void translate(List<TranslationObj> translationObjs) throws TranslationException {
     try {
-      if (translationObjs.isEmpty()) {
-        return;
-      }
-
-      if (translationObjs.get(0).getSourceLang() == null) {
-        // if the source language was not provided in the request, language detection needs to be called
-        detectLanguages(translationObjs);
-      }
+      translateAsync(translationObjs).join();
+    } catch (CompletionException e) {
+      throw toTranslationException(e.getCause());
+    }
+  }
 
-      computeTranslations(translationObjs);
+  /**
+   * Sends the detect (if needed) and translate requests without waiting for the responses. The
+   * translations are filled into the given objects when the responses are received. The deadline
+   * of the calling thread applies to all requests.
+   * <p>
+   * When the source language is not provided, the detection is sent in chunks and the language
+   * groups of each chunk are sent to translation as soon as the detection of the chunk completes.
+   * At most {@link #setMaxConcurrentRequests(int)} detect and translate requests are in progress
+   * at a time for the given objects.
+   * @param translationObjs the objects to translate
+   * @return the future completed when the translations are filled in, or with a
+   *         {@link TranslationException}
+   */
+  public CompletableFuture<Void> translateAsync(List<TranslationObj> translationObjs) {
+    if (translationObjs.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    // the continuations run on the I/O threads, the deadline is passed explicitly
+    final Deadline deadline = Deadline.current();
+    final InFlightRequestLimiter limiter = new InFlightRequestLimiter(maxConcurrentRequests);
+    if (translationObjs.get(0).getSourceLang() != null) {
+      return computeTranslationsAsync(translationObjs, deadline, limiter);
+    }
+    // if the source language was not provided in the request, language detection needs to be called
+    List<List<TranslationObj>> chunks = Lists.partition(translationObjs, detectChunkSize);
+    List<CompletableFuture<Void>> pipelines = new ArrayList<>(chunks.size());
+    for (List<TranslationObj> chunk : chunks) {
+      pipelines.add(limiter.submit(() -> detectLanguagesAsync(chunk, deadline), false)
+          .thenCompose(none -> computeTranslationsAsync(chunk, deadline, limiter)));
+    }
+    return CompletableFuture.allOf(pipelines.toArray(new CompletableFuture[0]));
+  }
 
-    } catch (JSONException e) {
-      throw new TranslationException("Exception occured during Pangeanic translation!",
-          HttpStatus.SC_BAD_GATEWAY, e);
+  static TranslationException toTranslationException(Throwable error) {
+    if (error instanceof TranslationException) {
+      return (TranslationException) error;
     }
+    return new TranslationException("Exception occured during Pangeanic translation!",
+        HttpStatus.SC_BAD_GATEWAY, error);
   }
 
-  private void computeTranslations(List<TranslationObj> translationObjs)
-      throws JSONException, TranslationException {
+  private CompletableFuture<Void> computeTranslationsAsync(List<TranslationObj> translationObjs,
+      Deadline deadline, InFlightRequestLimiter limiter) {
     
     //collect source languages, they might be multiple 
     Set<String> sourceLanguages = new HashSet<>(translationObjs.stream().map(to -> to.getSourceLang()).toList());
@@ -164,6 +219,8 @@ public class PangeanicTranslationService extends AbstractTranslationService {
     List<TranslationObj> toTranslatePerLanguage;
     //the request has only one target language
     String targetLang = translationObjs.get(0).getTargetLang(); 
+    //the requests for the different source languages are sent concurrently
+    List<CompletableFuture<Void>> requests = new ArrayList<>(sourceLanguages.size());
         
     for (String sourceLanguage : sourceLanguages) {
       if(sourceLanguages.size() == 1) {
@@ -173,32 +230,54 @@ public class PangeanicTranslationService extends AbstractTranslationService {
         toTranslatePerLanguage = getObjectsWithSourceLanguage(translationObjs, sourceLanguage); 
       }
       //perform translation and fill results, the translations are filled directly in the original TranslationObj 
-      translateAndAccumulateResults(toTranslatePerLanguage, sourceLanguage, targetLang);
+      final List<TranslationObj> languageObjs = toTranslatePerLanguage;
+      // the texts detected already are translated before the detection of the other chunks
+      requests.add(limiter.submit(() -> translateAndAccumulateResultsAsync(languageObjs,
+          sourceLanguage, targetLang, deadline), true));
     }
+    return CompletableFuture.allOf(requests.toArray(new CompletableFuture[0]));
   }
 
 
-  private void translateAndAccumulateResults(List<TranslationObj> toTranslatePerLanguage,
-      String sourceLanguage, String targetLang) throws JSONException, TranslationException {
+  private CompletableFuture<Void> translateAndAccumulateResultsAsync(
+      List<TranslationObj> toTranslatePerLanguage, String sourceLanguage, String targetLang,
+      Deadline deadline) {
     
     if(sourceLanguage == null) {
       //language not provided and not detected, skip translation request
-      return;  
+      return CompletableFuture.completedFuture(null);  
     }
     
     if(sourceLanguage.equals(targetLang)) {
       //not needed to send a translation request, when source=target 
       fillTranslationForSameLanguage(toTranslatePerLanguage);
-      return;
+      return CompletableFuture.completedFuture(null);
     }
     
     // send the translation request
     List<String> translTexts = toTranslatePerLanguage.stream().map(to -> to.getText()).toList();
-    HttpPost translateRequest = PangeanicTranslationUtils.createTranslateRequest(
+    SimpleHttpRequest translateRequest = PangeanicTranslationUtils.createTranslateRequest(
         getExternalServiceEndPoint(), translTexts, targetLang, sourceLanguage, "");
+    try {
+      PangeanicTranslationUtils.applyDeadline(translateRequest, deadline, transport);
+    } catch (DeadlineExceededException e) {
+      return CompletableFuture.failedFuture(
+          new TranslationException(e.getMessage(), HttpStatus.SC_GATEWAY_TIMEOUT, e));
+    }
     
     //parse response and accumulate results 
-    sendTranslateRequestAndFillTranslations(translateRequest, toTranslatePerLanguage, sourceLanguage);
+    return transport.execute(translateRequest).handle((response, error) -> {
+      try {
+        if (error != null) {
+          throw new TranslationException("Remote service invocation error.", -1,
+              error instanceof CompletionException ? error.getCause() : error);
+        }
+        fillTranslations(response, toTranslatePerLanguage, sourceLanguage);
+        return null;
+      } catch (TranslationException e) {
+        throw new CompletionException(e);
+      }
+    });
   }
 
   private List<TranslationObj> getObjectsWithSourceLanguage(List<TranslationObj> translationObjs,
@@ -208,22 +287,41 @@ public class PangeanicTranslationService extends AbstractTranslationService {
   }
 
 
-  private void detectLanguages(List<TranslationObj> translationObjs) throws TranslationException {
+  private CompletableFuture<Void> detectLanguagesAsync(List<TranslationObj> translationObjs,
+      Deadline deadline) {
     if (langDetectService == null) {
-      throw new TranslationException("No langDetectService configured!",
-          HttpStatus.SC_INTERNAL_SERVER_ERROR);
+      return CompletableFuture.failedFuture(new TranslationException(
+          "No langDetectService configured!", HttpStatus.SC_INTERNAL_SERVER_ERROR));
     }
 
     // detect languages
     List<LanguageDetectionObj> languageDetectionObjs = PangeanicTranslationUtils.buildLangDetectionObjectList(translationObjs);
-    List<String> detectedLanguages = new ArrayList<>();
-    try {
-      langDetectService.detectLang(languageDetectionObjs);
-      languageDetectionObjs.stream().forEach(obj -> detectedLanguages.add(obj.getDetectedLang()));
-    } catch (LanguageDetectionException e) {
-      throw new TranslationException("Error when tryng to detect the language of the text input!",
-          e.getRemoteStatusCode(), e);
+    final CompletableFuture<Void> detection;
+    // the queued detections are sent from the I/O threads, which are not bound to the deadline
+    try (Deadline.Scope scope = deadline == null ? null : deadline.attach()) {
+      detection = langDetectService.detectLangAsync(languageDetectionObjs);
     }
+    return detection.handle((none, error) -> {
+      try {
+        if (error != null) {
+          LanguageDetectionException e = PangeanicLangDetectService.toLanguageDetectionException(
+              error instanceof CompletionException ? error.getCause() : error);
+          throw new TranslationException(
+              "Error when tryng to detect the language of the text input!",
+              e.getRemoteStatusCode(), e);
+        }
+        List<String> detectedLanguages = new ArrayList<>();
+        languageDetectionObjs.stream().forEach(obj -> detectedLanguages.add(obj.getDetectedLang()));
+        updateSourceLanguages(translationObjs, detectedLanguages);
+        return null;
+      } catch (TranslationException e) {
+        throw new CompletionException(e);
+      }
+    });
+  }
+
+  private void updateSourceLanguages(List<TranslationObj> translationObjs,
+      List<String> detectedLanguages) throws TranslationException {
 
     // verify language detection response
     if (detectedLanguages == null || detectedLanguages.size() != translationObjs.size()) {
@@ -243,89 +341,95 @@ public class PangeanicTranslationService extends AbstractTranslationService {
     }
   }
 
-  private void sendTranslateRequestAndFillTranslations(HttpPost post, List<TranslationObj> translationObjs, String sourceLanguage) throws TranslationException {
+  private void fillTranslations(SimpleHttpResponse response, List<TranslationObj> translationObjs, String sourceLanguage) throws TranslationException {
     // initialize with unknown
     int remoteStatusCode = -1;
-    try (CloseableHttpResponse response = translateClient.execute(post)) {
-      if (response == null || response.getStatusLine() == null) {
+    try {
+      if (response == null) {
         throw new TranslationException(
             "Invalid reponse received from Pangeanic service, no response or status line available!");
       }
 
-      remoteStatusCode = response.getStatusLine().getStatusCode();
+      remoteStatusCode = response.getCode();
       boolean failedRequest = remoteStatusCode != HttpStatus.SC_OK;
-      String responseBody = response.getEntity() == null ? "" : EntityUtils.toString(response.getEntity());
       if (failedRequest) {
+        String responseBody = response.getBodyText() == null ? "" : response.getBodyText();
         throw new TranslationException(
             "Error from Pangeanic Translation API: " + responseBody, remoteStatusCode);
-      } else {
-        JSONObject obj = new JSONObject(responseBody);
-        // there are cases where we get an empty response
-        if (!obj.has(PangeanicTranslationUtils.TRANSLATIONS)) {
-          throw new TranslationException("Pangeanic Translation API returned empty response",
-              remoteStatusCode);
-        }
-        extractTranslations(obj, translationObjs, sourceLanguage, remoteStatusCode);
       }
-    } catch (ClientProtocolException e) {
-      throw new TranslationException("Remote service invocation error.", remoteStatusCode, e);
-    } catch (JSONException | IOException e) {
+      byte[] responseBody = response.getBodyBytes() == null ? new byte[0] : response.getBodyBytes();
+      extractTranslations(responseBody, translationObjs, sourceLanguage, remoteStatusCode);
+    } catch (IOException e) {
       throw new TranslationException("Cannot read pangeanic service response.", remoteStatusCode,
           e);
     }
   }
 
-  private void extractTranslations(JSONObject obj, List<TranslationObj> translationObjs,
-      String sourceLanguage, int remoteStatusCode)
-      throws JSONException, TranslationException {
-    JSONArray translations = obj.getJSONArray(PangeanicTranslationUtils.TRANSLATIONS);
-    if (translations.length() == 0) {
+  private void extractTranslations(byte[] responseBody, List<TranslationObj> translationObjs,
+      String sourceLanguage, int remoteStatusCode) throws IOException, TranslationException {
+    // the translations are applied only after the size of the response is verified
+    final String[] translations = new String[translationObjs.size()];
+    final double[] scores = new double[translationObjs.size()];
+    int received = PangeanicTranslationUtils.readTranslations(responseBody,
+        (index, translation, score) -> {
+          if (index < translations.length) {
+            translations[index] = translation;
+            scores[index] = score;
+          }
+        });
+    // there are cases where we get an empty response
+    if (received < 0) {
+      throw new TranslationException("Pangeanic Translation API returned empty response",
+          remoteStatusCode);
+    }
+    if (received == 0) {
       throw new TranslationException("Translation failed (empty list) for source language - "
-          + obj.get(PangeanicTranslationUtils.SOURCE_LANG), remoteStatusCode);
+          + sourceLanguage, remoteStatusCode);
     }
     
     //ensure the size of the response is correct 
-    if(translations.length() != translationObjs.size()){
+    if(received != translationObjs.size()){
       throw new TranslationException(
           "The translation is incomplete for text with language: " + sourceLanguage
-          + ".  Expected " + translationObjs.size() + " but received: " + translations.length());
+          + ".  Expected " + translationObjs.size() + " but received: " + received);
         
     }
     
-    for (int i = 0; i < translations.length(); i++) {
-      JSONObject object = (JSONObject) translations.get(i);
-      if (hasTranslations(object)) {
-        double score = object.getDouble(PangeanicTranslationUtils.TRANSLATE_SCORE);
-        // only if score returned by the translation service is greater the threshold value, we
-        // will accept the translations
-        if (score > getThresholdForLanguage(sourceLanguage)) {
-          translationObjs.get(i)
-              .setTranslation(object.getString(PangeanicTranslationUtils.TRANSLATE_TARGET));
-        }
+    TranslationObj translationObj;
+    for (int i = 0; i < translations.length; i++) {
+      if (translations[i] == null || Double.isNaN(scores[i])) {
+        continue;
+      }
+      translationObj = translationObjs.get(i);
+      // the raw translation and score are cached, the threshold is applied again when reading
+      translationObj.setRawTranslation(translations[i]);
+      translationObj.setScore(scores[i]);
+      // only if score returned by the translation service is greater the threshold value, we
+      // will accept the translations
+      if (isAcceptedScore(sourceLanguage, scores[i])) {
+        translationObj.setTranslation(translations[i]);
       }
     }
   }
 
+  @Override
+  public boolean isAcceptedScore(String srcLang, double score) {
+    if (!PangeanicThresholds.isLanguageSupported(srcLang)) {
+      // not translated by pangeanic, no threshold available
+      return true;
+    }
+    return score > getThresholdForLanguage(srcLang);
+  }
 
   double getThresholdForLanguage(String sourceLanguage) {
     PangeanicThresholds language = PangeanicThresholds.valueOf(sourceLanguage.toUpperCase(Locale.ENGLISH));
     return configuredThresholds.getOrDefault(language, language.getTranslationThreshold());
   }
 
-  private boolean hasTranslations(JSONObject object) {
-    return object.has(PangeanicTranslationUtils.TRANSLATE_SOURCE)
-        && object.has(PangeanicTranslationUtils.TRANSLATE_TARGET);
-  }
-
-
   @Override
   public void close() {
-    if (translateClient != null) {
-      try {
-        this.translateClient.close();
-      } catch (RuntimeException | IOException e) {
-        LOG.error("Error closing connection to Pangeanic Translation API", e);
-      }
+    if (ownsTransport) {
+      transport.close();
     }
   }
 
@@ -346,4 +450,28 @@ public class PangeanicTranslationService extends AbstractTranslationService {
     this.serviceId = serviceId;
   }
 
+  /**
+   * Sets the number of texts sent in one detect request, when the source language is not provided
+   * @param detectChunkSize the chunk size, must be positive
+   */
+  public void setDetectChunkSize(int detectChunkSize) {
+    if (detectChunkSize <= 0) {
+      throw new IllegalArgumentException("The detect chunk size must be positive: " + detectChunkSize);
+    }
+    this.detectChunkSize = detectChunkSize;
+  }
+
+  /**
+   * Sets the max number of detect and translate requests in progress at a time for one call of
+   * {@link #translateAsync(List)}, the other requests are sent when one of them completes
+   * @param maxConcurrentRequests the max number of requests, must be positive
+   */
+  public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+    if (maxConcurrentRequests <= 0) {
+      throw new IllegalArgumentException(
+          "The max number of concurrent requests must be positive: " + maxConcurrentRequests);
+    }
+    this.maxConcurrentRequests = maxConcurrentRequests;
+  }
+
 }
@@ -1,5 +1,7 @@
 package eu.europeana.api.translation.service.pangeanic;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -10,25 +12,33 @@ import java.util.Map;
 import eu.europeana.api.translation.definitions.model.LanguageDetectionObj;
 import eu.europeana.api.translation.definitions.model.TranslationObj;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.http.Header;
-import org.apache.http.HttpHeaders;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.codehaus.jettison.json.JSONArray;
-import org.codehaus.jettison.json.JSONException;
-import org.codehaus.jettison.json.JSONObject;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import eu.europeana.api.translation.service.exception.DeadlineExceededException;
 import eu.europeana.api.translation.service.exception.TranslationException;
+import eu.europeana.api.translation.service.http.AsyncHttpTransport;
+import eu.europeana.api.translation.service.util.Deadline;
 
 public class PangeanicTranslationUtils {
 
   private static final Logger LOG = LogManager.getLogger(PangeanicTranslationUtils.class);
 
-  public static final int MAX_CONNECTIONS = 100;
-  public static final int MAX_CONNECTIONS_PER_ROUTE = 100;
   public static final int TOKEN_MIN_AGE = 30_000; // ms
+  // number of texts sent in one detect request by the translation without source language
+  public static final int DETECT_CHUNK_SIZE = 100;
+  public static final int DETECTION_CACHE_SIZE = 10_000;
+  public static final int MAX_CONCURRENT_REQUESTS = 4;
+  public static final long DETECTION_CACHE_TTL = 86_400_000; // ms
 
   // request body fields
   public static final String MODE = "mode";
@@ -49,10 +59,47 @@ public class PangeanicTranslationUtils {
   public static final String SOURCE_LANG_SCORE = "src_lang_score";
   public static final String DETECTED_LANGUAGE = "detected_langs";
 
+  // thread safe, the request bodies are written and the responses are read token by token
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  /**
+   * Receives the entries of the array read from the Pangeanic responses, in the order of the texts
+   */
+  @FunctionalInterface
+  public interface ResultHandler {
+    /**
+     * @param index the index of the entry in the array
+     * @param value the translation or the detected language, null if not available
+     * @param score the score of the value, NaN if not available
+     */
+    void accept(int index, String value, double score);
+  }
+
   private PangeanicTranslationUtils() {
     // to hide implicit public one
   }
 
+  /**
+   * Limits the connect, pool-acquire and read timeouts configured for the transport to the time
+   * remaining until the given deadline. The deadline is passed explicitly, as the requests may be
+   * sent from the I/O threads of the transport (e.g. translation after language detection).
+   * @param request the request to send to pangeanic
+   * @param deadline the deadline of the api request, may be null
+   * @param transport the transport used for sending the request
+   * @throws DeadlineExceededException if the deadline already expired
+   */
+  static void applyDeadline(SimpleHttpRequest request, Deadline deadline,
+      AsyncHttpTransport transport) throws DeadlineExceededException {
+    if (deadline == null) {
+      return;
+    }
+    if (deadline.isExpired()) {
+      throw new DeadlineExceededException("Request deadline of " + deadline.getTimeoutMillis()
+          + " ms exceeded before: " + request.getPath(), deadline.getTimeoutMillis());
+    }
+    request.setConfig(transport.getRequestConfig(deadline));
+  }
+
   /**
    * Build LanguageDetectionObj from Translation object
    * Hint is not passed
@@ -79,21 +126,17 @@ public class PangeanicTranslationUtils {
    * @param sourceLanguage the language of the original text
    * @param apikey the api key for the external service invocation
    * @return the post request for the invocation of the external services
-   * @throws JSONException if the request body cannot be built
    */
-  public static HttpPost createTranslateRequest(String translateEndpoint, List<String> texts,
-      String targetLanguage, String sourceLanguage, String apikey) throws JSONException {
-    HttpPost post = new HttpPost(translateEndpoint);
-    JSONObject body = PangeanicTranslationUtils.createTranslateRequestBody(texts, targetLanguage,
+  public static SimpleHttpRequest createTranslateRequest(String translateEndpoint, List<String> texts,
+      String targetLanguage, String sourceLanguage, String apikey) {
+    byte[] body = PangeanicTranslationUtils.createTranslateRequestBody(texts, targetLanguage,
         sourceLanguage, apikey, true);
-    post.setEntity(new StringEntity(body.toString(), StandardCharsets.UTF_8));
-    post.setHeader(HttpHeaders.ACCEPT, ContentType.APPLICATION_JSON.toString());
-    post.setHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.toString());
+    SimpleHttpRequest post = createJsonPost(translateEndpoint, body);
     if (LOG.isTraceEnabled()) {
-      LOG.trace("Sending POST {}", post.getURI());
-      LOG.trace("  body {}", body);
+      LOG.trace("Sending POST {}", post.getRequestUri());
+      LOG.trace("  body {}", new String(body, StandardCharsets.UTF_8));
       LOG.trace("  headers:");
-      for (Header header : post.getAllHeaders()) {
+      for (Header header : post.getHeaders()) {
         LOG.trace("  {}: {}", header.getName(), header.getValue());
       }
     }
@@ -101,89 +144,180 @@ public class PangeanicTranslationUtils {
   }
 
 
-  public static HttpPost createDetectlanguageRequest(String detectEndpoint, List<String> texts,
+  public static SimpleHttpRequest createDetectlanguageRequest(String detectEndpoint, List<String> texts,
       String hint, String apikey) {
-    HttpPost post = new HttpPost(detectEndpoint);
-    JSONObject body = PangeanicTranslationUtils.createDetectRequestBody(texts, hint, apikey);
-    post.setEntity(new StringEntity(body.toString(), StandardCharsets.UTF_8));
-    post.setHeader(HttpHeaders.ACCEPT, ContentType.APPLICATION_JSON.toString());
-    post.setHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.toString());
+    byte[] body = PangeanicTranslationUtils.createDetectRequestBody(texts, hint, apikey);
+    SimpleHttpRequest post = createJsonPost(detectEndpoint, body);
     if (LOG.isTraceEnabled()) {
-      LOG.trace("Sending POST {}", post.getURI());
-      LOG.trace("  body {}", body);
+      LOG.trace("Sending POST {}", post.getRequestUri());
+      LOG.trace("  body {}", new String(body, StandardCharsets.UTF_8));
       LOG.trace("  headers:");
-      for (Header header : post.getAllHeaders()) {
+      for (Header header : post.getHeaders()) {
         LOG.trace("  {}: {}", header.getName(), header.getValue());
       }
     }
     return post;
   }
 
+  private static SimpleHttpRequest createJsonPost(String endpoint, byte[] body) {
+    return SimpleRequestBuilder.post(endpoint)
+        .setBody(body, ContentType.APPLICATION_JSON.withCharset(StandardCharsets.UTF_8))
+        .setHeader(HttpHeaders.ACCEPT, ContentType.APPLICATION_JSON.getMimeType())
+        .build();
+  }
+
   /**
-   * Create the post body for translate requests
+   * Create the post body for translate requests, the json is written directly as UTF-8 bytes
    * 
    * @param texts
    * @param targetLanguage
    * @param sourceLanguage
    * @param apikey
    * @param v2
-   * @return
-   * @throws JSONException
+   * @return the UTF-8 encoded json body
    */
-  public static JSONObject createTranslateRequestBody(List<String> texts, String targetLanguage,
-      String sourceLanguage, String apikey, boolean v2) throws JSONException {
-    JSONObject body = new JSONObject();
-    JSONArray textArray = new JSONArray();
-    for (String text : texts) {
-      textArray.put(text);
-    }
-    // create post body
-    if (v2) {
-      body.put("apikey", apikey);
-      body.put(MODE, MODE_EUROPEANA);
-      body.put(TRANSLATE_SOURCE, textArray);
-      body.put(SOURCE_LANG, sourceLanguage);
-      body.put(INCLUDE_SRC, "true");
-      body.put(TARGET_LANG, targetLanguage);
-    } else {
-      body.put(TEXT, textArray);
-      if (StringUtils.isNotEmpty(sourceLanguage)) {
-        body.put(TRANSLATE_SOURCE, sourceLanguage);
+  public static byte[] createTranslateRequestBody(List<String> texts, String targetLanguage,
+      String sourceLanguage, String apikey, boolean v2) {
+    ByteArrayOutputStream body = new ByteArrayOutputStream(estimateBodySize(texts));
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(body)) {
+      generator.writeStartObject();
+      // create post body
+      if (v2) {
+        generator.writeStringField("apikey", apikey);
+        generator.writeStringField(MODE, MODE_EUROPEANA);
+        writeTexts(generator, TRANSLATE_SOURCE, texts);
+        generator.writeStringField(SOURCE_LANG, sourceLanguage);
+        generator.writeStringField(INCLUDE_SRC, "true");
+        generator.writeStringField(TARGET_LANG, targetLanguage);
+      } else {
+        writeTexts(generator, TEXT, texts);
+        if (StringUtils.isNotEmpty(sourceLanguage)) {
+          generator.writeStringField(TRANSLATE_SOURCE, sourceLanguage);
+        }
+        generator.writeStringField(TRANSLATE_TARGET, targetLanguage);
       }
-      body.put(TRANSLATE_TARGET, targetLanguage);
+      generator.writeEndObject();
+    } catch (IOException e) {
+      // only in-memory streams are used
+      throw new IllegalStateException("Cannot write the pangeanic translate request", e);
     }
-    return body;
+    return body.toByteArray();
   }
 
   /**
-   * Creates Detect language request body
+   * Creates Detect language request body, the json is written directly as UTF-8 bytes
    * 
    * @param texts
    * @param hint
    * @param apikey
-   * @return
-   * @throws JSONException
+   * @return the UTF-8 encoded json body
    */
-  public static JSONObject createDetectRequestBody(List<String> texts, String hint, String apikey) {
-    JSONObject body = new JSONObject();
-    JSONArray textArray = new JSONArray();
-    for (String text : texts) {
-      textArray.put(text);
-    }
-    try {
+  public static byte[] createDetectRequestBody(List<String> texts, String hint, String apikey) {
+    ByteArrayOutputStream body = new ByteArrayOutputStream(estimateBodySize(texts));
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(body)) {
       // create post body
-      body.put("apikey", apikey);
-      body.put(MODE, MODE_EUROPEANA);
-      body.put(TRANSLATE_SOURCE, textArray);
+      generator.writeStartObject();
+      generator.writeStringField("apikey", apikey);
+      generator.writeStringField(MODE, MODE_EUROPEANA);
+      writeTexts(generator, TRANSLATE_SOURCE, texts);
       if (StringUtils.isNotEmpty(hint)) {
-        body.put(SOURCE_LANG, hint);
+        generator.writeStringField(SOURCE_LANG, hint);
       }
-    } catch (JSONException e) {
-      // according to the documentation of put method, this should not happen with the current code
-      LOG.warn("Error when building pangeanic detect request!", e);
+      generator.writeEndObject();
+    } catch (IOException e) {
+      // only in-memory streams are used
+      throw new IllegalStateException("Cannot write the pangeanic detect request", e);
     }
+    return body.toByteArray();
+  }
 
-    return body;
+  private static void writeTexts(JsonGenerator generator, String field, List<String> texts)
+      throws IOException {
+    generator.writeArrayFieldStart(field);
+    for (String text : texts) {
+      generator.writeString(text);
+    }
+    generator.writeEndArray();
+  }
+
+  private static int estimateBodySize(List<String> texts) {
+    // fields of the request and the quotes of the texts, avoids most of the buffer growth
+    int size = 128;
+    for (String text : texts) {
+      size += text.length() + 3;
+    }
+    return size;
+  }
+
+  /**
+   * Reads the translations array of the translate response token by token, without building the
+   * json tree
+   * @param body the UTF-8 encoded response
+   * @param handler receives the translation (tgt) and score of each entry
+   * @return the number of entries in the translations array, -1 if the response has no
+   *         translations array
+   * @throws IOException if the response is not valid json
+   */
+  public static int readTranslations(byte[] body, ResultHandler handler) throws IOException {
+    return readResults(body, TRANSLATIONS, TRANSLATE_TARGET, TRANSLATE_SCORE, handler);
+  }
+
+  /**
+   * Reads the detected languages array of the detect response token by token, without building the
+   * json tree
+   * @param body the UTF-8 encoded response
+   * @param handler receives the detected language (src_detected) and score of each entry
+   * @return the number of entries in the detected languages array, -1 if the response has no
+   *         detected languages array
+   * @throws IOException if the response is not valid json
+   */
+  public static int readDetectedLanguages(byte[] body, ResultHandler handler) throws IOException {
+    return readResults(body, DETECTED_LANGUAGE, SOURCE_DETECTED, SOURCE_LANG_SCORE, handler);
+  }
+
+  private static int readResults(byte[] body, String arrayField, String valueField,
+      String scoreField, ResultHandler handler) throws IOException {
+    int entries = -1;
+    try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new JsonParseException(parser, "The response is not a json object");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String field = parser.getCurrentName();
+        if (parser.nextToken() == JsonToken.START_ARRAY && arrayField.equals(field)) {
+          entries = 0;
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            readResult(parser, entries++, valueField, scoreField, handler);
+          }
+        } else {
+          parser.skipChildren();
+        }
+      }
+    }
+    return entries;
+  }
+
+  private static void readResult(JsonParser parser, int index, String valueField,
+      String scoreField, ResultHandler handler) throws IOException {
+    String value = null;
+    double score = Double.NaN;
+    if (parser.currentToken() == JsonToken.START_OBJECT) {
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String field = parser.getCurrentName();
+        final JsonToken token = parser.nextToken();
+        if (valueField.equals(field) && token == JsonToken.VALUE_STRING) {
+          value = parser.getText();
+        } else if (scoreField.equals(field) && token != JsonToken.VALUE_NULL
+            && token.isScalarValue()) {
+          score = parser.getValueAsDouble(Double.NaN);
+        } else {
+          parser.skipChildren();
+        }
+      }
+    } else {
+      parser.skipChildren();
+    }
+    handler.accept(index, value, score);
   }
 
   /**
@@ -0,0 +1,94 @@
+package eu.europeana.api.translation.service.etranslation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+
+/**
+ * Round-trips the texts through the streamed base64 document of the eTranslation requests and the
+ * scanner of the callbacks. The test is in the package of the document entity, which is internal to
+ * the eTranslation service.
+ */
+public class ETranslationDocumentIT {
+
+  private static final String JSON_HEAD = "{\"content\":\"";
+  private static final String JSON_TAIL = "\"}";
+  // the read buffer of the scanner
+  private static final int READ_BUFFER_SIZE = 8192;
+  private static final String DELIMITER = ETranslationTranslationService.MARKUP_DELIMITER;
+
+  @Test
+  void documentRoundTrip() throws IOException {
+    List<String> texts = List.of("erste Textzeile auf Deutsch", "Größe: 5 × 3 €",
+        "这是第二句话。", "emoji 😀 am Ende", StringUtils.repeat("lang ", 5000));
+    List<String> segments = roundTrip(texts);
+    assertEquals(texts.stream().map(String::strip).toList(), segments);
+  }
+
+  @Test
+  void delimiterSpanningReadBuffers() throws IOException {
+    // the delimiter starts a few characters before the end of the first read buffer
+    final String first = StringUtils.repeat('a', READ_BUFFER_SIZE - 10);
+    // a partial delimiter across the second buffer boundary, followed by the full one
+    final String second = StringUtils.repeat('b', READ_BUFFER_SIZE - 30) + "[notranslate]deen";
+    List<String> texts = List.of(first, second, "dritter Text");
+
+    assertEquals(texts, roundTrip(texts));
+
+    // the plain text callbacks are read with exactly full buffers
+    List<String> segments = new ArrayList<>();
+    final int count = TranslationSegmentScanner.scan(new StringReader(String.join(DELIMITER, texts)),
+        (index, segment) -> segments.add(segment));
+    assertEquals(3, count);
+    assertEquals(texts, segments);
+  }
+
+  @Test
+  void scanningStopped() {
+    List<String> segments = new ArrayList<>();
+    final int count = TranslationSegmentScanner.scan(String.join(DELIMITER, "eins", "zwei", "drei"),
+        false, (index, segment) -> segments.add(segment) && index < 1);
+    assertEquals(2, count);
+    assertEquals(List.of("eins", "zwei"), segments);
+  }
+
+  /**
+   * Writes the texts as document entity, and scans the base64 content of the written document
+   */
+  private static List<String> roundTrip(List<String> texts) throws IOException {
+    List<TranslationObj> translationObjs = new ArrayList<>();
+    for (String text : texts) {
+      TranslationObj translationObj = new TranslationObj();
+      translationObj.setText(text);
+      translationObjs.add(translationObj);
+    }
+    ETranslationDocumentEntity entity =
+        new ETranslationDocumentEntity(JSON_HEAD, JSON_TAIL, translationObjs);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    entity.writeTo(out);
+    final byte[] written = out.toByteArray();
+    assertEquals(entity.getContentLength(), written.length);
+    // the entity is repeatable
+    out.reset();
+    entity.writeTo(out);
+    assertEquals(written.length, out.size());
+
+    final String json = new String(written, StandardCharsets.US_ASCII);
+    assertTrue(json.startsWith(JSON_HEAD) && json.endsWith(JSON_TAIL));
+    final String base64 = json.substring(JSON_HEAD.length(), json.length() - JSON_TAIL.length());
+
+    List<String> segments = new ArrayList<>();
+    final int count =
+        TranslationSegmentScanner.scan(base64, true, (index, segment) -> segments.add(segment));
+    assertEquals(texts.size(), count);
+    return segments;
+  }
+}
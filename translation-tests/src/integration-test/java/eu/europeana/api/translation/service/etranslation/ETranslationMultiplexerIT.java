@@ -0,0 +1,189 @@
+package eu.europeana.api.translation.service.etranslation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+import eu.europeana.api.translation.service.exception.TranslationException;
+
+/**
+ * Verifies the joining of the concurrent eTranslation requests into shared documents. The test is
+ * in the package of the multiplexer, which is internal to the eTranslation service.
+ */
+public class ETranslationMultiplexerIT {
+
+  private static final long WINDOW_MILLIS = 100;
+  private static final long WAIT_SECONDS = 5;
+
+  private final List<List<TranslationObj>> submissions = new CopyOnWriteArrayList<>();
+  private ETranslationMultiplexer multiplexer;
+
+  @AfterEach
+  void shutdown() {
+    if (multiplexer != null) {
+      multiplexer.shutdown();
+    }
+  }
+
+  @Test
+  void concurrentRequestsSharedDocument() throws Exception {
+    multiplexer = new ETranslationMultiplexer(this::translate, WINDOW_MILLIS, 1000);
+    List<TranslationObj> first = texts("de", "en", "erster Text", "zweiter Text");
+    List<TranslationObj> second = texts("de", "en", "dritter Text");
+    CompletableFuture<List<TranslationObj>> firstResult = multiplexer.add(first);
+    CompletableFuture<List<TranslationObj>> secondResult = multiplexer.add(second);
+    // other language pair
+    CompletableFuture<List<TranslationObj>> otherResult =
+        multiplexer.add(texts("fr", "en", "un texte"));
+
+    CompletableFuture.allOf(firstResult, secondResult, otherResult).get(WAIT_SECONDS,
+        TimeUnit.SECONDS);
+    assertEquals(2, submissions.size());
+    assertEquals("[en] erster Text", firstResult.get().get(0).getTranslation());
+    assertEquals("[en] zweiter Text", firstResult.get().get(1).getTranslation());
+    assertEquals("[en] dritter Text", secondResult.get().get(0).getTranslation());
+  }
+
+  @Test
+  void fullDocumentSubmitted() throws Exception {
+    // only one of the requests fits into a document
+    final int maxChars = "erster Text".length() + 5;
+    multiplexer = new ETranslationMultiplexer(this::translate, WINDOW_MILLIS, maxChars);
+    CompletableFuture<List<TranslationObj>> firstResult =
+        multiplexer.add(texts("de", "en", "erster Text"));
+    CompletableFuture<List<TranslationObj>> secondResult =
+        multiplexer.add(texts("de", "en", "zweiter Text"));
+
+    CompletableFuture.allOf(firstResult, secondResult).get(WAIT_SECONDS, TimeUnit.SECONDS);
+    assertEquals(2, submissions.size());
+    assertTrue(submissions.stream().allMatch(document -> document.size() == 1));
+  }
+
+  @Test
+  void callerGivingUpLeftOutOfDocument() throws Exception {
+    multiplexer = new ETranslationMultiplexer(this::translate, WINDOW_MILLIS, 1000);
+    List<TranslationObj> gone = texts("de", "en", "erster Text");
+    List<TranslationObj> waiting = texts("de", "en", "zweiter Text");
+    CompletableFuture<List<TranslationObj>> goneResult = multiplexer.add(gone);
+    CompletableFuture<List<TranslationObj>> waitingResult = multiplexer.add(waiting);
+    goneResult.completeExceptionally(new TimeoutException());
+
+    waitingResult.get(WAIT_SECONDS, TimeUnit.SECONDS);
+    assertEquals(1, submissions.size());
+    assertEquals(1, submissions.get(0).size());
+    assertEquals("zweiter Text", submissions.get(0).get(0).getText());
+    assertNull(gone.get(0).getTranslation());
+  }
+
+  @Test
+  void callerGivingUpAfterSubmissionNotFilled() throws Exception {
+    CompletableFuture<Void> job = new CompletableFuture<>();
+    CountDownLatch submitted = new CountDownLatch(1);
+    multiplexer = new ETranslationMultiplexer(translationObjs -> {
+      submissions.add(translationObjs);
+      submitted.countDown();
+      return job;
+    }, WINDOW_MILLIS, 1000);
+    List<TranslationObj> gone = texts("de", "en", "erster Text");
+    List<TranslationObj> waiting = texts("de", "en", "zweiter Text");
+    CompletableFuture<List<TranslationObj>> goneResult = multiplexer.add(gone);
+    CompletableFuture<List<TranslationObj>> waitingResult = multiplexer.add(waiting);
+    assertTrue(submitted.await(WAIT_SECONDS, TimeUnit.SECONDS));
+
+    goneResult.completeExceptionally(new TimeoutException());
+    submissions.get(0).forEach(obj -> obj.setTranslation("[en] " + obj.getText()));
+    job.complete(null);
+
+    List<TranslationObj> translated = waitingResult.get(WAIT_SECONDS, TimeUnit.SECONDS);
+    assertTrue(goneResult.isCompletedExceptionally());
+    assertNull(gone.get(0).getTranslation());
+    assertEquals("[en] zweiter Text", translated.get(0).getTranslation());
+  }
+
+  @Test
+  void cacheKeysSubmittedWithDocument() throws Exception {
+    multiplexer = new ETranslationMultiplexer(this::translate, WINDOW_MILLIS, 1000);
+    List<TranslationObj> cached = texts("de", "en", "erster Text");
+    cached.get(0).setCacheKey("erster-key");
+    CompletableFuture<List<TranslationObj>> cachedResult = multiplexer.add(cached);
+    CompletableFuture<List<TranslationObj>> otherResult =
+        multiplexer.add(texts("de", "en", "zweiter Text"));
+
+    CompletableFuture.allOf(cachedResult, otherResult).get(WAIT_SECONDS, TimeUnit.SECONDS);
+    assertEquals("erster-key", submissions.get(0).get(0).getCacheKey());
+    assertNull(submissions.get(0).get(1).getCacheKey());
+  }
+
+  @Test
+  void blockingSubmissionDoesNotDelayOtherDocuments() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    multiplexer = new ETranslationMultiplexer(translationObjs -> {
+      if ("de".equals(translationObjs.get(0).getSourceLang())) {
+        // the submission of this document hangs
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return translate(translationObjs);
+    }, WINDOW_MILLIS, 1000);
+    try {
+      CompletableFuture<List<TranslationObj>> blocked =
+          multiplexer.add(texts("de", "en", "erster Text"));
+      Thread.sleep(WINDOW_MILLIS / 2);
+      CompletableFuture<List<TranslationObj>> other =
+          multiplexer.add(texts("fr", "en", "un texte"));
+      other.get(WAIT_SECONDS, TimeUnit.SECONDS);
+      assertFalse(blocked.isDone());
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  void textWithDelimiterRejected() throws Exception {
+    ETranslationClientConfig clientConfig = new ETranslationClientConfig();
+    clientConfig.setMultiplexWindowMillisec(WINDOW_MILLIS);
+    ETranslationTranslationService service = new ETranslationTranslationService(
+        ETranslationTranslationService.FAKE_BASE_URL_FOR_TESTING, null, null, 1000, null, null,
+        new ETranslationCallbackRegistry(), null, clientConfig);
+    try {
+      List<TranslationObj> translationObjs = texts("de", "en", "erster Text",
+          "zweiter" + ETranslationTranslationService.MARKUP_DELIMITER + "Text");
+      assertThrows(TranslationException.class, () -> service.translateAsync(translationObjs));
+    } finally {
+      service.close();
+    }
+  }
+
+  private CompletableFuture<Void> translate(List<TranslationObj> translationObjs) {
+    submissions.add(translationObjs);
+    translationObjs.forEach(obj -> obj.setTranslation("[" + obj.getTargetLang() + "] " + obj.getText()));
+    return CompletableFuture.completedFuture(null);
+  }
+
+  private static List<TranslationObj> texts(String sourceLang, String targetLang,
+      String... texts) {
+    List<TranslationObj> translationObjs = new ArrayList<>();
+    for (String text : texts) {
+      TranslationObj translationObj = new TranslationObj();
+      translationObj.setSourceLang(sourceLang);
+      translationObj.setTargetLang(targetLang);
+      translationObj.setText(text);
+      translationObjs.add(translationObj);
+    }
+    return translationObjs;
+  }
+}
@@ -0,0 +1,114 @@
+package eu.europeana.api.translation.service.etranslation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+import eu.europeana.api.translation.service.etranslation.ETranslationPayloadSplitter.SplitPayload;
+
+/**
+ * Verifies the splitting of the large eTranslation requests into snippet-sized chunks and the
+ * reassembly of the translations. The test is in the package of the splitter, which is internal to
+ * the eTranslation service.
+ */
+public class ETranslationPayloadSplitterIT {
+
+  private static final int DELIMITER_LENGTH =
+      ETranslationTranslationService.MARKUP_DELIMITER.length();
+
+  @Test
+  void textsPackedInOrder() {
+    ETranslationPayloadSplitter splitter = new ETranslationPayloadSplitter(30 + DELIMITER_LENGTH);
+    List<TranslationObj> translationObjs = texts("de", "Erster Text.", "Zweiter Text.",
+        "Dritter Text.");
+    SplitPayload payload = splitter.split(translationObjs);
+
+    List<List<TranslationObj>> chunks = payload.getChunks();
+    assertEquals(2, chunks.size());
+    assertEquals(List.of(translationObjs.get(0), translationObjs.get(1)), chunks.get(0));
+    assertEquals(List.of(translationObjs.get(2)), chunks.get(1));
+  }
+
+  @Test
+  void textCutAtSentenceBoundaries() {
+    ETranslationPayloadSplitter splitter = new ETranslationPayloadSplitter(40);
+    final String text = "Das ist der erste Satz. Das ist der zweite Satz. Und ein dritter.";
+    List<String> parts = splitter.splitText(text, Locale.GERMAN);
+
+    assertEquals(List.of("Das ist der erste Satz. ", "Das ist der zweite Satz. ",
+        "Und ein dritter."), parts);
+    // nothing is lost
+    assertEquals(text, String.join("", parts));
+  }
+
+  @Test
+  void longSentenceCutAtWhitespace() {
+    ETranslationPayloadSplitter splitter = new ETranslationPayloadSplitter(20);
+    final String text = "ein sehr langer Satz ohne jedes Satzzeichen bis zum Ende";
+    List<String> parts = splitter.splitText(text, Locale.GERMAN);
+
+    assertEquals(text, String.join("", parts));
+    for (String part : parts) {
+      assertTrue(part.length() <= 20, part);
+      // the words are not cut
+      assertTrue(part.endsWith(" ") || text.endsWith(part), part);
+    }
+  }
+
+  @Test
+  void textWithoutWhitespaceNotCutInSurrogatePair() {
+    ETranslationPayloadSplitter splitter = new ETranslationPayloadSplitter(5);
+    // 4 characters outside of the BMP, each one a surrogate pair
+    final String text = "𠀀𠀁𠀂𠀃";
+    List<String> parts = splitter.splitText(text, Locale.CHINESE);
+
+    assertEquals(text, String.join("", parts));
+    parts.forEach(part -> assertTrue(!Character.isHighSurrogate(part.charAt(part.length() - 1))));
+  }
+
+  @Test
+  void translationsReassembledWithOriginalWhitespaces() {
+    ETranslationPayloadSplitter splitter = new ETranslationPayloadSplitter(40);
+    List<TranslationObj> translationObjs =
+        texts("de", "Das ist der erste Satz.  Das ist der zweite Satz.\nUnd ein dritter.");
+    SplitPayload payload = splitter.split(translationObjs);
+    translate(payload);
+    payload.reassemble();
+
+    assertEquals("[DAS IST DER ERSTE SATZ.]  [DAS IST DER ZWEITE SATZ.]\n[UND EIN DRITTER.]",
+        translationObjs.get(0).getTranslation());
+  }
+
+  @Test
+  void translationsReassembledWithoutWhitespacesForChinese() {
+    ETranslationPayloadSplitter splitter = new ETranslationPayloadSplitter(8);
+    List<TranslationObj> translationObjs = texts("zh", "这是第一句话。这是第二句话。这是第三句。");
+    SplitPayload payload = splitter.split(translationObjs);
+    assertEquals(3, payload.getChunks().size());
+    translate(payload);
+    payload.reassemble();
+
+    assertEquals("[这是第一句话。][这是第二句话。][这是第三句。]",
+        translationObjs.get(0).getTranslation());
+  }
+
+  private static void translate(SplitPayload payload) {
+    payload.getChunks().forEach(chunk -> chunk.forEach(
+        obj -> obj.setTranslation("[" + obj.getText().toUpperCase(Locale.ROOT) + "]")));
+  }
+
+  private static List<TranslationObj> texts(String sourceLang, String... texts) {
+    List<TranslationObj> translationObjs = new ArrayList<>();
+    for (String text : texts) {
+      TranslationObj translationObj = new TranslationObj();
+      translationObj.setSourceLang(sourceLang);
+      translationObj.setTargetLang("en");
+      translationObj.setText(text);
+      translationObjs.add(translationObj);
+    }
+    return translationObjs;
+  }
+}
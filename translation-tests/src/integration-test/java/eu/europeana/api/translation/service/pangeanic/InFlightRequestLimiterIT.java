@@ -0,0 +1,95 @@
+package eu.europeana.api.translation.service.pangeanic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies the limit of the Pangeanic requests in progress for one api request. The test is in the
+ * package of the limiter, which is internal to the Pangeanic service.
+ */
+public class InFlightRequestLimiterIT {
+
+  private final List<CompletableFuture<Integer>> sent = new ArrayList<>();
+
+  @Test
+  void requestsAboveLimitQueued() {
+    InFlightRequestLimiter limiter = new InFlightRequestLimiter(2);
+    List<CompletableFuture<Integer>> results = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      results.add(limiter.submit(this::send, false));
+    }
+    assertEquals(2, sent.size());
+
+    // each completed request starts the next queued one
+    sent.get(0).complete(0);
+    assertEquals(3, sent.size());
+    sent.get(1).completeExceptionally(new IllegalStateException("failed"));
+    assertEquals(4, sent.size());
+    assertEquals(0, results.get(0).join());
+    assertTrue(results.get(1).isCompletedExceptionally());
+
+    sent.get(2).complete(2);
+    sent.get(3).complete(3);
+    sent.get(4).complete(4);
+    assertEquals(5, sent.size());
+    assertEquals(4, results.get(4).join());
+  }
+
+  @Test
+  void failedSubmissionReleasesPermit() {
+    InFlightRequestLimiter limiter = new InFlightRequestLimiter(1);
+    CompletableFuture<Integer> failed = limiter.submit(() -> {
+      throw new IllegalStateException("cannot send");
+    }, false);
+    assertTrue(failed.isCompletedExceptionally());
+
+    limiter.submit(this::send, false);
+    assertEquals(1, sent.size());
+  }
+
+  @Test
+  void priorityRequestsSentFirst() {
+    InFlightRequestLimiter limiter = new InFlightRequestLimiter(1);
+    limiter.submit(this::send, false);
+    List<String> order = new ArrayList<>();
+    limiter.submit(() -> sendNamed(order, "detect"), false);
+    limiter.submit(() -> sendNamed(order, "translate"), true);
+
+    sent.get(0).complete(0);
+    assertEquals(List.of("translate"), order);
+    sent.get(1).complete(1);
+    assertEquals(List.of("translate", "detect"), order);
+  }
+
+  @Test
+  void synchronousCompletionsSentWithoutNesting() {
+    InFlightRequestLimiter limiter = new InFlightRequestLimiter(1);
+    limiter.submit(this::send, false);
+    // deep enough to overflow the stack if each completion sent the next request recursively
+    final int queued = 100000;
+    List<CompletableFuture<Integer>> results = new ArrayList<>(queued);
+    for (int i = 0; i < queued; i++) {
+      final int value = i;
+      results.add(limiter.submit(() -> CompletableFuture.completedFuture(value), false));
+    }
+
+    sent.get(0).complete(0);
+    assertTrue(results.stream().allMatch(CompletableFuture::isDone));
+    assertEquals(queued - 1, results.get(queued - 1).join());
+  }
+
+  private CompletableFuture<Integer> sendNamed(List<String> order, String name) {
+    order.add(name);
+    return send();
+  }
+
+  private CompletableFuture<Integer> send() {
+    CompletableFuture<Integer> request = new CompletableFuture<>();
+    sent.add(request);
+    return request;
+  }
+}
@@ -1,12 +1,12 @@
 package eu.europeana.api.translation.tests;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import javax.validation.constraints.NotNull;
 import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -20,6 +20,9 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import eu.europeana.api.translation.TranslationApp;
@@ -46,7 +49,7 @@ public abstract class BaseTranslationTest extends IntegrationTestUtils {
   protected WebApplicationContext wac;
 
   @Autowired
-  TranslationServiceProvider translationServiceProvider;
+  protected TranslationServiceProvider translationServiceProvider;
   
   /** Maps Metis dereferenciation URIs to mocked XML responses */
   public static final Map<String, String> LANG_DETECT_RESPONSE_MAP = initLanguageDetectMap();
@@ -133,7 +136,25 @@ public abstract class BaseTranslationTest extends IntegrationTestUtils {
     registry.add("redis.connection.url", () -> "redis://localhost:" + redisPort + "/");
     registry.add("translation.eTranslation.baseUrl", () -> ETranslationTranslationService.FAKE_BASE_URL_FOR_TESTING);
     registry.add("translation.eTranslation.credentials", () -> "");
-    registry.add("translation.eTranslation.truncate", () -> false);
+    // the embedded redis server doesn't support streams
+    registry.add("translation.jobs.enabled", () -> "false");
+  }
+
+  /**
+   * Performs the request, the responses completed asynchronously by the controllers are awaited and
+   * dispatched
+   * 
+   * @param requestBuilder the request to perform
+   * @return the actions on the final result
+   * @throws Exception if the request cannot be performed
+   */
+  protected ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+    ResultActions resultActions = mockMvc.perform(requestBuilder);
+    MvcResult mvcResult = resultActions.andReturn();
+    if (mvcResult.getRequest().isAsyncStarted()) {
+      return mockMvc.perform(asyncDispatch(mvcResult));
+    }
+    return resultActions;
   }
 
   /**
@@ -156,9 +177,8 @@ public abstract class BaseTranslationTest extends IntegrationTestUtils {
 
   private static Dispatcher setupPangeanicDispatcher() {
     return new Dispatcher() {
-      @NotNull
       @Override
-      public MockResponse dispatch(@NotNull RecordedRequest request) throws InterruptedException {
+      public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
         try {
           
           String requestBody = Objects.requireNonNull(request.getBody().readUtf8());
@@ -9,6 +9,9 @@ public abstract class IntegrationTestUtils {
 
   public static final String BASE_URL_TRANSLATE = "/translate";
   public static final String BASE_URL_DETECT = "/detect";
+  public static final String BASE_URL_TRANSLATE_BATCH = "/translate/batch";
+  public static final String BASE_URL_TRANSLATE_STREAM = "/translate/stream";
+  public static final String BASE_URL_TRANSLATE_MULTI = "/translate/multi";
   
   public static final String LANG_DETECT_REQUEST = "/content/lang_detection_request.json";
   public static final String LANG_DETECT_APACHE_TIKA = "/content/lang_detection_apache_tika.json";
@@ -44,6 +47,7 @@ public abstract class IntegrationTestUtils {
   
   public static final String TRANSLATION_REQUEST_E_TRANSLATION = "/content/translation_request_eTranslation.json";
   public static final String TRANSLATION_REQUEST_E_TRANSLATION_LONGER = "/content/translation_request_eTranslation_longer.json";
+  public static final String TRANSLATION_REQUEST_E_TRANSLATION_MULTI_TARGET = "/content/translation_request_eTranslation_multi_target.json";
   
   public static final String TRANSLATION_REQUEST_PANGEANIC_MULTIPLE_LANG = "/content/translation_pangeanic_multiple_languages_request.json";
   public static final String TRANSLATION_PANGEANIC_REQUEST_MULTIPLE_LANG_DE = "/content/pangeanic/translate/translate_pangeanic_multiple_languages_request_DE.json";
@@ -54,6 +58,8 @@ public abstract class IntegrationTestUtils {
   
   public static final String TRANSLATION_REQUEST_CACHING = "/content/translation_request_caching.json";
   
+  public static final String TRANSLATION_BATCH_REQUEST = "/content/translation_batch_request.json";
+  
   public static final String TRANSLATION_WITH_FALLBACK = "/content/translation_with_fallback.json";
   public static final String TRANSLATION_BAD_REQUEST_1 = "/content/translation_bad_request_1.json";
   public static final String TRANSLATION_BAD_REQUEST_2 = "/content/translation_bad_request_2.json";
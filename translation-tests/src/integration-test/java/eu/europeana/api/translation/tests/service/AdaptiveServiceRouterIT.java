@@ -0,0 +1,211 @@
+package eu.europeana.api.translation.tests.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import eu.europeana.api.translation.config.services.RoutingServiceCfg;
+import eu.europeana.api.translation.config.services.TranslationRoutingCfg;
+import eu.europeana.api.translation.definitions.language.LanguagePair;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+import eu.europeana.api.translation.service.TranslationService;
+import eu.europeana.api.translation.service.exception.DeadlineExceededException;
+import eu.europeana.api.translation.service.exception.TranslationException;
+import eu.europeana.api.translation.service.exception.TranslationServiceConfigurationException;
+import eu.europeana.api.translation.web.service.AdaptiveServiceRouter;
+import eu.europeana.api.translation.web.service.TrackedTranslationService;
+
+/**
+ * Verifies the service selection of the routing policies based on the recorded calls
+ */
+public class AdaptiveServiceRouterIT {
+
+  private static final LanguagePair DE_EN = new LanguagePair("de", "en");
+  private static final int MIN_SAMPLES = 5;
+
+  private final StubService pangeanic = new StubService("PANGEANIC");
+  private final StubService google = new StubService("GOOGLE");
+
+  @Test
+  void staticPolicyKeepsStaticChoice() throws Exception {
+    AdaptiveServiceRouter router = createRouter("STATIC", 0);
+    recordCalls(router, "PANGEANIC", 1000, false, false);
+    recordCalls(router, "GOOGLE", 10, false, false);
+    assertSame(pangeanic, router.select(DE_EN, pangeanic));
+  }
+
+  @Test
+  void candidatesInConfigurationOrder() throws Exception {
+    AdaptiveServiceRouter router = createRouter("STATIC", 0);
+    List<String> ids = new ArrayList<>();
+    router.getCandidateIds().forEach(ids::add);
+    assertEquals(List.of("PANGEANIC", "GOOGLE"), ids);
+  }
+
+  @Test
+  void lowestLatencySelectsFasterService() throws Exception {
+    AdaptiveServiceRouter router = createRouter("LOWEST_LATENCY", 0);
+    // the static choice is kept while the other candidate is not measured
+    recordCalls(router, "PANGEANIC", 1000, false, false);
+    assertSame(pangeanic, router.select(DE_EN, pangeanic));
+
+    recordCalls(router, "GOOGLE", 100, false, false);
+    assertSame(google, router.select(DE_EN, pangeanic));
+  }
+
+  @Test
+  void lowestLatencyExcludesFailingService() throws Exception {
+    AdaptiveServiceRouter router = createRouter("LOWEST_LATENCY", 0);
+    recordCalls(router, "PANGEANIC", 1000, false, false);
+    recordCalls(router, "GOOGLE", 100, true, false);
+    assertSame(pangeanic, router.select(DE_EN, pangeanic));
+  }
+
+  @Test
+  void lowestLatencyExploresUnmeasuredServices() throws Exception {
+    AdaptiveServiceRouter router = createRouter("LOWEST_LATENCY", 1);
+    recordCalls(router, "PANGEANIC", 100, false, false);
+    assertSame(google, router.select(DE_EN, pangeanic));
+
+    // no exploration once all candidates are measured
+    recordCalls(router, "GOOGLE", 1000, false, false);
+    assertSame(pangeanic, router.select(DE_EN, pangeanic));
+  }
+
+  @Test
+  void cheapestWithinSlo() throws Exception {
+    AdaptiveServiceRouter router = createRouter("CHEAPEST_WITHIN_SLO", 0);
+    recordCalls(router, "PANGEANIC", 500, false, false);
+    recordCalls(router, "GOOGLE", 100, false, false);
+    assertSame(pangeanic, router.select(DE_EN, google));
+
+    // the cheaper service exceeds the SLO
+    recordCalls(router, "PANGEANIC", 100000, false, false);
+    assertSame(google, router.select(DE_EN, google));
+  }
+
+  @Test
+  void invalidExplorationRate() {
+    assertThrows(TranslationServiceConfigurationException.class,
+        () -> createRouter("LOWEST_LATENCY", 2));
+  }
+
+  @Test
+  void ownDeadlineNotRecordedAsServiceFailure() throws Exception {
+    AdaptiveServiceRouter router = createRouter("LOWEST_LATENCY", 0);
+    recordCalls(router, "PANGEANIC", 1000, false, false);
+    recordCalls(router, "GOOGLE", 100, false, false);
+
+    // the request deadline expired before calling the service
+    google.error = new TranslationException("deadline", 504,
+        new DeadlineExceededException("deadline", 100));
+    TrackedTranslationService tracked = new TrackedTranslationService(google, router);
+    for (int i = 0; i < 2 * MIN_SAMPLES; i++) {
+      assertThrows(TranslationException.class, () -> tracked.translate(texts()));
+    }
+    assertSame(google, router.select(DE_EN, pangeanic));
+  }
+
+  @Test
+  void serviceTimeoutRecorded() throws Exception {
+    AdaptiveServiceRouter router = createRouter("LOWEST_LATENCY", 0);
+    recordCalls(router, "PANGEANIC", 1000, false, false);
+    recordCalls(router, "GOOGLE", 100, false, false);
+
+    google.error = new TranslationException("read timeout", -1,
+        new SocketTimeoutException("Read timed out"));
+    TrackedTranslationService tracked = new TrackedTranslationService(google, router);
+    for (int i = 0; i < 2 * MIN_SAMPLES; i++) {
+      assertThrows(TranslationException.class, () -> tracked.translate(texts()));
+    }
+    assertSame(pangeanic, router.select(DE_EN, pangeanic));
+  }
+
+  private AdaptiveServiceRouter createRouter(String policy, double explorationRate)
+      throws TranslationServiceConfigurationException {
+    TranslationRoutingCfg routingCfg = new TranslationRoutingCfg();
+    routingCfg.setPolicy(policy);
+    routingCfg.setServices(List.of(serviceCfg("PANGEANIC", 1.0), serviceCfg("GOOGLE", 2.0)));
+    routingCfg.setSloMillis(5000);
+    routingCfg.setMaxErrorRate(0.2);
+    // the averages follow the last samples
+    routingCfg.setDecay(1);
+    routingCfg.setMinSamples(MIN_SAMPLES);
+    routingCfg.setRecoveryMillis(0);
+    routingCfg.setExplorationRate(explorationRate);
+    AdaptiveServiceRouter router = new AdaptiveServiceRouter(routingCfg, null);
+    router.setCandidates(List.of(pangeanic, google));
+    return router;
+  }
+
+  private static RoutingServiceCfg serviceCfg(String id, double cost) {
+    RoutingServiceCfg serviceCfg = new RoutingServiceCfg();
+    serviceCfg.setId(id);
+    serviceCfg.setCost(cost);
+    serviceCfg.setWeight(1);
+    return serviceCfg;
+  }
+
+  private static void recordCalls(AdaptiveServiceRouter router, String serviceId,
+      long latencyMillis, boolean error, boolean timeout) {
+    for (int i = 0; i < MIN_SAMPLES; i++) {
+      router.recordCall(serviceId, DE_EN, latencyMillis, error, timeout);
+    }
+  }
+
+  private static List<TranslationObj> texts() {
+    TranslationObj translationObj = new TranslationObj();
+    translationObj.setText("Das ist ein Text.");
+    translationObj.setSourceLang(DE_EN.getSrcLang());
+    translationObj.setTargetLang("en");
+    return List.of(translationObj);
+  }
+
+  /**
+   * Supports all language pairs, fails with the given error if set
+   */
+  private static class StubService implements TranslationService {
+    private String serviceId;
+    TranslationException error;
+
+    StubService(String serviceId) {
+      this.serviceId = serviceId;
+    }
+
+    @Override
+    public void translate(List<TranslationObj> translationStrings) throws TranslationException {
+      if (error != null) {
+        throw error;
+      }
+      translationStrings.forEach(obj -> obj.setTranslation(obj.getText()));
+    }
+
+    @Override
+    public String getServiceId() {
+      return serviceId;
+    }
+
+    @Override
+    public void setServiceId(String serviceId) {
+      this.serviceId = serviceId;
+    }
+
+    @Override
+    public boolean isSupported(String srcLang, String trgLang) {
+      return true;
+    }
+
+    @Override
+    public void close() {
+      // nothing to close
+    }
+
+    @Override
+    public String getExternalServiceEndPoint() {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package eu.europeana.api.translation.tests.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import eu.europeana.api.translation.service.http.AsyncHttpTransport;
+import eu.europeana.api.translation.service.http.BlockingHttpTransport;
+import eu.europeana.api.translation.service.http.ConnectionPoolMetrics;
+import eu.europeana.api.translation.service.http.HttpTransport;
+import eu.europeana.api.translation.service.http.HttpTransportConfig;
+import eu.europeana.api.translation.service.util.Deadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.RequiredSearch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * Sends requests through the http transports to a mock server and verifies the exposed usage of
+ * their connection pools
+ */
+public class HttpTransportIT {
+
+  private static final String CLIENT_NAME = "test";
+  private static final long WAIT_SECONDS = 5;
+
+  private MockWebServer server;
+  private HttpTransport transport;
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = new MockWebServer();
+    server.start();
+  }
+
+  @AfterEach
+  void stop() throws IOException {
+    if (transport != null) {
+      transport.close();
+    }
+    server.shutdown();
+  }
+
+  @Test
+  void asyncTransportWithDefaults() throws Exception {
+    AsyncHttpTransport asyncTransport = AsyncHttpTransport.withDefaults();
+    transport = asyncTransport;
+    server.enqueue(new MockResponse().setBody("pong"));
+
+    SimpleHttpResponse response = asyncTransport
+        .execute(SimpleRequestBuilder.get(server.url("/ping").uri()).build())
+        .get(WAIT_SECONDS, TimeUnit.SECONDS);
+    assertEquals(200, response.getCode());
+    assertEquals("pong", response.getBodyText());
+    assertEquals("/ping", server.takeRequest().getPath());
+  }
+
+  @Test
+  void blockingTransport() throws Exception {
+    HttpTransportConfig config = new HttpTransportConfig();
+    config.setMaxConnections(5);
+    BlockingHttpTransport blockingTransport = new BlockingHttpTransport(config);
+    transport = blockingTransport;
+    new ConnectionPoolMetrics(transport.getConnectionPool(), CLIENT_NAME).bindTo(registry);
+    server.enqueue(new MockResponse().setBody("pong"));
+
+    HttpGet request = new HttpGet(server.url("/ping").uri());
+    final Map.Entry<Integer, String> response =
+        blockingTransport.execute(request, HttpClientContext.create(), resp -> Map
+            .entry(resp.getCode(), EntityUtils.toString(resp.getEntity(), StandardCharsets.UTF_8)));
+    assertEquals(200, response.getKey());
+    assertEquals("pong", response.getValue());
+
+    // the connection is back in the pool
+    assertEquals(5, gauge("total.max", null));
+    assertEquals(5, gauge("route.max.default", null));
+    assertEquals(1, gauge("total.connections", "available"));
+    assertEquals(0, gauge("total.connections", "leased"));
+    assertEquals(0, gauge("total.pending", null));
+  }
+
+  @Test
+  void leasedAndPendingConnections() throws Exception {
+    HttpTransportConfig config = new HttpTransportConfig();
+    config.setMaxConnections(1);
+    config.setHttp2(false);
+    AsyncHttpTransport asyncTransport = new AsyncHttpTransport(config);
+    transport = asyncTransport;
+    new ConnectionPoolMetrics(transport.getConnectionPool(), CLIENT_NAME).bindTo(registry);
+    // the first request keeps the only connection while the second one waits for it
+    server.enqueue(new MockResponse().setBody("first").setHeadersDelay(1, TimeUnit.SECONDS));
+    server.enqueue(new MockResponse().setBody("second"));
+
+    CompletableFuture<SimpleHttpResponse> first =
+        asyncTransport.execute(SimpleRequestBuilder.get(server.url("/first").uri()).build());
+    CompletableFuture<SimpleHttpResponse> second =
+        asyncTransport.execute(SimpleRequestBuilder.get(server.url("/second").uri()).build());
+    final long timeout = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(WAIT_SECONDS);
+    while (gauge("total.pending", null) < 1 && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, gauge("total.connections", "leased"));
+    assertEquals(1, gauge("total.pending", null));
+
+    assertEquals("first", first.get(WAIT_SECONDS, TimeUnit.SECONDS).getBodyText());
+    assertEquals("second", second.get(WAIT_SECONDS, TimeUnit.SECONDS).getBodyText());
+    assertEquals(0, gauge("total.pending", null));
+  }
+
+  @Test
+  void timeoutsLimitedByDeadline() {
+    HttpTransportConfig config = new HttpTransportConfig();
+    transport = new BlockingHttpTransport(config);
+
+    RequestConfig withoutDeadline = transport.getRequestConfig(null);
+    assertEquals(config.getSocketTimeoutMillisec(),
+        withoutDeadline.getResponseTimeout().toMilliseconds());
+    RequestConfig withDeadline = transport.getRequestConfig(Deadline.after(1000));
+    assertTrue(withDeadline.getResponseTimeout().toMilliseconds() <= 1000);
+    assertTrue(withDeadline.getConnectionRequestTimeout().toMilliseconds() <= 1000);
+  }
+
+  private double gauge(String name, String state) {
+    RequiredSearch search =
+        registry.get("httpcomponents.httpclient.pool." + name).tag("httpclient", CLIENT_NAME);
+    if (state != null) {
+      search.tag("state", state);
+    }
+    return search.gauge().value();
+  }
+}
@@ -0,0 +1,138 @@
+package eu.europeana.api.translation.tests.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+import eu.europeana.api.translation.service.TranslationServiceLimits;
+import eu.europeana.api.translation.service.util.TranslationChunker;
+
+/**
+ * Verifies that the chunks respect the limits of the services, are balanced and keep the texts
+ * whole and in their original order
+ */
+public class TranslationChunkerIT {
+
+  @Test
+  void noChunksWithoutLimits() {
+    List<TranslationObj> texts = texts("eins", "zwei", "drei");
+    List<List<TranslationObj>> chunks =
+        TranslationChunker.chunk(texts, new TranslationServiceLimits(0, 0, 0, 4));
+    assertEquals(1, chunks.size());
+    assertSame(texts, chunks.get(0));
+  }
+
+  @Test
+  void noChunksWithinLimits() {
+    List<TranslationObj> texts = texts("eins", "zwei", "drei");
+    List<List<TranslationObj>> chunks =
+        TranslationChunker.chunk(texts, new TranslationServiceLimits(3, 12, 12, 4));
+    assertEquals(1, chunks.size());
+  }
+
+  @Test
+  void chunksRespectMaxItems() {
+    List<TranslationObj> texts = numberedTexts(10);
+    List<List<TranslationObj>> chunks =
+        TranslationChunker.chunk(texts, new TranslationServiceLimits(3, 0, 0, 4));
+    assertEquals(4, chunks.size());
+    chunks.forEach(chunk -> assertTrue(chunk.size() <= 3));
+    assertOrderPreserved(texts, chunks);
+  }
+
+  @Test
+  void chunksAreBalanced() {
+    // 2 chunks are needed, 5 + 5 texts instead of 6 + 4
+    List<List<TranslationObj>> chunks =
+        TranslationChunker.chunk(numberedTexts(10), new TranslationServiceLimits(6, 0, 0, 4));
+    assertEquals(2, chunks.size());
+    assertEquals(5, chunks.get(0).size());
+    assertEquals(5, chunks.get(1).size());
+  }
+
+  @Test
+  void chunksRespectMaxChars() {
+    List<TranslationObj> texts =
+        texts("Das ist ein Text.", "kurz", "Noch ein etwas längerer Text.", "x", "Ende gut.");
+    final int maxChars = 30;
+    List<List<TranslationObj>> chunks =
+        TranslationChunker.chunk(texts, new TranslationServiceLimits(0, maxChars, 0, 4));
+    assertTrue(chunks.size() >= 2);
+    for (List<TranslationObj> chunk : chunks) {
+      assertTrue(chunk.stream().mapToInt(obj -> obj.getText().length()).sum() <= maxChars);
+    }
+    assertOrderPreserved(texts, chunks);
+  }
+
+  @Test
+  void chunksRespectMaxBytes() {
+    // 6 chars, but 18 bytes each
+    List<TranslationObj> texts = texts("日本語の文章", "日本語の文章", "日本語の文章", "日本語の文章");
+    final int maxBytes = 40;
+    List<List<TranslationObj>> chunks =
+        TranslationChunker.chunk(texts, new TranslationServiceLimits(0, 0, maxBytes, 4));
+    assertEquals(2, chunks.size());
+    for (List<TranslationObj> chunk : chunks) {
+      assertTrue(chunk.stream()
+          .mapToInt(obj -> obj.getText().getBytes(StandardCharsets.UTF_8).length).sum() <= maxBytes);
+    }
+    assertOrderPreserved(texts, chunks);
+  }
+
+  @Test
+  void textsExceedingTheLimitAreSentAlone() {
+    // the texts are never cut, a text larger than the limit goes into its own chunk
+    final String longText = "Ein sehr langer Text, der das Limit überschreitet.";
+    List<TranslationObj> texts = texts("eins", longText, "drei");
+    List<List<TranslationObj>> chunks =
+        TranslationChunker.chunk(texts, new TranslationServiceLimits(0, 10, 0, 4));
+    assertEquals(3, chunks.size());
+    assertEquals(1, chunks.get(1).size());
+    assertEquals(longText, chunks.get(1).get(0).getText());
+    assertOrderPreserved(texts, chunks);
+  }
+
+  @Test
+  void nullTextsAreKept() {
+    List<TranslationObj> texts = texts("eins", null, "drei", "vier");
+    List<List<TranslationObj>> chunks =
+        TranslationChunker.chunk(texts, new TranslationServiceLimits(2, 0, 0, 4));
+    assertEquals(2, chunks.size());
+    assertOrderPreserved(texts, chunks);
+  }
+
+  private static void assertOrderPreserved(List<TranslationObj> texts,
+      List<List<TranslationObj>> chunks) {
+    assertEquals(texts,
+        chunks.stream().flatMap(List::stream).collect(Collectors.toList()));
+  }
+
+  private static List<TranslationObj> numberedTexts(int count) {
+    List<TranslationObj> texts = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      texts.add(text("Text " + i));
+    }
+    return texts;
+  }
+
+  private static List<TranslationObj> texts(String... values) {
+    List<TranslationObj> texts = new ArrayList<>(values.length);
+    for (String value : values) {
+      texts.add(text(value));
+    }
+    return texts;
+  }
+
+  private static TranslationObj text(String value) {
+    TranslationObj translationObj = new TranslationObj();
+    translationObj.setText(value);
+    translationObj.setSourceLang("de");
+    translationObj.setTargetLang("en");
+    return translationObj;
+  }
+}
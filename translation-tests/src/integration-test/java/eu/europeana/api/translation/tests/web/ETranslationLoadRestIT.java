@@ -0,0 +1,218 @@
+package eu.europeana.api.translation.tests.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import eu.europeana.api.translation.config.BeanNames;
+import eu.europeana.api.translation.service.TranslationService;
+import eu.europeana.api.translation.service.etranslation.ETranslationCallbackRegistry;
+import eu.europeana.api.translation.service.etranslation.ETranslationClientConfig;
+import eu.europeana.api.translation.service.etranslation.ETranslationJobStore;
+import eu.europeana.api.translation.service.etranslation.ETranslationTranslationService;
+import eu.europeana.api.translation.tests.BaseTranslationTest;
+import eu.europeana.api.translation.tests.web.mock.ETranslationSimulator;
+import eu.europeana.api.translation.tests.web.mock.ETranslationSimulator.LatencyDistribution;
+import redis.embedded.RedisServer;
+
+/**
+ * Runs concurrent eTranslation requests against the {@link ETranslationSimulator} and reports the
+ * thread usage, the redis load caused by the callbacks (pub/sub) and the latency percentiles. The
+ * callbacks are sent through MockMvc, the latency of the simulated jobs is log-normal distributed.
+ * The simulated service is wrapped into the decorators configured for eTranslation, the requests
+ * rejected by its bulkhead are reported as saturated.
+ * The test is run only on demand, e.g.:
+ * mvn verify -Dit.test=ETranslationLoadRestIT -Dtranslation.loadTest=true
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "translation.loadTest", matches = "true")
+public class ETranslationLoadRestIT extends BaseTranslationTest {
+
+  private static final String SERVICE_ID = ETranslationTranslationService.DEFAULT_SERVICE_ID;
+  private static final int REQUESTS = Integer.getInteger("translation.loadTest.requests", 2000);
+  private static final long MEDIAN_LATENCY_MILLIS =
+      Long.getLong("translation.loadTest.latencyMillis", 500);
+  private static final double LATENCY_SIGMA = Double
+      .parseDouble(System.getProperty("translation.loadTest.latencySigma", "0.5"));
+  private static final double ERROR_RATE =
+      Double.parseDouble(System.getProperty("translation.loadTest.errorRate", "0"));
+  private static final int MAX_WAIT_MILLIS = 30000;
+  private static final int CALLBACK_THREADS = 16;
+
+  private static RedisServer redisServer = startRedisService();
+
+  @Autowired
+  ETranslationCallbackRegistry callbackRegistry;
+
+  @Autowired
+  ETranslationJobStore jobStore;
+
+  @Autowired
+  @Qualifier(BeanNames.BEAN_STRING_REDIS_TEMPLATE)
+  StringRedisTemplate redisTemplate;
+
+  private ETranslationSimulator simulator;
+  private ETranslationTranslationService simulatedService;
+  private TranslationService originalService;
+
+  static RedisServer startRedisService() {
+    RedisServer redisServer = new RedisServer(redisPort);
+    redisServer.start();
+    return redisServer;
+  }
+
+  @BeforeAll
+  void startSimulator() throws Exception {
+    simulator = new ETranslationSimulator(CALLBACK_THREADS, this::sendCallback);
+    simulator.setLatency(LatencyDistribution.logNormal(MEDIAN_LATENCY_MILLIS, LATENCY_SIGMA));
+    // the injected errors are split between the submissions, error callbacks and lost callbacks
+    simulator.setFailureRates(ERROR_RATE / 3, ERROR_RATE / 3, ERROR_RATE / 3);
+    simulator.start();
+
+    ETranslationClientConfig clientConfig = new ETranslationClientConfig();
+    clientConfig.setMaxConnections(100);
+    clientConfig.setMultiplexWindowMillisec(200);
+    clientConfig.setMaxParallelJobs(4);
+    simulatedService = new ETranslationTranslationService(simulator.getUrl(), "GEN",
+        "http://localhost", MAX_WAIT_MILLIS, "load-test", "load-test", callbackRegistry, jobStore,
+        clientConfig);
+    simulatedService.setServiceId(SERVICE_ID);
+    // the requests go through the configured bulkhead, limits and tracking, as in production
+    originalService = translationServiceProvider.replaceTranslationService(simulatedService, true);
+  }
+
+  @AfterAll
+  void stopSimulator() throws Exception {
+    translationServiceProvider.replaceTranslationService(originalService, false);
+    simulatedService.close();
+    simulator.close();
+    if (redisServer != null) {
+      redisServer.stop();
+    }
+  }
+
+  private void sendCallback(String url, Map<String, String> params, String body)
+      throws Exception {
+    MockHttpServletRequestBuilder request =
+        post(URI.create(url).getPath()).characterEncoding(StandardCharsets.UTF_8);
+    params.forEach(request::param);
+    if (body != null) {
+      request.contentType(MediaType.TEXT_PLAIN).content(body);
+    }
+    mockMvc.perform(request);
+  }
+
+  @Test
+  void concurrentETranslationRequests() throws Exception {
+    final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    threadBean.resetPeakThreadCount();
+    final long redisCommandsBefore = getRedisCommands();
+
+    ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    final long start = System.nanoTime();
+    List<Future<long[]>> responses = new ArrayList<>(REQUESTS);
+    for (int i = 0; i < REQUESTS; i++) {
+      final String requestJson = buildRequest(i);
+      responses.add(executor.submit(() -> {
+        final long requestStart = System.nanoTime();
+        final int status = performAsync(post(BASE_URL_TRANSLATE)
+            .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .content(requestJson)).andReturn().getResponse().getStatus();
+        return new long[] {status, System.nanoTime() - requestStart};
+      }));
+    }
+
+    int successful = 0;
+    // rejected by the bulkhead of the service
+    int saturated = 0;
+    long[] latencies = new long[REQUESTS];
+    for (int i = 0; i < REQUESTS; i++) {
+      try {
+        long[] response = responses.get(i).get();
+        latencies[i] = TimeUnit.NANOSECONDS.toMillis(response[1]);
+        if (response[0] == 200) {
+          successful++;
+        } else if (response[0] == 503) {
+          saturated++;
+        }
+      } catch (ExecutionException e) {
+        LOG.warn("Load test request failed", e);
+      }
+    }
+    final long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    executor.shutdown();
+    Arrays.sort(latencies);
+
+    LOG.info(
+        "eTranslation load test: {} of {} requests successful ({} saturated) in {} ms, latency p50"
+            + " {} ms, p95 {} ms, p99 {} ms, max {} ms; peak platform threads {}; simulator: {}"
+            + " submissions ({} documents,"
+            + " {} rejected), {} callbacks, {} error callbacks, {} lost callbacks; redis commands {}",
+        successful, REQUESTS, saturated, durationMillis, percentile(latencies, 0.5),
+        percentile(latencies, 0.95), percentile(latencies, 0.99), latencies[REQUESTS - 1],
+        threadBean.getPeakThreadCount(), simulator.getSubmissions(), simulator.getDocuments(),
+        simulator.getRejectedSubmissions(), simulator.getCallbacks(),
+        simulator.getErrorCallbacks(), simulator.getLostCallbacks(),
+        getRedisCommands() - redisCommandsBefore);
+    if (ERROR_RATE == 0) {
+      assertEquals(REQUESTS, successful + saturated);
+      assertEquals(0, simulator.getFailedCallbacks());
+    }
+  }
+
+  /**
+   * Distinct texts for each request, every tenth request exceeds the snippet limit
+   */
+  private String buildRequest(int index) {
+    final int texts = index % 10 == 0 ? 60 : 3;
+    StringBuilder request =
+        new StringBuilder("{\"source\": \"de\", \"target\": \"en\", \"service\": \"")
+            .append(SERVICE_ID).append("\", \"caching\": false, \"text\": [");
+    for (int i = 0; i < texts; i++) {
+      if (i > 0) {
+        request.append(", ");
+      }
+      request.append("\"Das ist der Text ").append(i).append(" der Anfrage ").append(index)
+          .append(", er wird von dem Simulator übersetzt.\"");
+    }
+    return request.append("]}").toString();
+  }
+
+  private static long percentile(long[] sortedValues, double percentile) {
+    return sortedValues[(int) Math.min(sortedValues.length - 1,
+        Math.ceil(percentile * sortedValues.length) - 1)];
+  }
+
+  private long getRedisCommands() {
+    Properties stats =
+        redisTemplate.execute((RedisCallback<Properties>) connection -> connection.info("stats"));
+    return stats == null ? 0 : Long.parseLong(stats.getProperty("total_commands_processed", "0"));
+  }
+}
@@ -0,0 +1,108 @@
+package eu.europeana.api.translation.tests.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+import eu.europeana.api.translation.service.etranslation.ETranslationCallbackRegistry;
+import eu.europeana.api.translation.service.etranslation.ETranslationTranslationService;
+import eu.europeana.api.translation.tests.BaseTranslationTest;
+import redis.embedded.RedisServer;
+
+/**
+ * eTranslation requests exceeding the snippet limit, split into text snippet jobs. Only one job is
+ * sent at a time, so that the callbacks of the jobs can be sent in order.
+ */
+@SpringBootTest(properties = "translation.eTranslation.maxParallelJobs=1")
+@AutoConfigureMockMvc
+public class ETranslationSplitRequestRestIT extends BaseTranslationTest {
+
+  private static RedisServer redisServer = startRedisService();
+
+  @Autowired
+  ETranslationCallbackRegistry eTranslationCallbackRegistry;
+
+  static RedisServer startRedisService() {
+    RedisServer redisServer = new RedisServer(redisPort);
+    redisServer.start();
+    return redisServer;
+  }
+
+  @AfterAll
+  void stopRedis() {
+    if (redisServer != null) {
+      redisServer.stop();
+    }
+  }
+
+  @Test
+  void translationETranslationSplitRequest() throws Exception {
+    final String requestJson = getJsonStringInput(TRANSLATION_REQUEST_E_TRANSLATION_LONGER);
+    CompletableFuture<String> result = CompletableFuture.supplyAsync(() -> {
+      try {
+        return performAsync(post(BASE_URL_TRANSLATE)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .content(requestJson))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+      } catch (Exception e) {
+        throw new IllegalStateException("The translation request failed!", e);
+      }
+    });
+
+    // the texts are sent in two jobs, the second one after the callback of the first one
+    String eTranslRef = awaitETranslationReference("");
+    sendCallback(eTranslRef, "test first line in German, eight on caching, no cache 1!"
+        + ETranslationTranslationService.MARKUP_DELIMITER
+        + "a second text in German, can be cached....");
+    eTranslRef = awaitETranslationReference(eTranslRef);
+    sendCallback(eTranslRef, "a third text in German, such as this"
+        + ETranslationTranslationService.MARKUP_DELIMITER
+        + "and a fourth text such as: today’s news on www.heute.at");
+
+    JSONArray translations = new JSONObject(result.get(10, TimeUnit.SECONDS))
+        .getJSONArray(TranslationAppConstants.TRANSLATIONS);
+    assertEquals(4, translations.length());
+    assertEquals("test first line in German, eight on caching, no cache 1!",
+        translations.getString(0));
+    assertEquals("and a fourth text such as: today’s news on www.heute.at",
+        translations.getString(3));
+  }
+
+  private void sendCallback(String eTranslRef, String translatedText) throws Exception {
+    mockMvc
+    .perform(
+        post(ETranslationTranslationService.PATH_CALLBACK).characterEncoding(StandardCharsets.UTF_8)
+        .param("external-reference", eTranslRef)
+        .param("request-id", "1")
+        .param("translated-text", translatedText))
+    .andExpect(status().isOk());
+  }
+
+  /**
+   * Waits for the pending eTranslation job
+   * @param previousRef the reference of the previous job, which must not be pending anymore
+   */
+  private String awaitETranslationReference(String previousRef) throws InterruptedException {
+    // the callback of the previous reference is delivered asynchronously through redis
+    for (int i = 0; i < 100 && (eTranslationCallbackRegistry.getPendingReferences().isEmpty()
+        || eTranslationCallbackRegistry.getPendingReferences().contains(previousRef)); i++) {
+      Thread.sleep(100);
+    }
+    assertEquals(1, eTranslationCallbackRegistry.getPendingCount());
+    return eTranslationCallbackRegistry.getPendingReferences().iterator().next();
+  }
+}
@@ -22,6 +22,8 @@ import com.google.cloud.translate.v3.TranslationServiceClient;
 import eu.europeana.api.translation.config.BeanNames;
 import eu.europeana.api.translation.config.TranslationConfig;
 import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+import eu.europeana.api.translation.service.BulkheadLangDetectService;
+import eu.europeana.api.translation.service.ServiceBulkhead;
 import eu.europeana.api.translation.service.google.GoogleLangDetectService;
 import eu.europeana.api.translation.service.google.GoogleTranslationServiceClientWrapper;
 import eu.europeana.api.translation.tests.BaseTranslationTest;
@@ -169,4 +171,33 @@ public class LangDetectionRestIT extends BaseTranslationTest {
               .content(requestJson))
         .andExpect(status().isBadRequest());
   }  
+
+  @Test
+  void langDetectionDeadlineExceededInBulkhead() throws Exception {
+    // occupy all permits, so that the request waits in the bulkhead until its deadline expires
+    ServiceBulkhead bulkhead = ((BulkheadLangDetectService) translationServiceProvider
+        .getLangDetectServices().get("PANGEANIC")).getBulkhead();
+    final int permits = bulkhead.getMaxConcurrent();
+    for (int i = 0; i < permits; i++) {
+      bulkhead.acquire();
+    }
+    try {
+      String requestJson = getJsonStringInput(LANG_DETECT_REQUEST);
+      String result = mockMvc
+          .perform(
+              post(BASE_URL_DETECT)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(TranslationAppConstants.REQUEST_TIMEOUT_HEADER, "300")
+                .content(requestJson))
+          .andExpect(status().isGatewayTimeout())
+          .andReturn().getResponse().getContentAsString();
+      JSONObject obj = new JSONObject(result);
+      Assertions.assertEquals(HttpStatus.GATEWAY_TIMEOUT.value(), obj.get("status"));
+    } finally {
+      for (int i = 0; i < permits; i++) {
+        bulkhead.release();
+      }
+    }
+  }
 }
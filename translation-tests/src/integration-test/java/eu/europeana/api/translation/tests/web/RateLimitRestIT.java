@@ -0,0 +1,64 @@
+package eu.europeana.api.translation.tests.web;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+import eu.europeana.api.translation.tests.BaseTranslationTest;
+
+@SpringBootTest(properties = {"translation.ratelimit.enabled=true",
+    "translation.ratelimit.requestsPerMinute=2", "translation.ratelimit.charactersPerMinute=0",
+    "translation.ratelimit.clients=premium-client:4:0"})
+@AutoConfigureMockMvc
+public class RateLimitRestIT extends BaseTranslationTest {
+
+  private static final String PARAM_WSKEY = "wskey";
+
+  @Test
+  void rateLimitExceeded() throws Exception {
+    final String requestJson = getJsonStringInput(LANG_DETECT_REQUEST);
+
+    detect(requestJson, "default-client").andExpect(status().isOk())
+        .andExpect(header().string(TranslationAppConstants.RATE_LIMIT_LIMIT_HEADER, "2"))
+        .andExpect(header().string(TranslationAppConstants.RATE_LIMIT_REMAINING_HEADER, "1"));
+    detect(requestJson, "default-client").andExpect(status().isOk())
+        .andExpect(header().string(TranslationAppConstants.RATE_LIMIT_REMAINING_HEADER, "0"));
+
+    MvcResult result = detect(requestJson, "default-client")
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string(TranslationAppConstants.RATE_LIMIT_LIMIT_HEADER, "2"))
+        .andReturn();
+    String retryAfter = result.getResponse().getHeader(HttpHeaders.RETRY_AFTER);
+    assertNotNull(retryAfter);
+    // one request is refilled every 30 seconds
+    final long retryAfterSeconds = Long.parseLong(retryAfter);
+    assertTrue(retryAfterSeconds > 0 && retryAfterSeconds <= 30);
+  }
+
+  @Test
+  void rateLimitPerClient() throws Exception {
+    final String requestJson = getJsonStringInput(LANG_DETECT_REQUEST);
+
+    for (int i = 0; i < 4; i++) {
+      detect(requestJson, "premium-client").andExpect(status().isOk())
+          .andExpect(header().string(TranslationAppConstants.RATE_LIMIT_LIMIT_HEADER, "4"));
+    }
+    detect(requestJson, "premium-client").andExpect(status().isTooManyRequests());
+  }
+
+  private ResultActions detect(String requestJson, String apiKey) throws Exception {
+    return mockMvc.perform(post(BASE_URL_DETECT).param(PARAM_WSKEY, apiKey)
+        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+        .content(requestJson));
+  }
+}
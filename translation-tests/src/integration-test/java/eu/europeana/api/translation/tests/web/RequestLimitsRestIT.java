@@ -0,0 +1,127 @@
+package eu.europeana.api.translation.tests.web;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import javax.annotation.Resource;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import eu.europeana.api.translation.config.BeanNames;
+import eu.europeana.api.translation.tests.BaseTranslationTest;
+
+@SpringBootTest(properties = {"translation.request.maxTexts=3",
+    "translation.request.maxCharacters=100", "translation.request.maxTargets=2",
+    "translation.request.threads=1", "translation.request.queueSize=1"})
+@AutoConfigureMockMvc
+public class RequestLimitsRestIT extends BaseTranslationTest {
+
+  @Resource(name = BeanNames.BEAN_TRANSLATION_REQUEST_EXECUTOR)
+  private ExecutorService translationRequestExecutor;
+
+  @Test
+  void translateTooManyTexts() throws Exception {
+    String requestJson = "{\"source\": \"de\", \"target\": \"en\","
+        + "\"text\": [\"eins\", \"zwei\", \"drei\", \"vier\"]}";
+    translate(BASE_URL_TRANSLATE, requestJson).andExpect(status().isPayloadTooLarge())
+        .andExpect(jsonPath("$.status").value(HttpStatus.PAYLOAD_TOO_LARGE.value()));
+  }
+
+  @Test
+  void translateTooManyCharacters() throws Exception {
+    String requestJson = "{\"source\": \"de\", \"target\": \"en\","
+        + "\"text\": [\"" + StringUtils.repeat('a', 101) + "\"]}";
+    translate(BASE_URL_TRANSLATE, requestJson).andExpect(status().isPayloadTooLarge());
+  }
+
+  @Test
+  void translateBatchTooManyTexts() throws Exception {
+    // the limits apply to the texts of all sub-requests
+    String subRequest = "{\"source\": \"de\", \"target\": \"en\", \"text\": [\"eins\", \"zwei\"]}";
+    String requestJson = "{\"requests\": [" + subRequest + ", " + subRequest + "]}";
+    translate(BASE_URL_TRANSLATE_BATCH, requestJson).andExpect(status().isPayloadTooLarge());
+  }
+
+  @Test
+  void translateMultiTargetTooManyTargets() throws Exception {
+    String requestJson = "{\"source\": \"de\", \"targets\": [\"en\", \"fr\", \"it\"],"
+        + "\"text\": [\"eins\"]}";
+    translate(BASE_URL_TRANSLATE_MULTI, requestJson).andExpect(status().isPayloadTooLarge());
+  }
+
+  @Test
+  void translateMultiTargetTooManyTextsForAllTargets() throws Exception {
+    // 2 texts into 2 targets exceed the max of 3 texts
+    String requestJson = "{\"source\": \"de\", \"text\": [\"eins\", \"zwei\"],"
+        + "\"targets\": [\"en\", \"fr\"]}";
+    translate(BASE_URL_TRANSLATE_MULTI, requestJson).andExpect(status().isPayloadTooLarge());
+  }
+
+  @Test
+  void translateRequestExecutorFull() throws Exception {
+    // occupy the request thread and the queue
+    CountDownLatch release = new CountDownLatch(1);
+    for (int i = 0; i < 2; i++) {
+      translationRequestExecutor.execute(() -> {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+    }
+    try {
+      String requestJson = "{\"source\": \"de\", \"target\": \"en\", \"text\": [\"eins\"]}";
+      performAsync(post(BASE_URL_TRANSLATE)
+          .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+          .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+          .content(requestJson))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  void translateDeadlineExpiredInQueue() throws Exception {
+    // occupy the request thread, the request waits in the queue longer than its timeout
+    CountDownLatch release = new CountDownLatch(1);
+    translationRequestExecutor.execute(() -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    MvcResult queued;
+    try {
+      String requestJson =
+          "{\"source\": \"de\", \"target\": \"en\", \"text\": [\"eins\"], \"timeout\": 100}";
+      queued = translate(BASE_URL_TRANSLATE, requestJson)
+          .andExpect(request().asyncStarted()).andReturn();
+      Thread.sleep(300);
+    } finally {
+      release.countDown();
+    }
+    mockMvc.perform(asyncDispatch(queued)).andExpect(status().isGatewayTimeout());
+  }
+
+  private ResultActions translate(String url, String requestJson) throws Exception {
+    return mockMvc.perform(post(url)
+        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+        .content(requestJson));
+  }
+}
@@ -0,0 +1,162 @@
+package eu.europeana.api.translation.tests.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import eu.europeana.api.translation.definitions.model.TranslationJobStatus;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+import eu.europeana.api.translation.tests.IntegrationTestUtils;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Submits translation jobs and waits for their completion and for the callback. The jobs are
+ * queued in redis streams, which are not supported by the embedded redis server used by the other
+ * tests, a redis container is used instead (skipped when docker is not available).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TranslationJobRestIT extends IntegrationTestUtils {
+
+  private static final String BASE_URL_JOBS = BASE_URL_TRANSLATE + "/jobs";
+  private static final long JOB_TIMEOUT_MILLIS = 30000;
+
+  @Container
+  private static final GenericContainer<?> REDIS =
+      new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+  private static final MockWebServer CALLBACK_SERVER = startCallbackServer();
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  private static MockWebServer startCallbackServer() {
+    MockWebServer server = new MockWebServer();
+    try {
+      server.start();
+    } catch (IOException e) {
+      throw new RuntimeException("Cannot start the callback mock server", e);
+    }
+    return server;
+  }
+
+  @DynamicPropertySource
+  static void setProperties(DynamicPropertyRegistry registry) {
+    registry.add("auth.read.enabled", () -> "false");
+    registry.add("auth.write.enabled", () -> "false");
+    registry.add("scmBranch", () -> "dev");
+    registry.add("buildNumber", () -> "99");
+    registry.add("timestamp", () -> System.currentTimeMillis());
+    // the translation services return the original texts
+    registry.add("translation.dummy.services", () -> "true");
+    registry.add("translation.pangeanic.endpoint.detect", () -> "http://localhost/detect");
+    registry.add("translation.pangeanic.endpoint.translate", () -> "http://localhost/translate");
+    registry.add("translation.google.projectId", () -> "project-id-test");
+    registry.add("translation.google.usehttpclient", () -> "true");
+    registry.add("redis.connection.url",
+        () -> "redis://" + REDIS.getHost() + ":" + REDIS.getMappedPort(6379) + "/");
+    registry.add("translation.jobs.enabled", () -> "true");
+    registry.add("translation.jobs.chunkSize", () -> "2");
+    // the mock server is listening on the loopback interface
+    registry.add("translation.jobs.callbackAllowedHosts", CALLBACK_SERVER::getHostName);
+  }
+
+  @AfterAll
+  void stopCallbackServer() throws IOException {
+    CALLBACK_SERVER.shutdown();
+  }
+
+  @Test
+  void translationJobWithCallback() throws Exception {
+    CALLBACK_SERVER.enqueue(new MockResponse().setResponseCode(200));
+    final String callbackUrl = CALLBACK_SERVER.url("/job-callback").toString();
+    JSONObject jobRequest = new JSONObject().put("source", "de").put("target", "en")
+        .put("service", "PANGEANIC").put("callback", callbackUrl)
+        .put("text", new JSONArray().put("erster Text").put("zweiter Text").put("dritter Text"));
+
+    String submitted = mockMvc.perform(post(BASE_URL_JOBS)
+            .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .content(jobRequest.toString()))
+        .andExpect(status().isAccepted())
+        .andReturn().getResponse().getContentAsString();
+    final String jobId = new JSONObject(submitted).getString(TranslationAppConstants.JOB_ID);
+    assertNotNull(jobId);
+
+    // poll the job until it is finished
+    JSONObject job = getJob(jobId);
+    final long timeout = System.currentTimeMillis() + JOB_TIMEOUT_MILLIS;
+    while (!TranslationJobStatus.valueOf(job.getString(TranslationAppConstants.STATUS))
+        .isFinished() && System.currentTimeMillis() < timeout) {
+      Thread.sleep(200);
+      job = getJob(jobId);
+    }
+    assertEquals(TranslationJobStatus.COMPLETED.name(),
+        job.getString(TranslationAppConstants.STATUS));
+
+    RecordedRequest callback = CALLBACK_SERVER.takeRequest(10, TimeUnit.SECONDS);
+    assertNotNull(callback);
+    assertEquals("/job-callback", callback.getPath());
+    JSONObject notifiedJob = new JSONObject(callback.getBody().readUtf8());
+    assertEquals(jobId, notifiedJob.getString(TranslationAppConstants.JOB_ID));
+    assertEquals(TranslationJobStatus.COMPLETED.name(),
+        notifiedJob.getString(TranslationAppConstants.STATUS));
+
+    String results = mockMvc.perform(get(BASE_URL_JOBS + "/" + jobId + "/results")
+            .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    JSONArray translations =
+        new JSONObject(results).getJSONArray(TranslationAppConstants.TRANSLATIONS);
+    assertEquals(3, translations.length());
+    assertEquals("dritter Text", translations.getString(2));
+  }
+
+  @Test
+  void translationJobWithInternalCallbackRejected() throws Exception {
+    JSONObject jobRequest = new JSONObject().put("source", "de").put("target", "en")
+        .put("service", "PANGEANIC").put("callback", "http://169.254.169.254/latest/meta-data")
+        .put("text", new JSONArray().put("erster Text"));
+
+    mockMvc.perform(post(BASE_URL_JOBS)
+            .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .content(jobRequest.toString()))
+        .andExpect(status().isBadRequest());
+    assertTrue(CALLBACK_SERVER.getRequestCount() <= 1);
+  }
+
+  private JSONObject getJob(String jobId) throws Exception {
+    return new JSONObject(mockMvc.perform(get(BASE_URL_JOBS + "/" + jobId)
+            .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString());
+  }
+}
@@ -0,0 +1,219 @@
+package eu.europeana.api.translation.tests.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import com.google.cloud.translate.v3.TranslationServiceClient;
+import eu.europeana.api.translation.config.BeanNames;
+import eu.europeana.api.translation.config.TranslationConfig;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+import eu.europeana.api.translation.service.TranslationService;
+import eu.europeana.api.translation.service.exception.TranslationException;
+import eu.europeana.api.translation.service.google.GoogleTranslationService;
+import eu.europeana.api.translation.service.google.GoogleTranslationServiceClientWrapper;
+import eu.europeana.api.translation.tests.BaseTranslationTest;
+import eu.europeana.api.translation.tests.web.mock.MockGClient;
+import eu.europeana.api.translation.tests.web.mock.MockGServiceStub;
+
+/**
+ * Measures the throughput and memory usage of the request handling on platform threads (the
+ * default tomcat pool size), see {@link TranslationLoadVirtualThreadsRestIT} for the same load on
+ * virtual threads. The external service is simulated with a fixed latency. The tests are run only
+ * on demand, e.g.:
+ * mvn verify -Dit.test=TranslationLoad*RestIT -Dtranslation.loadTest=true
+ */
+@SpringBootTest(properties = "translation.virtualThreads.enabled=false")
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "translation.loadTest", matches = "true")
+public class TranslationLoadRestIT extends BaseTranslationTest {
+
+  private static final String SERVICE_ID = "GOOGLE";
+  private static final int PLATFORM_THREADS = 200;
+  private static final long HEAP_SAMPLING_MILLIS = 10;
+  private static final int REQUESTS = Integer.getInteger("translation.loadTest.requests", 5000);
+  private static final long LATENCY_MILLIS =
+      Long.getLong("translation.loadTest.latencyMillis", 200);
+
+  @Autowired
+  TranslationConfig translationConfig;
+
+  @Autowired
+  GoogleTranslationService googleTranslationService;
+
+  @Autowired
+  @Qualifier(BeanNames.BEAN_GOOGLE_TRANSLATION_CLIENT_WRAPPER)
+  GoogleTranslationServiceClientWrapper clientWrapper;
+
+  private TranslationService originalService;
+
+  @BeforeAll
+  void initSlowService() throws IOException {
+    TranslationServiceClient googleClient = new MockGClient(new MockGServiceStub());
+    clientWrapper.setClient(googleClient);
+    googleTranslationService.init(clientWrapper);
+
+    // simulate the blocking call to the external service, the service bulkhead is not applied as
+    // it would limit the concurrency for both thread models
+    originalService = translationServiceProvider.replaceTranslationService(
+        new SlowTranslationService(googleTranslationService, LATENCY_MILLIS), false);
+  }
+
+  @AfterAll
+  void restoreService() throws Exception {
+    translationServiceProvider.replaceTranslationService(originalService, false);
+  }
+
+  @Test
+  void measureThroughput() throws Exception {
+    final String requestJson = getJsonStringInput(TRANSLATION_REQUEST);
+
+    // the calling threads play the role of the tomcat request threads
+    final boolean virtualThreads = translationConfig.isVirtualThreadsEnabled();
+    LoadResult result = runLoad(virtualThreads ? "virtual threads" : "platform threads",
+        requestJson, virtualThreads ? Executors.newVirtualThreadPerTaskExecutor()
+            : Executors.newFixedThreadPool(PLATFORM_THREADS));
+
+    LOG.info("Load test results for {} requests with {} ms latency:\n{}", REQUESTS,
+        LATENCY_MILLIS, result);
+    assertEquals(REQUESTS, result.successful);
+  }
+
+  private LoadResult runLoad(String name, String requestJson, ExecutorService executor)
+      throws InterruptedException {
+    final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    System.gc();
+    threadBean.resetPeakThreadCount();
+    final long heapBefore = memoryBean.getHeapMemoryUsage().getUsed();
+
+    // the heap usage is sampled while the requests are in progress
+    final AtomicLong heapPeak = new AtomicLong(heapBefore);
+    final ScheduledExecutorService heapSampler = Executors.newSingleThreadScheduledExecutor();
+    heapSampler.scheduleAtFixedRate(
+        () -> heapPeak.accumulateAndGet(memoryBean.getHeapMemoryUsage().getUsed(), Math::max), 0,
+        HEAP_SAMPLING_MILLIS, TimeUnit.MILLISECONDS);
+
+    final long start = System.nanoTime();
+    List<Future<Integer>> responses = new ArrayList<>(REQUESTS);
+    for (int i = 0; i < REQUESTS; i++) {
+      responses.add(executor.submit(() -> performAsync(post(BASE_URL_TRANSLATE)
+              .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+              .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+              .content(requestJson))
+          .andReturn().getResponse().getStatus()));
+    }
+
+    int successful = 0;
+    for (Future<Integer> response : responses) {
+      try {
+        if (response.get() == 200) {
+          successful++;
+        }
+      } catch (ExecutionException e) {
+        LOG.warn("Load test request failed", e);
+      }
+    }
+    final long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    heapSampler.shutdownNow();
+    executor.shutdown();
+
+    return new LoadResult(name, successful, durationMillis, heapPeak.get() - heapBefore,
+        threadBean.getPeakThreadCount());
+  }
+
+  private static class LoadResult {
+    final String name;
+    final int successful;
+    final long durationMillis;
+    final long heapPeakDelta;
+    final int peakPlatformThreads;
+
+    LoadResult(String name, int successful, long durationMillis, long heapPeakDelta,
+        int peakPlatformThreads) {
+      this.name = name;
+      this.successful = successful;
+      this.durationMillis = durationMillis;
+      this.heapPeakDelta = heapPeakDelta;
+      this.peakPlatformThreads = peakPlatformThreads;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%s: %d successful in %d ms (%.1f req/s), heap peak delta %d KB, peak platform threads %d",
+          name, successful, durationMillis, successful * 1000.0 / Math.max(durationMillis, 1),
+          heapPeakDelta / 1024, peakPlatformThreads);
+    }
+  }
+
+  /**
+   * Delegates to the real service after a fixed delay, simulating the latency of the external call
+   */
+  private static class SlowTranslationService implements TranslationService {
+    private final TranslationService delegate;
+    private final long latencyMillis;
+
+    SlowTranslationService(TranslationService delegate, long latencyMillis) {
+      this.delegate = delegate;
+      this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public void translate(List<TranslationObj> translationStrings) throws TranslationException {
+      try {
+        Thread.sleep(latencyMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new TranslationException("Interrupted");
+      }
+      delegate.translate(translationStrings);
+    }
+
+    @Override
+    public String getServiceId() {
+      return delegate.getServiceId();
+    }
+
+    @Override
+    public void setServiceId(String serviceId) {
+      delegate.setServiceId(serviceId);
+    }
+
+    @Override
+    public boolean isSupported(String srcLang, String trgLang) {
+      return delegate.isSupported(srcLang, trgLang);
+    }
+
+    @Override
+    public void close() {
+      delegate.close();
+    }
+
+    @Override
+    public String getExternalServiceEndPoint() {
+      return delegate.getExternalServiceEndPoint();
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package eu.europeana.api.translation.tests.web;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs the load of {@link TranslationLoadRestIT} with the request handling and the calls to the
+ * translation services on virtual threads
+ */
+@SpringBootTest(properties = "translation.virtualThreads.enabled=true")
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "translation.loadTest", matches = "true")
+public class TranslationLoadVirtualThreadsRestIT extends TranslationLoadRestIT {
+
+}
@@ -1,15 +1,23 @@
 package eu.europeana.api.translation.tests.web;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import org.codehaus.jettison.json.JSONArray;
 import org.codehaus.jettison.json.JSONObject;
 import org.junit.jupiter.api.AfterAll;
@@ -25,21 +33,32 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import com.google.cloud.translate.v3.TranslationServiceClient;
 import eu.europeana.api.translation.config.BeanNames;
+import eu.europeana.api.translation.config.PangeanicThresholdsLoader;
 import eu.europeana.api.translation.config.TranslationConfig;
 import eu.europeana.api.translation.definitions.model.TranslationObj;
 import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+import eu.europeana.api.translation.service.etranslation.ETranslationCallbackRegistry;
+import eu.europeana.api.translation.service.etranslation.ETranslationClientConfig;
+import eu.europeana.api.translation.service.etranslation.ETranslationJobStore;
 import eu.europeana.api.translation.service.etranslation.ETranslationTranslationService;
 import eu.europeana.api.translation.service.google.GoogleTranslationService;
 import eu.europeana.api.translation.service.google.GoogleTranslationServiceClientWrapper;
+import eu.europeana.api.translation.service.pangeanic.PangeanicTranslationService;
+import eu.europeana.api.translation.service.util.TranslationUtils;
 import eu.europeana.api.translation.tests.BaseTranslationTest;
 import eu.europeana.api.translation.tests.web.mock.MockGClient;
 import eu.europeana.api.translation.tests.web.mock.MockGServiceStub;
+import eu.europeana.api.translation.web.TranslationStreamEmitter;
+import eu.europeana.api.translation.web.service.CachedTranslationService;
 import eu.europeana.api.translation.web.service.RedisCacheService;
 import redis.embedded.RedisServer;
 
-@SpringBootTest
+// the eTranslation requests exceeding the snippet limit are sent as documents, the split requests
+// are verified by ETranslationSplitRequestRestIT
+@SpringBootTest(properties = "translation.eTranslation.maxParallelJobs=0")
 @AutoConfigureMockMvc
 public class TranslationRestIT extends BaseTranslationTest {
  
@@ -49,6 +68,18 @@ public class TranslationRestIT extends BaseTranslationTest {
   
   @Autowired
   RedisCacheService redisCacheService;
+
+  @Autowired
+  ETranslationCallbackRegistry eTranslationCallbackRegistry;
+
+  @Autowired
+  ETranslationJobStore eTranslationJobStore;
+
+  @Autowired
+  PangeanicTranslationService pangeanicTranslationService;
+
+  @Autowired
+  PangeanicThresholdsLoader pangeanicThresholdsLoader;
   
   private static RedisServer redisServer = startRedisService();
   
@@ -83,8 +114,7 @@ public class TranslationRestIT extends BaseTranslationTest {
   @Test
   void translationGoogle() throws Exception {
     String requestJson = getJsonStringInput(TRANSLATION_REQUEST);
-    String result = mockMvc
-        .perform(
+    String result = performAsync(
             post(BASE_URL_TRANSLATE)
               .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
               .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
@@ -105,8 +135,7 @@ public class TranslationRestIT extends BaseTranslationTest {
   @Test
   void translationPangeanic() throws Exception {
     String requestJson = getJsonStringInput(TRANSLATION_REQUEST_2);
-    String result = mockMvc
-        .perform(
+    String result = performAsync(
             post(BASE_URL_TRANSLATE)
               .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
               .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
@@ -135,8 +164,7 @@ public class TranslationRestIT extends BaseTranslationTest {
       String result;
       try {
         String requestJson = getJsonStringInput(TRANSLATION_REQUEST_E_TRANSLATION);
-        result = mockMvc
-            .perform(
+        result = performAsync(
                 post(BASE_URL_TRANSLATE)
                   .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
                   .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
@@ -171,8 +199,7 @@ public class TranslationRestIT extends BaseTranslationTest {
     public void run() {
       try {
         String requestJson = getJsonStringInput(TRANSLATION_REQUEST_E_TRANSLATION_LONGER);
-        String result = mockMvc
-            .perform(
+        String result = performAsync(
                 post(BASE_URL_TRANSLATE)
                   .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
                   .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
@@ -205,10 +232,8 @@ public class TranslationRestIT extends BaseTranslationTest {
   void translationETranslationTextSnippet() throws Exception {
     Thread thread = new Thread(new eTranslationSimulatorThreadForTextSnippetTranslation(mockMvc));
     thread.start();
-    Thread.sleep(1000);
-    //trigger the eTranslation callback manually
-    //computed in advance using the code in the eTransl service
-    String eTranslRef="et:deenre7d+w";
+    //trigger the eTranslation callback manually, with the reference of the pending request
+    String eTranslRef = awaitETranslationReference();
     StringBuilder translatedText=new StringBuilder();
     translatedText.append("That is my dog.");
     translatedText.append(ETranslationTranslationService.MARKUP_DELIMITER);
@@ -233,10 +258,8 @@ public class TranslationRestIT extends BaseTranslationTest {
   void translationETranslationDocument() throws Exception {    
     Thread thread = new Thread(new eTranslationSimulatorThreadForDocumentTranslation(mockMvc));
     thread.start();
-    Thread.sleep(1000);
-    //trigger the eTranslation callback manually
-    //computed in advance using the code in the eTransl service
-    String eTranslRef="et:deen9Aie9A";
+    //trigger the eTranslation callback manually, with the reference of the pending request
+    String eTranslRef = awaitETranslationReference();
     //base64 encoded translations
     String translatedText="dGVzdCBmaXJzdCBsaW5lIGluIEdlcm1hbiwgZWlnaHQgb24gY2FjaGluZywgbm8gY2FjaGUgMSEKW25vdHJhbnNsYXRlXWRlZW5QVnNhT2dbL25vdHJhbnNsYXRlXQphIHNlY29uZCB0ZXh0IGluIEdlcm1hbiwgY2FuIGJlIGNhY2hlZC4uLi4KW25vdHJhbnNsYXRlXWRlZW5QVnNhT2dbL25vdHJhbnNsYXRlXQphIHRoaXJkIHRleHQgaW4gR2VybWFuLCBzdWNoIGFzIHRoaXMKW25vdHJhbnNsYXRlXWRlZW5QVnNhT2dbL25vdHJhbnNsYXRlXQphbmQgYSBmb3VydGggdGV4dCBzdWNoIGFzOiB0b2RheeKAmXMgbmV3cyBvbiB3d3cuaGV1dGUuYXQ=";
     
@@ -254,11 +277,249 @@ public class TranslationRestIT extends BaseTranslationTest {
   
   
 
+  /*
+   * eTranslation callback received after the caller stopped waiting, the translations are cached
+   */
+  @Test
+  void translationETranslationLateCallbackCached() throws Exception {
+    List<TranslationObj> segments = new ArrayList<>();
+    for (String text : List.of("Das ist mein Katze.", "Das ist mein Haus.")) {
+      TranslationObj segment = new TranslationObj();
+      segment.setText(text);
+      segment.setSourceLang("de");
+      segment.setTargetLang(LANGUAGE_EN);
+      segment.setCacheKey(TranslationUtils.generateRedisKey(text, "de", LANGUAGE_EN, null));
+      segments.add(segment);
+    }
+    final String eTranslRef = eTranslationCallbackRegistry.newExternalReference();
+    eTranslationJobStore.save(eTranslRef, segments, false);
+
+    // nobody waits for this reference anymore
+    mockMvc
+    .perform(
+        post(ETranslationTranslationService.PATH_CALLBACK).characterEncoding(StandardCharsets.UTF_8)
+        .param("external-reference", eTranslRef)
+        .param("request-id", "1")
+        .param("translated-text", "That is my cat." + ETranslationTranslationService.MARKUP_DELIMITER
+            + "That is my house."))
+    .andExpect(status().isOk());
+
+    // the same request is now served from the cache, without eTranslation callback
+    String requestJson = "{\"source\": \"de\", \"target\": \"en\", \"service\": \"ETRANSLATION\","
+        + " \"text\": [\"Das ist mein Katze.\", \"Das ist mein Haus.\"], \"caching\": true}";
+    String result = performAsync(
+            post(BASE_URL_TRANSLATE)
+              .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+              .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+              .content(requestJson))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    JSONArray translations = new JSONObject(result).getJSONArray(TranslationAppConstants.TRANSLATIONS);
+    assertEquals("That is my cat.", translations.getString(0));
+    assertEquals("That is my house.", translations.getString(1));
+  }
+
+  /*
+   * the requests joined into a shared eTranslation document keep their cache keys, the late
+   * callback of the document is cached as well
+   */
+  @Test
+  void translationETranslationMultiplexedLateCallbackCached() throws Exception {
+    ETranslationClientConfig clientConfig = new ETranslationClientConfig();
+    clientConfig.setMultiplexWindowMillisec(50);
+    ETranslationTranslationService multiplexingService = new ETranslationTranslationService(
+        ETranslationTranslationService.FAKE_BASE_URL_FOR_TESTING, null, null, 1000, null, null,
+        eTranslationCallbackRegistry, eTranslationJobStore, clientConfig);
+    try {
+      List<TranslationObj> first = eTranslationCachingObjs("Das ist mein Garten.");
+      List<TranslationObj> second = eTranslationCachingObjs("Das ist mein Fenster.");
+      CompletableFuture<Void> firstResult = multiplexingService.translateAsync(first);
+      CompletableFuture<Void> secondResult = multiplexingService.translateAsync(second);
+      final String eTranslRef = awaitETranslationReference();
+
+      // both callers give up before the callback
+      assertThrows(ExecutionException.class, () -> firstResult.get(5, TimeUnit.SECONDS));
+      assertThrows(ExecutionException.class, () -> secondResult.get(5, TimeUnit.SECONDS));
+      assertNull(first.get(0).getTranslation());
+
+      mockMvc
+      .perform(
+          post(ETranslationTranslationService.PATH_CALLBACK).characterEncoding(StandardCharsets.UTF_8)
+          .param("external-reference", eTranslRef)
+          .param("request-id", "1")
+          .param("translated-text", "That is my garden." + ETranslationTranslationService.MARKUP_DELIMITER
+              + "That is my window."))
+      .andExpect(status().isOk());
+
+      List<TranslationObj> cached = eTranslationCachingObjs("Das ist mein Garten.");
+      cached.addAll(eTranslationCachingObjs("Das ist mein Fenster."));
+      redisCacheService.fillWithCachedTranslations(cached, null);
+      assertEquals("That is my garden.", cached.get(0).getTranslation());
+      assertEquals("That is my window.", cached.get(1).getTranslation());
+    } finally {
+      multiplexingService.close();
+      redisCacheService.deleteAll();
+    }
+  }
+
+  private List<TranslationObj> eTranslationCachingObjs(String text) {
+    TranslationObj translObj = new TranslationObj();
+    translObj.setText(text);
+    translObj.setSourceLang("de");
+    translObj.setTargetLang(LANGUAGE_EN);
+    translObj.setCacheKey(TranslationUtils.generateRedisKey(text, "de", LANGUAGE_EN, null));
+    List<TranslationObj> translObjs = new ArrayList<>();
+    translObjs.add(translObj);
+    return translObjs;
+  }
+
+  /*
+   * one eTranslation job for all target languages, each language has its own callback
+   */
+  @Test
+  void translationETranslationMultiTarget() throws Exception {
+    Thread thread = new Thread(() -> {
+      try {
+        String result = mockMvc
+            .perform(
+                post(BASE_URL_TRANSLATE_MULTI)
+                  .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                  .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                  .content(getJsonStringInput(TRANSLATION_REQUEST_E_TRANSLATION_MULTI_TARGET)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        JSONArray results = new JSONObject(result).getJSONArray(TranslationAppConstants.RESULTS);
+        assertEquals(2, results.length());
+        assertEquals(LANGUAGE_EN, results.getJSONObject(0).getString(TranslationAppConstants.LANG));
+        assertEquals("That is my garden.", results.getJSONObject(0)
+            .getJSONArray(TranslationAppConstants.TRANSLATIONS).getString(0));
+        assertEquals("fr", results.getJSONObject(1).getString(TranslationAppConstants.LANG));
+        assertEquals("C'est ma fenêtre.", results.getJSONObject(1)
+            .getJSONArray(TranslationAppConstants.TRANSLATIONS).getString(1));
+      } catch (Exception e) {
+        throw new RuntimeException("cannot run the multi-target eTranslation request!", e);
+      }
+    });
+    thread.start();
+
+    // both targets are awaited on the channels of the same job
+    for (int i = 0; i < 100 && eTranslationCallbackRegistry.getPendingCount() < 2; i++) {
+      Thread.sleep(100);
+    }
+    assertEquals(2, eTranslationCallbackRegistry.getPendingCount());
+    String channel = eTranslationCallbackRegistry.getPendingReferences().iterator().next();
+    String eTranslRef = channel.substring(0, channel.lastIndexOf(':'));
+    assertTrue(eTranslRef.startsWith(ETranslationCallbackRegistry.MULTI_TARGET_PREFIX));
+
+    mockMvc
+    .perform(
+        post(ETranslationTranslationService.PATH_CALLBACK).characterEncoding(StandardCharsets.UTF_8)
+        .param("external-reference", eTranslRef)
+        .param("request-id", "1")
+        .param("target-language", "EN")
+        .param("translated-text", "That is my garden." + ETranslationTranslationService.MARKUP_DELIMITER
+            + "That is my window."))
+    .andExpect(status().isOk());
+    mockMvc
+    .perform(
+        post(ETranslationTranslationService.PATH_CALLBACK).characterEncoding(StandardCharsets.UTF_8)
+        .param("external-reference", eTranslRef)
+        .param("request-id", "1")
+        .param("target-language", "FR")
+        .param("translated-text", "C'est mon jardin." + ETranslationTranslationService.MARKUP_DELIMITER
+            + "C'est ma fenêtre."))
+    .andExpect(status().isOk());
+    thread.join();
+
+    // the translations of every target are cached
+    String requestJson = "{\"source\": \"de\", \"target\": \"fr\", \"service\": \"ETRANSLATION\","
+        + " \"text\": [\"Das ist mein Garten.\"], \"caching\": true}";
+    String result = performAsync(
+            post(BASE_URL_TRANSLATE)
+              .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+              .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+              .content(requestJson))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    assertEquals("C'est mon jardin.",
+        new JSONObject(result).getJSONArray(TranslationAppConstants.TRANSLATIONS).getString(0));
+  }
+
+  /*
+   * the error callback of one target language does not fail the other targets of the job
+   */
+  @Test
+  void translationETranslationMultiTargetErrorForOneTarget() throws Exception {
+    String requestJson = "{\"source\": \"de\", \"targets\": [\"en\", \"fr\"],"
+        + " \"service\": \"ETRANSLATION\", \"text\": [\"Das ist mein Baum.\"], \"caching\": false}";
+    final String[] result = new String[1];
+    Thread thread = new Thread(() -> {
+      try {
+        result[0] = mockMvc
+            .perform(
+                post(BASE_URL_TRANSLATE_MULTI)
+                  .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                  .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                  .content(requestJson))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+      } catch (Exception e) {
+        throw new RuntimeException("cannot run the multi-target eTranslation request!", e);
+      }
+    });
+    thread.start();
+
+    for (int i = 0; i < 100 && eTranslationCallbackRegistry.getPendingCount() < 2; i++) {
+      Thread.sleep(100);
+    }
+    assertEquals(2, eTranslationCallbackRegistry.getPendingCount());
+    String channel = eTranslationCallbackRegistry.getPendingReferences().iterator().next();
+    String eTranslRef = channel.substring(0, channel.lastIndexOf(':'));
+
+    mockMvc
+    .perform(
+        post(ETranslationTranslationService.PATH_ERROR_CALLBACK)
+        .param("external-reference", eTranslRef)
+        .param("request-id", "1")
+        .param("error-code", "-20001")
+        .param("error-message", "translation failed")
+        .param("target-languages", "FR"))
+    .andExpect(status().isOk());
+    // the english translation is still awaited
+    assertEquals(1, eTranslationCallbackRegistry.getPendingCount());
+    mockMvc
+    .perform(
+        post(ETranslationTranslationService.PATH_CALLBACK).characterEncoding(StandardCharsets.UTF_8)
+        .param("external-reference", eTranslRef)
+        .param("request-id", "1")
+        .param("target-language", "EN")
+        .param("translated-text", "That is my tree."))
+    .andExpect(status().isOk());
+    thread.join();
+
+    JSONArray results = new JSONObject(result[0]).getJSONArray(TranslationAppConstants.RESULTS);
+    assertEquals(2, results.length());
+    assertEquals("That is my tree.", results.getJSONObject(0)
+        .getJSONArray(TranslationAppConstants.TRANSLATIONS).getString(0));
+    assertEquals(HttpStatus.OK.value(), results.getJSONObject(0).getInt(TranslationAppConstants.STATUS));
+    // reported with the service which translated the target
+    assertEquals("ETRANSLATION", results.getJSONObject(0).getString(TranslationAppConstants.SERVICE));
+    assertTrue(results.getJSONObject(1).getInt(TranslationAppConstants.STATUS) >= 400);
+  }
+
+  private String awaitETranslationReference() throws InterruptedException {
+    for (int i = 0; i < 100 && eTranslationCallbackRegistry.getPendingReferences().isEmpty(); i++) {
+      Thread.sleep(100);
+    }
+    assertEquals(1, eTranslationCallbackRegistry.getPendingCount());
+    return eTranslationCallbackRegistry.getPendingReferences().iterator().next();
+  }
+
   @Test
   void translationPangeanicNoSrcMultipleLanguages() throws Exception {
     String requestJson = getJsonStringInput(TRANSLATION_REQUEST_PANGEANIC_MULTIPLE_LANG);
-    String result = mockMvc
-        .perform(
+    String result = performAsync(
             post(BASE_URL_TRANSLATE).characterEncoding(StandardCharsets.UTF_8)
             .accept(MediaType.APPLICATION_JSON)
             .contentType(MediaType.APPLICATION_JSON)
@@ -303,8 +564,7 @@ public class TranslationRestIT extends BaseTranslationTest {
       translObjs.add(newTranslObj);
     }    
     
-    mockMvc
-        .perform(
+    performAsync(
             post(BASE_URL_TRANSLATE)
               .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
               .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
@@ -317,8 +577,7 @@ public class TranslationRestIT extends BaseTranslationTest {
     //check if all are availble in the cache
     assertTrue(cachedTranslations.size() == translObjs.size());
     
-    String cachedResult = mockMvc
-        .perform(
+    String cachedResult = performAsync(
             post(BASE_URL_TRANSLATE)
               .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
               .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
@@ -336,11 +595,102 @@ public class TranslationRestIT extends BaseTranslationTest {
     redisCacheService.deleteAll();
   }
 
+  @Test
+  void translationWithCachedScoresAndUpdatedThresholds() throws Exception {
+    String requestJson = getJsonStringInput(TRANSLATION_REQUEST_CACHING);
+    performAsync(
+            post(BASE_URL_TRANSLATE)
+              .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+              .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+              .content(requestJson))
+        .andExpect(status().isOk());
+
+    //the scores of the mocked translations are 0.846 and 0.848, the cached translations are rejected
+    Properties thresholds = new Properties();
+    thresholds.setProperty("de", "0.847");
+    pangeanicTranslationService.updateThresholds(thresholds);
+    try {
+      String result = performAsync(
+              post(BASE_URL_TRANSLATE)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .content(requestJson))
+          .andExpect(status().isOk())
+          .andReturn().getResponse().getContentAsString();
+
+      JSONArray translations = new JSONObject(result).getJSONArray(TranslationAppConstants.TRANSLATIONS);
+      assertEquals(2, translations.length());
+      assertTrue(translations.isNull(0));
+      assertEquals("a second line of text in German", translations.getString(1));
+    } finally {
+      pangeanicTranslationService.updateThresholds(pangeanicThresholdsLoader.load());
+      redisCacheService.deleteAll();
+    }
+  }
+
+  @Test
+  void cachedScoresOnlyAcceptedForTheProducingService() throws Exception {
+    String requestJson = getJsonStringInput(TRANSLATION_REQUEST_CACHING);
+    performAsync(
+            post(BASE_URL_TRANSLATE)
+              .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+              .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+              .content(requestJson))
+        .andExpect(status().isOk());
+
+    try {
+      //the pangeanic scores are not comparable with the thresholds of other services
+      List<TranslationObj> translObjs = cachingTranslationObjs();
+      redisCacheService.fillWithCachedTranslations(translObjs, googleTranslationService);
+      assertTrue(translObjs.stream().noneMatch(TranslationObj::isRetrievedFromCache));
+      assertTrue(translObjs.stream().allMatch(el -> el.getTranslation() == null));
+
+      translObjs = cachingTranslationObjs();
+      redisCacheService.fillWithCachedTranslations(translObjs, pangeanicTranslationService);
+      assertTrue(translObjs.stream().allMatch(TranslationObj::isRetrievedFromCache));
+
+      //the translations rejected by the new threshold are served from the cache without translation,
+      //the raw translation and the score are kept
+      Properties thresholds = new Properties();
+      thresholds.setProperty("de", "0.847");
+      pangeanicTranslationService.updateThresholds(thresholds);
+      translObjs = cachingTranslationObjs();
+      redisCacheService.fillWithCachedTranslations(translObjs, pangeanicTranslationService);
+      assertTrue(translObjs.stream().allMatch(TranslationObj::isRetrievedFromCache));
+      assertNull(translObjs.get(0).getTranslation());
+      assertNotNull(translObjs.get(0).getRawTranslation());
+      assertNotNull(translObjs.get(0).getScore());
+      assertNotNull(translObjs.get(1).getTranslation());
+
+      //no provider call is made for the rejected translations
+      CachedTranslationService cachedPangeanic =
+          new CachedTranslationService(redisCacheService, pangeanicTranslationService);
+      translObjs = cachingTranslationObjs();
+      assertTrue(cachedPangeanic.fillWithoutTranslationService(translObjs).isEmpty());
+    } finally {
+      pangeanicTranslationService.updateThresholds(pangeanicThresholdsLoader.load());
+      redisCacheService.deleteAll();
+    }
+  }
+
+  private List<TranslationObj> cachingTranslationObjs() throws Exception {
+    JSONObject request = new JSONObject(getJsonStringInput(TRANSLATION_REQUEST_CACHING));
+    JSONArray texts = request.getJSONArray(TranslationAppConstants.TEXT);
+    List<TranslationObj> translObjs = new ArrayList<>();
+    for (int i = 0; i < texts.length(); i++) {
+      TranslationObj translObj = new TranslationObj();
+      translObj.setSourceLang(request.getString(TranslationAppConstants.SOURCE_LANG));
+      translObj.setTargetLang(request.getString(TranslationAppConstants.TARGET_LANG));
+      translObj.setText(texts.getString(i));
+      translObjs.add(translObj);
+    }
+    return translObjs;
+  }
+
   @Test
   void translationWithServiceParam() throws Exception {
     String requestJson = getJsonStringInput(TRANSLATION_REQUEST_2);
-    mockMvc
-        .perform(
+    performAsync(
             post(BASE_URL_TRANSLATE)
               .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
               .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
@@ -352,8 +702,7 @@ public class TranslationRestIT extends BaseTranslationTest {
   void translationWithFallback() throws Exception {
     String requestJson = getJsonStringInput(TRANSLATION_WITH_FALLBACK);
     translationConfig.setTranslationGoogleProjectId("wrong-project-id");
-    mockMvc
-        .perform(
+    performAsync(
             post(BASE_URL_TRANSLATE)
               .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
               .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
@@ -361,14 +710,90 @@ public class TranslationRestIT extends BaseTranslationTest {
         .andExpect(status().isOk());
   }
 
+  @Test
+  void translationStream() throws Exception {
+    String requestJson = getJsonStringInput(TRANSLATION_REQUEST);
+    MvcResult mvcResult = mockMvc
+        .perform(
+            post(BASE_URL_TRANSLATE_STREAM)
+              .header(HttpHeaders.ACCEPT, TranslationStreamEmitter.MEDIA_TYPE_NDJSON_VALUE)
+              .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+              .content(requestJson))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    //wait for the completion of the stream
+    mvcResult.getAsyncResult(10000);
+    
+    String result = mvcResult.getResponse().getContentAsString();
+    assertNotNull(result);
+    String[] lines = result.split("\n");
+    assertTrue(lines.length > 0);
+    List<String> translations = new ArrayList<>(Collections.nCopies(2, null));
+    for (String line : lines) {
+      JSONObject chunk = new JSONObject(line);
+      assertEquals(LANGUAGE_EN, chunk.getString(TranslationAppConstants.LANG));
+      JSONArray indexes = chunk.getJSONArray(TranslationAppConstants.INDEX);
+      JSONArray chunkTranslations = chunk.getJSONArray(TranslationAppConstants.TRANSLATIONS);
+      for (int i = 0; i < indexes.length(); i++) {
+        translations.set(indexes.getInt(i), chunkTranslations.getString(i));
+      }
+    }
+    //all texts are translated
+    assertFalse(translations.contains(null));
+  }
+
+  @Test
+  void translationBatch() throws Exception {
+    String requestJson = getJsonStringInput(TRANSLATION_BATCH_REQUEST);
+    String result = mockMvc
+        .perform(
+            post(BASE_URL_TRANSLATE_BATCH)
+              .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+              .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+              .content(requestJson))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    assertNotNull(result);
+    JSONArray results = new JSONObject(result).getJSONArray(TranslationAppConstants.RESULTS);
+    assertEquals(3, results.length());
+    
+    //both valid sub-requests are translated with the same (deduplicated) google request
+    JSONObject first = results.getJSONObject(0);
+    JSONObject third = results.getJSONObject(2);
+    assertEquals(HttpStatus.OK.value(), first.getInt(TranslationAppConstants.STATUS));
+    assertEquals(HttpStatus.OK.value(), third.getInt(TranslationAppConstants.STATUS));
+    assertEquals(LANGUAGE_EN, first.getString(TranslationAppConstants.LANG));
+    JSONArray firstTranslations = first.getJSONArray(TranslationAppConstants.TRANSLATIONS);
+    JSONArray thirdTranslations = third.getJSONArray(TranslationAppConstants.TRANSLATIONS);
+    assertEquals(2, firstTranslations.length());
+    assertEquals(firstTranslations.getString(0), thirdTranslations.getString(1));
+    assertEquals(firstTranslations.getString(1), thirdTranslations.getString(0));
+    
+    //the sub-request without target language is rejected individually
+    JSONObject second = results.getJSONObject(1);
+    assertEquals(HttpStatus.BAD_REQUEST.value(), second.getInt(TranslationAppConstants.STATUS));
+    assertTrue(second.has(TranslationAppConstants.ERROR));
+  }
+
+  @Test
+  void translationBatchErrorNoRequests() throws Exception {
+    mockMvc
+        .perform(
+            post(BASE_URL_TRANSLATE_BATCH)
+              .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+              .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+              .content("{\"requests\": []}"))
+        .andExpect(status().isBadRequest());
+  }
+
   @Test
   void translateErrorNoTarget() throws Exception {
     String missingTarget = "{"
         + "\"source\": \"de\","
         + "\"text\": [ \"eine Textzeile auf Deutsch\"]"
         + "}";
-    String response = mockMvc
-        .perform(
+    String response = performAsync(
             post(BASE_URL_TRANSLATE)
               .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
               .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
@@ -386,6 +811,25 @@ public class TranslationRestIT extends BaseTranslationTest {
     Assertions.assertTrue(obj.has("path"));
   }
 
+  @Test
+  void translateErrorDelimiterInText() throws Exception {
+    JSONObject request = new JSONObject();
+    request.put(TranslationAppConstants.SOURCE_LANG, "de");
+    request.put(TranslationAppConstants.TARGET_LANG, LANGUAGE_EN);
+    request.put(TranslationAppConstants.TEXT, new JSONArray(List.of("erster Text"
+        + ETranslationTranslationService.MARKUP_DELIMITER + "zweiter Text")));
+    String response = performAsync(
+            post(BASE_URL_TRANSLATE)
+              .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+              .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+              .content(request.toString()))
+        .andExpect(status().isBadRequest())
+        .andReturn().getResponse().getContentAsString();
+
+    //rejected before calling the translation services
+    assertEquals("invalid_param_value", new JSONObject(response).get("code"));
+  }
+
   @Test
   @Disabled("until specs are clarified")  
   void translateWithDetect() throws Exception {
@@ -393,8 +837,7 @@ public class TranslationRestIT extends BaseTranslationTest {
         + "\"target\": \"en\","
         + "\"text\": [ \"eine Textzeile auf Deutsch\"]"
         + "}";
-    mockMvc
-        .perform(
+    performAsync(
             post(BASE_URL_TRANSLATE)
               .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
               .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
@@ -408,8 +851,7 @@ public class TranslationRestIT extends BaseTranslationTest {
         + "\"source\": \"de\","
         + "\"target\": \"en\""
         + "}";
-    mockMvc
-        .perform(
+    performAsync(
             post(BASE_URL_TRANSLATE)
               .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
               .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
@@ -420,8 +862,7 @@ public class TranslationRestIT extends BaseTranslationTest {
   @Test
   void translationInvalidSourceLangWithServiceParam() throws Exception {
     String requestJson = getJsonStringInput(TRANSLATION_BAD_REQUEST_1);
-    mockMvc
-        .perform(
+    performAsync(
             post(BASE_URL_TRANSLATE)
               .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
               .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
@@ -432,13 +873,40 @@ public class TranslationRestIT extends BaseTranslationTest {
   @Test
   void translationInvalidServiceParam() throws Exception {
     String requestJson = getJsonStringInput(TRANSLATION_BAD_REQUEST_2);
-    mockMvc
-        .perform(
+    performAsync(
             post(BASE_URL_TRANSLATE)
               .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
               .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
               .content(requestJson))
         .andExpect(status().isBadRequest());
   }
-  
+
+  @Test
+  void translationGoogleWithRequestTimeout() throws Exception {
+    String requestJson = getJsonStringInput(TRANSLATION_REQUEST);
+    performAsync(
+            post(BASE_URL_TRANSLATE)
+              .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+              .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+              .header(TranslationAppConstants.REQUEST_TIMEOUT_HEADER, "10000")
+              .content(requestJson))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void translateErrorInvalidTimeout() throws Exception {
+    String invalidTimeout = "{"
+        + "\"source\": \"de\","
+        + "\"target\": \"en\","
+        + "\"timeout\": 0,"
+        + "\"text\": [ \"eine Textzeile auf Deutsch\"]"
+        + "}";
+    performAsync(
+            post(BASE_URL_TRANSLATE)
+              .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+              .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+              .content(invalidTimeout))
+        .andExpect(status().isBadRequest());
+  }
+
 }
@@ -0,0 +1,311 @@
+package eu.europeana.api.translation.tests.web.mock;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import eu.europeana.api.translation.service.etranslation.ETranslationTranslationService;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Embeddable simulator of the eTranslation service. The submissions are accepted like by the real
+ * endpoint (text snippets and base64 encoded txt documents) and the callbacks are sent to the
+ * callback urls of the request after a latency sampled from the configured distribution. The
+ * translation of each text is the text prefixed with the target language, e.g. "[EN] text".
+ * Failures can be injected for the submissions (error response), for the jobs (error callback) and
+ * for the callbacks (never sent, i.e. the API runs into its timeout).
+ */
+public class ETranslationSimulator implements AutoCloseable {
+
+  private static final Logger LOGGER = LogManager.getLogger(ETranslationSimulator.class);
+  private static final String SUBMISSION_ERROR_RESPONSE = "-20000";
+
+  private final MockWebServer server = new MockWebServer();
+  private final ScheduledExecutorService callbackScheduler;
+  private final CallbackSender callbackSender;
+
+  private volatile LatencyDistribution latency = LatencyDistribution.fixed(0);
+  private volatile double submissionFailureRate;
+  private volatile double errorCallbackRate;
+  private volatile double lostCallbackRate;
+
+  private final AtomicLong requestIds = new AtomicLong();
+  private final AtomicLong submissions = new AtomicLong();
+  private final AtomicLong documents = new AtomicLong();
+  private final AtomicLong rejectedSubmissions = new AtomicLong();
+  private final AtomicLong callbacks = new AtomicLong();
+  private final AtomicLong errorCallbacks = new AtomicLong();
+  private final AtomicLong lostCallbacks = new AtomicLong();
+  private final AtomicLong failedCallbacks = new AtomicLong();
+
+  /**
+   * Creates a simulator sending the callbacks over http to the urls of the requests
+   * @param callbackThreads the number of threads sending the callbacks
+   */
+  public ETranslationSimulator(int callbackThreads) {
+    this(callbackThreads, new HttpCallbackSender());
+  }
+
+  /**
+   * Creates a simulator using the given sender for the callbacks, e.g. for sending them through
+   * MockMvc
+   * @param callbackThreads the number of threads sending the callbacks
+   * @param callbackSender the sender of the callbacks
+   */
+  public ETranslationSimulator(int callbackThreads, CallbackSender callbackSender) {
+    this.callbackScheduler = Executors.newScheduledThreadPool(callbackThreads);
+    this.callbackSender = callbackSender;
+    server.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        return submit(request.getBody().readUtf8());
+      }
+    });
+  }
+
+  /**
+   * Starts the http server accepting the submissions
+   * @throws IOException if the server cannot be started
+   */
+  public void start() throws IOException {
+    server.start();
+  }
+
+  /**
+   * The url to be configured as eTranslation base url
+   * @return the url of the simulator
+   */
+  public String getUrl() {
+    return server.url("/etranslation/translate").toString();
+  }
+
+  public void setLatency(LatencyDistribution latency) {
+    this.latency = latency;
+  }
+
+  /**
+   * Sets the rates of the injected failures, each between 0 and 1
+   * @param submissionFailureRate the submissions answered with an error response
+   * @param errorCallbackRate the jobs completed with an error callback
+   * @param lostCallbackRate the jobs for which no callback is sent
+   */
+  public void setFailureRates(double submissionFailureRate, double errorCallbackRate,
+      double lostCallbackRate) {
+    this.submissionFailureRate = submissionFailureRate;
+    this.errorCallbackRate = errorCallbackRate;
+    this.lostCallbackRate = lostCallbackRate;
+  }
+
+  MockResponse submit(String body) {
+    submissions.incrementAndGet();
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    if (random.nextDouble() < submissionFailureRate) {
+      rejectedSubmissions.incrementAndGet();
+      return new MockResponse().setResponseCode(200).setBody(SUBMISSION_ERROR_RESPONSE);
+    }
+    final Job job;
+    try {
+      job = new Job(requestIds.incrementAndGet(), new JSONObject(body));
+    } catch (JSONException e) {
+      LOGGER.warn("Invalid eTranslation submission: {}", body, e);
+      return new MockResponse().setResponseCode(400).setBody(e.getMessage());
+    }
+    if (job.document) {
+      documents.incrementAndGet();
+    }
+
+    final double outcome = random.nextDouble();
+    if (outcome < lostCallbackRate) {
+      lostCallbacks.incrementAndGet();
+    } else {
+      final boolean error = outcome < lostCallbackRate + errorCallbackRate;
+      callbackScheduler.schedule(() -> sendCallback(job, error), latency.sampleMillis(random),
+          TimeUnit.MILLISECONDS);
+    }
+    return new MockResponse().setResponseCode(200).setBody(String.valueOf(job.requestId));
+  }
+
+  private void sendCallback(Job job, boolean error) {
+    Map<String, String> params = new LinkedHashMap<>();
+    params.put("request-id", String.valueOf(job.requestId));
+    params.put("external-reference", job.externalReference);
+    try {
+      if (error) {
+        params.put("error-code", "-20001");
+        params.put("error-message", "Simulated translation error");
+        params.put("target-languages", job.targetLang);
+        errorCallbacks.incrementAndGet();
+        callbackSender.send(job.errorCallbackUrl, params, null);
+      } else if (job.document) {
+        callbacks.incrementAndGet();
+        callbackSender.send(job.callbackUrl, params, Base64.getEncoder()
+            .encodeToString(job.translate().getBytes(StandardCharsets.UTF_8)));
+      } else {
+        params.put("target-language", job.targetLang);
+        params.put("translated-text", job.translate());
+        callbacks.incrementAndGet();
+        callbackSender.send(job.callbackUrl, params, null);
+      }
+    } catch (Exception e) {
+      failedCallbacks.incrementAndGet();
+      LOGGER.warn("Cannot send the simulated eTranslation callback for {}", job.externalReference,
+          e);
+    }
+  }
+
+  public long getSubmissions() {
+    return submissions.get();
+  }
+
+  public long getDocuments() {
+    return documents.get();
+  }
+
+  public long getRejectedSubmissions() {
+    return rejectedSubmissions.get();
+  }
+
+  public long getCallbacks() {
+    return callbacks.get();
+  }
+
+  public long getErrorCallbacks() {
+    return errorCallbacks.get();
+  }
+
+  public long getLostCallbacks() {
+    return lostCallbacks.get();
+  }
+
+  public long getFailedCallbacks() {
+    return failedCallbacks.get();
+  }
+
+  @Override
+  public void close() throws IOException {
+    callbackScheduler.shutdownNow();
+    server.shutdown();
+  }
+
+  /**
+   * A submitted translation job
+   */
+  private static final class Job {
+    private final long requestId;
+    private final String externalReference;
+    private final String callbackUrl;
+    private final String errorCallbackUrl;
+    private final String targetLang;
+    private final boolean document;
+    private final String text;
+
+    Job(long requestId, JSONObject submission) throws JSONException {
+      this.requestId = requestId;
+      this.externalReference = submission.getString("externalReference");
+      this.callbackUrl = submission.getString("requesterCallback");
+      this.errorCallbackUrl = submission.getString("errorCallback");
+      this.targetLang = submission.getJSONArray("targetLanguages").getString(0);
+      this.document = submission.has("documentToTranslateBase64");
+      this.text = document
+          ? new String(Base64.getDecoder().decode(
+              submission.getJSONObject("documentToTranslateBase64").getString("content")),
+              StandardCharsets.UTF_8)
+          : submission.getString("textToTranslate");
+    }
+
+    String translate() {
+      List<String> translations = new ArrayList<>();
+      for (String segment : text.split(ETranslationTranslationService.MARKUP_DELIMITER_WITHOUT_NEWLINE)) {
+        translations.add("[" + targetLang + "] " + segment.strip());
+      }
+      return String.join(ETranslationTranslationService.MARKUP_DELIMITER, translations);
+    }
+  }
+
+  /**
+   * Sends the callbacks to the API
+   */
+  @FunctionalInterface
+  public interface CallbackSender {
+    /**
+     * Posts a callback
+     * @param url the callback url from the submission
+     * @param params the request parameters
+     * @param body the request body, or null
+     * @throws Exception if the callback cannot be sent
+     */
+    void send(String url, Map<String, String> params, String body) throws Exception;
+  }
+
+  /**
+   * Posts the callbacks over http, the parameters are sent in the query string
+   */
+  public static class HttpCallbackSender implements CallbackSender {
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Override
+    public void send(String url, Map<String, String> params, String body) throws Exception {
+      StringBuilder uri = new StringBuilder(url);
+      char separator = '?';
+      for (Map.Entry<String, String> param : params.entrySet()) {
+        uri.append(separator).append(param.getKey()).append('=')
+            .append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+        separator = '&';
+      }
+      HttpRequest request = HttpRequest.newBuilder(URI.create(uri.toString()))
+          .header("Content-Type", "text/plain")
+          .POST(body == null ? HttpRequest.BodyPublishers.noBody()
+              : HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+          .build();
+      httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+  }
+
+  /**
+   * Distribution of the time between the submission and the callback
+   */
+  @FunctionalInterface
+  public interface LatencyDistribution {
+
+    long sampleMillis(Random random);
+
+    static LatencyDistribution fixed(long millis) {
+      return random -> millis;
+    }
+
+    static LatencyDistribution uniform(long minMillis, long maxMillis) {
+      return random -> minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+    }
+
+    /**
+     * Log-normal distribution, typical for the service latencies with a long tail
+     * @param medianMillis the median latency
+     * @param sigma the standard deviation of the logarithm, e.g. 0.5 for p99 at about 3.2 x median
+     * @return the distribution
+     */
+    static LatencyDistribution logNormal(long medianMillis, double sigma) {
+      return random -> (long) (medianMillis * Math.exp(sigma * random.nextGaussian()));
+    }
+  }
+}
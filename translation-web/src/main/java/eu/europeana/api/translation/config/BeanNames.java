@@ -5,6 +5,8 @@ public interface BeanNames {
   String BEAN_APACHE_TIKA_LANG_DETECT_SERVICE = "apacheTikaLangDetectService";
   String BEAN_PANGEANIC_LANG_DETECT_SERVICE = "pangeanicLangDetectService";
   String BEAN_PANGEANIC_TRANSLATION_SERVICE = "pangeanicTranslationService";
+  String BEAN_PANGEANIC_HTTP_TRANSPORT = "pangeanicHttpTransport";
+  String BEAN_PANGEANIC_THRESHOLDS_LOADER = "pangeanicThresholdsLoader";
   String BEAN_GOOGLE_TRANSLATION_CLIENT_WRAPPER = "googleTranslationClientWrapper";
   String BEAN_GOOGLE_TRANSLATION_SERVICE = "googleTranslationService";
   String BEAN_E_TRANSLATION_SERVICE = "eTranslationService";
@@ -21,8 +23,17 @@ public interface BeanNames {
   String BEAN_REDIS_TEMPLATE = "redisTemplate";
   String BEAN_REDIS_CACHE_SERVICE = "redisCacheService";
   String BEAN_REDIS_MESSAGE_LISTENER_CONTAINER = "redisCacheMessageListenerContainer";
-  String BEAN_REDIS_MESSAGE_LISTENER_ADAPTER = "redisMessageListenerAdapter";
+  String BEAN_ETRANSLATION_CALLBACK_REGISTRY = "eTranslationCallbackRegistry";
+  String BEAN_ETRANSLATION_JOB_STORE = "eTranslationJobStore";
   String BEAN_REDIS_CONNECTION_FACTORY = "redisConnectionFactory";
   String BEAN_TRANSLATION_PRE_PROCESSOR_SERVICE = "translationPreProcessorService";
   String BEAN_LANGDETECT_PRE_PROCESSOR_SERVICE = "langDetectPreProcessorService";
+  String BEAN_BATCH_TRANSLATION_EXECUTOR = "batchTranslationExecutor";
+  String BEAN_CHUNK_TRANSLATION_EXECUTOR = "chunkTranslationExecutor";
+  String BEAN_TRANSLATION_REQUEST_EXECUTOR = "translationRequestExecutor";
+  String BEAN_STRING_REDIS_TEMPLATE = "stringRedisTemplate";
+  String BEAN_TRANSLATION_JOB_SERVICE = "translationJobService";
+  String BEAN_TRANSLATION_JOB_WORKER = "translationJobWorker";
+  String BEAN_CALLBACK_URL_VALIDATOR = "callbackUrlValidator";
+  String BEAN_RATE_LIMIT_SERVICE = "rateLimitService";
 }
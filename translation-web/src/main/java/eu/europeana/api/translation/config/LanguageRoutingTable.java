@@ -0,0 +1,154 @@
+package eu.europeana.api.translation.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import eu.europeana.api.translation.config.services.TranslationCfg;
+import eu.europeana.api.translation.config.services.TranslationLangPairCfg;
+import eu.europeana.api.translation.config.services.TranslationMappingCfg;
+import eu.europeana.api.translation.service.TranslationService;
+
+/**
+ * Routing table compiled from the translation configurations. Each language used in the
+ * configurations gets a dense integer id, the supported language pairs and the services mapped to
+ * the language pairs are stored in arrays indexed by these ids. The routing of a request needs
+ * therefore only two lookups of the language ids, without string concatenation, list scans or
+ * object allocation. The table is immutable, a new table is compiled when the configurations
+ * change.
+ */
+public final class LanguageRoutingTable {
+
+  private static final int UNKNOWN_LANGUAGE = -1;
+
+  private final Map<String, Integer> languageIds;
+  private final int languageCount;
+  // indexed by srcId * languageCount + targetId
+  private final boolean[] supportedPairs;
+  private final TranslationService[] mappedServices;
+  // indexed by targetId
+  private final boolean[] supportedTargets;
+  private final TranslationService defaultService;
+
+  private LanguageRoutingTable(Map<String, Integer> languageIds,
+      TranslationService defaultService) {
+    this.languageIds = languageIds;
+    this.languageCount = languageIds.size();
+    this.supportedPairs = new boolean[languageCount * languageCount];
+    this.mappedServices = new TranslationService[languageCount * languageCount];
+    this.supportedTargets = new boolean[languageCount];
+    this.defaultService = defaultService;
+  }
+
+  /**
+   * Compiles the routing table for the given configurations, the configurations must be validated
+   * in advance
+   *
+   * @param translationCfg the translation configurations
+   * @param translationServices the translation services indexed by service id
+   * @return the routing table
+   */
+  public static LanguageRoutingTable compile(TranslationCfg translationCfg,
+      Map<String, TranslationService> translationServices) {
+    // assign the language ids
+    Map<String, Integer> languageIds = new HashMap<>();
+    for (TranslationLangPairCfg langPairCfg : translationCfg.getSupported()) {
+      registerLanguages(languageIds, langPairCfg.getSrcLang());
+      registerLanguages(languageIds, langPairCfg.getTargetLang());
+    }
+    if (translationCfg.getMappings() != null) {
+      for (TranslationMappingCfg mappingCfg : translationCfg.getMappings()) {
+        registerLanguages(languageIds, mappingCfg.getSrcLang());
+        registerLanguages(languageIds, mappingCfg.getTrgLang());
+      }
+    }
+
+    LanguageRoutingTable table = new LanguageRoutingTable(Map.copyOf(languageIds),
+        translationServices.get(translationCfg.getDefaultServiceId()));
+
+    // fill the support flags
+    for (TranslationLangPairCfg langPairCfg : translationCfg.getSupported()) {
+      for (String targetLang : langPairCfg.getTargetLang()) {
+        final int targetId = table.getLanguageId(targetLang);
+        table.supportedTargets[targetId] = true;
+        for (String srcLang : langPairCfg.getSrcLang()) {
+          table.supportedPairs[table.index(table.getLanguageId(srcLang), targetId)] = true;
+        }
+      }
+    }
+
+    // fill the services mapped to language pairs
+    if (translationCfg.getMappings() != null) {
+      for (TranslationMappingCfg mappingCfg : translationCfg.getMappings()) {
+        final TranslationService service = translationServices.get(mappingCfg.getServiceId());
+        for (String srcLang : mappingCfg.getSrcLang()) {
+          for (String targetLang : mappingCfg.getTrgLang()) {
+            table.mappedServices[table.index(table.getLanguageId(srcLang),
+                table.getLanguageId(targetLang))] = service;
+          }
+        }
+      }
+    }
+    return table;
+  }
+
+  private static void registerLanguages(Map<String, Integer> languageIds, List<String> languages) {
+    for (String lang : languages) {
+      languageIds.putIfAbsent(lang, languageIds.size());
+    }
+  }
+
+  private int getLanguageId(String lang) {
+    if (lang == null) {
+      return UNKNOWN_LANGUAGE;
+    }
+    Integer id = languageIds.get(lang);
+    return id == null ? UNKNOWN_LANGUAGE : id;
+  }
+
+  private int index(int srcId, int targetId) {
+    return srcId * languageCount + targetId;
+  }
+
+  /**
+   * Verifies if the language pair is declared in the supported section of the configurations
+   *
+   * @param srcLang the source language, null if the language must be detected
+   * @param targetLang the target language
+   * @return true if the language pair is supported
+   */
+  public boolean isSupported(String srcLang, String targetLang) {
+    final int targetId = getLanguageId(targetLang);
+    if (targetId == UNKNOWN_LANGUAGE) {
+      return false;
+    }
+    if (srcLang == null) {
+      return supportedTargets[targetId];
+    }
+    final int srcId = getLanguageId(srcLang);
+    return srcId != UNKNOWN_LANGUAGE && supportedPairs[index(srcId, targetId)];
+  }
+
+  /**
+   * Returns the service declared for the language pair in the mappings section
+   *
+   * @param srcLang the source language
+   * @param targetLang the target language
+   * @return the mapped service or null if none is declared for the language pair
+   */
+  public TranslationService getMappedService(String srcLang, String targetLang) {
+    final int srcId = getLanguageId(srcLang);
+    final int targetId = getLanguageId(targetLang);
+    if (srcId == UNKNOWN_LANGUAGE || targetId == UNKNOWN_LANGUAGE) {
+      return null;
+    }
+    return mappedServices[index(srcId, targetId)];
+  }
+
+  public TranslationService getDefaultService() {
+    return defaultService;
+  }
+
+  public int getLanguageCount() {
+    return languageCount;
+  }
+}
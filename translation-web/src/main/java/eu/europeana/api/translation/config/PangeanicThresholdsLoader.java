@@ -0,0 +1,131 @@
+package eu.europeana.api.translation.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import eu.europeana.api.translation.service.exception.TranslationServiceConfigurationException;
+import eu.europeana.api.translation.service.pangeanic.PangeanicTranslationService;
+
+/**
+ * Loads the pangeanic language thresholds from the config folder, or from the resources if the
+ * config file is not available. When a reload interval is configured, the config file is checked
+ * periodically and the thresholds of the translation service are replaced when the file changes.
+ * The cached translations are stored with their scores, the new thresholds apply immediately.
+ */
+public class PangeanicThresholdsLoader implements SmartLifecycle {
+
+  private final File thresholdsFile;
+  private final long reloadMillis;
+  private PangeanicTranslationService translationService;
+  private long lastModified;
+  private ScheduledExecutorService reloadScheduler;
+  private volatile boolean running;
+  private final Logger logger = LogManager.getLogger(getClass());
+
+  /**
+   * Constructor
+   * @param thresholdsFile the thresholds file in the config folder
+   * @param reloadMillis the interval for checking the changes of the file, 0 to disable
+   */
+  public PangeanicThresholdsLoader(File thresholdsFile, long reloadMillis) {
+    this.thresholdsFile = thresholdsFile;
+    this.reloadMillis = reloadMillis;
+  }
+
+  /**
+   * Loads the thresholds from the config file, or from the resources
+   * @return the thresholds by language, empty if not configured
+   * @throws TranslationServiceConfigurationException if the thresholds cannot be read
+   */
+  public Properties load() throws TranslationServiceConfigurationException {
+    Properties thresholds = new Properties();
+    lastModified = thresholdsFile.lastModified();
+    if (thresholdsFile.exists()) {
+      // load thresholds from config file if available
+      try (Reader input = Files.newBufferedReader(thresholdsFile.toPath())) {
+        thresholds.load(input);
+        if (logger.isInfoEnabled()) {
+          logger.info("Successfully loaded pangeanic thresholds from config file, Values: {}",
+              thresholds);
+        }
+      } catch (IOException e) {
+        throw new TranslationServiceConfigurationException(
+            "Cannot load pangeanic language thresholds from config file: " + thresholdsFile, e);
+      }
+    } else {
+      // load thresholds from resources if available, need to search in the root folder of resources
+      try (InputStream input = PangeanicThresholdsLoader.class
+          .getResourceAsStream("/" + thresholdsFile.getName())) {
+        if (input != null) {
+          thresholds.load(input);
+          if (logger.isInfoEnabled()) {
+            logger.info("Successfully loaded pangeanic thresholds from resources, Values: {}",
+                thresholds);
+          }
+        }
+      } catch (IOException e) {
+        throw new TranslationServiceConfigurationException(
+            "Cannot load pangeanic languae thresholds from file: " + thresholdsFile, e);
+      }
+    }
+
+    if (thresholds.isEmpty() && logger.isInfoEnabled()) {
+      logger.info("No configurations found for pangeanic language thresholds available.");
+    }
+    return thresholds;
+  }
+
+  /**
+   * Registers the service which receives the reloaded thresholds
+   * @param translationService the pangeanic translation service
+   */
+  public void setTranslationService(PangeanicTranslationService translationService) {
+    this.translationService = translationService;
+  }
+
+  void reloadIfChanged() {
+    if (thresholdsFile.lastModified() == lastModified) {
+      return;
+    }
+    try {
+      translationService.updateThresholds(load());
+    } catch (TranslationServiceConfigurationException | RuntimeException e) {
+      // keep the previous thresholds until the file is fixed
+      logger.warn("Cannot reload the pangeanic language thresholds: {}", e.getMessage());
+    }
+  }
+
+  @Override
+  public void start() {
+    if (reloadMillis > 0 && translationService != null) {
+      reloadScheduler = Executors.newSingleThreadScheduledExecutor(
+          new CustomizableThreadFactory("translation-thresholds-"));
+      reloadScheduler.scheduleWithFixedDelay(this::reloadIfChanged, reloadMillis, reloadMillis,
+          TimeUnit.MILLISECONDS);
+    }
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (reloadScheduler != null) {
+      reloadScheduler.shutdown();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+}
@@ -2,13 +2,16 @@ package eu.europeana.api.translation.config;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
 
 /** Configure Jackson serialization output. */
@@ -18,6 +21,10 @@ public class SerializationConfig {
   // TODO: confirm date format with PO
   private final DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXX");
 
+  // replaces the reflection based property access with generated accessors
+  @Value("${translation.serialization.blackbird:true}")
+  private boolean useBlackbird = true;
+
   @Primary
   @Bean(TranslationAppConstants.BEAN_JSON_MAPPER)
   public ObjectMapper mapper() {
@@ -28,7 +35,24 @@ public class SerializationConfig {
             .featuresToEnable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
             .serializationInclusion(JsonInclude.Include.NON_NULL)
             .build();
-    mapper.findAndRegisterModules();
+    registerModules(mapper, useBlackbird);
     return mapper;
   }
+
+  /**
+   * Registers the modules available in the classpath, the blackbird module only if enabled
+   * @param mapper the object mapper
+   * @param useBlackbird if the blackbird module should be registered
+   */
+  public static void registerModules(ObjectMapper mapper, boolean useBlackbird) {
+    for (Module module : ObjectMapper.findModules()) {
+      if (useBlackbird || !(module instanceof BlackbirdModule)) {
+        mapper.registerModule(module);
+      }
+    }
+    if (useBlackbird && !mapper.getRegisteredModuleIds().contains(BlackbirdModule.class.getName())) {
+      // not discovered through the service loader
+      mapper.registerModule(new BlackbirdModule());
+    }
+  }
 }
@@ -2,12 +2,15 @@ package eu.europeana.api.translation.config;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.Reader;
-import java.nio.file.Files;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Locale;
-import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -31,14 +34,18 @@ import org.springframework.data.redis.connection.RedisConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
-import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import eu.europeana.api.commons.config.i18n.I18nService;
 import eu.europeana.api.commons.config.i18n.I18nServiceImpl;
 import eu.europeana.api.commons.oauth2.service.impl.EuropeanaClientDetailsService;
+import eu.europeana.api.translation.service.etranslation.ETranslationCallbackRegistry;
+import eu.europeana.api.translation.service.etranslation.ETranslationClientConfig;
+import eu.europeana.api.translation.service.etranslation.ETranslationJobStore;
 import eu.europeana.api.translation.service.etranslation.ETranslationTranslationService;
 import eu.europeana.api.translation.service.exception.LangDetectionServiceConfigurationException;
 import eu.europeana.api.translation.service.exception.TranslationServiceConfigurationException;
@@ -47,6 +54,9 @@ import eu.europeana.api.translation.service.google.DummyGTranslateService;
 import eu.europeana.api.translation.service.google.GoogleLangDetectService;
 import eu.europeana.api.translation.service.google.GoogleTranslationService;
 import eu.europeana.api.translation.service.google.GoogleTranslationServiceClientWrapper;
+import eu.europeana.api.translation.service.http.AsyncHttpTransport;
+import eu.europeana.api.translation.service.http.ConnectionPoolMetrics;
+import eu.europeana.api.translation.service.http.HttpTransportConfig;
 import eu.europeana.api.translation.service.pangeanic.DummyPangLangDetectService;
 import eu.europeana.api.translation.service.pangeanic.DummyPangTranslationService;
 import eu.europeana.api.translation.service.pangeanic.PangeanicLangDetectService;
@@ -55,11 +65,17 @@ import eu.europeana.api.translation.service.tika.ApacheTikaLangDetectService;
 import eu.europeana.api.translation.service.tika.DummyApacheTikaLangDetectService;
 import eu.europeana.api.translation.web.exception.AppConfigurationException;
 import eu.europeana.api.translation.web.model.CachedTranslation;
+import eu.europeana.api.translation.web.service.CallbackUrlValidator;
 import eu.europeana.api.translation.web.service.LangDetectionPreProcessor;
+import eu.europeana.api.translation.web.service.RateLimitService;
 import eu.europeana.api.translation.web.service.RedisCacheService;
+import eu.europeana.api.translation.web.service.TranslationJobService;
+import eu.europeana.api.translation.web.service.TranslationJobWorker;
 import eu.europeana.api.translation.web.service.TranslationPreProcessor;
+import eu.europeana.api.translation.web.service.TranslationWebService;
 import io.lettuce.core.ClientOptions;
 import io.lettuce.core.SslOptions;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration()
 @PropertySource(value = "translation.user.properties", ignoreResourceNotFound = true)
@@ -130,71 +146,68 @@ public class TranslationApiAutoconfig implements ApplicationListener<Application
     }
   }
 
+  /**
+   * Non-blocking transport shared by the Pangeanic translate and detect services
+   * @return the started transport
+   */
+  @Bean(name = BeanNames.BEAN_PANGEANIC_HTTP_TRANSPORT, destroyMethod = "close")
+  public AsyncHttpTransport getPangeanicHttpTransport(MeterRegistry meterRegistry) {
+    HttpTransportConfig transportConfig = new HttpTransportConfig();
+    transportConfig.setMaxConnections(translationConfig.getPangeanicMaxConnections());
+    transportConfig.setIoThreads(translationConfig.getPangeanicIoThreads());
+    transportConfig.setHttp2(translationConfig.isPangeanicHttp2());
+    transportConfig.setConnectTimeoutMillisec(translationConfig.getPangeanicConnectTimeoutMillisec());
+    transportConfig.setSocketTimeoutMillisec(translationConfig.getPangeanicSocketTimeoutMillisec());
+    transportConfig.setConnectionRequestTimeoutMillisec(
+        translationConfig.getPangeanicConnectionRequestTimeoutMillisec());
+    transportConfig.setConnectionTtlMillisec(translationConfig.getPangeanicConnectionTtlMillisec());
+    transportConfig.setIdleEvictionMillisec(translationConfig.getPangeanicIdleEvictionMillisec());
+    AsyncHttpTransport transport = new AsyncHttpTransport(transportConfig);
+    // expose the connection pool usage (httpcomponents.httpclient.pool.*)
+    new ConnectionPoolMetrics(transport.getConnectionPool(), "pangeanic").bindTo(meterRegistry);
+    return transport;
+  }
+
   @Bean(BeanNames.BEAN_PANGEANIC_LANG_DETECT_SERVICE)
-  public PangeanicLangDetectService getPangeanicLangDetectService() {
+  public PangeanicLangDetectService getPangeanicLangDetectService(
+      @Qualifier(BeanNames.BEAN_PANGEANIC_HTTP_TRANSPORT) AsyncHttpTransport pangeanicHttpTransport) {
     if (translationConfig.isUseDummyServices()) {
       return new DummyPangLangDetectService();
     } else {
-      return new PangeanicLangDetectService(translationConfig.getPangeanicDetectEndpoint());
+      return new PangeanicLangDetectService(translationConfig.getPangeanicDetectEndpoint(),
+          pangeanicHttpTransport, translationConfig.getPangeanicDetectionCacheSize());
     }
   }
 
   @Bean(BeanNames.BEAN_PANGEANIC_TRANSLATION_SERVICE)
   public PangeanicTranslationService getPangeanicTranslationService(
-      @Qualifier(BeanNames.BEAN_PANGEANIC_LANG_DETECT_SERVICE) PangeanicLangDetectService pangeanicLangDetectService)
+      @Qualifier(BeanNames.BEAN_PANGEANIC_LANG_DETECT_SERVICE) PangeanicLangDetectService pangeanicLangDetectService,
+      @Qualifier(BeanNames.BEAN_PANGEANIC_HTTP_TRANSPORT) AsyncHttpTransport pangeanicHttpTransport,
+      @Qualifier(BeanNames.BEAN_PANGEANIC_THRESHOLDS_LOADER) PangeanicThresholdsLoader thresholdsLoader)
       throws TranslationServiceConfigurationException {
     if (translationConfig.isUseDummyServices()) {
       return new DummyPangTranslationService();
     } else {
-      return new PangeanicTranslationService(translationConfig.getPangeanicTranslateEndpoint(),
-          pangeanicLangDetectService, loadPangeanicThresholds());
+      PangeanicTranslationService service = new PangeanicTranslationService(
+          translationConfig.getPangeanicTranslateEndpoint(), pangeanicLangDetectService,
+          thresholdsLoader.load(), pangeanicHttpTransport);
+      service.setDetectChunkSize(translationConfig.getPangeanicDetectChunkSize());
+      service.setMaxConcurrentRequests(translationConfig.getPangeanicMaxConcurrentRequests());
+      thresholdsLoader.setTranslationService(service);
+      return service;
     }
   }
 
-  private Properties loadPangeanicThresholds() throws TranslationServiceConfigurationException {
-
-    Properties thresholds = new Properties();
-
-    File languageThresholdsFile = getConfigFile(FILE_PANGEANIC_LANGUAGE_THRESHOLDS);
-    if (languageThresholdsFile.exists()) {
-      // load thresholds from config file if available
-      try (Reader input = Files.newBufferedReader(languageThresholdsFile.toPath())) {
-        thresholds.load(input);
-        if(logger.isInfoEnabled()) {
-          logger.info("Successfully loaded pangeanic thresholds from config file, Values: {}", thresholds);
-        }
-      } catch (IOException e) {
-        throw new TranslationServiceConfigurationException(
-            "Cannot load pangeanic language thresholds from config file: " + languageThresholdsFile,
-            e);
-      }
-    } else {
-      // load thresholds from resources if available, need to search in the root folder of resources
-      try (InputStream input = TranslationApiAutoconfig.class
-          .getResourceAsStream("/" + FILE_PANGEANIC_LANGUAGE_THRESHOLDS)) {
-        if (input != null) {
-          thresholds.load(input);
-          if(logger.isInfoEnabled()) {
-            logger.info("Successfully loaded pangeanic thresholds from resources, Values: {}", thresholds);
-          }
-        }
-      } catch (IOException e) {
-        throw new TranslationServiceConfigurationException(
-            "Cannot load pangeanic languae thresholds from file: " + languageThresholdsFile, e);
-      }
-    }
-
-    // load properties
-    if (thresholds.isEmpty()) {
-      if (logger.isInfoEnabled()) {
-        logger.info("No configurations found for pangeanic language thresholds available.");
-      }
-    }
-
-    return thresholds;
+  /**
+   * Loads the pangeanic thresholds and reloads them when the config file changes
+   * @return the loader
+   */
+  @Bean(BeanNames.BEAN_PANGEANIC_THRESHOLDS_LOADER)
+  public PangeanicThresholdsLoader getPangeanicThresholdsLoader() {
+    return new PangeanicThresholdsLoader(getConfigFile(FILE_PANGEANIC_LANGUAGE_THRESHOLDS),
+        translationConfig.getPangeanicThresholdsReloadMillisec());
   }
 
-
   @Bean(BeanNames.BEAN_GOOGLE_LANG_DETECT_SERVICE)
   public GoogleLangDetectService getGoogleLangDetectService(
       @Qualifier(BeanNames.BEAN_GOOGLE_TRANSLATION_CLIENT_WRAPPER) GoogleTranslationServiceClientWrapper googleTranslationServiceClientWrapper) {
@@ -219,20 +232,38 @@ public class TranslationApiAutoconfig implements ApplicationListener<Application
 
   @Bean(BeanNames.BEAN_E_TRANSLATION_SERVICE)
   public ETranslationTranslationService getETranslationService(
-      @Qualifier(BeanNames.BEAN_REDIS_MESSAGE_LISTENER_CONTAINER) RedisMessageListenerContainer redisMessageListenerContainer) throws Exception {
-    return new ETranslationTranslationService(
+      @Qualifier(BeanNames.BEAN_ETRANSLATION_CALLBACK_REGISTRY) ETranslationCallbackRegistry callbackRegistry,
+      @Qualifier(BeanNames.BEAN_ETRANSLATION_JOB_STORE) ETranslationJobStore jobStore,
+      MeterRegistry meterRegistry) throws Exception {
+    ETranslationClientConfig clientConfig = new ETranslationClientConfig();
+    clientConfig.setMaxConnections(translationConfig.getEtranslationMaxConnections());
+    clientConfig.setConnectTimeoutMillisec(translationConfig.getEtranslationConnectTimeoutMillisec());
+    clientConfig.setSocketTimeoutMillisec(translationConfig.getEtranslationSocketTimeoutMillisec());
+    clientConfig.setConnectionTtlMillisec(translationConfig.getEtranslationConnectionTtlMillisec());
+    clientConfig.setConnectionRequestTimeoutMillisec(
+        translationConfig.getEtranslationConnectionRequestTimeoutMillisec());
+    clientConfig.setIdleEvictionMillisec(translationConfig.getEtranslationIdleEvictionMillisec());
+    clientConfig.setMultiplexWindowMillisec(translationConfig.getEtranslationMultiplexWindowMillisec());
+    clientConfig.setMaxDocumentChars(translationConfig.getEtranslationMaxDocumentChars());
+    clientConfig.setMaxParallelJobs(translationConfig.getEtranslationMaxParallelJobs());
+    ETranslationTranslationService eTranslationService = new ETranslationTranslationService(
         translationConfig.getEtranslationBaseUrl(), 
         translationConfig.getEtranslationDomain(), 
         translationConfig.getTranslationApiBaseUrl(),
         translationConfig.getEtranslationMaxWaitMillisec(), 
         translationConfig.getEtranslationUsername(),
         translationConfig.getEtranslationPassword(),
-        redisMessageListenerContainer);
+        callbackRegistry, jobStore, clientConfig);
+    // expose the connection pool usage (httpcomponents.httpclient.pool.*)
+    new ConnectionPoolMetrics(eTranslationService.getHttpTransport().getConnectionPool(),
+        "etranslation").bindTo(meterRegistry);
+    return eTranslationService;
   }
 
   @Bean(BeanNames.BEAN_SERVICE_PROVIDER)
   @DependsOn(value = {BeanNames.BEAN_PANGEANIC_LANG_DETECT_SERVICE,
-      BeanNames.BEAN_PANGEANIC_TRANSLATION_SERVICE, BeanNames.BEAN_GOOGLE_TRANSLATION_SERVICE})
+      BeanNames.BEAN_PANGEANIC_TRANSLATION_SERVICE, BeanNames.BEAN_GOOGLE_TRANSLATION_SERVICE,
+      BeanNames.BEAN_CHUNK_TRANSLATION_EXECUTOR})
   public TranslationServiceProvider getTranslationServiceProvider() {
     if(StringUtils.isNotEmpty(serviceConfigFile)) {
       translationServiceConfigProvider = new TranslationServiceProvider(getConfigFile(serviceConfigFile));
@@ -253,6 +284,71 @@ public class TranslationApiAutoconfig implements ApplicationListener<Application
     return new TranslationPreProcessor(IsAlphabetic);
   }
 
+  /**
+   * Thread pool used for the parallel processing of the sub-requests grouped within batch
+   * translation requests
+   * 
+   * @return the executor service
+   */
+  @Bean(name = BeanNames.BEAN_BATCH_TRANSLATION_EXECUTOR, destroyMethod = "shutdown")
+  public ExecutorService getBatchTranslationExecutor() {
+    return newExecutor("batch-translation-", translationConfig.getBatchThreads());
+  }
+
+  /**
+   * Thread pool used for translating in parallel the chunks of large requests, the parallelism is
+   * limited per request by the configurations of the translation services and over all requests by
+   * the size of the pool. The queued chunks don't block the requests, as the request thread
+   * translates the chunks as well.
+   * 
+   * @return the executor service
+   */
+  @Bean(name = BeanNames.BEAN_CHUNK_TRANSLATION_EXECUTOR, destroyMethod = "shutdown")
+  public ExecutorService getChunkTranslationExecutor() {
+    return newExecutor("translation-chunk-", translationConfig.getChunkThreads());
+  }
+
+  /**
+   * Executor completing the translation requests asynchronously, so that the servlet threads are
+   * released while waiting for the translation services (e.g. the eTranslation callbacks). The
+   * request threads block on the translation services, the pool and its queue are therefore
+   * bounded and the requests exceeding them are rejected instead of piling up threads.
+   * 
+   * @return the executor service
+   */
+  @Bean(name = BeanNames.BEAN_TRANSLATION_REQUEST_EXECUTOR, destroyMethod = "shutdown")
+  public ExecutorService getTranslationRequestExecutor() {
+    final int threads = Math.max(translationConfig.getRequestThreads(), 1);
+    return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(Math.max(translationConfig.getRequestQueueSize(), 1)),
+        newThreadFactory("translation-request-"), new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * Creates the executors for the blocking calls to the translation services. When virtual threads
+   * are enabled the tasks run on virtual threads, the bounded executors still limit the number of
+   * concurrent tasks and queue the others.
+   * 
+   * @param threadPrefix prefix for the thread names
+   * @param threads the max number of concurrent tasks, 0 for an unbounded executor
+   * @return the executor service
+   */
+  private ExecutorService newExecutor(String threadPrefix, int threads) {
+    final ThreadFactory threadFactory = newThreadFactory(threadPrefix);
+    if (threads > 0) {
+      return Executors.newFixedThreadPool(threads, threadFactory);
+    }
+    return translationConfig.isVirtualThreadsEnabled()
+        ? Executors.newThreadPerTaskExecutor(threadFactory)
+        : Executors.newCachedThreadPool(threadFactory);
+  }
+
+  private ThreadFactory newThreadFactory(String threadPrefix) {
+    return translationConfig.isVirtualThreadsEnabled()
+        ? Thread.ofVirtual().name(threadPrefix, 0).factory()
+        : new CustomizableThreadFactory(threadPrefix);
+  }
+
 
   /*
    * Help, see connect to a standalone redis server:
@@ -333,25 +429,93 @@ public class TranslationApiAutoconfig implements ApplicationListener<Application
     return new RedisCacheService(redisTemplate);
   }
 
-  @Bean(BeanNames.BEAN_REDIS_MESSAGE_LISTENER_ADAPTER)
-  MessageListenerAdapter listenerAdapter() {
-      return new MessageListenerAdapter();
+  @Bean(BeanNames.BEAN_STRING_REDIS_TEMPLATE)
+  public StringRedisTemplate getStringRedisTemplate(
+      @Qualifier(BeanNames.BEAN_REDIS_CONNECTION_FACTORY) LettuceConnectionFactory redisConnectionFactory) {
+    redisConnectionFactory.afterPropertiesSet();
+    return new StringRedisTemplate(redisConnectionFactory);
+  }
+
+  @Bean(BeanNames.BEAN_TRANSLATION_JOB_SERVICE)
+  public TranslationJobService getTranslationJobService(
+      @Qualifier(BeanNames.BEAN_STRING_REDIS_TEMPLATE) StringRedisTemplate stringRedisTemplate,
+      ObjectMapper mapper, MeterRegistry meterRegistry) {
+    return new TranslationJobService(stringRedisTemplate, mapper,
+        Duration.ofHours(translationConfig.getJobsExpirationHours()),
+        translationConfig.getJobsStreamMaxLength(), meterRegistry);
+  }
+
+  /**
+   * Verifies the callback urls of the translation jobs, when submitted and when notified
+   * @return the validator
+   */
+  @Bean(BeanNames.BEAN_CALLBACK_URL_VALIDATOR)
+  public CallbackUrlValidator getCallbackUrlValidator() {
+    return new CallbackUrlValidator(translationConfig.getJobsCallbackAllowedHosts());
+  }
+
+  /**
+   * The worker consuming the translation jobs, can be disabled for instances which should only
+   * serve synchronous requests
+   */
+  @Bean(BeanNames.BEAN_TRANSLATION_JOB_WORKER)
+  @ConditionalOnProperty(name = "translation.jobs.enabled", havingValue = "true",
+      matchIfMissing = true)
+  public TranslationJobWorker getTranslationJobWorker(
+      @Qualifier(BeanNames.BEAN_TRANSLATION_JOB_SERVICE) TranslationJobService translationJobService,
+      TranslationWebService translationWebService,
+      @Qualifier(BeanNames.BEAN_STRING_REDIS_TEMPLATE) StringRedisTemplate stringRedisTemplate,
+      @Qualifier(BeanNames.BEAN_CALLBACK_URL_VALIDATOR) CallbackUrlValidator callbackUrlValidator,
+      MeterRegistry meterRegistry) {
+    return new TranslationJobWorker(translationJobService, translationWebService,
+        stringRedisTemplate, translationConfig.getJobsThreads(),
+        translationConfig.getJobsChunkSize(), translationConfig.getJobsMaxAttempts(),
+        translationConfig.getJobsRetryDelayMillisec(),
+        Duration.ofMillis(translationConfig.getJobsClaimIdleMillisec()), callbackUrlValidator,
+        meterRegistry);
+  }
+
+  /**
+   * Per client rate limits, the buckets of all instances are synchronized through redis
+   */
+  @Bean(BeanNames.BEAN_RATE_LIMIT_SERVICE)
+  @ConditionalOnProperty(name = "translation.ratelimit.enabled", havingValue = "true")
+  public RateLimitService getRateLimitService(
+      @Qualifier(BeanNames.BEAN_STRING_REDIS_TEMPLATE) StringRedisTemplate stringRedisTemplate,
+      MeterRegistry meterRegistry) throws AppConfigurationException {
+    return new RateLimitService(stringRedisTemplate,
+        translationConfig.getRateLimitRequestsPerMinute(),
+        translationConfig.getRateLimitCharactersPerMinute(),
+        translationConfig.getRateLimitClients(), translationConfig.getRateLimitSyncMillisec(),
+        meterRegistry);
+  }
+
+  @Bean(BeanNames.BEAN_ETRANSLATION_CALLBACK_REGISTRY)
+  ETranslationCallbackRegistry getETranslationCallbackRegistry() {
+    return new ETranslationCallbackRegistry();
   }
   
+  @Bean(BeanNames.BEAN_ETRANSLATION_JOB_STORE)
+  ETranslationJobStore getETranslationJobStore(
+      @Qualifier(BeanNames.BEAN_STRING_REDIS_TEMPLATE) StringRedisTemplate stringRedisTemplate) {
+    return new ETranslationJobStore(stringRedisTemplate,
+        translationConfig.getEtranslationJobTtlMillisec());
+  }
+
   @Bean(BeanNames.BEAN_REDIS_MESSAGE_LISTENER_CONTAINER)
   RedisMessageListenerContainer getRedisMessageListenerContainer(
       @Qualifier(BeanNames.BEAN_REDIS_CONNECTION_FACTORY) LettuceConnectionFactory redisConnectionFactory,
-      @Qualifier(BeanNames.BEAN_REDIS_MESSAGE_LISTENER_ADAPTER) MessageListenerAdapter messageListenerAdapter
+      @Qualifier(BeanNames.BEAN_ETRANSLATION_CALLBACK_REGISTRY) ETranslationCallbackRegistry callbackRegistry
       ) throws AppConfigurationException {
     RedisMessageListenerContainer container  = new RedisMessageListenerContainer(); 
     redisConnectionFactory.afterPropertiesSet();
     container.setConnectionFactory(redisConnectionFactory); 
     /*
-     * This is needed to avoid some cases redis closes all channels and does not allow any subscriptions (please see here: https://github.com/spring-projects/spring-data-redis/issues/2425).
-     * In this case we create one channel that is never un-subscribed from.
+     * One pattern subscription for all eTranslation callbacks, which is never un-subscribed. This
+     * also avoids the cases in which redis closes all channels and does not allow any new
+     * subscriptions (see https://github.com/spring-projects/spring-data-redis/issues/2425).
      */
-    container.addMessageListener(messageListenerAdapter, ChannelTopic.of("default"));
-//    container.addMessageListener(messageListener(), topic()); 
+    container.addMessageListener(callbackRegistry, ETranslationCallbackRegistry.TOPIC);
     return container; 
   }
 
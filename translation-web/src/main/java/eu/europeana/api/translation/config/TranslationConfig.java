@@ -42,6 +42,42 @@ public class TranslationConfig{
 
   @Value("${translation.pangeanic.endpoint.translate}")
   private String pangeanicTranslateEndpoint;
+
+  @Value("${translation.pangeanic.maxConnections:100}")
+  private int pangeanicMaxConnections;
+
+  @Value("${translation.pangeanic.ioThreads:2}")
+  private int pangeanicIoThreads;
+
+  @Value("${translation.pangeanic.http2:true}")
+  private boolean pangeanicHttp2;
+
+  @Value("${translation.pangeanic.connectTimeoutMillisec:5000}")
+  private long pangeanicConnectTimeoutMillisec;
+
+  @Value("${translation.pangeanic.socketTimeoutMillisec:300000}")
+  private long pangeanicSocketTimeoutMillisec;
+
+  @Value("${translation.pangeanic.connectionRequestTimeoutMillisec:5000}")
+  private long pangeanicConnectionRequestTimeoutMillisec;
+
+  @Value("${translation.pangeanic.connectionTtlMillisec:300000}")
+  private long pangeanicConnectionTtlMillisec;
+
+  @Value("${translation.pangeanic.idleEvictionMillisec:30000}")
+  private long pangeanicIdleEvictionMillisec;
+
+  @Value("${translation.pangeanic.detectChunkSize:100}")
+  private int pangeanicDetectChunkSize;
+
+  @Value("${translation.pangeanic.detectionCacheSize:10000}")
+  private int pangeanicDetectionCacheSize;
+
+  @Value("${translation.pangeanic.maxConcurrentRequests:4}")
+  private int pangeanicMaxConcurrentRequests;
+
+  @Value("${translation.pangeanic.thresholdsReloadMillisec:60000}")
+  private long pangeanicThresholdsReloadMillisec;
   
   @Value("${translation.google.projectId:}")
   private String googleTranslateProjectId;
@@ -73,11 +109,125 @@ public class TranslationConfig{
   @Value("${translation.eTranslation.baseUrl:#{null}}")
   private String etranslationBaseUrl;
   
-  @Value("${translation.eTranslation.truncate:#{null}}")
-  private boolean etranslationTruncate;
+  @Value("${translation.eTranslation.maxConnections:20}")
+  private int etranslationMaxConnections;
+
+  @Value("${translation.eTranslation.connectTimeoutMillisec:5000}")
+  private int etranslationConnectTimeoutMillisec;
+
+  @Value("${translation.eTranslation.socketTimeoutMillisec:30000}")
+  private int etranslationSocketTimeoutMillisec;
+
+  @Value("${translation.eTranslation.connectionTtlMillisec:60000}")
+  private long etranslationConnectionTtlMillisec;
+
+  @Value("${translation.eTranslation.connectionRequestTimeoutMillisec:5000}")
+  private long etranslationConnectionRequestTimeoutMillisec;
+
+  @Value("${translation.eTranslation.idleEvictionMillisec:30000}")
+  private long etranslationIdleEvictionMillisec;
+
+  @Value("${translation.eTranslation.multiplexWindowMillisec:0}")
+  private long etranslationMultiplexWindowMillisec;
+
+  @Value("${translation.eTranslation.maxDocumentChars:4990}")
+  private int etranslationMaxDocumentChars;
+
+  @Value("${translation.eTranslation.jobTtlMillisec:86400000}")
+  private long etranslationJobTtlMillisec;
+
+  @Value("${translation.eTranslation.maxParallelJobs:4}")
+  private int etranslationMaxParallelJobs;
 
   @Value("${translation.dummy.services:false}")
   private boolean useDummyServices;
+
+  @Value("${translation.batch.maxRequests:1000}")
+  private int batchMaxRequests;
+
+  @Value("${translation.request.maxTexts:10000}")
+  private int requestMaxTexts;
+
+  @Value("${translation.request.maxCharacters:2000000}")
+  private long requestMaxCharacters;
+
+  @Value("${translation.request.maxTargets:30}")
+  private int requestMaxTargets;
+
+  @Value("${translation.batch.threads:10}")
+  private int batchThreads;
+
+  @Value("${translation.chunk.threads:40}")
+  private int chunkThreads;
+
+  @Value("${translation.request.threads:200}")
+  private int requestThreads;
+
+  @Value("${translation.request.queueSize:200}")
+  private int requestQueueSize;
+
+  @Value("${translation.stream.chunkSize:20}")
+  private int streamChunkSize;
+
+  @Value("${translation.stream.timeoutMillisec:60000}")
+  private long streamTimeoutMillisec;
+
+  @Value("${translation.deadline.defaultMillisec:60000}")
+  private long deadlineDefaultMillisec;
+
+  @Value("${translation.deadline.maxMillisec:300000}")
+  private long deadlineMaxMillisec;
+
+  @Value("${translation.deadline.fallbackMinMillisec:2000}")
+  private long deadlineFallbackMinMillisec;
+
+  @Value("${translation.virtualThreads.enabled:false}")
+  private boolean virtualThreadsEnabled;
+
+  @Value("${translation.jobs.enabled:true}")
+  private boolean jobsEnabled;
+
+  @Value("${translation.jobs.threads:4}")
+  private int jobsThreads;
+
+  @Value("${translation.jobs.chunkSize:50}")
+  private int jobsChunkSize;
+
+  @Value("${translation.jobs.maxTexts:100000}")
+  private int jobsMaxTexts;
+
+  @Value("${translation.jobs.maxAttempts:3}")
+  private int jobsMaxAttempts;
+
+  @Value("${translation.jobs.retryDelayMillisec:5000}")
+  private long jobsRetryDelayMillisec;
+
+  @Value("${translation.jobs.claimIdleMillisec:300000}")
+  private long jobsClaimIdleMillisec;
+
+  @Value("${translation.jobs.expirationHours:24}")
+  private long jobsExpirationHours;
+
+  @Value("${translation.jobs.streamMaxLength:100000}")
+  private long jobsStreamMaxLength;
+
+  @Value("${translation.jobs.callbackAllowedHosts:}")
+  private String jobsCallbackAllowedHosts;
+
+  @Value("${translation.ratelimit.enabled:false}")
+  private boolean rateLimitEnabled;
+
+  @Value("${translation.ratelimit.requestsPerMinute:600}")
+  private long rateLimitRequestsPerMinute;
+
+  @Value("${translation.ratelimit.charactersPerMinute:1000000}")
+  private long rateLimitCharactersPerMinute;
+
+  @Value("${translation.ratelimit.clients:}")
+  private String rateLimitClients;
+
+  @Value("${translation.ratelimit.syncMillisec:1000}")
+  private long rateLimitSyncMillisec;
   
   public TranslationConfig() {
     super();
@@ -115,6 +265,54 @@ public class TranslationConfig{
     return pangeanicTranslateEndpoint;
   }
 
+  public int getPangeanicMaxConnections() {
+    return pangeanicMaxConnections;
+  }
+
+  public int getPangeanicIoThreads() {
+    return pangeanicIoThreads;
+  }
+
+  public boolean isPangeanicHttp2() {
+    return pangeanicHttp2;
+  }
+
+  public long getPangeanicConnectTimeoutMillisec() {
+    return pangeanicConnectTimeoutMillisec;
+  }
+
+  public long getPangeanicSocketTimeoutMillisec() {
+    return pangeanicSocketTimeoutMillisec;
+  }
+
+  public long getPangeanicConnectionRequestTimeoutMillisec() {
+    return pangeanicConnectionRequestTimeoutMillisec;
+  }
+
+  public long getPangeanicConnectionTtlMillisec() {
+    return pangeanicConnectionTtlMillisec;
+  }
+
+  public long getPangeanicIdleEvictionMillisec() {
+    return pangeanicIdleEvictionMillisec;
+  }
+
+  public int getPangeanicDetectChunkSize() {
+    return pangeanicDetectChunkSize;
+  }
+
+  public int getPangeanicDetectionCacheSize() {
+    return pangeanicDetectionCacheSize;
+  }
+
+  public int getPangeanicMaxConcurrentRequests() {
+    return pangeanicMaxConcurrentRequests;
+  }
+
+  public long getPangeanicThresholdsReloadMillisec() {
+    return pangeanicThresholdsReloadMillisec;
+  }
+
   public String getGoogleTranslateProjectId() {
     return googleTranslateProjectId;
   }
@@ -181,12 +379,164 @@ public class TranslationConfig{
     return etranslationMaxWaitMillisec;
   }
 
+  public int getEtranslationMaxConnections() {
+    return etranslationMaxConnections;
+  }
+
+  public int getEtranslationConnectTimeoutMillisec() {
+    return etranslationConnectTimeoutMillisec;
+  }
+
+  public int getEtranslationSocketTimeoutMillisec() {
+    return etranslationSocketTimeoutMillisec;
+  }
+
+  public long getEtranslationConnectionTtlMillisec() {
+    return etranslationConnectionTtlMillisec;
+  }
+
+  public long getEtranslationConnectionRequestTimeoutMillisec() {
+    return etranslationConnectionRequestTimeoutMillisec;
+  }
+
+  public long getEtranslationIdleEvictionMillisec() {
+    return etranslationIdleEvictionMillisec;
+  }
+
+  public long getEtranslationMultiplexWindowMillisec() {
+    return etranslationMultiplexWindowMillisec;
+  }
+
+  public int getEtranslationMaxDocumentChars() {
+    return etranslationMaxDocumentChars;
+  }
+
+  public long getEtranslationJobTtlMillisec() {
+    return etranslationJobTtlMillisec;
+  }
+
   public String getEtranslationBaseUrl() {
     return etranslationBaseUrl;
   }
 
-  public boolean isEtranslationTruncate() {
-    return etranslationTruncate;
+  public int getEtranslationMaxParallelJobs() {
+    return etranslationMaxParallelJobs;
+  }
+
+  public int getBatchMaxRequests() {
+    return batchMaxRequests;
+  }
+
+  public int getRequestMaxTexts() {
+    return requestMaxTexts;
+  }
+
+  public long getRequestMaxCharacters() {
+    return requestMaxCharacters;
+  }
+
+  public int getRequestMaxTargets() {
+    return requestMaxTargets;
+  }
+
+  public int getBatchThreads() {
+    return batchThreads;
+  }
+
+  public int getChunkThreads() {
+    return chunkThreads;
+  }
+
+  public int getRequestThreads() {
+    return requestThreads;
+  }
+
+  public int getRequestQueueSize() {
+    return requestQueueSize;
+  }
+
+  public int getStreamChunkSize() {
+    return streamChunkSize;
+  }
+
+  public long getStreamTimeoutMillisec() {
+    return streamTimeoutMillisec;
+  }
+
+  public long getDeadlineDefaultMillisec() {
+    return deadlineDefaultMillisec;
+  }
+
+  public long getDeadlineMaxMillisec() {
+    return deadlineMaxMillisec;
+  }
+
+  public long getDeadlineFallbackMinMillisec() {
+    return deadlineFallbackMinMillisec;
+  }
+
+  public boolean isVirtualThreadsEnabled() {
+    return virtualThreadsEnabled;
+  }
+
+  public boolean isJobsEnabled() {
+    return jobsEnabled;
+  }
+
+  public int getJobsThreads() {
+    return jobsThreads;
+  }
+
+  public int getJobsChunkSize() {
+    return jobsChunkSize;
+  }
+
+  public int getJobsMaxTexts() {
+    return jobsMaxTexts;
+  }
+
+  public int getJobsMaxAttempts() {
+    return jobsMaxAttempts;
+  }
+
+  public long getJobsRetryDelayMillisec() {
+    return jobsRetryDelayMillisec;
+  }
+
+  public long getJobsClaimIdleMillisec() {
+    return jobsClaimIdleMillisec;
+  }
+
+  public long getJobsExpirationHours() {
+    return jobsExpirationHours;
+  }
+
+  public long getJobsStreamMaxLength() {
+    return jobsStreamMaxLength;
+  }
+
+  public String getJobsCallbackAllowedHosts() {
+    return jobsCallbackAllowedHosts;
+  }
+
+  public boolean isRateLimitEnabled() {
+    return rateLimitEnabled;
+  }
+
+  public long getRateLimitRequestsPerMinute() {
+    return rateLimitRequestsPerMinute;
+  }
+
+  public long getRateLimitCharactersPerMinute() {
+    return rateLimitCharactersPerMinute;
+  }
+
+  public String getRateLimitClients() {
+    return rateLimitClients;
+  }
+
+  public long getRateLimitSyncMillisec() {
+    return rateLimitSyncMillisec;
   }
   
 }
@@ -6,10 +6,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import javax.annotation.Resource;
 import javax.validation.constraints.NotNull;
@@ -22,15 +25,28 @@ import org.springframework.context.ApplicationContext;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import eu.europeana.api.translation.config.services.DetectServiceCfg;
+import eu.europeana.api.translation.config.services.ServiceBulkheadCfg;
 import eu.europeana.api.translation.config.services.TranslationLangPairCfg;
 import eu.europeana.api.translation.config.services.TranslationMappingCfg;
+import eu.europeana.api.translation.config.services.TranslationRoutingCfg;
 import eu.europeana.api.translation.config.services.TranslationServiceCfg;
+import eu.europeana.api.translation.config.services.TranslationServiceLimitsCfg;
 import eu.europeana.api.translation.config.services.TranslationServicesConfiguration;
 import eu.europeana.api.translation.definitions.language.LanguagePair;
+import eu.europeana.api.translation.service.BulkheadLangDetectService;
+import eu.europeana.api.translation.service.BulkheadTranslationService;
+import eu.europeana.api.translation.service.ChunkedTranslationService;
 import eu.europeana.api.translation.service.LanguageDetectionService;
+import eu.europeana.api.translation.service.ServiceBulkhead;
 import eu.europeana.api.translation.service.TranslationService;
+import eu.europeana.api.translation.service.TranslationServiceLimits;
 import eu.europeana.api.translation.service.exception.LangDetectionServiceConfigurationException;
 import eu.europeana.api.translation.service.exception.TranslationServiceConfigurationException;
+import eu.europeana.api.translation.web.service.AdaptiveServiceRouter;
+import eu.europeana.api.translation.web.service.TrackedTranslationService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * Class used to read the translation service configurations, validate them, initialize mapping for
@@ -59,9 +75,21 @@ public class TranslationServiceProvider {
   @Resource(name = BeanNames.BEAN_TRANSLATION_PRE_PROCESSOR_SERVICE)
   TranslationService translationServicePreProcessor;
 
+  @Resource(name = BeanNames.BEAN_CHUNK_TRANSLATION_EXECUTOR)
+  ExecutorService chunkTranslationExecutor;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
   Map<String, LanguageDetectionService> langDetectServices = new ConcurrentHashMap<>();
   Map<String, TranslationService> translationServices = new ConcurrentHashMap<>();
   Map<String, TranslationService> langMappings4TranslateServices = new ConcurrentHashMap<>();
+  // the requests always read a complete table, it is replaced when the configurations change
+  private final AtomicReference<LanguageRoutingTable> routingTable = new AtomicReference<>();
+  // null if no routing section is configured
+  private AdaptiveServiceRouter serviceRouter;
+  // the metrics read the bulkheads by type and service id, so that they follow the replaced services
+  private final Map<String, ServiceBulkhead> bulkheads = new ConcurrentHashMap<>();
 
   /**
    * Default contructor using default config file
@@ -179,13 +207,27 @@ public class TranslationServiceProvider {
     /*
      * Validate translation config
      */
+    initServiceRouter();
     validateTranslationServices();
+    // register the candidates of the adaptive routing
+    validateRoutingServices();
     // check that a default service id is a valid one
     validateDefaultTranslationService();
     // init language mappings
     validateAndInitLanguageMappings();
     // validate all languages from the supported section are actually supported
     validateSupportedLanguagePairs();
+    // compile the validated configurations for the request routing
+    compileRoutingTable();
+  }
+
+  void compileRoutingTable() {
+    LanguageRoutingTable table = LanguageRoutingTable
+        .compile(translationServicesConfig.getTranslationConfig(), getTranslationServices());
+    routingTable.set(table);
+    if (logger.isInfoEnabled()) {
+      logger.info("Language routing table compiled for {} languages.", table.getLanguageCount());
+    }
   }
 
   private void validateSupportedLanguagePairs() throws TranslationServiceConfigurationException {
@@ -251,10 +293,161 @@ public class TranslationServiceProvider {
             "Service bean not available: " + translServiceConfig.getClassname(), e);
       }
       translService.setServiceId(translServiceConfig.getId());
-      getTranslationServices().put(translServiceConfig.getId(), translService);
+      getTranslationServices().put(translServiceConfig.getId(),
+          decorate(translService, translServiceConfig));
+    }
+  }
+
+  /**
+   * Replaces the configured service having the same id, e.g. by a simulated one in the tests. The
+   * service is replaced at once in the services, the language mappings, the candidates of the
+   * adaptive router and the routing table.
+   * @param translService the new service, having the id of a configured service
+   * @param decorate true if the service must be wrapped into the decorators configured for its id
+   *        (bulkhead, limits and tracking), false if it is decorated already (e.g. when restoring
+   *        the replaced service)
+   * @return the replaced service, as registered
+   * @throws TranslationServiceConfigurationException if no service is configured with this id
+   */
+  public synchronized TranslationService replaceTranslationService(
+      TranslationService translService, boolean decorate)
+      throws TranslationServiceConfigurationException {
+    final String serviceId = translService.getServiceId();
+    final TranslationService replaced = getTranslationServices().get(serviceId);
+    if (replaced == null) {
+      throw new TranslationServiceConfigurationException(
+          "No translation service configured with id: " + serviceId);
+    }
+    final TranslationService service =
+        decorate ? decorate(translService, getServiceConfig(serviceId)) : translService;
+    getTranslationServices().put(serviceId, service);
+    getLangMappings4TranslateServices()
+        .replaceAll((key, mappedService) -> mappedService == replaced ? service : mappedService);
+    validateRoutingServices();
+    compileRoutingTable();
+    return replaced;
+  }
+
+  private TranslationServiceCfg getServiceConfig(String serviceId)
+      throws TranslationServiceConfigurationException {
+    for (TranslationServiceCfg translServiceConfig : translationServicesConfig
+        .getTranslationConfig().getServices()) {
+      if (translServiceConfig.getId().equals(serviceId)) {
+        return translServiceConfig;
+      }
+    }
+    throw new TranslationServiceConfigurationException(
+        "No translation service configured with id: " + serviceId);
+  }
+
+  private TranslationService decorate(TranslationService translService,
+      TranslationServiceCfg translServiceConfig) {
+    translService = applyBulkhead(translService, translServiceConfig.getBulkhead());
+    translService = applyServiceLimits(translService, translServiceConfig.getLimits());
+    return applyTracking(translService);
+  }
+
+  private void initServiceRouter() throws TranslationServiceConfigurationException {
+    final TranslationRoutingCfg routingCfg =
+        translationServicesConfig.getTranslationConfig().getRouting();
+    if (routingCfg == null) {
+      return;
+    }
+    serviceRouter = new AdaptiveServiceRouter(routingCfg, meterRegistry);
+    if (logger.isInfoEnabled()) {
+      logger.info("Adaptive service routing enabled with policy {}", serviceRouter.getPolicy());
     }
   }
 
+  private void validateRoutingServices() throws TranslationServiceConfigurationException {
+    if (serviceRouter == null) {
+      return;
+    }
+    List<TranslationService> candidates = new ArrayList<>();
+    for (String serviceId : serviceRouter.getCandidateIds()) {
+      if (!getTranslationServices().containsKey(serviceId)) {
+        throw new TranslationServiceConfigurationException(
+            "Translation service id declared in the routing section is invalid: " + serviceId);
+      }
+      candidates.add(getTranslationServices().get(serviceId));
+    }
+    serviceRouter.setCandidates(candidates);
+  }
+
+  /**
+   * Reports the outcome of the service calls to the adaptive router, if routing is configured
+   */
+  private TranslationService applyTracking(TranslationService translService) {
+    if (serviceRouter == null) {
+      return translService;
+    }
+    return new TrackedTranslationService(translService, serviceRouter);
+  }
+
+  /**
+   * Isolates the service calls in a bulkhead, if configured for the service
+   */
+  private TranslationService applyBulkhead(TranslationService translService,
+      ServiceBulkheadCfg bulkheadCfg) {
+    if (bulkheadCfg == null) {
+      return translService;
+    }
+    ServiceBulkhead bulkhead = bulkheadCfg.toServiceBulkhead(translService.getServiceId());
+    registerBulkheadMetrics(bulkhead, "translate");
+    return new BulkheadTranslationService(translService, bulkhead);
+  }
+
+  private LanguageDetectionService applyBulkhead(LanguageDetectionService detectService,
+      ServiceBulkheadCfg bulkheadCfg) {
+    if (bulkheadCfg == null) {
+      return detectService;
+    }
+    ServiceBulkhead bulkhead = bulkheadCfg.toServiceBulkhead(detectService.getServiceId());
+    registerBulkheadMetrics(bulkhead, "detect");
+    return new BulkheadLangDetectService(detectService, bulkhead);
+  }
+
+  private void registerBulkheadMetrics(ServiceBulkhead bulkhead, String type) {
+    if (logger.isInfoEnabled()) {
+      logger.info("Service {} ({}) isolated in bulkhead with maxConcurrent={}, maxQueue={}",
+          bulkhead.getName(), type, bulkhead.getMaxConcurrent(), bulkhead.getMaxQueue());
+    }
+    final String key = type + ":" + bulkhead.getName();
+    // the metrics of a replaced service are registered already
+    if (bulkheads.put(key, bulkhead) != null || meterRegistry == null) {
+      return;
+    }
+    Gauge.builder("translation.bulkhead.active", bulkheads,
+        current -> current.get(key).getActiveCalls())
+        .tag("service", bulkhead.getName()).tag("type", type).register(meterRegistry);
+    Gauge.builder("translation.bulkhead.queued", bulkheads,
+        current -> current.get(key).getQueuedCalls())
+        .tag("service", bulkhead.getName()).tag("type", type).register(meterRegistry);
+    FunctionCounter.builder("translation.bulkhead.rejected", bulkheads,
+        current -> current.get(key).getRejectedCalls())
+        .tag("service", bulkhead.getName()).tag("type", type).register(meterRegistry);
+  }
+
+  /**
+   * Wraps the service into a decorator splitting the large requests in chunks, if limits are
+   * configured for the service
+   */
+  private TranslationService applyServiceLimits(TranslationService translService,
+      TranslationServiceLimitsCfg limitsCfg) {
+    if (limitsCfg == null) {
+      return translService;
+    }
+    TranslationServiceLimits limits = limitsCfg.toServiceLimits();
+    if (!limits.isLimited()) {
+      return translService;
+    }
+    if (logger.isInfoEnabled()) {
+      logger.info("Translation service {} configured with limits: {}", translService.getServiceId(),
+          limits);
+    }
+    return new ChunkedTranslationService(translService, limits, chunkTranslationExecutor);
+  }
+
   private void validateAndInitLanguageMappings() throws TranslationServiceConfigurationException {
     // validate that each service supports the languages declared in the mappings section
     if (translationServicesConfig.getTranslationConfig().getMappings() == null) {
@@ -365,11 +558,16 @@ public class TranslationServiceProvider {
       }
       detectService.setServiceId(detectServiceCfg.getId());
       // add bean to service map
-      getLangDetectServices().put(detectServiceCfg.getId(), detectService);
+      getLangDetectServices().put(detectServiceCfg.getId(),
+          applyBulkhead(detectService, detectServiceCfg.getBulkhead()));
     }
   }
 
 
+  public AdaptiveServiceRouter getServiceRouter() {
+    return serviceRouter;
+  }
+
   public String getServiceConfigLocation() {
     return serviceConfigLocation;
   }
@@ -378,6 +576,10 @@ public class TranslationServiceProvider {
     return langMappings4TranslateServices;
   }
 
+  public LanguageRoutingTable getRoutingTable() {
+    return routingTable.get();
+  }
+
   public LanguageDetectionService getLanguageDetectionPreProcessor() {
     return languageDetectionPreProcessor;
   }
@@ -0,0 +1,29 @@
+package eu.europeana.api.translation.config;
+
+import java.util.concurrent.Executors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs the request handling on virtual threads, so that the number of concurrent requests is not
+ * limited by the size of the tomcat thread pool while waiting for the translation services
+ */
+@Configuration
+@ConditionalOnProperty(name = "translation.virtualThreads.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+  private final Logger logger = LogManager.getLogger(VirtualThreadsConfig.class);
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+    if (logger.isInfoEnabled()) {
+      logger.info("Request handling configured to run on virtual threads.");
+    }
+    return protocolHandler -> protocolHandler
+        .setExecutor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-vt-", 0).factory()));
+  }
+}
@@ -1,13 +1,23 @@
 package eu.europeana.api.translation.config;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+import eu.europeana.api.translation.serialization.JsonLdHttpMessageConverter;
+import eu.europeana.api.translation.serialization.JsonLdSerializer;
+import eu.europeana.api.translation.serialization.TranslationRequestReader;
 
 /** Setup CORS for all requests and setup default Content-type */
 @Configuration
@@ -16,6 +26,17 @@ public class WebMvcConfig implements WebMvcConfigurer {
   MediaType jsonLdMediaType =
       MediaType.valueOf(eu.europeana.api.commons.web.http.HttpHeaders.CONTENT_TYPE_JSONLD);
   Map<String, MediaType> mediaTypesMaping = new HashMap<String, MediaType>();
+  private static final long ASYNC_TIMEOUT_MARGIN_MILLIS = 5000;
+
+  @Autowired
+  JsonLdSerializer jsonLdSerializer;
+
+  @Autowired
+  @Qualifier(TranslationAppConstants.BEAN_JSON_MAPPER)
+  ObjectMapper mapper;
+
+  @Autowired
+  TranslationConfig translationConfig;
 
   /** Setup CORS for all GET, HEAD and OPTIONS, requests. */
   @Override
@@ -55,6 +76,28 @@ public class WebMvcConfig implements WebMvcConfigurer {
     configurer.defaultContentType(MediaType.APPLICATION_JSON);
   }
 
+  /**
+   * The API model objects returned by the controllers are written directly to the response stream
+   * and the translation requests are read incrementally with the configured limits, the converters
+   * are registered before the default ones
+   */
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.add(0, new JsonLdHttpMessageConverter(jsonLdSerializer));
+    converters.add(0, new TranslationRequestReader(mapper, translationConfig.getRequestMaxTexts(),
+        translationConfig.getRequestMaxCharacters(), translationConfig.getBatchMaxRequests(),
+        translationConfig.getRequestMaxTargets()));
+  }
+
+  /**
+   * The asynchronous requests are limited by their own deadline, the container timeout only applies
+   * if the deadline handling fails
+   */
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.setDefaultTimeout(translationConfig.getDeadlineMaxMillisec() + ASYNC_TIMEOUT_MARGIN_MILLIS);
+  }
+
   private Map<String, MediaType> getMediaTypesMapping() {
 
     // json
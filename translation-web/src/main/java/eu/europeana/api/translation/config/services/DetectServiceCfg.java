@@ -9,11 +9,13 @@ import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstan
 
 @JsonInclude(value = JsonInclude.Include.NON_EMPTY)
 @JsonIgnoreProperties(ignoreUnknown = true)
-@JsonPropertyOrder({TranslationAppConstants.SERVICE_ID, TranslationAppConstants.CLASSNAME})
+@JsonPropertyOrder({TranslationAppConstants.SERVICE_ID, TranslationAppConstants.CLASSNAME,
+    TranslationAppConstants.BULKHEAD})
 public class DetectServiceCfg {
 
   private String id;
   private String classname;
+  private ServiceBulkheadCfg bulkhead;
 
   public DetectServiceCfg() {
     super();
@@ -39,4 +41,14 @@ public class DetectServiceCfg {
     this.classname = classname;
   }
 
+  @JsonGetter(TranslationAppConstants.BULKHEAD)
+  public ServiceBulkheadCfg getBulkhead() {
+    return bulkhead;
+  }
+
+  @JsonSetter(TranslationAppConstants.BULKHEAD)
+  public void setBulkhead(ServiceBulkheadCfg bulkhead) {
+    this.bulkhead = bulkhead;
+  }
+
 }
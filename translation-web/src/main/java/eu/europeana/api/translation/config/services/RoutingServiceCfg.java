@@ -0,0 +1,57 @@
+package eu.europeana.api.translation.config.services;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+
+/**
+ * Routing attributes of one translation service, the relative cost of the calls and the weight
+ * used for splitting the traffic
+ */
+@JsonInclude(value = JsonInclude.Include.NON_DEFAULT)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({TranslationAppConstants.SERVICE_ID, TranslationAppConstants.COST,
+    TranslationAppConstants.WEIGHT})
+public class RoutingServiceCfg {
+
+  private String id;
+  private double cost = 1.0;
+  private int weight = 1;
+
+  public RoutingServiceCfg() {
+    super();
+  }
+
+  @JsonGetter(TranslationAppConstants.SERVICE_ID)
+  public String getId() {
+    return id;
+  }
+
+  @JsonSetter(TranslationAppConstants.SERVICE_ID)
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  @JsonGetter(TranslationAppConstants.COST)
+  public double getCost() {
+    return cost;
+  }
+
+  @JsonSetter(TranslationAppConstants.COST)
+  public void setCost(double cost) {
+    this.cost = cost;
+  }
+
+  @JsonGetter(TranslationAppConstants.WEIGHT)
+  public int getWeight() {
+    return weight;
+  }
+
+  @JsonSetter(TranslationAppConstants.WEIGHT)
+  public void setWeight(int weight) {
+    this.weight = weight;
+  }
+}
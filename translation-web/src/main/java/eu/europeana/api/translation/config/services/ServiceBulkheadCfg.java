@@ -0,0 +1,61 @@
+package eu.europeana.api.translation.config.services;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+import eu.europeana.api.translation.service.ServiceBulkhead;
+
+/**
+ * Configuration of the bulkhead isolating the calls to one external service
+ */
+@JsonInclude(value = JsonInclude.Include.NON_DEFAULT)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({TranslationAppConstants.MAX_CONCURRENT, TranslationAppConstants.MAX_QUEUE,
+    TranslationAppConstants.MAX_WAIT_MILLIS})
+public class ServiceBulkheadCfg {
+
+  private int maxConcurrent;
+  private int maxQueue;
+  private long maxWaitMillis;
+
+  public ServiceBulkheadCfg() {
+    super();
+  }
+
+  @JsonGetter(TranslationAppConstants.MAX_CONCURRENT)
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  @JsonSetter(TranslationAppConstants.MAX_CONCURRENT)
+  public void setMaxConcurrent(int maxConcurrent) {
+    this.maxConcurrent = maxConcurrent;
+  }
+
+  @JsonGetter(TranslationAppConstants.MAX_QUEUE)
+  public int getMaxQueue() {
+    return maxQueue;
+  }
+
+  @JsonSetter(TranslationAppConstants.MAX_QUEUE)
+  public void setMaxQueue(int maxQueue) {
+    this.maxQueue = maxQueue;
+  }
+
+  @JsonGetter(TranslationAppConstants.MAX_WAIT_MILLIS)
+  public long getMaxWaitMillis() {
+    return maxWaitMillis;
+  }
+
+  @JsonSetter(TranslationAppConstants.MAX_WAIT_MILLIS)
+  public void setMaxWaitMillis(long maxWaitMillis) {
+    this.maxWaitMillis = maxWaitMillis;
+  }
+
+  public ServiceBulkhead toServiceBulkhead(String serviceName) {
+    return new ServiceBulkhead(serviceName, maxConcurrent, maxQueue, maxWaitMillis);
+  }
+}
@@ -10,13 +10,14 @@ import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstan
 
 @JsonInclude(value = JsonInclude.Include.NON_EMPTY)
 @JsonIgnoreProperties(ignoreUnknown = true)
-@JsonPropertyOrder({TranslationAppConstants.SUPPORTED_LANGUAGES, TranslationAppConstants.SERVICES, TranslationAppConstants.MAPPINGS, TranslationAppConstants.DEFAULT_SERVICE_ID})
+@JsonPropertyOrder({TranslationAppConstants.SUPPORTED_LANGUAGES, TranslationAppConstants.SERVICES, TranslationAppConstants.MAPPINGS, TranslationAppConstants.DEFAULT_SERVICE_ID, TranslationAppConstants.ROUTING})
 public class TranslationCfg {
 
   private List<TranslationLangPairCfg> supported;
   private List<TranslationServiceCfg> services;
   private List<TranslationMappingCfg> mappings;
   private String defaultServiceId;
+  private TranslationRoutingCfg routing;
 
   public TranslationCfg() {
     super();
@@ -62,4 +63,14 @@ public class TranslationCfg {
     this.defaultServiceId = defaultServiceId;
   }
 
+  @JsonGetter(TranslationAppConstants.ROUTING)
+  public TranslationRoutingCfg getRouting() {
+    return routing;
+  }
+
+  @JsonSetter(TranslationAppConstants.ROUTING)
+  public void setRouting(TranslationRoutingCfg routing) {
+    this.routing = routing;
+  }
+
 }
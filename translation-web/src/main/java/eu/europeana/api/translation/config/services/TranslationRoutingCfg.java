@@ -0,0 +1,121 @@
+package eu.europeana.api.translation.config.services;
+
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+
+/**
+ * Configuration of the adaptive selection of translation services. The services listed here are
+ * the candidates for all language pairs they support, the policy decides which of the healthy
+ * candidates is used.
+ */
+@JsonInclude(value = JsonInclude.Include.NON_EMPTY)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({TranslationAppConstants.POLICY, TranslationAppConstants.SERVICES,
+    TranslationAppConstants.SLO_MILLIS, TranslationAppConstants.MAX_ERROR_RATE,
+    TranslationAppConstants.DECAY, TranslationAppConstants.MIN_SAMPLES,
+    TranslationAppConstants.RECOVERY_MILLIS, TranslationAppConstants.EXPLORATION_RATE})
+public class TranslationRoutingCfg {
+
+  private String policy;
+  private List<RoutingServiceCfg> services;
+  private long sloMillis = 5000;
+  private double maxErrorRate = 0.2;
+  private double decay = 0.1;
+  private int minSamples = 20;
+  private long recoveryMillis = 60000;
+  private double explorationRate = 0.05;
+
+  public TranslationRoutingCfg() {
+    super();
+  }
+
+  @JsonGetter(TranslationAppConstants.POLICY)
+  public String getPolicy() {
+    return policy;
+  }
+
+  @JsonSetter(TranslationAppConstants.POLICY)
+  public void setPolicy(String policy) {
+    this.policy = policy;
+  }
+
+  @JsonGetter(TranslationAppConstants.SERVICES)
+  public List<RoutingServiceCfg> getServices() {
+    return services;
+  }
+
+  @JsonSetter(TranslationAppConstants.SERVICES)
+  public void setServices(List<RoutingServiceCfg> services) {
+    this.services = services;
+  }
+
+  @JsonGetter(TranslationAppConstants.SLO_MILLIS)
+  public long getSloMillis() {
+    return sloMillis;
+  }
+
+  @JsonSetter(TranslationAppConstants.SLO_MILLIS)
+  public void setSloMillis(long sloMillis) {
+    this.sloMillis = sloMillis;
+  }
+
+  @JsonGetter(TranslationAppConstants.MAX_ERROR_RATE)
+  public double getMaxErrorRate() {
+    return maxErrorRate;
+  }
+
+  @JsonSetter(TranslationAppConstants.MAX_ERROR_RATE)
+  public void setMaxErrorRate(double maxErrorRate) {
+    this.maxErrorRate = maxErrorRate;
+  }
+
+  @JsonGetter(TranslationAppConstants.DECAY)
+  public double getDecay() {
+    return decay;
+  }
+
+  @JsonSetter(TranslationAppConstants.DECAY)
+  public void setDecay(double decay) {
+    this.decay = decay;
+  }
+
+  @JsonGetter(TranslationAppConstants.MIN_SAMPLES)
+  public int getMinSamples() {
+    return minSamples;
+  }
+
+  @JsonSetter(TranslationAppConstants.MIN_SAMPLES)
+  public void setMinSamples(int minSamples) {
+    this.minSamples = minSamples;
+  }
+
+  @JsonGetter(TranslationAppConstants.RECOVERY_MILLIS)
+  public long getRecoveryMillis() {
+    return recoveryMillis;
+  }
+
+  @JsonSetter(TranslationAppConstants.RECOVERY_MILLIS)
+  public void setRecoveryMillis(long recoveryMillis) {
+    this.recoveryMillis = recoveryMillis;
+  }
+
+  /**
+   * Share of the requests sent by the LOWEST_LATENCY policy to candidates without enough samples,
+   * so that their latency gets measured
+   * @return the share of the requests, between 0 and 1
+   */
+  @JsonGetter(TranslationAppConstants.EXPLORATION_RATE)
+  public double getExplorationRate() {
+    return explorationRate;
+  }
+
+  @JsonSetter(TranslationAppConstants.EXPLORATION_RATE)
+  public void setExplorationRate(double explorationRate) {
+    this.explorationRate = explorationRate;
+  }
+}
@@ -9,11 +9,14 @@ import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstan
 
 @JsonInclude(value = JsonInclude.Include.NON_EMPTY)
 @JsonIgnoreProperties(ignoreUnknown = true)
-@JsonPropertyOrder({TranslationAppConstants.SERVICE_ID, TranslationAppConstants.CLASSNAME})
+@JsonPropertyOrder({TranslationAppConstants.SERVICE_ID, TranslationAppConstants.CLASSNAME,
+    TranslationAppConstants.LIMITS, TranslationAppConstants.BULKHEAD})
 public class TranslationServiceCfg {
 
   private String id;
   private String classname;
+  private TranslationServiceLimitsCfg limits;
+  private ServiceBulkheadCfg bulkhead;
 
   public TranslationServiceCfg() {
     super();
@@ -39,4 +42,24 @@ public class TranslationServiceCfg {
     this.classname = classname;
   }
 
+  @JsonGetter(TranslationAppConstants.LIMITS)
+  public TranslationServiceLimitsCfg getLimits() {
+    return limits;
+  }
+
+  @JsonSetter(TranslationAppConstants.LIMITS)
+  public void setLimits(TranslationServiceLimitsCfg limits) {
+    this.limits = limits;
+  }
+
+  @JsonGetter(TranslationAppConstants.BULKHEAD)
+  public ServiceBulkheadCfg getBulkhead() {
+    return bulkhead;
+  }
+
+  @JsonSetter(TranslationAppConstants.BULKHEAD)
+  public void setBulkhead(ServiceBulkheadCfg bulkhead) {
+    this.bulkhead = bulkhead;
+  }
+
 }
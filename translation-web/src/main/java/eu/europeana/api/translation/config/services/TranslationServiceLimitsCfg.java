@@ -0,0 +1,72 @@
+package eu.europeana.api.translation.config.services;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+import eu.europeana.api.translation.service.TranslationServiceLimits;
+
+/**
+ * Limits of the external translation service, used to split large requests in chunks
+ */
+@JsonInclude(value = JsonInclude.Include.NON_DEFAULT)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({TranslationAppConstants.MAX_ITEMS, TranslationAppConstants.MAX_CHARS,
+    TranslationAppConstants.MAX_BYTES, TranslationAppConstants.PARALLELISM})
+public class TranslationServiceLimitsCfg {
+
+  private int maxItems;
+  private int maxChars;
+  private int maxBytes;
+  private int parallelism = 1;
+
+  public TranslationServiceLimitsCfg() {
+    super();
+  }
+
+  @JsonGetter(TranslationAppConstants.MAX_ITEMS)
+  public int getMaxItems() {
+    return maxItems;
+  }
+
+  @JsonSetter(TranslationAppConstants.MAX_ITEMS)
+  public void setMaxItems(int maxItems) {
+    this.maxItems = maxItems;
+  }
+
+  @JsonGetter(TranslationAppConstants.MAX_CHARS)
+  public int getMaxChars() {
+    return maxChars;
+  }
+
+  @JsonSetter(TranslationAppConstants.MAX_CHARS)
+  public void setMaxChars(int maxChars) {
+    this.maxChars = maxChars;
+  }
+
+  @JsonGetter(TranslationAppConstants.MAX_BYTES)
+  public int getMaxBytes() {
+    return maxBytes;
+  }
+
+  @JsonSetter(TranslationAppConstants.MAX_BYTES)
+  public void setMaxBytes(int maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  @JsonGetter(TranslationAppConstants.PARALLELISM)
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  @JsonSetter(TranslationAppConstants.PARALLELISM)
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public TranslationServiceLimits toServiceLimits() {
+    return new TranslationServiceLimits(maxItems, maxChars, maxBytes, parallelism);
+  }
+}
@@ -0,0 +1,52 @@
+package eu.europeana.api.translation.serialization;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import eu.europeana.api.commons.web.http.HttpHeaders;
+
+/**
+ * Writes the objects of the API model (see the definitions module) straight to the response output
+ * stream with the {@link JsonLdSerializer}, so that the responses are not rendered into Strings
+ * before being encoded. The request bodies are still read by the default converters.
+ */
+public class JsonLdHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+  private static final String MODEL_PACKAGE = "eu.europeana.api.translation.definitions.model";
+
+  private final JsonLdSerializer jsonLdSerializer;
+
+  public JsonLdHttpMessageConverter(JsonLdSerializer jsonLdSerializer) {
+    super(MediaType.APPLICATION_JSON, MediaType.valueOf(HttpHeaders.CONTENT_TYPE_JSONLD),
+        new MediaType("application", "*+json"));
+    // jackson always writes UTF-8
+    setDefaultCharset(StandardCharsets.UTF_8);
+    this.jsonLdSerializer = jsonLdSerializer;
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return clazz.getPackage() != null && MODEL_PACKAGE.equals(clazz.getPackage().getName());
+  }
+
+  @Override
+  public boolean canRead(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected Object readInternal(Class<? extends Object> clazz, HttpInputMessage inputMessage)
+      throws IOException {
+    throw new HttpMessageNotReadableException("Reading is not supported by this converter",
+        inputMessage);
+  }
+
+  @Override
+  protected void writeInternal(Object obj, HttpOutputMessage outputMessage) throws IOException {
+    jsonLdSerializer.writeObject(obj, outputMessage.getBody());
+  }
+}
@@ -2,17 +2,22 @@ package eu.europeana.api.translation.serialization;
 
 import static eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants.BEAN_JSON_MAPPER;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.text.SimpleDateFormat;
 import java.util.Locale;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 @Component
 public class JsonLdSerializer {
 
   private final ObjectMapper mapper;
+  // the writer is immutable and can be shared, the output streams are closed by their owners
+  private final ObjectWriter writer;
 
   public static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss'Z'";
 
@@ -21,10 +26,22 @@ public class JsonLdSerializer {
     mapper = objectMapper.copy();
     SimpleDateFormat df = new SimpleDateFormat(DATE_FORMAT, Locale.ENGLISH);
     mapper.setDateFormat(df);
+    writer = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
   }
 
   public String serializeObject(Object obj) throws IOException {
-    return mapper.writeValueAsString(obj);
+    return writer.writeValueAsString(obj);
+  }
+
+  /**
+   * Writes the object directly to the output stream as UTF-8 encoded json, without building an
+   * intermediate String. Jackson uses its recycled buffers for the encoding.
+   * @param obj the object to serialize
+   * @param out the output stream, it is flushed but not closed
+   * @throws IOException if the serialization or the writing fails
+   */
+  public void writeObject(Object obj, OutputStream out) throws IOException {
+    writer.writeValue(out, obj);
   }
   
 }
@@ -0,0 +1,326 @@
+package eu.europeana.api.translation.serialization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.springframework.beans.BeanUtils;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import eu.europeana.api.commons.web.http.HttpHeaders;
+import eu.europeana.api.translation.definitions.model.BatchTranslationRequest;
+import eu.europeana.api.translation.definitions.model.MultiTargetTranslationRequest;
+import eu.europeana.api.translation.definitions.model.TranslationJobRequest;
+import eu.europeana.api.translation.definitions.model.TranslationRequest;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+import eu.europeana.api.translation.web.exception.PayloadTooLargeException;
+
+/**
+ * Reads the translation and batch translation requests token by token from the request stream. The
+ * number of texts and characters (and of sub-requests for batches, of targets for multi-target
+ * requests) is checked while reading, so that oversized payloads are rejected with
+ * {@link PayloadTooLargeException} as soon as a limit is exceeded, without reading the rest of the
+ * body. The texts of multi-target requests count once for each target. The texts are collected
+ * directly into the lists of the request objects, the fields are mapped as by the jackson
+ * annotations of the models. The other fields are passed to jackson, so that they are mapped or
+ * rejected exactly as without this reader; the fields ignored by the models are skipped without
+ * being buffered. Null values keep the defaults of the models (e.g. caching enabled).
+ */
+public class TranslationRequestReader extends AbstractHttpMessageConverter<Object> {
+
+  private final ObjectMapper mapper;
+  private final int maxTexts;
+  private final long maxCharacters;
+  private final int maxBatchRequests;
+  private final int maxTargets;
+  private final Map<Class<?>, JacksonFields> jacksonFields = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor
+   * @param mapper the mapper providing the json parser and the conversion of the simple fields
+   * @param maxTexts max number of texts in the body, including the texts of all sub-requests
+   * @param maxCharacters max number of characters of all texts in the body
+   * @param maxBatchRequests max number of sub-requests in a batch
+   * @param maxTargets max number of target languages of a multi-target request
+   */
+  public TranslationRequestReader(ObjectMapper mapper, int maxTexts, long maxCharacters,
+      int maxBatchRequests, int maxTargets) {
+    super(MediaType.APPLICATION_JSON, MediaType.valueOf(HttpHeaders.CONTENT_TYPE_JSONLD),
+        new MediaType("application", "*+json"));
+    this.mapper = mapper;
+    this.maxTexts = maxTexts;
+    this.maxCharacters = maxCharacters;
+    this.maxBatchRequests = maxBatchRequests;
+    this.maxTargets = maxTargets;
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    // the job requests have their own (larger) limits, checked when the job is submitted
+    return (TranslationRequest.class.isAssignableFrom(clazz)
+        && !TranslationJobRequest.class.isAssignableFrom(clazz))
+        || BatchTranslationRequest.class == clazz;
+  }
+
+  @Override
+  public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected Object readInternal(Class<? extends Object> clazz, HttpInputMessage inputMessage)
+      throws IOException {
+    try (InputStream body = inputMessage.getBody();
+        JsonParser parser = mapper.getFactory().createParser(body)) {
+      final Limits limits = new Limits(inputMessage);
+      parser.nextToken();
+      if (BatchTranslationRequest.class == clazz) {
+        return readBatchRequest(parser, limits);
+      }
+      return readRequest(parser, limits, clazz.asSubclass(TranslationRequest.class));
+    }
+  }
+
+  private BatchTranslationRequest readBatchRequest(JsonParser parser, Limits limits)
+      throws IOException {
+    expectToken(parser, JsonToken.START_OBJECT);
+    BatchTranslationRequest batchRequest = new BatchTranslationRequest();
+    final JacksonFields otherFields = getJacksonFields(BatchTranslationRequest.class);
+    ObjectNode otherValues = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String field = parser.getCurrentName();
+      parser.nextToken();
+      if (TranslationAppConstants.REQUESTS.equals(field)
+          && parser.currentToken() == JsonToken.START_ARRAY) {
+        List<TranslationRequest> requests = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          if (requests.size() >= maxBatchRequests) {
+            throw limits.exceeded(TranslationAppConstants.REQUESTS, maxBatchRequests,
+                "sub-requests");
+          }
+          requests.add(parser.currentToken() == JsonToken.VALUE_NULL ? null
+              : readRequest(parser, limits, TranslationRequest.class));
+        }
+        batchRequest.setRequests(requests);
+      } else if (TranslationAppConstants.REQUESTS.equals(field)) {
+        batchRequest.setRequests(parser.currentToken() == JsonToken.VALUE_NULL ? null
+            : List.of(readRequest(parser, limits, TranslationRequest.class)));
+      } else {
+        otherValues = otherFields.read(field, parser, otherValues);
+      }
+    }
+    return otherFields.apply(batchRequest, otherValues);
+  }
+
+  private <T extends TranslationRequest> T readRequest(JsonParser parser, Limits limits,
+      Class<T> type) throws IOException {
+    expectToken(parser, JsonToken.START_OBJECT);
+    T request = BeanUtils.instantiateClass(type);
+    final JacksonFields otherFields = getJacksonFields(type);
+    ObjectNode otherValues = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String field = parser.getCurrentName();
+      parser.nextToken();
+      if (parser.currentToken() == JsonToken.VALUE_NULL
+          && !TranslationAppConstants.TEXT.equals(field)) {
+        // keep the default value, the missing texts are rejected by the validation
+        continue;
+      }
+      switch (field) {
+        case TranslationAppConstants.TEXT:
+          request.setText(readTexts(parser, limits));
+          break;
+        case TranslationAppConstants.SOURCE_LANG:
+          request.setSource(mapper.readValue(parser, String.class));
+          break;
+        case TranslationAppConstants.TARGET_LANG:
+          request.setTarget(mapper.readValue(parser, String.class));
+          break;
+        case TranslationAppConstants.SERVICE:
+          request.setService(mapper.readValue(parser, String.class));
+          break;
+        case TranslationAppConstants.FALLBACK:
+          request.setFallback(mapper.readValue(parser, String.class));
+          break;
+        case TranslationAppConstants.CACHING:
+          request.setCaching(mapper.readValue(parser, Boolean.class));
+          break;
+        case TranslationAppConstants.TIMEOUT:
+          request.setTimeout(mapper.readValue(parser, Long.class));
+          break;
+        case TranslationAppConstants.TARGET_LANGS:
+          if (request instanceof MultiTargetTranslationRequest) {
+            ((MultiTargetTranslationRequest) request).setTargets(readTargets(parser, limits));
+            break;
+          }
+          otherValues = otherFields.read(field, parser, otherValues);
+          break;
+        default:
+          otherValues = otherFields.read(field, parser, otherValues);
+      }
+    }
+    return otherFields.apply(request, otherValues);
+  }
+
+  private JacksonFields getJacksonFields(Class<?> type) {
+    return jacksonFields.computeIfAbsent(type, JacksonFields::new);
+  }
+
+  private List<String> readTexts(JsonParser parser, Limits limits) throws IOException {
+    final JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    List<String> texts = new ArrayList<>();
+    if (token != JsonToken.START_ARRAY) {
+      // single values are accepted as arrays
+      texts.add(limits.count(readText(parser)));
+      return texts;
+    }
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      texts.add(limits.count(readText(parser)));
+    }
+    return texts;
+  }
+
+  private List<String> readTargets(JsonParser parser, Limits limits) throws IOException {
+    List<String> targets = new ArrayList<>();
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      // single values are accepted as arrays
+      targets.add(limits.countTarget(readText(parser)));
+      return targets;
+    }
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      targets.add(limits.countTarget(readText(parser)));
+    }
+    return targets;
+  }
+
+  private String readText(JsonParser parser) throws IOException {
+    final JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      // rejected by the request validation
+      return null;
+    }
+    if (!token.isScalarValue()) {
+      return mapper.readValue(parser, String.class);
+    }
+    return parser.getText();
+  }
+
+  private void expectToken(JsonParser parser, JsonToken expected) throws IOException {
+    if (parser.currentToken() != expected) {
+      throw MismatchedInputException.from(parser, TranslationRequest.class,
+          "Expected " + expected + " but was " + parser.currentToken());
+    }
+  }
+
+  @Override
+  protected void writeInternal(Object obj, HttpOutputMessage outputMessage) {
+    throw new HttpMessageNotWritableException("Writing is not supported by this converter");
+  }
+
+  /**
+   * The fields of a model which are not read by this converter. The values of the properties
+   * declared by the model (and of the unknown fields, if the model does not ignore them) are
+   * buffered and applied by jackson after the other fields were read.
+   */
+  private final class JacksonFields {
+    private final Set<String> properties;
+    private final boolean ignoreUnknown;
+
+    JacksonFields(Class<?> type) {
+      final DeserializationConfig config = mapper.getDeserializationConfig();
+      final BeanDescription description = config.introspect(mapper.constructType(type));
+      this.properties = description.findProperties().stream()
+          .filter(BeanPropertyDefinition::couldDeserialize).map(BeanPropertyDefinition::getName)
+          .collect(Collectors.toUnmodifiableSet());
+      this.ignoreUnknown = !config.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+          || config.getDefaultPropertyIgnorals(type, description.getClassInfo()).getIgnoreUnknown();
+    }
+
+    ObjectNode read(String field, JsonParser parser, ObjectNode values) throws IOException {
+      if (ignoreUnknown && !properties.contains(field)) {
+        parser.skipChildren();
+        return values;
+      }
+      final ObjectNode result = values == null ? mapper.createObjectNode() : values;
+      result.set(field, mapper.readTree(parser));
+      return result;
+    }
+
+    <T> T apply(T target, ObjectNode values) throws IOException {
+      if (values == null) {
+        return target;
+      }
+      return mapper.readerForUpdating(target).readValue(values);
+    }
+  }
+
+  /**
+   * The texts, characters and targets read from one request body. Only the multi-target requests
+   * have targets, their texts and characters are multiplied with the number of targets (which may
+   * be read before or after the texts).
+   */
+  private final class Limits {
+    private final HttpInputMessage inputMessage;
+    private int texts;
+    private long characters;
+    private int targets;
+
+    Limits(HttpInputMessage inputMessage) {
+      this.inputMessage = inputMessage;
+    }
+
+    String count(String text) {
+      texts++;
+      if (text != null) {
+        characters += text.length();
+      }
+      checkTotals();
+      return text;
+    }
+
+    String countTarget(String target) {
+      if (++targets > maxTargets) {
+        throw exceeded(TranslationAppConstants.TARGET_LANGS, maxTargets, "target languages");
+      }
+      checkTotals();
+      return target;
+    }
+
+    private void checkTotals() {
+      final int multiplier = Math.max(targets, 1);
+      if ((long) texts * multiplier > maxTexts) {
+        throw exceeded(TranslationAppConstants.TEXT, maxTexts,
+            multiplier > 1 ? "texts for all target languages" : "texts");
+      }
+      if (characters * multiplier > maxCharacters) {
+        throw exceeded(TranslationAppConstants.TEXT, maxCharacters,
+            multiplier > 1 ? "characters for all target languages" : "characters");
+      }
+    }
+
+    PayloadTooLargeException exceeded(String field, long limit, String unit) {
+      return new PayloadTooLargeException(
+          "Request body too large, the " + field + " contains more than " + limit + " " + unit,
+          inputMessage);
+    }
+  }
+}
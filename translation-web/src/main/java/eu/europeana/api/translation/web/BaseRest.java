@@ -1,6 +1,5 @@
 package eu.europeana.api.translation.web;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import javax.servlet.http.HttpServletRequest;
@@ -11,17 +10,23 @@ import org.springframework.boot.info.BuildProperties;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import eu.europeana.api.commons.error.EuropeanaApiException;
 import eu.europeana.api.commons.web.controller.BaseRestController;
 import eu.europeana.api.commons.web.exception.ApplicationAuthenticationException;
 import eu.europeana.api.commons.web.http.HttpHeaders;
 import eu.europeana.api.translation.config.TranslationConfig;
 import eu.europeana.api.translation.serialization.JsonLdSerializer;
+import eu.europeana.api.translation.web.exception.RateLimitExceededException;
+import eu.europeana.api.translation.web.service.RateLimitService;
+import eu.europeana.api.translation.web.service.RateLimitStatus;
 import eu.europeana.api.translation.web.service.RequestPathMethodService;
 import eu.europeana.api.translation.web.service.TranslationAuthorizationService;
 
 public abstract class BaseRest extends BaseRestController {
 
+  private static final String PARAM_WSKEY = "wskey";
+  private static final String APIKEY_AUTH_PREFIX = "APIKEY ";
+  private static final String RATE_LIMIT_STATUS_ATTRIBUTE = "translation.rateLimitStatus";
+
   @Autowired private TranslationAuthorizationService translAuthorizationService;
 
   @Autowired protected BuildProperties translationBuildInfo;
@@ -32,6 +37,9 @@ public abstract class BaseRest extends BaseRestController {
 
   @Autowired protected TranslationConfig translationConfig;
 
+  // available only if rate limiting is enabled
+  @Autowired(required = false) private RateLimitService rateLimitService;
+
   protected Logger logger = LogManager.getLogger(getClass());
 
   public BaseRest() {
@@ -46,25 +54,27 @@ public abstract class BaseRest extends BaseRestController {
     return translationBuildInfo.getVersion();
   }
 
-  protected String serialize(Object result) throws EuropeanaApiException {
-    String responseBody = null;
-    try {
-      responseBody = jsonLdSerializer.serializeObject(result);
-    } catch (IOException e) {
-      throw new EuropeanaApiException("Error serializing results.", e);
-    }
-    return responseBody;
-  }
-
-  protected ResponseEntity<String> generateResponseEntity(HttpServletRequest request, String result) 
-      throws EuropeanaApiException {
+  /**
+   * Generates the response for an object of the API model, the object is written directly to the
+   * response stream by the {@link eu.europeana.api.translation.serialization.JsonLdHttpMessageConverter}
+   */
+  protected <T> ResponseEntity<T> generateResponseEntity(HttpServletRequest request, T result) {
     // HttpHeaders.ALLOW
     org.springframework.http.HttpHeaders headers = createAllowHeader(request);
     headers.add(HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_TYPE_JSON_UTF8);
+    addRateLimitHeaders(request, headers);
 
     return ResponseEntity.status(HttpStatus.OK).headers(headers).body(result);
   }
 
+  protected void addRateLimitHeaders(HttpServletRequest request,
+      org.springframework.http.HttpHeaders headers) {
+    Object rateLimitStatus = request.getAttribute(RATE_LIMIT_STATUS_ATTRIBUTE);
+    if (rateLimitStatus instanceof RateLimitStatus) {
+      ((RateLimitStatus) rateLimitStatus).addHeaders(headers);
+    }
+  }
+
   protected org.springframework.http.HttpHeaders createAllowHeader(HttpServletRequest request) {
     org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
     String allowHeaderValue;
@@ -107,9 +117,59 @@ public abstract class BaseRest extends BaseRestController {
   }
   
 
-  protected boolean containsNullValues(List<String> texts) {
-    for (String text : texts) {
-      if(text == null) {
+  /**
+   * Consumes one request and the given characters from the rate limits of the client, if rate
+   * limiting is enabled. The client is identified by the authenticated principal. The API key
+   * sent by the client is used only when the request is not authenticated (i.e. authentication
+   * disabled), as it is not verified then, and the remote address if no key is provided either.
+   * @param operation the requested operation, see {@link RateLimitService}
+   * @param authentication the authentication returned by the access verification, may be null
+   * @param request the request
+   * @param characters the number of characters sent for processing
+   * @throws RateLimitExceededException if the client exceeded one of the limits
+   */
+  protected void verifyRateLimit(String operation, Authentication authentication,
+      HttpServletRequest request, long characters) throws RateLimitExceededException {
+    if (rateLimitService == null) {
+      return;
+    }
+    RateLimitStatus status =
+        rateLimitService.consume(getClientKey(authentication, request), operation, characters);
+    request.setAttribute(RATE_LIMIT_STATUS_ATTRIBUTE, status);
+  }
+
+  private String getClientKey(Authentication authentication, HttpServletRequest request) {
+    // the verified identity must win, otherwise the clients could switch keys to avoid the limits
+    if (authentication != null && authentication.getName() != null) {
+      return authentication.getName();
+    }
+    String apiKey = request.getParameter(PARAM_WSKEY);
+    if (apiKey == null) {
+      String authorization =
+          request.getHeader(org.springframework.http.HttpHeaders.AUTHORIZATION);
+      if (authorization != null && authorization.startsWith(APIKEY_AUTH_PREFIX)) {
+        apiKey = authorization.substring(APIKEY_AUTH_PREFIX.length()).trim();
+      }
+    }
+    if (apiKey != null) {
+      return apiKey;
+    }
+    return request.getRemoteAddr();
+  }
+
+  protected long countCharacters(List<String> texts) {
+    long characters = 0;
+    if (texts != null) {
+      for (String text : texts) {
+        characters += text == null ? 0 : text.length();
+      }
+    }
+    return characters;
+  }
+
+  protected boolean containsNullValues(List<?> values) {
+    for (Object value : values) {
+      if(value == null) {
         return true;
       }
     }
@@ -1,9 +1,13 @@
 package eu.europeana.api.translation.web;
 
+import java.util.List;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,8 +16,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import eu.europeana.api.commons.definitions.utils.LoggingUtils;
+import eu.europeana.api.translation.config.BeanNames;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+import eu.europeana.api.translation.service.etranslation.ETranslationCallbackRegistry;
+import eu.europeana.api.translation.service.etranslation.ETranslationJob;
+import eu.europeana.api.translation.service.etranslation.ETranslationJobStore;
 import eu.europeana.api.translation.service.etranslation.ETranslationTranslationService;
-import eu.europeana.api.translation.web.model.CachedTranslation;
+import eu.europeana.api.translation.service.exception.TranslationException;
+import eu.europeana.api.translation.web.service.RedisCacheService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 @RestController
@@ -22,11 +32,22 @@ public class ETranslationCallbackController {
 
   private static final Logger LOGGER = LogManager.getLogger(ETranslationCallbackController.class);
 
-  RedisTemplate<String, CachedTranslation> redisTemplate;
+  // the callbacks are published as plain UTF-8 bytes, see ETranslationCallbackRegistry
+  StringRedisTemplate redisTemplate;
+  private final ETranslationJobStore jobStore;
+  private RedisCacheService redisCacheService;
 
   @Autowired
-  public ETranslationCallbackController(RedisTemplate<String, CachedTranslation> redisTemplate) {
+  public ETranslationCallbackController(
+      @Qualifier(BeanNames.BEAN_STRING_REDIS_TEMPLATE) StringRedisTemplate redisTemplate,
+      @Qualifier(BeanNames.BEAN_ETRANSLATION_JOB_STORE) ETranslationJobStore jobStore) {
     this.redisTemplate = redisTemplate;
+    this.jobStore = jobStore;
+  }
+
+  @Autowired(required = false)
+  public void setRedisCacheService(RedisCacheService redisCacheService) {
+    this.redisCacheService = redisCacheService;
   }
 
   @Tag(description = "ETranslation callback endpoint", name = "eTranslationCallback")
@@ -55,7 +76,34 @@ public class ETranslationCallbackController {
      */
     String translations = (translatedTextSnippet == null) ? body : translatedTextSnippet ;
     if(externalReference!=null && translations!=null) {
-      redisTemplate.convertAndSend(externalReference, translations);
+      // the multi-target jobs receive a callback for each target language
+      final String channel =
+          ETranslationCallbackRegistry.callbackChannel(externalReference, targetLanguage);
+      redisTemplate.convertAndSend(channel, translations);
+      cacheTranslations(channel, translations);
+    }
+  }
+
+  /**
+   * Writes the translations into the cache, independent of the request waiting for them. The
+   * callbacks received after the timeout of the request are therefore not lost, a retry of the
+   * request is served from the cache.
+   */
+  private void cacheTranslations(String externalReference, String translations) {
+    final ETranslationJob job = jobStore.remove(externalReference);
+    if (job == null || redisCacheService == null) {
+      return;
+    }
+    try {
+      List<TranslationObj> segments = job.fillTranslations(translations);
+      redisCacheService.store(segments);
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Cached {} translations from the eTranslation callback for reference: {}",
+            segments.size(), LoggingUtils.sanitizeUserInput(externalReference));
+      }
+    } catch (TranslationException e) {
+      LOGGER.warn("Cannot cache the translations of the eTranslation callback for reference: {}",
+          LoggingUtils.sanitizeUserInput(externalReference), e);
     }
   }
 
@@ -88,7 +136,10 @@ public class ETranslationCallbackController {
           LoggingUtils.sanitizeUserInput("" + externalReference));
     }
     if (externalReference != null && translatedTextSnippet != null) {
-      redisTemplate.convertAndSend(externalReference, translatedTextSnippet);
+      final String channel =
+          ETranslationCallbackRegistry.callbackChannel(externalReference, targetLanguage);
+      redisTemplate.convertAndSend(channel, translatedTextSnippet);
+      cacheTranslations(channel, translatedTextSnippet);
     }
 
     return ResponseEntity.status(HttpStatus.ACCEPTED).build();
@@ -107,11 +158,11 @@ public class ETranslationCallbackController {
       @RequestParam(value = "request-id", required = false) String requestId,
       @RequestParam(value = "external-reference", required = false) String externalReference,
       @RequestBody(required = false) String body) {
-    handleErroCallback(errorCode, errorMessage, requestId, externalReference);
+    handleErroCallback(errorCode, errorMessage, targetLanguages, requestId, externalReference);
   }
 
-  private void handleErroCallback(String errorCode, String errorMessage, String requestId,
-      String externalReference) {
+  private void handleErroCallback(String errorCode, String errorMessage, String targetLanguages,
+      String requestId, String externalReference) {
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug(
           "eTranslation error callback has been received with the following parameters: error-code: {},"
@@ -121,11 +172,31 @@ public class ETranslationCallbackController {
           LoggingUtils.sanitizeUserInput(externalReference));
     }
     if (externalReference != null) {
-      redisTemplate.convertAndSend(externalReference,
-          String.format("%s: error-code=%s, error-message=%s",
-              ETranslationTranslationService.ERROR_CALLBACK_MARKUP, errorCode,
-              errorMessage));
+      final String error = String.format("%s: error-code=%s, error-message=%s",
+          ETranslationTranslationService.ERROR_CALLBACK_MARKUP, errorCode, errorMessage);
+      // nothing to cache for the failed jobs
+      for (String channel : errorChannels(externalReference, targetLanguages)) {
+        jobStore.remove(channel);
+        redisTemplate.convertAndSend(channel, error);
+      }
+    }
+  }
+
+  /**
+   * The errors of multi-target jobs are sent to the channels of the failed targets only, the other
+   * targets may still succeed. Without target languages, the error is sent on the external reference
+   * and fails all targets of the job.
+   */
+  private List<String> errorChannels(String externalReference, String targetLanguages) {
+    if (StringUtils.isBlank(targetLanguages)
+        || !externalReference.startsWith(ETranslationCallbackRegistry.MULTI_TARGET_PREFIX)) {
+      return List.of(externalReference);
     }
+    return Stream.of(targetLanguages.split(",")).map(String::strip)
+        .filter(StringUtils::isNotEmpty)
+        .map(targetLanguage -> ETranslationCallbackRegistry.callbackChannel(externalReference,
+            targetLanguage))
+        .toList();
   }
 
   @Tag(description = "ETranslation error callback endpoint", name = "eTranslationErrorCallback")
@@ -140,7 +211,7 @@ public class ETranslationCallbackController {
       @RequestParam(value = "request-id", required = false) String requestId,
       @RequestParam(value = "external-reference", required = false) String externalReference,
       @RequestBody(required = false) String body) {
-    handleErroCallback(errorCode, errorMessage, requestId, externalReference);
+    handleErroCallback(errorCode, errorMessage, targetLanguages, requestId, externalReference);
   }
 
 
@@ -9,4 +9,10 @@ public interface I18nErrorMessageKeys {
   static final String ERROR_GOOGLE_QUOTA_LIMIT = "error.google_quota_limit_reached";
   static final String ERROR_TRANSLATION_SERVICE_CALL = "error.translation.external_service_call";
   static final String ERROR_LANG_DETECT_SERVICE_CALL = "error.detection.external_service_call";
+  static final String ERROR_NOT_FOUND = "error.not_found";
+  static final String ERROR_JOB_NOT_COMPLETED = "error.job_not_completed";
+  static final String ERROR_SERVICE_SATURATED = "error.service_saturated";
+  static final String ERROR_JOBS_QUEUE_FULL = "error.jobs_queue_full";
+  static final String ERROR_DEADLINE_EXCEEDED = "error.deadline_exceeded";
+  static final String ERROR_RATE_LIMIT_EXCEEDED = "error.rate_limit_exceeded";
 }
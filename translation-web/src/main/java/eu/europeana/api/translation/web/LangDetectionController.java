@@ -2,21 +2,26 @@ package eu.europeana.api.translation.web;
 
 import static eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants.LANG;
 import static eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants.TEXT;
+import static eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants.TIMEOUT;
 import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_INVALID_PARAM_VALUE;
 import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_MANDATORY_PARAM_EMPTY;
 import javax.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import eu.europeana.api.commons.web.http.HttpHeaders;
 import eu.europeana.api.commons.web.model.vocabulary.Operations;
 import eu.europeana.api.translation.definitions.model.LangDetectRequest;
 import eu.europeana.api.translation.definitions.model.LangDetectResponse;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
 import eu.europeana.api.translation.web.exception.ParamValidationException;
 import eu.europeana.api.translation.web.service.LangDetectionWebService;
+import eu.europeana.api.translation.web.service.RateLimitService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
@@ -33,18 +38,23 @@ public class LangDetectionController extends BaseRest {
   @Operation(summary = "Language detection")
   @PostMapping(value = {"/detect"},
       produces = {HttpHeaders.CONTENT_TYPE_JSON_UTF8, MediaType.APPLICATION_JSON_VALUE})
-  public ResponseEntity<String> detectLang(@RequestBody LangDetectRequest langDetectRequest,
+  public ResponseEntity<LangDetectResponse> detectLang(@RequestBody LangDetectRequest langDetectRequest,
+      @RequestHeader(value = TranslationAppConstants.REQUEST_TIMEOUT_HEADER, required = false) Long timeout,
       HttpServletRequest request) throws Exception {
 
-    verifyWriteAccess(Operations.CREATE, request);
+    Authentication authentication = verifyWriteAccess(Operations.CREATE, request);
+    verifyRateLimit(RateLimitService.OPERATION_DETECT, authentication, request,
+        countCharacters(langDetectRequest.getText()));
+
+    if (langDetectRequest.getTimeout() == null) {
+      langDetectRequest.setTimeout(timeout);
+    }
 
     validateRequest(langDetectRequest);
 
     LangDetectResponse result = langDetectionService.detectLang(langDetectRequest);
 
-    String resultJson = serialize(result);
-
-    return generateResponseEntity(request, resultJson);
+    return generateResponseEntity(request, result);
   }
 
   private void validateRequest(LangDetectRequest langDetectRequest)
@@ -60,6 +70,10 @@ public class LangDetectionController extends BaseRest {
       throw new ParamValidationException(null, ERROR_INVALID_PARAM_VALUE, ERROR_INVALID_PARAM_VALUE,
           new String[] {LANG, langDetectRequest.getLang()});
     }
+    if (langDetectRequest.getTimeout() != null && langDetectRequest.getTimeout() <= 0) {
+      throw new ParamValidationException(null, ERROR_INVALID_PARAM_VALUE, ERROR_INVALID_PARAM_VALUE,
+          new String[] {TIMEOUT, String.valueOf(langDetectRequest.getTimeout())});
+    }
   }
 
 
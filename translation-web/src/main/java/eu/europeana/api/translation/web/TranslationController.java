@@ -2,21 +2,27 @@ package eu.europeana.api.translation.web;
 
 import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_INVALID_PARAM_VALUE;
 import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_MANDATORY_PARAM_EMPTY;
+import java.util.concurrent.CompletableFuture;
 import javax.servlet.http.HttpServletRequest;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import eu.europeana.api.commons.web.http.HttpHeaders;
 import eu.europeana.api.commons.web.model.vocabulary.Operations;
-import eu.europeana.api.translation.definitions.language.LanguagePair;
+import eu.europeana.api.translation.definitions.model.BatchTranslationRequest;
+import eu.europeana.api.translation.definitions.model.BatchTranslationResponse;
+import eu.europeana.api.translation.definitions.model.MultiTargetTranslationRequest;
 import eu.europeana.api.translation.definitions.model.TranslationRequest;
 import eu.europeana.api.translation.definitions.model.TranslationResponse;
 import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
 import eu.europeana.api.translation.web.exception.ParamValidationException;
+import eu.europeana.api.translation.web.service.RateLimitService;
 import eu.europeana.api.translation.web.service.TranslationWebService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -34,40 +40,127 @@ public class TranslationController extends BaseRest {
   @Operation(summary = "Text Translation")
   @PostMapping(value = {"/translate"},
       produces = {HttpHeaders.CONTENT_TYPE_JSON_UTF8, MediaType.APPLICATION_JSON_VALUE})
-  public ResponseEntity<String> translate(@RequestBody TranslationRequest translRequest,
+  public CompletableFuture<ResponseEntity<TranslationResponse>> translate(@RequestBody TranslationRequest translRequest,
+      @RequestHeader(value = TranslationAppConstants.REQUEST_TIMEOUT_HEADER, required = false) Long timeout,
       HttpServletRequest request) throws Exception {
 
-    verifyWriteAccess(Operations.CREATE, request);
+    Authentication authentication = verifyWriteAccess(Operations.CREATE, request);
+    verifyRateLimit(RateLimitService.OPERATION_TRANSLATE, authentication, request,
+        countCharacters(translRequest.getText()));
 
-    validateRequest(translRequest);
+    applyRequestTimeout(translRequest, timeout);
+
+    translationService.validateRequest(translRequest);
     
     if(logger.isTraceEnabled()) {
       logger.trace("Translation request: {}", jsonLdSerializer.serializeObject(translRequest));
     }
         
-    TranslationResponse result = translationService.translate(translRequest);
+    // the servlet thread is released while waiting for the translation services
+    return translationService.translateAsync(translRequest)
+        .thenApply(result -> generateResponseEntity(request, result));
+  }
+
+  @Operation(summary = "Streaming Text Translation, the translations are sent as soon as they are available, "
+      + "either as newline delimited json or as Server-Sent Events")
+  @PostMapping(value = {"/translate/stream"},
+      produces = {TranslationStreamEmitter.MEDIA_TYPE_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+  public ResponseBodyEmitter translateStream(@RequestBody TranslationRequest translRequest,
+      @RequestHeader(value = org.springframework.http.HttpHeaders.ACCEPT, required = false) String accept,
+      @RequestHeader(value = TranslationAppConstants.REQUEST_TIMEOUT_HEADER, required = false) Long timeout,
+      HttpServletRequest request) throws Exception {
+
+    Authentication authentication = verifyWriteAccess(Operations.CREATE, request);
+    verifyRateLimit(RateLimitService.OPERATION_TRANSLATE, authentication, request,
+        countCharacters(translRequest.getText()));
 
-    String resultJson = serialize(result);
+    applyRequestTimeout(translRequest, timeout);
 
-    return generateResponseEntity(request, resultJson);
+    translationService.validateRequest(translRequest);
+
+    final boolean serverSentEvents =
+        accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    TranslationStreamEmitter streamEmitter = new TranslationStreamEmitter(jsonLdSerializer,
+        serverSentEvents, translationConfig.getStreamTimeoutMillisec());
+
+    translationService.translateStreaming(translRequest, streamEmitter);
+
+    return streamEmitter.getEmitter();
   }
 
-  private void validateRequest(TranslationRequest translationRequest) throws ParamValidationException {
-    // validate mandatory params
-    if (translationRequest.getText() == null || containsNullValues(translationRequest.getText())) {
-      throw new ParamValidationException(null, ERROR_MANDATORY_PARAM_EMPTY, ERROR_MANDATORY_PARAM_EMPTY, new String[] {TranslationAppConstants.TEXT});
+  @Operation(summary = "Batch Text Translation, each sub-request has its own language pair and service")
+  @PostMapping(value = {"/translate/batch"},
+      produces = {HttpHeaders.CONTENT_TYPE_JSON_UTF8, MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<BatchTranslationResponse> translateBatch(@RequestBody BatchTranslationRequest batchRequest,
+      @RequestHeader(value = TranslationAppConstants.REQUEST_TIMEOUT_HEADER, required = false) Long timeout,
+      HttpServletRequest request) throws Exception {
+
+    Authentication authentication = verifyWriteAccess(Operations.CREATE, request);
+    verifyRateLimit(RateLimitService.OPERATION_TRANSLATE, authentication, request,
+        countBatchCharacters(batchRequest));
+
+    validateBatchRequest(batchRequest, timeout);
+
+    BatchTranslationResponse result =
+        translationService.translateBatch(batchRequest.getRequests(), timeout);
+
+    return generateResponseEntity(request, result);
+  }
+
+  @Operation(summary = "Multi-target Text Translation, the texts are translated into each of the target languages")
+  @PostMapping(value = {"/translate/multi"},
+      produces = {HttpHeaders.CONTENT_TYPE_JSON_UTF8, MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<BatchTranslationResponse> translateMultiTarget(
+      @RequestBody MultiTargetTranslationRequest translRequest,
+      @RequestHeader(value = TranslationAppConstants.REQUEST_TIMEOUT_HEADER, required = false) Long timeout,
+      HttpServletRequest request) throws Exception {
+
+    Authentication authentication = verifyWriteAccess(Operations.CREATE, request);
+    // each target is charged like a separate translation
+    final int targets = translRequest.getTargets() == null ? 0 : translRequest.getTargets().size();
+    verifyRateLimit(RateLimitService.OPERATION_TRANSLATE, authentication, request,
+        targets * countCharacters(translRequest.getText()));
+
+    applyRequestTimeout(translRequest, timeout);
+
+    BatchTranslationResponse result = translationService.translateMultiTarget(translRequest);
+
+    return generateResponseEntity(request, result);
+  }
+
+  private long countBatchCharacters(BatchTranslationRequest batchRequest) {
+    long characters = 0;
+    if (batchRequest.getRequests() != null) {
+      for (TranslationRequest translRequest : batchRequest.getRequests()) {
+        characters += translRequest == null ? 0 : countCharacters(translRequest.getText());
+      }
+    }
+    return characters;
+  }
+
+  /**
+   * The timeout provided in the request body takes precedence over the request header
+   */
+  private void applyRequestTimeout(TranslationRequest translRequest, Long timeout) {
+    if (translRequest.getTimeout() == null) {
+      translRequest.setTimeout(timeout);
     }
+  }
 
-    if (StringUtils.isEmpty(translationRequest.getTarget())) {
-      throw new ParamValidationException(null, ERROR_MANDATORY_PARAM_EMPTY, ERROR_MANDATORY_PARAM_EMPTY, new String[] {TranslationAppConstants.TARGET_LANG});
+  private void validateBatchRequest(BatchTranslationRequest batchRequest, Long timeout) throws ParamValidationException {
+    if (batchRequest.getRequests() == null || batchRequest.getRequests().isEmpty()
+        || containsNullValues(batchRequest.getRequests())) {
+      throw new ParamValidationException(null, ERROR_MANDATORY_PARAM_EMPTY, ERROR_MANDATORY_PARAM_EMPTY, new String[] {TranslationAppConstants.REQUESTS});
     }
-    
-    //validate language pair
-    final LanguagePair languagePair = new LanguagePair(translationRequest.getSource(), translationRequest.getTarget());
-    if(!translationService.isTranslationSupported(languagePair)) {
-      throw new ParamValidationException(null, ERROR_MANDATORY_PARAM_EMPTY, ERROR_INVALID_PARAM_VALUE, new String[] {LanguagePair.generateKey(TranslationAppConstants.SOURCE_LANG, TranslationAppConstants.TARGET_LANG) , languagePair.toString()});
+
+    final int maxRequests = translationConfig.getBatchMaxRequests();
+    if (batchRequest.getRequests().size() > maxRequests) {
+      throw new ParamValidationException(null, ERROR_INVALID_PARAM_VALUE, ERROR_INVALID_PARAM_VALUE, new String[] {TranslationAppConstants.REQUESTS, "more than " + maxRequests + " sub-requests"});
+    }
+
+    if (timeout != null && timeout <= 0) {
+      throw new ParamValidationException(null, ERROR_INVALID_PARAM_VALUE, ERROR_INVALID_PARAM_VALUE, new String[] {TranslationAppConstants.REQUEST_TIMEOUT_HEADER, String.valueOf(timeout)});
     }
   }
-  
-  
+
 }
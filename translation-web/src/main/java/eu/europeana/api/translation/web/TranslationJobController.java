@@ -0,0 +1,116 @@
+package eu.europeana.api.translation.web;
+
+import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_INVALID_PARAM_VALUE;
+import java.net.URI;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import eu.europeana.api.commons.web.http.HttpHeaders;
+import eu.europeana.api.commons.web.model.vocabulary.Operations;
+import eu.europeana.api.translation.definitions.model.TranslationJob;
+import eu.europeana.api.translation.definitions.model.TranslationJobRequest;
+import eu.europeana.api.translation.definitions.model.TranslationResponse;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+import eu.europeana.api.translation.web.exception.ParamValidationException;
+import eu.europeana.api.translation.web.service.CallbackUrlValidator;
+import eu.europeana.api.translation.web.service.RateLimitService;
+import eu.europeana.api.translation.web.service.TranslationJobService;
+import eu.europeana.api.translation.web.service.TranslationWebService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@Tag(name = "Translation jobs endpoint",
+    description = "Asynchronous translation of large amounts of texts")
+public class TranslationJobController extends BaseRest {
+
+  private final TranslationWebService translationService;
+  private final TranslationJobService translationJobService;
+  private final CallbackUrlValidator callbackUrlValidator;
+
+  @Autowired
+  public TranslationJobController(TranslationWebService translationService,
+      TranslationJobService translationJobService, CallbackUrlValidator callbackUrlValidator) {
+    this.translationService = translationService;
+    this.translationJobService = translationJobService;
+    this.callbackUrlValidator = callbackUrlValidator;
+  }
+
+  @Operation(summary = "Submit a translation job, the translations are processed in the background")
+  @PostMapping(value = {"/translate/jobs"},
+      produces = {HttpHeaders.CONTENT_TYPE_JSON_UTF8, MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<TranslationJob> submitJob(@RequestBody TranslationJobRequest jobRequest,
+      HttpServletRequest request) throws Exception {
+
+    Authentication authentication = verifyWriteAccess(Operations.CREATE, request);
+    verifyRateLimit(RateLimitService.OPERATION_TRANSLATE, authentication, request,
+        countCharacters(jobRequest.getText()));
+
+    translationService.validateRequest(jobRequest);
+    validateJobRequest(jobRequest);
+
+    TranslationJob job = translationJobService.submit(jobRequest);
+
+    URI location = ServletUriComponentsBuilder.fromRequestUri(request).path("/{id}")
+        .buildAndExpand(job.getId()).toUri();
+    org.springframework.http.HttpHeaders headers = createAllowHeader(request);
+    headers.add(HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_TYPE_JSON_UTF8);
+    headers.setLocation(location);
+    addRateLimitHeaders(request, headers);
+
+    return ResponseEntity.status(HttpStatus.ACCEPTED).headers(headers).body(job);
+  }
+
+  @Operation(summary = "Retrieve the status and progress of a translation job")
+  @GetMapping(value = {"/translate/jobs/{id}"},
+      produces = {HttpHeaders.CONTENT_TYPE_JSON_UTF8, MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<TranslationJob> getJob(@PathVariable(TranslationAppConstants.JOB_ID) String jobId,
+      HttpServletRequest request) throws Exception {
+
+    verifyReadAccess(request);
+
+    TranslationJob job = translationJobService.getJob(jobId);
+
+    return generateResponseEntity(request, job);
+  }
+
+  @Operation(summary = "Retrieve the translations of a completed translation job")
+  @GetMapping(value = {"/translate/jobs/{id}/results"},
+      produces = {HttpHeaders.CONTENT_TYPE_JSON_UTF8, MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<TranslationResponse> getJobResults(
+      @PathVariable(TranslationAppConstants.JOB_ID) String jobId, HttpServletRequest request)
+      throws Exception {
+
+    verifyReadAccess(request);
+
+    TranslationResponse result = translationJobService.getResults(jobId);
+
+    return generateResponseEntity(request, result);
+  }
+
+  private void validateJobRequest(TranslationJobRequest jobRequest)
+      throws ParamValidationException {
+    final int maxTexts = translationConfig.getJobsMaxTexts();
+    if (jobRequest.getText().size() > maxTexts) {
+      throw new ParamValidationException(null, ERROR_INVALID_PARAM_VALUE,
+          ERROR_INVALID_PARAM_VALUE,
+          new String[] {TranslationAppConstants.TEXT, "more than " + maxTexts + " texts"});
+    }
+
+    if (jobRequest.getCallback() != null
+        && !callbackUrlValidator.isAllowed(jobRequest.getCallback())) {
+      throw new ParamValidationException(null, ERROR_INVALID_PARAM_VALUE,
+          ERROR_INVALID_PARAM_VALUE,
+          new String[] {TranslationAppConstants.CALLBACK, jobRequest.getCallback()});
+    }
+  }
+}
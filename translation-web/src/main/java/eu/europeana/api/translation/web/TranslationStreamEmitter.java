@@ -0,0 +1,71 @@
+package eu.europeana.api.translation.web;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import eu.europeana.api.translation.definitions.model.TranslationChunk;
+import eu.europeana.api.translation.serialization.JsonLdSerializer;
+import eu.europeana.api.translation.web.service.TranslationStreamListener;
+
+/**
+ * Writes the translated chunks to the http response, either as newline delimited json (NDJSON)
+ * or as Server-Sent Events
+ */
+public class TranslationStreamEmitter implements TranslationStreamListener {
+
+  public static final String MEDIA_TYPE_NDJSON_VALUE = "application/x-ndjson";
+  public static final MediaType MEDIA_TYPE_NDJSON_UTF8 =
+      new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+  static final String SSE_EVENT_NAME = "translation";
+
+  private final ResponseBodyEmitter emitter;
+  private final JsonLdSerializer jsonLdSerializer;
+  private final boolean serverSentEvents;
+  private final Logger logger = LogManager.getLogger(getClass());
+
+  /**
+   * Constructor
+   * @param jsonLdSerializer serializer for the translated chunks
+   * @param serverSentEvents true if the response is written as Server-Sent Events, false for NDJSON
+   * @param timeoutMillisec the timeout for completing the response
+   */
+  public TranslationStreamEmitter(JsonLdSerializer jsonLdSerializer, boolean serverSentEvents,
+      long timeoutMillisec) {
+    this.jsonLdSerializer = jsonLdSerializer;
+    this.serverSentEvents = serverSentEvents;
+    this.emitter = serverSentEvents ? new SseEmitter(timeoutMillisec)
+        : new ResponseBodyEmitter(timeoutMillisec);
+  }
+
+  @Override
+  public void onChunk(TranslationChunk chunk) {
+    try {
+      final String json = jsonLdSerializer.serializeObject(chunk);
+      if (serverSentEvents) {
+        ((SseEmitter) emitter)
+            .send(SseEmitter.event().name(SSE_EVENT_NAME).data(json, MediaType.APPLICATION_JSON));
+      } else {
+        emitter.send(json + "\n", MEDIA_TYPE_NDJSON_UTF8);
+      }
+    } catch (IOException | IllegalStateException e) {
+      // the client disconnected or the response timed out, the chunk cannot be delivered anymore
+      if (logger.isDebugEnabled()) {
+        logger.debug("Cannot write translation chunk to response, indexes: {}", chunk.getIndex(),
+            e);
+      }
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    emitter.complete();
+  }
+
+  public ResponseBodyEmitter getEmitter() {
+    return emitter;
+  }
+}
@@ -55,6 +55,79 @@ public class GlobalExceptionHandler extends EuropeanaGlobalExceptionHandler {
               .body(response);
   }
   
+  /**
+   * PayloadTooLargeException thrown when the request body exceeds the configured number of texts or
+   * characters
+   * @param e the exception indicating the exceeded limit
+   * @param httpRequest the request object
+   * @return the api response
+   */
+  @ExceptionHandler
+  public ResponseEntity<EuropeanaApiErrorResponse> handlePayloadTooLargeError(PayloadTooLargeException e, HttpServletRequest httpRequest) {
+      HttpStatus responseStatus = HttpStatus.PAYLOAD_TOO_LARGE;
+      EuropeanaApiErrorResponse response = (new EuropeanaApiErrorResponse.Builder(httpRequest, e, stackTraceEnabled()))
+              .setStatus(responseStatus.value())
+              .setError(responseStatus.getReasonPhrase())
+              .setMessage(e.getMessage())
+              .setSeeAlso(getSeeAlso())
+              .build();
+
+      return ResponseEntity
+              .status(responseStatus)
+              .headers(createHttpHeaders(httpRequest))
+              .body(response);
+  }
+
+  /**
+   * ServiceSaturatedException thrown when the bulkhead of the external service rejected the call,
+   * the response indicates when the request can be retried
+   * @param e the exception indicating the saturation of the external service
+   * @param httpRequest the request object
+   * @return the api response including the Retry-After header
+   */
+  @ExceptionHandler
+  public ResponseEntity<EuropeanaApiErrorResponse> handleServiceSaturatedError(ServiceSaturatedException e, HttpServletRequest httpRequest) {
+      HttpStatus responseStatus = e.getResponseStatus();
+      EuropeanaApiErrorResponse response = (new EuropeanaApiErrorResponse.Builder(httpRequest, e, stackTraceEnabled()))
+              .setStatus(responseStatus.value())
+              .setError(responseStatus.getReasonPhrase())
+              .setMessage(e.getMessage())
+              .setSeeAlso(getSeeAlso())
+              .build();
+
+      org.springframework.http.HttpHeaders headers = createHttpHeaders(httpRequest);
+      headers.add(org.springframework.http.HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+      return ResponseEntity
+              .status(responseStatus)
+              .headers(headers)
+              .body(response);
+  }
+
+  /**
+   * RateLimitExceededException thrown when the client exceeded its request or character limit
+   * @param e the exception indicating the exceeded limit
+   * @param httpRequest the request object
+   * @return the api response including the Retry-After and X-RateLimit-* headers
+   */
+  @ExceptionHandler
+  public ResponseEntity<EuropeanaApiErrorResponse> handleRateLimitExceededError(RateLimitExceededException e, HttpServletRequest httpRequest) {
+      HttpStatus responseStatus = e.getResponseStatus();
+      EuropeanaApiErrorResponse response = (new EuropeanaApiErrorResponse.Builder(httpRequest, e, stackTraceEnabled()))
+              .setStatus(responseStatus.value())
+              .setError(responseStatus.getReasonPhrase())
+              .setMessage(e.getMessage())
+              .setSeeAlso(getSeeAlso())
+              .build();
+
+      org.springframework.http.HttpHeaders headers = createHttpHeaders(httpRequest);
+      e.getRateLimitStatus().addHeaders(headers);
+      headers.add(org.springframework.http.HttpHeaders.RETRY_AFTER, String.valueOf(e.getRateLimitStatus().getRetryAfterSeconds()));
+      return ResponseEntity
+              .status(responseStatus)
+              .headers(headers)
+              .body(response);
+  }
+
   @Override
   public I18nService getI18nService() {
     return i18nService;
@@ -0,0 +1,25 @@
+package eu.europeana.api.translation.web.exception;
+
+import org.springframework.http.HttpStatus;
+import eu.europeana.api.commons.error.EuropeanaI18nApiException;
+
+/**
+ * Exception thrown when the results of a translation job are requested before the job was
+ * successfully completed
+ */
+public class JobNotCompletedException extends EuropeanaI18nApiException {
+
+  private static final long serialVersionUID = -3405936419206542313L;
+
+  /**
+   * Constructor for exception indicating that the translation job is not completed
+   * @param msg error message
+   * @param errorCode optional error code
+   * @param i18nKey the key for retrieving the i18n message for API Response serialization
+   * @param i18nParams the params for generating the i18n message during API Response serialization
+   */
+  public JobNotCompletedException(String msg, String errorCode, String i18nKey, String[] i18nParams) {
+    super(msg, errorCode, HttpStatus.CONFLICT, i18nKey, i18nParams, null);
+  }
+
+}
@@ -0,0 +1,22 @@
+package eu.europeana.api.translation.web.exception;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Exception thrown while reading a request body which exceeds the configured number of texts or
+ * characters, the rest of the body is not read
+ */
+public class PayloadTooLargeException extends HttpMessageNotReadableException {
+
+  private static final long serialVersionUID = -2148702925389151290L;
+
+  /**
+   * Constructor
+   * @param msg error message
+   * @param inputMessage the request message being read
+   */
+  public PayloadTooLargeException(String msg, HttpInputMessage inputMessage) {
+    super(msg, inputMessage);
+  }
+}
@@ -0,0 +1,33 @@
+package eu.europeana.api.translation.web.exception;
+
+import org.springframework.http.HttpStatus;
+import eu.europeana.api.commons.error.EuropeanaI18nApiException;
+import eu.europeana.api.translation.web.service.RateLimitStatus;
+
+/**
+ * Exception thrown when the client exceeded its request or character limit for an operation, the
+ * client should retry the request after the indicated time
+ */
+public class RateLimitExceededException extends EuropeanaI18nApiException {
+
+  private static final long serialVersionUID = 6310722981457128064L;
+  private final transient RateLimitStatus rateLimitStatus;
+
+  /**
+   * Constructor for exception indicating that the rate limit is exceeded
+   * @param msg error message
+   * @param errorCode optional error code
+   * @param i18nKey the key for retrieving the i18n message for API Response serialization
+   * @param i18nParams the params for generating the i18n message during API Response serialization
+   * @param rateLimitStatus the status of the exceeded limit, used for the response headers
+   */
+  public RateLimitExceededException(String msg, String errorCode, String i18nKey,
+      String[] i18nParams, RateLimitStatus rateLimitStatus) {
+    super(msg, errorCode, HttpStatus.TOO_MANY_REQUESTS, i18nKey, i18nParams, null);
+    this.rateLimitStatus = rateLimitStatus;
+  }
+
+  public RateLimitStatus getRateLimitStatus() {
+    return rateLimitStatus;
+  }
+}
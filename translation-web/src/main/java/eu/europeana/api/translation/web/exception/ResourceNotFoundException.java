@@ -0,0 +1,24 @@
+package eu.europeana.api.translation.web.exception;
+
+import org.springframework.http.HttpStatus;
+import eu.europeana.api.commons.error.EuropeanaI18nApiException;
+
+/**
+ * Exception thrown when the requested resource (e.g. translation job) does not exist
+ */
+public class ResourceNotFoundException extends EuropeanaI18nApiException {
+
+  private static final long serialVersionUID = 4460226473423476125L;
+
+  /**
+   * Constructor for exception indicating that the requested resource does not exist
+   * @param msg error message
+   * @param errorCode optional error code
+   * @param i18nKey the key for retrieving the i18n message for API Response serialization
+   * @param i18nParams the params for generating the i18n message during API Response serialization
+   */
+  public ResourceNotFoundException(String msg, String errorCode, String i18nKey, String[] i18nParams) {
+    super(msg, errorCode, HttpStatus.NOT_FOUND, i18nKey, i18nParams, null);
+  }
+
+}
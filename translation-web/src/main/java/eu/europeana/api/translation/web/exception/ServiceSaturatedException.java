@@ -0,0 +1,33 @@
+package eu.europeana.api.translation.web.exception;
+
+import org.springframework.http.HttpStatus;
+import eu.europeana.api.commons.error.EuropeanaI18nApiException;
+
+/**
+ * Exception thrown when the external service cannot accept more requests at the moment, the
+ * client should retry the request after the indicated time
+ */
+public class ServiceSaturatedException extends EuropeanaI18nApiException {
+
+  private static final long serialVersionUID = -2330384196398519738L;
+  private final int retryAfterSeconds;
+
+  /**
+   * Constructor for exception indicating that the service is saturated
+   * @param msg error message
+   * @param errorCode optional error code
+   * @param i18nKey the key for retrieving the i18n message for API Response serialization
+   * @param i18nParams the params for generating the i18n message during API Response serialization
+   * @param retryAfterSeconds the value for the Retry-After header
+   * @param th original exception
+   */
+  public ServiceSaturatedException(String msg, String errorCode, String i18nKey,
+      String[] i18nParams, int retryAfterSeconds, Throwable th) {
+    super(msg, errorCode, HttpStatus.SERVICE_UNAVAILABLE, i18nKey, i18nParams, th);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public int getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
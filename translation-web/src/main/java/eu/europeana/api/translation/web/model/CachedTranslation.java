@@ -1,13 +1,22 @@
 package eu.europeana.api.translation.web.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
- * object model for the cached translations 
+ * object model for the cached translations. When the provider returns quality scores, the raw
+ * translation is cached together with its score and the id of the service which produced it, the
+ * threshold of that service is applied when reading.
  * @author GordeaS
  *
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class CachedTranslation {
   private String original;
   private String translation;
+  private Double score;
+  private String service;
   public String getOriginal() {
     return original;
   }
@@ -20,4 +29,16 @@ public class CachedTranslation {
   public void setTranslation(String translation) {
     this.translation = translation;
   }
+  public Double getScore() {
+    return score;
+  }
+  public void setScore(Double score) {
+    this.score = score;
+  }
+  public String getService() {
+    return service;
+  }
+  public void setService(String service) {
+    this.service = service;
+  }
 }
@@ -0,0 +1,307 @@
+package eu.europeana.api.translation.web.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import eu.europeana.api.translation.config.services.RoutingServiceCfg;
+import eu.europeana.api.translation.config.services.TranslationRoutingCfg;
+import eu.europeana.api.translation.definitions.language.LanguagePair;
+import eu.europeana.api.translation.service.TranslationService;
+import eu.europeana.api.translation.service.exception.TranslationServiceConfigurationException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Selects the translation service for a language pair based on the observed performance of the
+ * services. The latency, error rate and timeout rate are tracked for each service and language pair
+ * (see {@link TrackedTranslationService}), the services exceeding the error rate are excluded and
+ * the configured {@link RoutingPolicy} is applied to the remaining candidates. The static choice
+ * (mapped or default service) is used while there is not enough data and when no candidate is
+ * healthy. With the LOWEST_LATENCY policy a small share of the requests is sent to the candidates
+ * which are not measured yet, otherwise they would never get traffic.
+ */
+public class AdaptiveServiceRouter {
+
+  private static final Logger LOGGER = LogManager.getLogger(AdaptiveServiceRouter.class);
+  private static final double OUTSIDE_SLO_PENALTY = 1e9;
+  private static final String AUTO_DETECT = "auto";
+
+  private final RoutingPolicy policy;
+  private final long sloMillis;
+  private final double maxErrorRate;
+  private final double decay;
+  private final int minSamples;
+  private final long recoveryMillis;
+  private final double explorationRate;
+  // in the order of the configurations
+  private final Map<String, RoutingServiceCfg> serviceCfgs = new LinkedHashMap<>();
+  private final MeterRegistry meterRegistry;
+
+  private volatile TranslationService[] candidates = new TranslationService[0];
+  private final Map<String, Map<LanguagePair, ServicePerformance>> performance =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Constructor
+   *
+   * @param routingCfg the routing configurations
+   * @param meterRegistry the registry for the routing metrics, may be null
+   * @throws TranslationServiceConfigurationException if the configurations are invalid
+   */
+  public AdaptiveServiceRouter(TranslationRoutingCfg routingCfg, MeterRegistry meterRegistry)
+      throws TranslationServiceConfigurationException {
+    this.policy = parsePolicy(routingCfg.getPolicy());
+    if (routingCfg.getDecay() <= 0 || routingCfg.getDecay() > 1) {
+      throw new TranslationServiceConfigurationException(
+          "Invalid routing configuration, the decay must be in the interval (0, 1]: "
+              + routingCfg.getDecay());
+    }
+    if (routingCfg.getExplorationRate() < 0 || routingCfg.getExplorationRate() > 1) {
+      throw new TranslationServiceConfigurationException(
+          "Invalid routing configuration, the exploration rate must be in the interval [0, 1]: "
+              + routingCfg.getExplorationRate());
+    }
+    this.sloMillis = routingCfg.getSloMillis();
+    this.maxErrorRate = routingCfg.getMaxErrorRate();
+    this.decay = routingCfg.getDecay();
+    this.minSamples = routingCfg.getMinSamples();
+    this.recoveryMillis = routingCfg.getRecoveryMillis();
+    this.explorationRate = routingCfg.getExplorationRate();
+    if (routingCfg.getServices() != null) {
+      for (RoutingServiceCfg serviceCfg : routingCfg.getServices()) {
+        serviceCfgs.put(serviceCfg.getId(), serviceCfg);
+      }
+    }
+    this.meterRegistry = meterRegistry;
+  }
+
+  private static RoutingPolicy parsePolicy(String policy)
+      throws TranslationServiceConfigurationException {
+    if (policy == null) {
+      return RoutingPolicy.STATIC;
+    }
+    try {
+      return RoutingPolicy.valueOf(policy.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new TranslationServiceConfigurationException("Invalid routing policy: " + policy, e);
+    }
+  }
+
+  /**
+   * Ids of the services declared as routing candidates
+   *
+   * @return the service ids
+   */
+  public Iterable<String> getCandidateIds() {
+    return serviceCfgs.keySet();
+  }
+
+  /**
+   * Sets the services which may be selected by the router, in the order of the configurations
+   *
+   * @param services the candidate services
+   */
+  public void setCandidates(List<TranslationService> services) {
+    this.candidates = services.toArray(new TranslationService[0]);
+  }
+
+  public RoutingPolicy getPolicy() {
+    return policy;
+  }
+
+  /**
+   * Selects the service for the language pair
+   *
+   * @param languagePair the language pair of the request, the source language is null if it must
+   *        be detected
+   * @param staticChoice the service selected from the mappings or the default service
+   * @return the selected service
+   */
+  public TranslationService select(LanguagePair languagePair, TranslationService staticChoice) {
+    TranslationService selected;
+    switch (policy) {
+      case LOWEST_LATENCY:
+      case CHEAPEST_WITHIN_SLO:
+        selected = selectByScore(languagePair, staticChoice);
+        break;
+      case WEIGHTED:
+        selected = selectWeighted(languagePair, staticChoice);
+        break;
+      default:
+        selected = staticChoice;
+    }
+    recordDecision(selected, staticChoice);
+    return selected;
+  }
+
+  private TranslationService selectByScore(LanguagePair languagePair,
+      TranslationService staticChoice) {
+    if (policy == RoutingPolicy.LOWEST_LATENCY && explorationRate > 0
+        && ThreadLocalRandom.current().nextDouble() < explorationRate) {
+      final TranslationService unmeasured = selectUnmeasured(languagePair, staticChoice);
+      if (unmeasured != null) {
+        return unmeasured;
+      }
+    }
+    // the static choice wins the ties
+    TranslationService best = null;
+    double bestScore = Double.MAX_VALUE;
+    if (isHealthy(staticChoice, languagePair)) {
+      best = staticChoice;
+      bestScore = score(staticChoice, languagePair, true);
+    }
+    for (TranslationService candidate : candidates) {
+      if (candidate == staticChoice || !isEligible(candidate, languagePair)) {
+        continue;
+      }
+      final double score = score(candidate, languagePair, false);
+      if (best == null || score < bestScore) {
+        best = candidate;
+        bestScore = score;
+      }
+    }
+    return best == null ? staticChoice : best;
+  }
+
+  /**
+   * Picks randomly one of the eligible candidates without enough samples for the language pair
+   */
+  private TranslationService selectUnmeasured(LanguagePair languagePair,
+      TranslationService staticChoice) {
+    List<TranslationService> unmeasured = new ArrayList<>();
+    for (TranslationService candidate : candidates) {
+      if (candidate == staticChoice || !isEligible(candidate, languagePair)) {
+        continue;
+      }
+      final ServicePerformance stats = getStats(candidate, languagePair);
+      if (stats == null || stats.getSamples() < minSamples) {
+        unmeasured.add(candidate);
+      }
+    }
+    return unmeasured.isEmpty() ? null
+        : unmeasured.get(ThreadLocalRandom.current().nextInt(unmeasured.size()));
+  }
+
+  private double score(TranslationService service, LanguagePair languagePair,
+      boolean isStaticChoice) {
+    final ServicePerformance stats = getStats(service, languagePair);
+    final boolean hasStats = stats != null && stats.getSamples() >= minSamples;
+    if (policy == RoutingPolicy.CHEAPEST_WITHIN_SLO) {
+      // the services without enough data are assumed to be within the SLO
+      final double cost = getCost(service);
+      return (hasStats && stats.getLatencyMillis() > sloMillis)
+          ? OUTSIDE_SLO_PENALTY + stats.getLatencyMillis()
+          : cost;
+    }
+    if (hasStats) {
+      return stats.getLatencyMillis();
+    }
+    // keep the static choice until the other services are measured
+    return isStaticChoice ? 0 : Double.MAX_VALUE / 2;
+  }
+
+  private TranslationService selectWeighted(LanguagePair languagePair,
+      TranslationService staticChoice) {
+    final boolean staticIsCandidate = serviceCfgs.containsKey(staticChoice.getServiceId());
+    int totalWeight = 0;
+    final int[] weights = new int[candidates.length];
+    for (int i = 0; i < candidates.length; i++) {
+      if (isEligible(candidates[i], languagePair)) {
+        weights[i] = Math.max(getWeight(candidates[i]), 0);
+        totalWeight += weights[i];
+      }
+    }
+    final boolean staticHealthy = !staticIsCandidate && isHealthy(staticChoice, languagePair);
+    final int staticWeight = staticHealthy ? 1 : 0;
+    if (totalWeight + staticWeight == 0) {
+      return staticChoice;
+    }
+    int pick = ThreadLocalRandom.current().nextInt(totalWeight + staticWeight);
+    for (int i = 0; i < candidates.length; i++) {
+      pick -= weights[i];
+      if (pick < 0) {
+        return candidates[i];
+      }
+    }
+    return staticChoice;
+  }
+
+  private boolean isEligible(TranslationService service, LanguagePair languagePair) {
+    return service.isSupported(languagePair.getSrcLang(), languagePair.getTargetLang())
+        && isHealthy(service, languagePair);
+  }
+
+  private boolean isHealthy(TranslationService service, LanguagePair languagePair) {
+    final ServicePerformance stats = getStats(service, languagePair);
+    if (stats == null || stats.getSamples() < minSamples) {
+      return true;
+    }
+    return stats.getErrorRate() <= maxErrorRate && stats.getTimeoutRate() <= maxErrorRate;
+  }
+
+  private double getCost(TranslationService service) {
+    final RoutingServiceCfg serviceCfg = serviceCfgs.get(service.getServiceId());
+    return serviceCfg == null ? 1.0 : serviceCfg.getCost();
+  }
+
+  private int getWeight(TranslationService service) {
+    final RoutingServiceCfg serviceCfg = serviceCfgs.get(service.getServiceId());
+    return serviceCfg == null ? 1 : serviceCfg.getWeight();
+  }
+
+  private ServicePerformance getStats(TranslationService service, LanguagePair languagePair) {
+    final Map<LanguagePair, ServicePerformance> serviceStats =
+        performance.get(service.getServiceId());
+    return serviceStats == null ? null : serviceStats.get(languagePair);
+  }
+
+  /**
+   * Records the outcome of a call to a translation service
+   *
+   * @param serviceId the id of the called service
+   * @param languagePair the language pair of the translated texts
+   * @param latencyMillis the duration of the call
+   * @param error true if the call failed
+   * @param timeout true if the call failed because of a timeout
+   */
+  public void recordCall(String serviceId, LanguagePair languagePair, long latencyMillis,
+      boolean error, boolean timeout) {
+    performance.computeIfAbsent(serviceId, id -> new ConcurrentHashMap<>())
+        .computeIfAbsent(languagePair, pair -> createStats(serviceId, pair))
+        .record(latencyMillis, error, timeout);
+  }
+
+  private ServicePerformance createStats(String serviceId, LanguagePair languagePair) {
+    ServicePerformance stats = new ServicePerformance(decay, recoveryMillis);
+    if (meterRegistry != null) {
+      final String pair = languagePair.getSrcLang() == null
+          ? LanguagePair.generateKey(AUTO_DETECT, languagePair.getTargetLang())
+          : languagePair.toString();
+      Gauge.builder("translation.routing.latency", stats, ServicePerformance::getLatencyMillis)
+          .tag("service", serviceId).tag("pair", pair).register(meterRegistry);
+      Gauge.builder("translation.routing.error.rate", stats, ServicePerformance::getErrorRate)
+          .tag("service", serviceId).tag("pair", pair).register(meterRegistry);
+      Gauge.builder("translation.routing.timeout.rate", stats, ServicePerformance::getTimeoutRate)
+          .tag("service", serviceId).tag("pair", pair).register(meterRegistry);
+    }
+    return stats;
+  }
+
+  private void recordDecision(TranslationService selected, TranslationService staticChoice) {
+    final boolean rerouted = selected != staticChoice;
+    if (rerouted && LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Request routed to {} instead of {} by policy {}", selected.getServiceId(),
+          staticChoice.getServiceId(), policy);
+    }
+    if (meterRegistry != null) {
+      meterRegistry.counter("translation.routing.decisions", "service", selected.getServiceId(),
+          "policy", policy.name(), "reason", rerouted ? "rerouted" : "static").increment();
+    }
+  }
+}
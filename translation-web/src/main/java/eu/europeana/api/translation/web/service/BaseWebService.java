@@ -1,19 +1,66 @@
 package eu.europeana.api.translation.web.service;
 
+import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_DEADLINE_EXCEEDED;
 import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_GOOGLE_QUOTA_LIMIT;
 import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_LANG_DETECT_SERVICE_CALL;
+import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_SERVICE_SATURATED;
 import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_TRANSLATION_SERVICE_CALL;
 import static org.springframework.http.HttpStatus.GATEWAY_TIMEOUT;
+import org.springframework.beans.factory.annotation.Autowired;
 import com.google.api.gax.rpc.ResourceExhaustedException;
 import eu.europeana.api.commons.error.EuropeanaI18nApiException;
+import eu.europeana.api.translation.config.TranslationConfig;
+import eu.europeana.api.translation.service.exception.BulkheadFullException;
+import eu.europeana.api.translation.service.exception.DeadlineExceededException;
 import eu.europeana.api.translation.service.exception.LanguageDetectionException;
 import eu.europeana.api.translation.service.exception.TranslationException;
+import eu.europeana.api.translation.service.util.Deadline;
 import eu.europeana.api.translation.web.exception.ExternalServiceCallException;
 import eu.europeana.api.translation.web.exception.GoogleResourceExhaustedException;
+import eu.europeana.api.translation.web.exception.ServiceSaturatedException;
 
 public class BaseWebService {
 
+  @Autowired protected TranslationConfig translationConfig;
+
+  /**
+   * Binds the deadline of the request to the current thread. The deadline which is already bound
+   * to the thread is kept (e.g. for the sub-requests of a batch), otherwise the time budget
+   * requested by the client is used, limited to the configured max value.
+   * 
+   * @param requestedTimeoutMillis the time budget requested by the client, or null for the default
+   * @return the scope to close when the request processing is completed
+   */
+  protected Deadline.Scope attachDeadline(Long requestedTimeoutMillis) {
+    if (Deadline.current() != null) {
+      return () -> {
+      };
+    }
+    return createDeadline(requestedTimeoutMillis).attach();
+  }
+
+  protected Deadline createDeadline(Long requestedTimeoutMillis) {
+    final long timeoutMillis = requestedTimeoutMillis == null
+        ? translationConfig.getDeadlineDefaultMillisec()
+        : Math.min(requestedTimeoutMillis, translationConfig.getDeadlineMaxMillisec());
+    return Deadline.after(timeoutMillis);
+  }
+
+  /**
+   * The fallback services are called only if there is a reasonable chance to get the response
+   * before the request deadline
+   * 
+   * @return true if enough time is left for calling a fallback service
+   */
+  protected boolean hasTimeForFallback() {
+    Deadline deadline = Deadline.current();
+    return deadline == null
+        || deadline.remainingMillis() >= translationConfig.getDeadlineFallbackMinMillisec();
+  }
+
   protected void throwApiException(LanguageDetectionException ex) throws EuropeanaI18nApiException {
+    throwIfSaturated(ex);
+    throwIfDeadlineExceeded(ex);
     if (ex.getCause() instanceof ResourceExhaustedException) {
       throw new GoogleResourceExhaustedException(ex.getMessage(), ERROR_GOOGLE_QUOTA_LIMIT,
           ERROR_GOOGLE_QUOTA_LIMIT, null, ex);
@@ -25,6 +72,8 @@ public class BaseWebService {
   }
 
   protected void throwApiException(TranslationException ex) throws EuropeanaI18nApiException {
+    throwIfSaturated(ex);
+    throwIfDeadlineExceeded(ex);
     if (ex.getCause() instanceof ResourceExhaustedException) {
       throw new GoogleResourceExhaustedException(ERROR_GOOGLE_QUOTA_LIMIT,
           null, ERROR_GOOGLE_QUOTA_LIMIT, null, ex);
@@ -35,4 +84,25 @@ public class BaseWebService {
         ERROR_TRANSLATION_SERVICE_CALL, null, ex);
   }
 
+  /**
+   * The calls rejected by the service bulkheads are reported as 503, so that the clients can retry
+   * them later
+   */
+  private void throwIfSaturated(Exception ex) throws ServiceSaturatedException {
+    if (ex.getCause() instanceof BulkheadFullException) {
+      BulkheadFullException bulkheadFull = (BulkheadFullException) ex.getCause();
+      throw new ServiceSaturatedException(ex.getMessage(), ERROR_SERVICE_SATURATED,
+          ERROR_SERVICE_SATURATED, null, bulkheadFull.getRetryAfterSeconds(), ex);
+    }
+  }
+
+  private void throwIfDeadlineExceeded(Exception ex) throws ExternalServiceCallException {
+    if (ex.getCause() instanceof DeadlineExceededException) {
+      DeadlineExceededException deadlineExceeded = (DeadlineExceededException) ex.getCause();
+      throw new ExternalServiceCallException(ex.getMessage(), ERROR_DEADLINE_EXCEEDED,
+          GATEWAY_TIMEOUT, ERROR_DEADLINE_EXCEEDED,
+          new String[] {String.valueOf(deadlineExceeded.getTimeoutMillis())}, ex);
+    }
+  }
+
 }
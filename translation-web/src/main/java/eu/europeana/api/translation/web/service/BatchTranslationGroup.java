@@ -0,0 +1,96 @@
+package eu.europeana.api.translation.web.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import eu.europeana.api.translation.definitions.model.BatchTranslationResult;
+import eu.europeana.api.translation.definitions.model.TranslationRequest;
+import eu.europeana.api.translation.definitions.model.TranslationResponse;
+
+/**
+ * Group of batch sub-requests sharing the same language pair, service, fallback and caching
+ * options. The texts of the group are deduplicated, so that they are sent only once to the
+ * translation services.
+ */
+class BatchTranslationGroup {
+
+  private final TranslationRequest groupRequest;
+  private final Map<String, Integer> textPositions = new HashMap<>();
+  private final List<String> texts = new ArrayList<>();
+  // index of the sub-request in the batch -> positions of its texts in the group texts
+  private final Map<Integer, int[]> members = new HashMap<>();
+
+  BatchTranslationGroup(TranslationRequest template) {
+    groupRequest = new TranslationRequest();
+    groupRequest.setSource(template.getSource());
+    groupRequest.setTarget(template.getTarget());
+    groupRequest.setService(template.getService());
+    groupRequest.setFallback(template.getFallback());
+    groupRequest.setCaching(template.useCaching());
+    groupRequest.setText(texts);
+  }
+
+  /**
+   * Generates the grouping key for the given sub-request
+   * @param request the sub-request
+   * @return the key of the group the request belongs to
+   */
+  static String buildKey(TranslationRequest request) {
+    return request.getSource() + '|' + request.getTarget() + '|' + request.getService() + '|'
+        + request.getFallback() + '|' + request.useCaching();
+  }
+
+  void add(int requestIndex, List<String> requestTexts) {
+    int[] positions = new int[requestTexts.size()];
+    for (int i = 0; i < positions.length; i++) {
+      positions[i] = textPositions.computeIfAbsent(requestTexts.get(i), text -> {
+        texts.add(text);
+        return texts.size() - 1;
+      });
+    }
+    members.put(requestIndex, positions);
+  }
+
+  TranslationRequest getGroupRequest() {
+    return groupRequest;
+  }
+
+  int size() {
+    return members.size();
+  }
+
+  /**
+   * Distributes the translations of the group to the results of the individual sub-requests
+   * @param groupResponse the response for the group request
+   * @param results the results of the batch, indexed by the position of the sub-requests
+   */
+  void fillResults(TranslationResponse groupResponse, List<BatchTranslationResult> results) {
+    final List<String> groupTranslations = groupResponse.getTranslations();
+    for (Map.Entry<Integer, int[]> member : members.entrySet()) {
+      BatchTranslationResult result = new BatchTranslationResult(HttpStatus.OK.value(), null);
+      List<String> translations = new ArrayList<>(member.getValue().length);
+      for (int position : member.getValue()) {
+        // the texts may be truncated for some of the services
+        translations.add(position < groupTranslations.size() ? groupTranslations.get(position) : null);
+      }
+      result.setTranslations(translations);
+      result.setLang(groupResponse.getLang());
+      result.setService(groupResponse.getService());
+      results.set(member.getKey(), result);
+    }
+  }
+
+  /**
+   * Reports the same error for all sub-requests of the group
+   * @param status the http status code
+   * @param error the error message
+   * @param results the results of the batch, indexed by the position of the sub-requests
+   */
+  void fillErrors(int status, String error, List<BatchTranslationResult> results) {
+    for (Integer requestIndex : members.keySet()) {
+      results.set(requestIndex, new BatchTranslationResult(status, error));
+    }
+  }
+}
@@ -1,10 +1,16 @@
 package eu.europeana.api.translation.web.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import javax.validation.constraints.NotNull;
 import eu.europeana.api.translation.definitions.model.TranslationObj;
 import eu.europeana.api.translation.service.AbstractTranslationService;
 import eu.europeana.api.translation.service.TranslationService;
+import eu.europeana.api.translation.service.exception.MultiTargetTranslationException;
 import eu.europeana.api.translation.service.exception.TranslationException;
 
 public class CachedTranslationService extends AbstractTranslationService {
@@ -35,34 +41,135 @@ public class CachedTranslationService extends AbstractTranslationService {
   public boolean isSupported(String srcLang, String trgLang) {
     return true;
   }
+
+  @Override
+  public boolean isAcceptedScore(String srcLang, double score) {
+    return translationService.isAcceptedScore(srcLang, score);
+  }
   
   @Override
   public void translate(List<TranslationObj> translationObjs) throws TranslationException {
-    //fill the non translatable texts, e.g. empty Strings
-    processNonTranslatable(translationObjs);
-    
-     
-    fillTranslationForSameLanguage(translationObjs);
-    
-    
-    if(isCachingEnabled()) {
-      redisCacheService.fillWithCachedTranslations(translationObjs);
-    }
-    
-    List<TranslationObj> toTranslate = translationObjs.stream().filter(
-        t -> t.getTranslation() == null).toList();
+    List<TranslationObj> toTranslate = fillWithoutTranslationService(translationObjs);
     
     if(toTranslate.isEmpty()) {
       //all entries retrieved from cache, processing complete
       return;
     }
     
+    clearScores(toTranslate);
     translationService.translate(toTranslate);
     
     if(isCachingEnabled()) {
       //save result in the redis cache
-      redisCacheService.store(toTranslate);  
+      redisCacheService.store(toTranslate, getServiceId());  
+    }
+  }
+
+  /**
+   * The cached translations are filled for each target, the texts missing in any of the targets are
+   * sent in one multi-target call. Where a text is already available for a target, a detached copy
+   * is sent in its place, so that the texts of all targets stay aligned.
+   */
+  @Override
+  public void translateMultiTarget(Map<String, List<TranslationObj>> translationObjsByTarget)
+      throws TranslationException {
+    SortedSet<Integer> missingIndexes = new TreeSet<>();
+    for (List<TranslationObj> translationObjs : translationObjsByTarget.values()) {
+      fillWithoutTranslationService(translationObjs);
+      for (int i = 0; i < translationObjs.size(); i++) {
+        if (needsTranslation(translationObjs.get(i))) {
+          missingIndexes.add(i);
+        }
+      }
+    }
+    if (missingIndexes.isEmpty()) {
+      return;
+    }
+
+    Map<String, List<TranslationObj>> toTranslate = new LinkedHashMap<>();
+    List<TranslationObj> toStore = new ArrayList<>();
+    for (Map.Entry<String, List<TranslationObj>> target : translationObjsByTarget.entrySet()) {
+      final List<TranslationObj> translationObjs = target.getValue();
+      if (missingIndexes.stream().noneMatch(i -> needsTranslation(translationObjs.get(i)))) {
+        // e.g. the target is the source language
+        continue;
+      }
+      List<TranslationObj> aligned = new ArrayList<>(missingIndexes.size());
+      for (Integer i : missingIndexes) {
+        final TranslationObj translationObj = translationObjs.get(i);
+        if (needsTranslation(translationObj)) {
+          aligned.add(translationObj);
+          toStore.add(translationObj);
+        } else {
+          aligned.add(detachedCopy(translationObj));
+        }
+      }
+      toTranslate.put(target.getKey(), aligned);
+    }
+
+    clearScores(toStore);
+    try {
+      translationService.translateMultiTarget(toTranslate);
+    } catch (MultiTargetTranslationException e) {
+      // the translations of the successful targets are cached anyway
+      if (isCachingEnabled()) {
+        redisCacheService.store(toStore.stream()
+            .filter(obj -> !e.getTargetErrors().containsKey(obj.getTargetLang())).toList(),
+            getServiceId());
+      }
+      throw e;
     }
+
+    if(isCachingEnabled()) {
+      redisCacheService.store(toStore, getServiceId());
+    }
+  }
+
+  /**
+   * The scores of a previous service (e.g. rejected by its threshold before calling the fallback)
+   * don't belong to the translations of this service
+   */
+  private void clearScores(List<TranslationObj> translationObjs) {
+    for (TranslationObj translationObj : translationObjs) {
+      translationObj.setRawTranslation(null);
+      translationObj.setScore(null);
+    }
+  }
+
+  private TranslationObj detachedCopy(TranslationObj translationObj) {
+    TranslationObj copy = new TranslationObj();
+    copy.setSourceLang(translationObj.getSourceLang());
+    copy.setTargetLang(translationObj.getTargetLang());
+    copy.setText(translationObj.getText());
+    return copy;
+  }
+
+  /**
+   * Fills the translations which do not require the invocation of the translation service, i.e.
+   * non translatable texts, texts having the same source and target language and the translations
+   * available in the cache
+   * 
+   * @param translationObjs the objects to process
+   * @return the list of objects which still need to be sent to the translation service
+   */
+  public List<TranslationObj> fillWithoutTranslationService(List<TranslationObj> translationObjs) {
+    //fill the non translatable texts, e.g. empty Strings
+    processNonTranslatable(translationObjs);
+    
+    fillTranslationForSameLanguage(translationObjs);
+    
+    if(isCachingEnabled()) {
+      redisCacheService.fillWithCachedTranslations(translationObjs, translationService);
+    }
+    
+    return translationObjs.stream().filter(this::needsTranslation).toList();
+  }
+
+  /**
+   * The objects filled from the cache or by the pre-processing are not sent to translation again
+   */
+  private boolean needsTranslation(TranslationObj translationObj) {
+    return translationObj.getTranslation() == null && !translationObj.isRetrievedFromCache();
   }
 
 
@@ -0,0 +1,80 @@
+package eu.europeana.api.translation.web.service;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Verifies the callback urls of the translation jobs before they are notified. Only http(s) urls
+ * are accepted. When an allow-list of hosts is configured, the callbacks are restricted to these
+ * hosts, otherwise the host must resolve to public addresses only (i.e. no loopback, private,
+ * link-local or multicast addresses), so that the jobs cannot be used to call internal services.
+ * The check is repeated when the callback is notified, as the DNS records may change meanwhile.
+ */
+public class CallbackUrlValidator {
+
+  private final Set<String> allowedHosts;
+
+  /**
+   * Constructor
+   * @param allowedHosts comma separated list of the accepted hosts, empty to accept any public host
+   */
+  public CallbackUrlValidator(String allowedHosts) {
+    this.allowedHosts = StringUtils.isBlank(allowedHosts) ? Set.of()
+        : Stream.of(allowedHosts.split(",")).map(String::strip).filter(StringUtils::isNotEmpty)
+            .map(host -> host.toLowerCase(Locale.ENGLISH)).collect(Collectors.toUnmodifiableSet());
+  }
+
+  /**
+   * Verifies the callback url
+   * @param url the callback url
+   * @return true if the callback may be notified
+   */
+  public boolean isAllowed(String url) {
+    final URI uri;
+    try {
+      uri = new URI(url);
+    } catch (URISyntaxException e) {
+      return false;
+    }
+    final String host = uri.getHost();
+    if (host == null || !("http".equalsIgnoreCase(uri.getScheme())
+        || "https".equalsIgnoreCase(uri.getScheme()))) {
+      return false;
+    }
+    if (!allowedHosts.isEmpty()) {
+      return allowedHosts.contains(host.toLowerCase(Locale.ENGLISH));
+    }
+    try {
+      for (InetAddress address : InetAddress.getAllByName(host)) {
+        if (!isPublicAddress(address)) {
+          return false;
+        }
+      }
+      return true;
+    } catch (UnknownHostException e) {
+      return false;
+    }
+  }
+
+  static boolean isPublicAddress(InetAddress address) {
+    if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+        || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+      return false;
+    }
+    final byte[] bytes = address.getAddress();
+    if (address instanceof Inet6Address) {
+      // unique local addresses fc00::/7
+      return (bytes[0] & 0xfe) != 0xfc;
+    }
+    // shared address space 100.64.0.0/10 (carrier-grade NAT)
+    return !((bytes[0] & 0xff) == 100 && (bytes[1] & 0xc0) == 64);
+  }
+}
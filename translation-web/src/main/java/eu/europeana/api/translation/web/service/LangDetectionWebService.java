@@ -20,6 +20,7 @@ import eu.europeana.api.translation.config.TranslationServiceProvider;
 import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
 import eu.europeana.api.translation.service.LanguageDetectionService;
 import eu.europeana.api.translation.service.exception.LanguageDetectionException;
+import eu.europeana.api.translation.service.util.Deadline;
 import eu.europeana.api.translation.web.exception.ParamValidationException;
 
 @Service
@@ -32,6 +33,14 @@ public class LangDetectionWebService extends BaseWebService {
 
   public LangDetectResponse detectLang(LangDetectRequest langDetectRequest)
       throws EuropeanaI18nApiException {
+    // the detection services use the remaining time of the request for their calls
+    try (Deadline.Scope deadlineScope = attachDeadline(langDetectRequest.getTimeout())) {
+      return detectLangWithServices(langDetectRequest);
+    }
+  }
+
+  private LangDetectResponse detectLangWithServices(LangDetectRequest langDetectRequest)
+      throws EuropeanaI18nApiException {
     List<LanguageDetectionObj> languageDetectionObjs = buildLangDetectionObjectList(langDetectRequest);
 
     LanguageDetectionService langDetectService = getLangDetectService(langDetectRequest);
@@ -46,8 +55,8 @@ public class LangDetectionWebService extends BaseWebService {
       langDetectService.detectLang(filteredObjs);
       serviceId = langDetectService.getServiceId();
     } catch (LanguageDetectionException originalError) {
-      // check if fallback is available
-      if (fallback == null) {
+      // check if fallback is available and can still complete before the deadline
+      if (fallback == null || !hasTimeForFallback()) {
         throwApiException(originalError);
       } else {
         try {
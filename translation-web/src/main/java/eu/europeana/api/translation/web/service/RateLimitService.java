@@ -0,0 +1,272 @@
+package eu.europeana.api.translation.web.service;
+
+import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_RATE_LIMIT_EXCEEDED;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import eu.europeana.api.translation.web.exception.AppConfigurationException;
+import eu.europeana.api.translation.web.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Token bucket rate limits per client and operation, measured in requests and in characters. The
+ * limits are enforced on local buckets, so that the requests never wait for redis. The local
+ * consumption is periodically added to buckets shared through redis and the local buckets are
+ * reduced to the tokens left in the shared ones. The limits therefore hold across instances, with
+ * a tolerance of the consumption within one synchronization interval.
+ */
+public class RateLimitService implements SmartLifecycle {
+
+  public static final String OPERATION_TRANSLATE = "translate";
+  public static final String OPERATION_DETECT = "detect";
+  static final String UNIT_REQUESTS = "requests";
+  static final String UNIT_CHARACTERS = "characters";
+
+  private static final long PERIOD_MILLIS = TimeUnit.MINUTES.toMillis(1);
+  // the shared buckets expire when not updated, the usage of older buckets is not relevant anymore
+  private static final long SHARED_BUCKET_TTL_MILLIS = 2 * PERIOD_MILLIS;
+  private static final String KEY_PREFIX = "translation:ratelimit:";
+  private static final char KEY_DELIMITER = '|';
+
+  /**
+   * Refills the shared bucket, subtracts the consumption reported by one instance and returns the
+   * remaining tokens. The debt is limited to one capacity, so that a burst does not block a client
+   * for more than one period.
+   */
+  private static final RedisScript<Long> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>(
+      "local capacity = tonumber(ARGV[1]) "
+          + "local rate = tonumber(ARGV[2]) "
+          + "local now = tonumber(ARGV[3]) "
+          + "local used = tonumber(ARGV[4]) "
+          + "local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts') "
+          + "local tokens = tonumber(state[1]) "
+          + "local ts = tonumber(state[2]) "
+          + "if tokens == nil then tokens = capacity ts = now end "
+          + "if now > ts then tokens = math.min(capacity, tokens + (now - ts) * rate) ts = now end "
+          + "tokens = math.max(tokens - used, -capacity) "
+          + "redis.call('HMSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(ts)) "
+          + "redis.call('PEXPIRE', KEYS[1], ARGV[5]) "
+          + "return math.floor(tokens)",
+      Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final ClientLimits defaultLimits;
+  private final Map<String, ClientLimits> clientLimits;
+  private final long syncMillis;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService syncScheduler;
+  private volatile boolean running;
+  private final Logger logger = LogManager.getLogger(getClass());
+
+  /**
+   * Constructor
+   * @param redisTemplate the template used for the synchronization of the buckets
+   * @param requestsPerMinute default limit of requests per client and operation, 0 for no limit
+   * @param charactersPerMinute default limit of characters per client and operation, 0 for no limit
+   * @param clientLimits limits for individual clients, in the format
+   *        client:requestsPerMinute:charactersPerMinute separated by comma, where the client is the
+   *        name of the authenticated principal (or the api key when authentication is disabled)
+   * @param syncMillis interval for the synchronization of the buckets through redis
+   * @param meterRegistry registry for the rate limit metrics
+   * @throws AppConfigurationException if the client limits cannot be parsed
+   */
+  public RateLimitService(StringRedisTemplate redisTemplate, long requestsPerMinute,
+      long charactersPerMinute, String clientLimits, long syncMillis, MeterRegistry meterRegistry)
+      throws AppConfigurationException {
+    this.redisTemplate = redisTemplate;
+    this.defaultLimits = new ClientLimits(requestsPerMinute, charactersPerMinute);
+    this.clientLimits = parseClientLimits(clientLimits);
+    this.syncMillis = syncMillis;
+    this.meterRegistry = meterRegistry;
+    meterRegistry.gaugeMapSize("translation.ratelimit.buckets", List.of(), buckets);
+  }
+
+  private static Map<String, ClientLimits> parseClientLimits(String clientLimits)
+      throws AppConfigurationException {
+    Map<String, ClientLimits> limits = new HashMap<>();
+    if (StringUtils.isBlank(clientLimits)) {
+      return limits;
+    }
+    for (String clientLimit : StringUtils.split(clientLimits, ',')) {
+      String[] values = StringUtils.split(clientLimit.trim(), ':');
+      try {
+        limits.put(values[0],
+            new ClientLimits(Long.parseLong(values[1]), Long.parseLong(values[2])));
+      } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+        throw new AppConfigurationException(
+            "Invalid client rate limit, expected client:requestsPerMinute:charactersPerMinute but was: "
+                + clientLimit);
+      }
+    }
+    return limits;
+  }
+
+  /**
+   * Consumes one request and the given number of characters from the buckets of the client
+   * @param clientKey the principal name of the client, or its api key when authentication is
+   *        disabled
+   * @param operation the requested operation
+   * @param characters the number of characters sent for processing
+   * @return the status of the most constraining limit, used for the response headers
+   * @throws RateLimitExceededException if one of the limits is exceeded
+   */
+  public RateLimitStatus consume(String clientKey, String operation, long characters)
+      throws RateLimitExceededException {
+    final ClientLimits limits = clientLimits.getOrDefault(clientKey, defaultLimits);
+    final long now = System.currentTimeMillis();
+
+    TokenBucket requestBucket = null;
+    if (limits.requestsPerMinute > 0) {
+      requestBucket = getBucket(clientKey, operation, UNIT_REQUESTS, limits.requestsPerMinute, now);
+      final long waitMillis = requestBucket.tryConsume(1, now);
+      if (waitMillis > 0) {
+        throw rateLimitExceeded(clientKey, operation, UNIT_REQUESTS, requestBucket, waitMillis, now);
+      }
+    }
+
+    TokenBucket charBucket = null;
+    if (limits.charactersPerMinute > 0) {
+      charBucket =
+          getBucket(clientKey, operation, UNIT_CHARACTERS, limits.charactersPerMinute, now);
+      final long waitMillis = charBucket.tryConsume(characters, now);
+      if (waitMillis > 0) {
+        if (requestBucket != null) {
+          requestBucket.refund(1);
+        }
+        throw rateLimitExceeded(clientKey, operation, UNIT_CHARACTERS, charBucket, waitMillis,
+            now);
+      }
+    }
+    return mostConstraining(requestBucket, charBucket, now);
+  }
+
+  private TokenBucket getBucket(String clientKey, String operation, String unit, long capacity,
+      long now) {
+    final String key = clientKey + KEY_DELIMITER + operation + KEY_DELIMITER + unit;
+    return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, PERIOD_MILLIS, now));
+  }
+
+  private RateLimitExceededException rateLimitExceeded(String clientKey, String operation,
+      String unit, TokenBucket bucket, long waitMillis, long now) {
+    meterRegistry.counter("translation.ratelimit.rejected", "operation", operation, "unit", unit)
+        .increment();
+    if (logger.isDebugEnabled()) {
+      logger.debug("Rate limit for {} exceeded by client {} for operation {}", unit, clientKey,
+          operation);
+    }
+    RateLimitStatus status = new RateLimitStatus(bucket.getCapacity(), bucket.getRemaining(now),
+        toSeconds(bucket.millisUntilFull(now)), toSeconds(waitMillis));
+    return new RateLimitExceededException(null, ERROR_RATE_LIMIT_EXCEEDED,
+        ERROR_RATE_LIMIT_EXCEEDED,
+        new String[] {unit, String.valueOf(bucket.getCapacity()), operation}, status);
+  }
+
+  private RateLimitStatus mostConstraining(TokenBucket requestBucket, TokenBucket charBucket,
+      long now) {
+    TokenBucket bucket = requestBucket;
+    if (bucket == null || (charBucket != null && charBucket.getRemaining(now)
+        * (double) bucket.getCapacity() < bucket.getRemaining(now)
+            * (double) charBucket.getCapacity())) {
+      bucket = charBucket;
+    }
+    if (bucket == null) {
+      return null;
+    }
+    return new RateLimitStatus(bucket.getCapacity(), bucket.getRemaining(now),
+        toSeconds(bucket.millisUntilFull(now)), 0);
+  }
+
+  private static long toSeconds(long millis) {
+    return (millis + 999) / 1000;
+  }
+
+  /**
+   * Reports the local consumption to the shared buckets and applies their state locally. The
+   * buckets not used within the last period are removed, the ones with unreported usage (redis not
+   * available) after the expiration of the shared buckets, so that the map cannot grow forever.
+   */
+  void synchronizeBuckets() {
+    final long now = System.currentTimeMillis();
+    int failed = 0;
+    RuntimeException lastError = null;
+    for (Map.Entry<String, TokenBucket> entry : buckets.entrySet()) {
+      final TokenBucket bucket = entry.getValue();
+      if (bucket.isIdle(now, PERIOD_MILLIS) || bucket.isExpired(now, SHARED_BUCKET_TTL_MILLIS)) {
+        buckets.remove(entry.getKey(), bucket);
+        continue;
+      }
+      final long usage = bucket.drainUnsyncedUsage();
+      try {
+        Long globalTokens = redisTemplate.execute(TOKEN_BUCKET_SCRIPT,
+            List.of(KEY_PREFIX + entry.getKey()), String.valueOf(bucket.getCapacity()),
+            String.valueOf(bucket.getRefillPerMilli()), String.valueOf(now),
+            String.valueOf(usage), String.valueOf(SHARED_BUCKET_TTL_MILLIS));
+        if (globalTokens != null) {
+          bucket.applyGlobalTokens(globalTokens, now);
+        }
+      } catch (RuntimeException e) {
+        // keep enforcing the local limits, the usage is reported with the next synchronization
+        bucket.restoreUnsyncedUsage(usage);
+        failed++;
+        lastError = e;
+      }
+    }
+    if (lastError != null) {
+      logger.warn("Cannot synchronize {} rate limit buckets through redis: {}", failed,
+          lastError.getMessage());
+    }
+  }
+
+  @Override
+  public void start() {
+    syncScheduler = Executors
+        .newSingleThreadScheduledExecutor(new CustomizableThreadFactory("translation-ratelimit-"));
+    syncScheduler.scheduleWithFixedDelay(this::synchronizeBuckets, syncMillis, syncMillis,
+        TimeUnit.MILLISECONDS);
+    running = true;
+    if (logger.isInfoEnabled()) {
+      logger.info("Rate limiting enabled with {} requests and {} characters per minute",
+          defaultLimits.requestsPerMinute, defaultLimits.charactersPerMinute);
+    }
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (syncScheduler != null) {
+      syncScheduler.shutdown();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Request and character limits of one client
+   */
+  private static final class ClientLimits {
+    private final long requestsPerMinute;
+    private final long charactersPerMinute;
+
+    ClientLimits(long requestsPerMinute, long charactersPerMinute) {
+      this.requestsPerMinute = requestsPerMinute;
+      this.charactersPerMinute = charactersPerMinute;
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package eu.europeana.api.translation.web.service;
+
+import org.springframework.http.HttpHeaders;
+import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
+
+/**
+ * State of the most constraining rate limit of a client after a request, reported in the
+ * X-RateLimit-* response headers
+ */
+public class RateLimitStatus {
+
+  private final long limit;
+  private final long remaining;
+  private final long resetSeconds;
+  private final long retryAfterSeconds;
+
+  /**
+   * Constructor
+   * @param limit the number of requests or characters allowed per minute
+   * @param remaining the number of requests or characters still available
+   * @param resetSeconds the time until the limit is completely available again
+   * @param retryAfterSeconds the time until the rejected request can be retried, 0 if accepted
+   */
+  public RateLimitStatus(long limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+    this.limit = limit;
+    this.remaining = remaining;
+    this.resetSeconds = resetSeconds;
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getLimit() {
+    return limit;
+  }
+
+  public long getRemaining() {
+    return remaining;
+  }
+
+  public long getResetSeconds() {
+    return resetSeconds;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+
+  /**
+   * Adds the X-RateLimit-* headers
+   * @param headers the response headers
+   */
+  public void addHeaders(HttpHeaders headers) {
+    headers.set(TranslationAppConstants.RATE_LIMIT_LIMIT_HEADER, String.valueOf(limit));
+    headers.set(TranslationAppConstants.RATE_LIMIT_REMAINING_HEADER, String.valueOf(remaining));
+    headers.set(TranslationAppConstants.RATE_LIMIT_RESET_HEADER, String.valueOf(resetSeconds));
+  }
+}
@@ -10,6 +10,7 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import eu.europeana.api.translation.definitions.model.TranslationObj;
+import eu.europeana.api.translation.service.TranslationService;
 import eu.europeana.api.translation.service.util.TranslationUtils;
 import eu.europeana.api.translation.web.model.CachedTranslation;
 import io.micrometer.core.instrument.util.StringUtils;
@@ -30,12 +31,28 @@ public class RedisCacheService {
   }
 
   /**
-   * Fills the translation texts and cache keys if the are available in redis cache
+   * Fills the translation texts and cache keys if the are available in redis cache, all cached
+   * scores are accepted
    * 
    * @param translationObjects the list of objects for which the translations will be searched in
    *        the cache
    */
   public void fillWithCachedTranslations(List<TranslationObj> translationObjects) {
+    fillWithCachedTranslations(translationObjects, null);
+  }
+
+  /**
+   * Fills the translation texts and cache keys if the are available in redis cache. The cached
+   * translations having a score are filled only if they were produced by the scoring service and
+   * the score is accepted by it, otherwise they are handled as cache misses and translated again
+   * (e.g. by another service or after lowering the threshold).
+   * 
+   * @param translationObjects the list of objects for which the translations will be searched in
+   *        the cache
+   * @param scoringService the service applying the quality thresholds, null to accept all scores
+   */
+  public void fillWithCachedTranslations(List<TranslationObj> translationObjects,
+      TranslationService scoringService) {
     // generate keys and list of cacheable translations
     List<String> cacheKeys = new ArrayList<>();
     List<TranslationObj> cacheableTranslations = new ArrayList<>();
@@ -69,7 +86,7 @@ public class RedisCacheService {
     // Accumulate cached translations to translation objects
     for (int i = 0; i < redisResponse.size(); i++) {
       updateFromCachedTranslation(cacheableTranslations.get(i), redisResponse.get(i),
-          cacheKeys.get(i));
+          cacheKeys.get(i), scoringService);
     }
   }
 
@@ -80,16 +97,40 @@ public class RedisCacheService {
    * @param translationString the object to cumulate the cached translation
    * @param cachedTranslation translation found in the cache
    * @param cacheKey the redis key of the cached translations
+   * @param scoringService the service applying the quality thresholds, may be null
    */
   private void updateFromCachedTranslation(TranslationObj translationString,
-      CachedTranslation cachedTranslation, final String cacheKey) {
-    if (cachedTranslation != null && cachedTranslation.getTranslation() != null) {
-      // update set key and translation, the the reference is to the same object as in the input
-      // list
+      CachedTranslation cachedTranslation, final String cacheKey,
+      TranslationService scoringService) {
+    // the key under which the translation will be stored, see ETranslationJobStore
+    translationString.setCacheKey(cacheKey);
+    if (cachedTranslation == null || cachedTranslation.getTranslation() == null
+        || !isProducedBy(cachedTranslation, scoringService)) {
+      return;
+    }
+    // the reference is to the same object as in the input list
+    final Double score = cachedTranslation.getScore();
+    if (score != null) {
+      translationString.setRawTranslation(cachedTranslation.getTranslation());
+      translationString.setScore(score);
+    }
+    // the translations rejected by the current threshold are left empty, but they are not sent to
+    // the service again, the same service would return the same translation and score
+    if (score == null || scoringService == null
+        || scoringService.isAcceptedScore(translationString.getSourceLang(), score)) {
       translationString.setTranslation(cachedTranslation.getTranslation());
-      translationString.setRetrievedFromCache(true);
-      translationString.setCacheKey(cacheKey);
     }
+    translationString.setRetrievedFromCache(true);
+  }
+
+  /**
+   * The scores are comparable only with the threshold of the service which produced them, the
+   * scored translations of other services (or cached without service) are cache misses
+   */
+  private boolean isProducedBy(CachedTranslation cachedTranslation,
+      TranslationService scoringService) {
+    return cachedTranslation.getScore() == null || scoringService == null
+        || Objects.equals(scoringService.getServiceId(), cachedTranslation.getService());
   }
 
   /**
@@ -120,6 +161,11 @@ public class RedisCacheService {
         && StringUtils.isNotEmpty(translationString.getTranslation());
   }
 
+  private boolean hasScoredTranslation(TranslationObj translationString) {
+    return translationString.getTargetLang() != null && translationString.getScore() != null
+        && StringUtils.isNotEmpty(translationString.getRawTranslation());
+  }
+
   /**
    * Method to store translations into the cache. Only objects that are not marked as existing in
    * the cache and fullfiling the {@link #isCacheable(TranslationObj)} criteria will be written into
@@ -128,15 +174,28 @@ public class RedisCacheService {
    * @param translationStrings the translations to be written into the cache
    */
   public void store(List<TranslationObj> translationStrings) {
+    store(translationStrings, null);
+  }
+
+  /**
+   * Stores the translations into the cache, see {@link #store(List)}. The scored translations are
+   * stored with the id of the service which produced them.
+   * 
+   * @param translationStrings the translations to be written into the cache
+   * @param serviceId the id of the translation service, may be null for services without scores
+   */
+  public void store(List<TranslationObj> translationStrings, String serviceId) {
     Map<String, CachedTranslation> valueMap = new HashMap<>();
     String key;
     for (TranslationObj translObj : translationStrings) {
-      if (isCacheable(translObj) && hasTranslation(translObj) && !translObj.isRetrievedFromCache()) {
+      // the translations rejected by the quality threshold are stored too, with their score
+      if (isCacheable(translObj) && (hasTranslation(translObj) || hasScoredTranslation(translObj))
+          && !translObj.isRetrievedFromCache()) {
         // String key = translObj.getCacheKey();
         key = TranslationUtils.generateRedisKey(translObj.getText(), translObj.getSourceLang(),
             translObj.getTargetLang(), null);
         translObj.setCacheKey(key);
-        valueMap.put(key, toCachedTranslation(translObj));
+        valueMap.put(key, toCachedTranslation(translObj, serviceId));
       }
     }
 
@@ -146,11 +205,18 @@ public class RedisCacheService {
     }
   }
 
-  private CachedTranslation toCachedTranslation(TranslationObj translationObj) {
+  private CachedTranslation toCachedTranslation(TranslationObj translationObj, String serviceId) {
     CachedTranslation cachedTranslation;
     cachedTranslation = new CachedTranslation();
     cachedTranslation.setOriginal(translationObj.getText());
-    cachedTranslation.setTranslation(translationObj.getTranslation());
+    if (translationObj.getScore() != null && translationObj.getRawTranslation() != null) {
+      // the threshold is applied when reading, it may change in the meantime
+      cachedTranslation.setTranslation(translationObj.getRawTranslation());
+      cachedTranslation.setScore(translationObj.getScore());
+      cachedTranslation.setService(serviceId);
+    } else {
+      cachedTranslation.setTranslation(translationObj.getTranslation());
+    }
     return cachedTranslation;
   }
 
@@ -0,0 +1,16 @@
+package eu.europeana.api.translation.web.service;
+
+/**
+ * Policies for selecting the translation service among the healthy candidates supporting a
+ * language pair
+ */
+public enum RoutingPolicy {
+  /** the service from the mappings or the default service, the statistics are only collected */
+  STATIC,
+  /** the service with the lowest average latency */
+  LOWEST_LATENCY,
+  /** the cheapest service with the average latency within the SLO */
+  CHEAPEST_WITHIN_SLO,
+  /** random split of the traffic proportional to the configured weights */
+  WEIGHTED
+}
@@ -0,0 +1,62 @@
+package eu.europeana.api.translation.web.service;
+
+/**
+ * Exponentially weighted moving averages of the latency, error rate and timeout rate of one
+ * translation service for one language pair. The rates decay while the service does not receive
+ * traffic, so that a service avoided because of errors is eventually tried again.
+ */
+class ServicePerformance {
+
+  private final double decay;
+  private final long recoveryMillis;
+
+  private double latencyMillis;
+  private double errorRate;
+  private double timeoutRate;
+  private long samples;
+  private long lastUpdate;
+
+  ServicePerformance(double decay, long recoveryMillis) {
+    this.decay = decay;
+    this.recoveryMillis = recoveryMillis;
+  }
+
+  /**
+   * Records the outcome of one call, the latency of failed calls is ignored unless they timed out
+   * as the fast failures would make the service look faster
+   */
+  synchronized void record(long latency, boolean error, boolean timeout) {
+    if (!error || timeout) {
+      latencyMillis = (samples == 0) ? latency : latencyMillis + decay * (latency - latencyMillis);
+    }
+    // apply the recovery before adding the new sample
+    final double recovery = recoveryFactor();
+    errorRate = errorRate * recovery + decay * ((error ? 1 : 0) - errorRate * recovery);
+    timeoutRate = timeoutRate * recovery + decay * ((timeout ? 1 : 0) - timeoutRate * recovery);
+    samples++;
+    lastUpdate = System.currentTimeMillis();
+  }
+
+  private double recoveryFactor() {
+    if (recoveryMillis <= 0 || samples == 0) {
+      return 1;
+    }
+    return Math.exp(-(System.currentTimeMillis() - lastUpdate) / (double) recoveryMillis);
+  }
+
+  synchronized double getLatencyMillis() {
+    return latencyMillis;
+  }
+
+  synchronized double getErrorRate() {
+    return errorRate * recoveryFactor();
+  }
+
+  synchronized double getTimeoutRate() {
+    return timeoutRate * recoveryFactor();
+  }
+
+  synchronized long getSamples() {
+    return samples;
+  }
+}
@@ -0,0 +1,111 @@
+package eu.europeana.api.translation.web.service;
+
+/**
+ * Token bucket refilled continuously so that the capacity is restored within one period. The
+ * tokens consumed locally since the last synchronization are kept, so that they can be reported
+ * to the bucket shared by all instances.
+ */
+class TokenBucket {
+
+  private final long capacity;
+  private final double refillPerMilli;
+
+  private double tokens;
+  private long lastRefill;
+  private long lastAccess;
+  private long unsyncedUsage;
+
+  TokenBucket(long capacity, long periodMillis, long now) {
+    this.capacity = capacity;
+    this.refillPerMilli = capacity / (double) periodMillis;
+    this.tokens = capacity;
+    this.lastRefill = now;
+    this.lastAccess = now;
+  }
+
+  private void refill(long now) {
+    if (now > lastRefill) {
+      tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerMilli);
+      lastRefill = now;
+    }
+  }
+
+  /**
+   * Consumes the given amount of tokens if available. Amounts larger than the capacity are
+   * accepted when the bucket is full, the following requests need to wait until the debt is paid.
+   *
+   * @param amount the number of tokens to consume
+   * @param now the current time
+   * @return 0 if the tokens were consumed, otherwise the millis until enough tokens are available
+   */
+  synchronized long tryConsume(long amount, long now) {
+    refill(now);
+    lastAccess = now;
+    final double required = Math.min(amount, capacity);
+    if (tokens >= required) {
+      tokens -= amount;
+      unsyncedUsage += amount;
+      return 0;
+    }
+    return Math.max(1, (long) Math.ceil((required - tokens) / refillPerMilli));
+  }
+
+  /**
+   * Gives back tokens consumed for a request which was rejected by another limit
+   */
+  synchronized void refund(long amount) {
+    tokens = Math.min(capacity, tokens + amount);
+    unsyncedUsage -= amount;
+  }
+
+  synchronized long getRemaining(long now) {
+    refill(now);
+    return Math.max(0, (long) Math.floor(tokens));
+  }
+
+  synchronized long millisUntilFull(long now) {
+    refill(now);
+    return (long) Math.ceil((capacity - tokens) / refillPerMilli);
+  }
+
+  synchronized long drainUnsyncedUsage() {
+    final long usage = unsyncedUsage;
+    unsyncedUsage = 0;
+    return usage;
+  }
+
+  synchronized void restoreUnsyncedUsage(long usage) {
+    unsyncedUsage += usage;
+  }
+
+  /**
+   * Applies the state of the shared bucket, which includes the consumption of all instances
+   *
+   * @param globalTokens the tokens available in the shared bucket
+   * @param now the current time
+   */
+  synchronized void applyGlobalTokens(long globalTokens, long now) {
+    refill(now);
+    tokens = Math.min(tokens, globalTokens);
+  }
+
+  synchronized boolean isIdle(long now, long idleMillis) {
+    return unsyncedUsage == 0 && now - lastAccess > idleMillis;
+  }
+
+  /**
+   * Indicates that the bucket was not used for longer than the given time, even if its usage was
+   * not reported to the shared bucket
+   */
+  synchronized boolean isExpired(long now, long ttlMillis) {
+    return now - lastAccess > ttlMillis;
+  }
+
+  long getCapacity() {
+    return capacity;
+  }
+
+  double getRefillPerMilli() {
+    return refillPerMilli;
+  }
+}
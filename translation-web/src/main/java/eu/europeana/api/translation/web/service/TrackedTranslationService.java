@@ -0,0 +1,152 @@
+package eu.europeana.api.translation.web.service;
+
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import eu.europeana.api.translation.definitions.language.LanguagePair;
+import eu.europeana.api.translation.definitions.model.TranslationObj;
+import eu.europeana.api.translation.service.TranslationService;
+import eu.europeana.api.translation.service.exception.DeadlineExceededException;
+import eu.europeana.api.translation.service.exception.TranslationException;
+
+/**
+ * Translation service decorator reporting the latency and the outcome of each call to the
+ * {@link AdaptiveServiceRouter}. All texts of a call have the same language pair, the pair is read
+ * from the first one. The calls aborted because the deadline of our request expired (e.g. before
+ * sending a chunk or while waiting in the bulkhead) are not recorded, they say nothing about the
+ * performance of the service.
+ */
+public class TrackedTranslationService implements TranslationService {
+
+  private static final int GATEWAY_TIMEOUT = 504;
+
+  private final TranslationService translationService;
+  private final AdaptiveServiceRouter router;
+
+  public TrackedTranslationService(TranslationService translationService,
+      AdaptiveServiceRouter router) {
+    this.translationService = translationService;
+    this.router = router;
+  }
+
+  @Override
+  public void translate(List<TranslationObj> translationObjs) throws TranslationException {
+    if (translationObjs.isEmpty()) {
+      translationService.translate(translationObjs);
+      return;
+    }
+    final LanguagePair languagePair = new LanguagePair(translationObjs.get(0).getSourceLang(),
+        translationObjs.get(0).getTargetLang());
+    final long start = System.nanoTime();
+    try {
+      translationService.translate(translationObjs);
+      record(languagePair, start, false, false);
+    } catch (TranslationException e) {
+      if (!isOwnDeadline(e)) {
+        record(languagePair, start, true, isTimeout(e));
+      }
+      throw e;
+    } catch (RuntimeException e) {
+      record(languagePair, start, true, false);
+      throw e;
+    }
+  }
+
+  /**
+   * The latency of the multi-target call is recorded for the language pair of each target
+   */
+  @Override
+  public void translateMultiTarget(Map<String, List<TranslationObj>> translationObjsByTarget)
+      throws TranslationException {
+    final long start = System.nanoTime();
+    try {
+      translationService.translateMultiTarget(translationObjsByTarget);
+      recordTargets(translationObjsByTarget, start, false, false);
+    } catch (TranslationException e) {
+      if (!isOwnDeadline(e)) {
+        recordTargets(translationObjsByTarget, start, true, isTimeout(e));
+      }
+      throw e;
+    } catch (RuntimeException e) {
+      recordTargets(translationObjsByTarget, start, true, false);
+      throw e;
+    }
+  }
+
+  private void recordTargets(Map<String, List<TranslationObj>> translationObjsByTarget,
+      long start, boolean error, boolean timeout) {
+    for (List<TranslationObj> translationObjs : translationObjsByTarget.values()) {
+      if (!translationObjs.isEmpty()) {
+        record(new LanguagePair(translationObjs.get(0).getSourceLang(),
+            translationObjs.get(0).getTargetLang()), start, error, timeout);
+      }
+    }
+  }
+
+  private void record(LanguagePair languagePair, long start, boolean error, boolean timeout) {
+    router.recordCall(getServiceId(), languagePair,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), error, timeout);
+  }
+
+  /**
+   * The timeouts of the service: gateway timeout reported by the service or by its client library,
+   * read timeout or no callback received in time
+   */
+  private boolean isTimeout(TranslationException e) {
+    return e.getRemoteStatusCode() == GATEWAY_TIMEOUT
+        || hasCause(e, SocketTimeoutException.class) || hasCause(e, TimeoutException.class);
+  }
+
+  /**
+   * The {@link DeadlineExceededException} is thrown only by our own deadline checks
+   */
+  private boolean isOwnDeadline(TranslationException e) {
+    return hasCause(e, DeadlineExceededException.class);
+  }
+
+  private static boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+    for (Throwable cause = e.getCause(); cause != null && cause != cause.getCause();
+        cause = cause.getCause()) {
+      if (type.isInstance(cause)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public TranslationService getTranslationService() {
+    return translationService;
+  }
+
+  @Override
+  public String getServiceId() {
+    return translationService.getServiceId();
+  }
+
+  @Override
+  public void setServiceId(String serviceId) {
+    translationService.setServiceId(serviceId);
+  }
+
+  @Override
+  public boolean isSupported(String srcLang, String trgLang) {
+    return translationService.isSupported(srcLang, trgLang);
+  }
+
+  @Override
+  public boolean isAcceptedScore(String srcLang, double score) {
+    return translationService.isAcceptedScore(srcLang, score);
+  }
+
+  @Override
+  public void close() {
+    translationService.close();
+  }
+
+  @Override
+  public String getExternalServiceEndPoint() {
+    return translationService.getExternalServiceEndPoint();
+  }
+}
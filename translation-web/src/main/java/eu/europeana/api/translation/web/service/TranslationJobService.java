@@ -0,0 +1,259 @@
+package eu.europeana.api.translation.web.service;
+
+import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_JOBS_QUEUE_FULL;
+import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_JOB_NOT_COMPLETED;
+import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_NOT_FOUND;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.europeana.api.translation.definitions.model.TranslationJob;
+import eu.europeana.api.translation.definitions.model.TranslationJobRequest;
+import eu.europeana.api.translation.definitions.model.TranslationJobStatus;
+import eu.europeana.api.translation.definitions.model.TranslationResponse;
+import eu.europeana.api.translation.web.exception.JobNotCompletedException;
+import eu.europeana.api.translation.web.exception.ResourceNotFoundException;
+import eu.europeana.api.translation.web.exception.ServiceSaturatedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Service for the management of asynchronous translation jobs. The job state, progress and
+ * results are stored in redis hashes, while the ids of the submitted jobs are queued in a redis
+ * stream, from where they are consumed by the {@link TranslationJobWorker} of any application
+ * instance. The job hashes expire when the job doesn't progress within the expiration time, also
+ * the ones still queued or running (e.g. whose message was lost), the finished jobs expire after
+ * the same time.
+ */
+public class TranslationJobService {
+
+  public static final String JOBS_STREAM = "translation:jobs";
+  public static final String JOBS_CONSUMER_GROUP = "translation-api";
+  static final String JOB_KEY_PREFIX = "translation:job:";
+  static final String RESULTS_KEY_SUFFIX = ":results";
+
+  // job hash fields
+  static final String FIELD_ID = "id";
+  static final String FIELD_STATUS = "status";
+  static final String FIELD_REQUEST = "request";
+  static final String FIELD_TOTAL = "total";
+  static final String FIELD_PROCESSED = "processed";
+  static final String FIELD_NEXT_CHUNK = "nextChunk";
+  static final String FIELD_ATTEMPTS = "attempts";
+  static final String FIELD_SERVICE = "service";
+  static final String FIELD_ERROR = "error";
+  static final String FIELD_CREATED = "created";
+  static final String FIELD_MODIFIED = "modified";
+
+  private static final int QUEUE_FULL_RETRY_AFTER_SECONDS = 60;
+
+  private final StringRedisTemplate redisTemplate;
+  private final ObjectMapper mapper;
+  private final Duration jobExpiration;
+  private final long streamMaxLength;
+  private final Counter submittedJobs;
+  private final Logger logger = LogManager.getLogger(getClass());
+
+  /**
+   * Constructor
+   * @param redisTemplate template for the redis communication
+   * @param mapper the json mapper used to store the job requests
+   * @param jobExpiration the time after which the finished (or not progressing) jobs and their
+   *        results are removed
+   * @param streamMaxLength max number of queued or running jobs, the other submissions are rejected
+   * @param meterRegistry registry for the job metrics
+   */
+  public TranslationJobService(StringRedisTemplate redisTemplate, ObjectMapper mapper,
+      Duration jobExpiration, long streamMaxLength, MeterRegistry meterRegistry) {
+    this.redisTemplate = redisTemplate;
+    this.mapper = mapper;
+    this.jobExpiration = jobExpiration;
+    this.streamMaxLength = streamMaxLength;
+    this.submittedJobs = meterRegistry.counter("translation.jobs.submitted");
+  }
+
+  /**
+   * Stores the job and adds it to the processing queue
+   * @param jobRequest the (validated) translation job request
+   * @return the status of the queued job
+   * @throws JsonProcessingException if the request cannot be serialized
+   * @throws ServiceSaturatedException if the backlog of the jobs is full
+   */
+  public TranslationJob submit(TranslationJobRequest jobRequest)
+      throws JsonProcessingException, ServiceSaturatedException {
+    // the processed messages are deleted by the workers, the stream contains the backlog only
+    final Long backlog = redisTemplate.opsForStream().size(JOBS_STREAM);
+    if (backlog != null && backlog >= streamMaxLength) {
+      throw new ServiceSaturatedException("Too many queued translation jobs: " + backlog,
+          ERROR_JOBS_QUEUE_FULL, ERROR_JOBS_QUEUE_FULL, null, QUEUE_FULL_RETRY_AFTER_SECONDS,
+          null);
+    }
+
+    final String jobId = UUID.randomUUID().toString();
+    final String now = String.valueOf(System.currentTimeMillis());
+    Map<String, String> job = new HashMap<>();
+    job.put(FIELD_ID, jobId);
+    job.put(FIELD_STATUS, TranslationJobStatus.QUEUED.name());
+    job.put(FIELD_REQUEST, mapper.writeValueAsString(jobRequest));
+    job.put(FIELD_TOTAL, String.valueOf(jobRequest.getText().size()));
+    job.put(FIELD_PROCESSED, "0");
+    job.put(FIELD_NEXT_CHUNK, "0");
+    job.put(FIELD_ATTEMPTS, "0");
+    job.put(FIELD_CREATED, now);
+    job.put(FIELD_MODIFIED, now);
+    redisTemplate.opsForHash().putAll(getJobKey(jobId), job);
+    redisTemplate.expire(getJobKey(jobId), jobExpiration);
+    redisTemplate.opsForStream().add(JOBS_STREAM, Collections.singletonMap(FIELD_ID, jobId));
+    submittedJobs.increment();
+
+    if (logger.isDebugEnabled()) {
+      logger.debug("Submitted translation job {} with {} texts", jobId,
+          jobRequest.getText().size());
+    }
+    return toTranslationJob(job, jobRequest.getTarget());
+  }
+
+  /**
+   * Retrieves the status of the job
+   * @param jobId the job id
+   * @return the job status and progress
+   * @throws ResourceNotFoundException if the job doesn't exist (or expired)
+   */
+  public TranslationJob getJob(String jobId) throws ResourceNotFoundException {
+    Map<String, String> job = getJobEntries(jobId);
+    if (job.isEmpty()) {
+      throw new ResourceNotFoundException(null, ERROR_NOT_FOUND, ERROR_NOT_FOUND,
+          new String[] {jobId});
+    }
+    return toTranslationJob(job, readTarget(job));
+  }
+
+  /**
+   * Retrieves the results of a completed job
+   * @param jobId the job id
+   * @return the translation response
+   * @throws ResourceNotFoundException if the job doesn't exist (or expired)
+   * @throws JobNotCompletedException if the job was not (successfully) completed
+   */
+  public TranslationResponse getResults(String jobId)
+      throws ResourceNotFoundException, JobNotCompletedException {
+    TranslationJob job = getJob(jobId);
+    if (job.getStatus() != TranslationJobStatus.COMPLETED) {
+      throw new JobNotCompletedException(null, ERROR_JOB_NOT_COMPLETED, ERROR_JOB_NOT_COMPLETED,
+          new String[] {jobId, String.valueOf(job.getStatus())});
+    }
+
+    Map<Object, Object> results = redisTemplate.opsForHash().entries(getResultsKey(jobId));
+    List<String> translations = new ArrayList<>(Collections.nCopies(job.getTotal(), null));
+    for (Map.Entry<Object, Object> result : results.entrySet()) {
+      translations.set(Integer.parseInt((String) result.getKey()), (String) result.getValue());
+    }
+    TranslationResponse response = new TranslationResponse();
+    response.setTranslations(translations);
+    response.setLang(job.getLang());
+    response.setService(job.getService());
+    return response;
+  }
+
+  Map<String, String> getJobEntries(String jobId) {
+    Map<String, String> job = redisTemplate.<String, String>opsForHash().entries(getJobKey(jobId));
+    return job == null ? Collections.emptyMap() : job;
+  }
+
+  TranslationJobRequest readJobRequest(Map<String, String> job) throws JsonProcessingException {
+    return mapper.readValue(job.get(FIELD_REQUEST), TranslationJobRequest.class);
+  }
+
+  /**
+   * Stores the translations of a processed chunk together with the new checkpoint
+   * @param jobId the job id
+   * @param firstIndex the index of the first text in the chunk
+   * @param translations the translations of the chunk
+   * @param nextChunk the index of the next chunk to process
+   * @param serviceId the service used for translation
+   */
+  void checkpoint(String jobId, int firstIndex, List<String> translations, int nextChunk,
+      String serviceId) {
+    Map<String, String> results = new HashMap<>();
+    for (int i = 0; i < translations.size(); i++) {
+      if (translations.get(i) != null) {
+        results.put(String.valueOf(firstIndex + i), translations.get(i));
+      }
+    }
+    if (!results.isEmpty()) {
+      redisTemplate.opsForHash().putAll(getResultsKey(jobId), results);
+      redisTemplate.expire(getResultsKey(jobId), jobExpiration);
+    }
+
+    Map<String, String> progress = new HashMap<>();
+    progress.put(FIELD_PROCESSED, String.valueOf(firstIndex + translations.size()));
+    progress.put(FIELD_NEXT_CHUNK, String.valueOf(nextChunk));
+    progress.put(FIELD_ATTEMPTS, "0");
+    progress.put(FIELD_MODIFIED, String.valueOf(System.currentTimeMillis()));
+    if (serviceId != null) {
+      progress.put(FIELD_SERVICE, serviceId);
+    }
+    redisTemplate.opsForHash().putAll(getJobKey(jobId), progress);
+    redisTemplate.expire(getJobKey(jobId), jobExpiration);
+  }
+
+  void updateStatus(String jobId, TranslationJobStatus status, String error) {
+    Map<String, String> update = new HashMap<>();
+    update.put(FIELD_STATUS, status.name());
+    update.put(FIELD_MODIFIED, String.valueOf(System.currentTimeMillis()));
+    if (error != null) {
+      update.put(FIELD_ERROR, error);
+    }
+    redisTemplate.opsForHash().putAll(getJobKey(jobId), update);
+    // the expiration starts again with each status change, finished jobs are kept only for a
+    // limited time
+    redisTemplate.expire(getJobKey(jobId), jobExpiration);
+    if (status.isFinished()) {
+      redisTemplate.expire(getResultsKey(jobId), jobExpiration);
+    }
+  }
+
+  long incrementAttempts(String jobId) {
+    return redisTemplate.opsForHash().increment(getJobKey(jobId), FIELD_ATTEMPTS, 1);
+  }
+
+  TranslationJob toTranslationJob(Map<String, String> job, String target) {
+    TranslationJob translationJob = new TranslationJob();
+    translationJob.setId(job.get(FIELD_ID));
+    translationJob.setStatus(TranslationJobStatus.valueOf(job.get(FIELD_STATUS)));
+    translationJob.setTotal(Integer.parseInt(job.get(FIELD_TOTAL)));
+    translationJob.setProcessed(Integer.parseInt(job.get(FIELD_PROCESSED)));
+    translationJob.setLang(target);
+    translationJob.setService(job.get(FIELD_SERVICE));
+    translationJob.setError(job.get(FIELD_ERROR));
+    translationJob.setCreated(new Date(Long.parseLong(job.get(FIELD_CREATED))));
+    translationJob.setModified(new Date(Long.parseLong(job.get(FIELD_MODIFIED))));
+    return translationJob;
+  }
+
+  private String readTarget(Map<String, String> job) {
+    try {
+      return readJobRequest(job).getTarget();
+    } catch (JsonProcessingException e) {
+      logger.warn("Cannot read request of translation job {}", job.get(FIELD_ID), e);
+      return null;
+    }
+  }
+
+  static String getJobKey(String jobId) {
+    return JOB_KEY_PREFIX + jobId;
+  }
+
+  static String getResultsKey(String jobId) {
+    return JOB_KEY_PREFIX + jobId + RESULTS_KEY_SUFFIX;
+  }
+}
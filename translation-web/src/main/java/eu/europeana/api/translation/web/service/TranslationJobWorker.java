@@ -0,0 +1,475 @@
+package eu.europeana.api.translation.web.service;
+
+import static eu.europeana.api.translation.web.service.TranslationJobService.FIELD_ATTEMPTS;
+import static eu.europeana.api.translation.web.service.TranslationJobService.FIELD_ID;
+import static eu.europeana.api.translation.web.service.TranslationJobService.FIELD_NEXT_CHUNK;
+import static eu.europeana.api.translation.web.service.TranslationJobService.FIELD_STATUS;
+import static eu.europeana.api.translation.web.service.TranslationJobService.JOBS_CONSUMER_GROUP;
+import static eu.europeana.api.translation.web.service.TranslationJobService.JOBS_STREAM;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStreamCommands.XClaimOptions;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamMessageListenerContainerOptions;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import eu.europeana.api.commons.error.EuropeanaI18nApiException;
+import eu.europeana.api.translation.definitions.model.TranslationJob;
+import eu.europeana.api.translation.definitions.model.TranslationJobRequest;
+import eu.europeana.api.translation.definitions.model.TranslationJobStatus;
+import eu.europeana.api.translation.definitions.model.TranslationRequest;
+import eu.europeana.api.translation.definitions.model.TranslationResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Consumes the translation jobs from the redis stream and processes them in chunks. The progress
+ * is checkpointed after each chunk, so that jobs interrupted by a restart (i.e. not acknowledged
+ * messages) can be claimed by other consumers and continued from the last checkpoint. Failed
+ * chunks are retried a configurable number of times before the job is marked as failed. While a
+ * job is processed, the idle time of its message is reset periodically (heartbeat), so that only
+ * the jobs of stopped consumers are claimed, not the ones running longer than the claim time.
+ * The jobs whose message was delivered maxAttempts times without being acknowledged (e.g. because
+ * the processing fails unexpectedly or stops the consumer) are marked as failed instead of being
+ * claimed again.
+ */
+public class TranslationJobWorker implements SmartLifecycle {
+
+  // max number of pending messages inspected in one claim run
+  private static final int PENDING_SCAN_SIZE = 100;
+
+  private final TranslationJobService jobService;
+  private final TranslationWebService translationWebService;
+  private final StringRedisTemplate redisTemplate;
+  private final RedisConnectionFactory connectionFactory;
+  private final int threads;
+  private final int chunkSize;
+  private final int maxAttempts;
+  private final long retryDelayMillis;
+  private final Duration claimIdleTime;
+  private final String consumerName;
+  private final Semaphore availableWorkers;
+  private final RestTemplate webhookClient;
+  private final CallbackUrlValidator callbackUrlValidator;
+  // the messages of the jobs processed by this consumer
+  private final Set<RecordId> messagesInProgress = ConcurrentHashMap.newKeySet();
+
+  private final AtomicInteger runningJobs = new AtomicInteger();
+  private final Counter completedJobs;
+  private final Counter failedJobs;
+  private final Counter retries;
+  private final Counter translatedTexts;
+  private final Timer chunkTimer;
+
+  private ExecutorService jobExecutor;
+  private ScheduledExecutorService claimScheduler;
+  private StreamMessageListenerContainer<String, MapRecord<String, String, String>> container;
+  private volatile boolean running;
+  private final Logger logger = LogManager.getLogger(getClass());
+
+  /**
+   * Constructor
+   * @param jobService the job management service
+   * @param translationWebService the service used to translate the job chunks
+   * @param redisTemplate the template for redis communication
+   * @param threads number of jobs processed in parallel by this instance
+   * @param chunkSize number of texts translated in one chunk
+   * @param maxAttempts maximum number of attempts for translating a chunk
+   * @param retryDelayMillis delay before retrying a failed chunk, multiplied by the attempt number
+   * @param claimIdleTime time after which jobs not acknowledged by other consumers are claimed
+   * @param callbackUrlValidator verifies the callback urls before they are notified
+   * @param meterRegistry registry for the job metrics
+   */
+  public TranslationJobWorker(TranslationJobService jobService,
+      TranslationWebService translationWebService, StringRedisTemplate redisTemplate, int threads,
+      int chunkSize, int maxAttempts, long retryDelayMillis, Duration claimIdleTime,
+      CallbackUrlValidator callbackUrlValidator, MeterRegistry meterRegistry) {
+    this.jobService = jobService;
+    this.translationWebService = translationWebService;
+    this.redisTemplate = redisTemplate;
+    this.connectionFactory = redisTemplate.getRequiredConnectionFactory();
+    this.threads = threads;
+    this.chunkSize = chunkSize;
+    this.maxAttempts = maxAttempts;
+    this.retryDelayMillis = retryDelayMillis;
+    this.claimIdleTime = claimIdleTime;
+    this.consumerName = buildConsumerName();
+    this.availableWorkers = new Semaphore(threads);
+
+    SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+    requestFactory.setConnectTimeout(5000);
+    requestFactory.setReadTimeout(10000);
+    this.webhookClient = new RestTemplate(requestFactory);
+    this.callbackUrlValidator = callbackUrlValidator;
+
+    this.completedJobs = meterRegistry.counter("translation.jobs.completed");
+    this.failedJobs = meterRegistry.counter("translation.jobs.failed");
+    this.retries = meterRegistry.counter("translation.jobs.retries");
+    this.translatedTexts = meterRegistry.counter("translation.jobs.texts");
+    this.chunkTimer = meterRegistry.timer("translation.jobs.chunk.duration");
+    meterRegistry.gauge("translation.jobs.running", runningJobs);
+  }
+
+  private String buildConsumerName() {
+    String host;
+    try {
+      host = InetAddress.getLocalHost().getHostName();
+    } catch (UnknownHostException e) {
+      host = "unknown";
+    }
+    return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+  }
+
+  @Override
+  public void start() {
+    try {
+      createConsumerGroup();
+    } catch (RuntimeException e) {
+      // the application can still serve synchronous requests, jobs stay in the queue
+      logger.error("Cannot create consumer group for translation jobs, job processing disabled!",
+          e);
+      return;
+    }
+
+    jobExecutor =
+        Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("translation-job-"));
+    StreamMessageListenerContainerOptions<String, MapRecord<String, String, String>> options =
+        StreamMessageListenerContainerOptions.builder().pollTimeout(Duration.ofSeconds(2))
+            .batchSize(1).build();
+    container = StreamMessageListenerContainer.create(connectionFactory, options);
+    container.receive(Consumer.from(JOBS_CONSUMER_GROUP, consumerName),
+        StreamOffset.create(JOBS_STREAM, ReadOffset.lastConsumed()), this::onMessage);
+    container.start();
+
+    // periodically take over the jobs abandoned by other consumers and keep the own ones alive,
+    // on separate threads so that the heartbeats are not delayed by the claiming
+    claimScheduler = Executors
+        .newScheduledThreadPool(2, new CustomizableThreadFactory("translation-job-claim-"));
+    final long claimPeriod = claimIdleTime.toMillis();
+    claimScheduler.scheduleWithFixedDelay(this::claimAbandonedJobs, claimPeriod, claimPeriod,
+        TimeUnit.MILLISECONDS);
+    final long heartbeatPeriod = Math.max(claimPeriod / 3, 1);
+    claimScheduler.scheduleWithFixedDelay(this::sendHeartbeat, heartbeatPeriod, heartbeatPeriod,
+        TimeUnit.MILLISECONDS);
+    running = true;
+
+    if (logger.isInfoEnabled()) {
+      logger.info("Translation job worker {} started with {} threads", consumerName, threads);
+    }
+  }
+
+  private void createConsumerGroup() {
+    redisTemplate.execute((RedisCallback<String>) connection -> {
+      try {
+        return connection.streamCommands().xGroupCreate(
+            redisTemplate.getStringSerializer().serialize(JOBS_STREAM), JOBS_CONSUMER_GROUP,
+            ReadOffset.from("0"), true);
+      } catch (RuntimeException e) {
+        if (isBusyGroupError(e)) {
+          // the group was already created by another instance
+          return "OK";
+        }
+        throw e;
+      }
+    });
+  }
+
+  private boolean isBusyGroupError(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (String.valueOf(cause.getMessage()).contains("BUSYGROUP")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void onMessage(MapRecord<String, String, String> message) {
+    try {
+      // block the polling until a worker is available, the other messages stay in the stream
+      availableWorkers.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    dispatch(message);
+  }
+
+  private void dispatch(MapRecord<String, String, String> message) {
+    jobExecutor.execute(() -> {
+      try {
+        processMessage(message);
+      } finally {
+        availableWorkers.release();
+      }
+    });
+  }
+
+  private void processMessage(MapRecord<String, String, String> message) {
+    final String jobId = message.getValue().get(FIELD_ID);
+    runningJobs.incrementAndGet();
+    messagesInProgress.add(message.getId());
+    try {
+      runJob(jobId);
+      redisTemplate.opsForStream().acknowledge(JOBS_CONSUMER_GROUP, message);
+      // the job state is kept in the job hash, the processed message is not needed anymore
+      redisTemplate.opsForStream().delete(JOBS_STREAM, message.getId());
+    } catch (RuntimeException e) {
+      // message is not acknowledged and will be claimed again later, up to maxAttempts deliveries
+      logger.error("Unexpected error when processing translation job {}", jobId, e);
+    } finally {
+      messagesInProgress.remove(message.getId());
+      runningJobs.decrementAndGet();
+    }
+  }
+
+  void runJob(String jobId) {
+    Map<String, String> job = jobService.getJobEntries(jobId);
+    if (job.isEmpty() || TranslationJobStatus.valueOf(job.get(FIELD_STATUS)).isFinished()) {
+      // expired or already processed (e.g. claimed after the acknowledgement failed)
+      return;
+    }
+
+    TranslationJobRequest jobRequest;
+    try {
+      jobRequest = jobService.readJobRequest(job);
+    } catch (JsonProcessingException e) {
+      finishJob(jobId, null, TranslationJobStatus.FAILED, "Invalid job request: " + e.getMessage());
+      return;
+    }
+
+    jobService.updateStatus(jobId, TranslationJobStatus.RUNNING, null);
+    final List<String> texts = jobRequest.getText();
+    // continue from the last checkpoint
+    int chunk = Integer.parseInt(job.get(FIELD_NEXT_CHUNK));
+    long attempts = Long.parseLong(job.getOrDefault(FIELD_ATTEMPTS, "0"));
+    for (int start = chunk * chunkSize; start < texts.size(); start = ++chunk * chunkSize) {
+      final List<String> chunkTexts = texts.subList(start, Math.min(start + chunkSize, texts.size()));
+      TranslationResponse response = null;
+      while (response == null) {
+        try {
+          response = translateChunk(jobRequest, chunkTexts);
+        } catch (EuropeanaI18nApiException e) {
+          attempts = jobService.incrementAttempts(jobId);
+          if (attempts >= maxAttempts) {
+            finishJob(jobId, jobRequest, TranslationJobStatus.FAILED, e.getMessage());
+            return;
+          }
+          retries.increment();
+          if (!waitBeforeRetry(attempts)) {
+            // interrupted, the job will be continued from the last checkpoint
+            return;
+          }
+        }
+      }
+      jobService.checkpoint(jobId, start, response.getTranslations(), chunk + 1,
+          response.getService());
+      translatedTexts.increment(chunkTexts.size());
+    }
+
+    finishJob(jobId, jobRequest, TranslationJobStatus.COMPLETED, null);
+  }
+
+  private TranslationResponse translateChunk(TranslationJobRequest jobRequest,
+      List<String> chunkTexts) throws EuropeanaI18nApiException {
+    TranslationRequest chunkRequest = new TranslationRequest();
+    chunkRequest.setSource(jobRequest.getSource());
+    chunkRequest.setTarget(jobRequest.getTarget());
+    chunkRequest.setService(jobRequest.getService());
+    chunkRequest.setFallback(jobRequest.getFallback());
+    chunkRequest.setCaching(jobRequest.useCaching());
+    chunkRequest.setText(chunkTexts);
+    final long start = System.nanoTime();
+    try {
+      return translationWebService.translate(chunkRequest);
+    } finally {
+      chunkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private boolean waitBeforeRetry(long attempt) {
+    try {
+      Thread.sleep(retryDelayMillis * attempt);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private void finishJob(String jobId, TranslationJobRequest jobRequest,
+      TranslationJobStatus status, String error) {
+    jobService.updateStatus(jobId, status, error);
+    if (status == TranslationJobStatus.COMPLETED) {
+      completedJobs.increment();
+    } else {
+      failedJobs.increment();
+    }
+
+    if (jobRequest != null && jobRequest.getCallback() != null) {
+      notifyCallback(jobId, jobRequest.getCallback());
+    }
+  }
+
+  private void notifyCallback(String jobId, String callbackUrl) {
+    if (!callbackUrlValidator.isAllowed(callbackUrl)) {
+      logger.warn("Callback {} of translation job {} is not allowed, not notified", callbackUrl,
+          jobId);
+      return;
+    }
+    try {
+      TranslationJob job = jobService.getJob(jobId);
+      HttpHeaders headers = new HttpHeaders();
+      headers.setContentType(MediaType.APPLICATION_JSON);
+      webhookClient.postForLocation(callbackUrl, new HttpEntity<>(job, headers));
+    } catch (EuropeanaI18nApiException | RestClientException e) {
+      logger.warn("Cannot notify callback {} for translation job {}", callbackUrl, jobId, e);
+    }
+  }
+
+  /**
+   * Resets the idle time of the messages of the jobs processed by this consumer, so that they are
+   * not claimed by other consumers while the jobs are still running
+   */
+  void sendHeartbeat() {
+    if (messagesInProgress.isEmpty()) {
+      return;
+    }
+    final RecordId[] ids = messagesInProgress.toArray(new RecordId[0]);
+    try {
+      redisTemplate.execute((RedisCallback<List<RecordId>>) connection -> connection
+          .streamCommands().xClaimJustId(redisTemplate.getStringSerializer().serialize(JOBS_STREAM),
+              JOBS_CONSUMER_GROUP, consumerName, XClaimOptions.minIdle(Duration.ZERO).ids(ids)));
+    } catch (RuntimeException e) {
+      logger.warn("Cannot refresh the translation job messages in progress", e);
+    }
+  }
+
+  /**
+   * Claims the messages delivered to other consumers, which were not acknowledged within the
+   * configured idle time (i.e. the consumer was stopped while processing the job and doesn't send
+   * heartbeats anymore). Only as many jobs are claimed as workers are available.
+   */
+  void claimAbandonedJobs() {
+    try {
+      PendingMessages pendingMessages = redisTemplate.opsForStream().pending(JOBS_STREAM,
+          JOBS_CONSUMER_GROUP, Range.unbounded(), PENDING_SCAN_SIZE);
+      for (PendingMessage pendingMessage : pendingMessages) {
+        if (pendingMessage.getElapsedTimeSinceLastDelivery().compareTo(claimIdleTime) < 0
+            || messagesInProgress.contains(pendingMessage.getId())) {
+          continue;
+        }
+        if (!availableWorkers.tryAcquire()) {
+          // claimed in the next run, if still abandoned
+          return;
+        }
+        // the claim fails if the message was refreshed by its owner or claimed by another consumer
+        final List<MapRecord<String, Object, Object>> claimed;
+        try {
+          claimed = redisTemplate.opsForStream().claim(JOBS_STREAM, JOBS_CONSUMER_GROUP,
+              consumerName, claimIdleTime, pendingMessage.getId());
+        } catch (RuntimeException e) {
+          availableWorkers.release();
+          throw e;
+        }
+        if (claimed.isEmpty()) {
+          availableWorkers.release();
+          continue;
+        }
+        MapRecord<String, Object, Object> record = claimed.get(0);
+        if (pendingMessage.getTotalDeliveryCount() >= maxAttempts) {
+          availableWorkers.release();
+          failUndeliverableJob(record, pendingMessage.getTotalDeliveryCount());
+          continue;
+        }
+        if (logger.isInfoEnabled()) {
+          logger.info("Claimed abandoned translation job message {}", record.getId());
+        }
+        dispatch(MapRecord.create(JOBS_STREAM,
+            Map.of(FIELD_ID, String.valueOf(record.getValue().get(FIELD_ID))))
+            .withId(record.getId()));
+      }
+    } catch (RuntimeException e) {
+      logger.warn("Cannot claim abandoned translation jobs", e);
+    }
+  }
+
+  /**
+   * Marks the job as failed and removes its message, the job was processed maxAttempts times
+   * without being completed
+   */
+  private void failUndeliverableJob(MapRecord<String, Object, Object> record, long deliveries) {
+    final String jobId = String.valueOf(record.getValue().get(FIELD_ID));
+    logger.warn("Translation job {} not completed after {} deliveries, marking it as failed",
+        jobId, deliveries);
+    Map<String, String> job = jobService.getJobEntries(jobId);
+    if (!job.isEmpty() && !TranslationJobStatus.valueOf(job.get(FIELD_STATUS)).isFinished()) {
+      TranslationJobRequest jobRequest = null;
+      try {
+        jobRequest = jobService.readJobRequest(job);
+      } catch (JsonProcessingException e) {
+        // no callback to notify
+      }
+      finishJob(jobId, jobRequest, TranslationJobStatus.FAILED,
+          "The job processing was interrupted " + deliveries + " times");
+    }
+    redisTemplate.opsForStream().acknowledge(JOBS_STREAM, JOBS_CONSUMER_GROUP, record.getId());
+    redisTemplate.opsForStream().delete(JOBS_STREAM, record.getId());
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (claimScheduler != null) {
+      claimScheduler.shutdownNow();
+    }
+    if (container != null) {
+      container.stop();
+    }
+    if (jobExecutor != null) {
+      // running jobs are continued later from the last checkpoint
+      jobExecutor.shutdownNow();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  public int getRunningJobs() {
+    return runningJobs.get();
+  }
+}
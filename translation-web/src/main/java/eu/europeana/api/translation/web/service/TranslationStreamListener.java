@@ -0,0 +1,22 @@
+package eu.europeana.api.translation.web.service;
+
+import eu.europeana.api.translation.definitions.model.TranslationChunk;
+
+/**
+ * Callback interface used to deliver the translations of a streamed translation request as soon
+ * as they become available
+ */
+public interface TranslationStreamListener {
+
+  /**
+   * Invoked for each translated chunk, the invocations may come from different threads, but they
+   * are never concurrent
+   * @param chunk the translated chunk
+   */
+  void onChunk(TranslationChunk chunk);
+
+  /**
+   * Invoked once, after all chunks were delivered
+   */
+  void onComplete();
+}
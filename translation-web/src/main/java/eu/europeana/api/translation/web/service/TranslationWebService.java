@@ -1,39 +1,71 @@
 package eu.europeana.api.translation.web.service;
 
 import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_INVALID_PARAM_VALUE;
+import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_MANDATORY_PARAM_EMPTY;
+import static eu.europeana.api.translation.web.I18nErrorMessageKeys.ERROR_SERVICE_SATURATED;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import com.google.common.collect.Lists;
 import eu.europeana.api.commons.error.EuropeanaI18nApiException;
-import eu.europeana.api.translation.config.TranslationConfig;
+import eu.europeana.api.translation.config.BeanNames;
+import eu.europeana.api.translation.config.LanguageRoutingTable;
 import eu.europeana.api.translation.config.TranslationServiceProvider;
-import eu.europeana.api.translation.config.services.TranslationLangPairCfg;
 import eu.europeana.api.translation.definitions.language.LanguagePair;
+import eu.europeana.api.translation.definitions.model.BatchTranslationResponse;
+import eu.europeana.api.translation.definitions.model.BatchTranslationResult;
+import eu.europeana.api.translation.definitions.model.MultiTargetTranslationRequest;
+import eu.europeana.api.translation.definitions.model.TranslationChunk;
 import eu.europeana.api.translation.definitions.model.TranslationObj;
 import eu.europeana.api.translation.definitions.model.TranslationRequest;
 import eu.europeana.api.translation.definitions.model.TranslationResponse;
 import eu.europeana.api.translation.definitions.vocabulary.TranslationAppConstants;
 import eu.europeana.api.translation.service.TranslationService;
 import eu.europeana.api.translation.service.etranslation.ETranslationTranslationService;
+import eu.europeana.api.translation.service.exception.DeadlineExceededException;
+import eu.europeana.api.translation.service.exception.MultiTargetTranslationException;
 import eu.europeana.api.translation.service.exception.TranslationException;
-import eu.europeana.api.translation.service.util.TranslationUtils;
+import eu.europeana.api.translation.service.util.Deadline;
 import eu.europeana.api.translation.web.exception.ParamValidationException;
+import eu.europeana.api.translation.web.exception.ServiceSaturatedException;
 
 @Service
 public class TranslationWebService extends BaseWebService {
-  
-  @Autowired protected TranslationConfig translationConfig;
+
+  private static final int REQUEST_RETRY_AFTER_SECONDS = 1;
 
   @Autowired
   private final TranslationServiceProvider translationServiceProvider;
 
   private RedisCacheService redisCacheService;
 
+  @Resource(name = BeanNames.BEAN_BATCH_TRANSLATION_EXECUTOR)
+  private ExecutorService batchTranslationExecutor;
+
+  @Resource(name = BeanNames.BEAN_TRANSLATION_REQUEST_EXECUTOR)
+  private ExecutorService translationRequestExecutor;
+
   private final Logger logger = LogManager.getLogger(getClass());
 
   @Autowired
@@ -41,16 +73,447 @@ public class TranslationWebService extends BaseWebService {
     this.translationServiceProvider = translationServiceProvider;
   }
 
+  /**
+   * Validates the mandatory fields and the language pair of the translation request
+   * @param translationRequest the translation request
+   * @throws ParamValidationException if the request is not valid
+   */
+  public void validateRequest(TranslationRequest translationRequest) throws ParamValidationException {
+    // validate mandatory params
+    if (translationRequest.getText() == null || translationRequest.getText().contains(null)) {
+      throw new ParamValidationException("Mandatory parameter missing: " + TranslationAppConstants.TEXT, ERROR_MANDATORY_PARAM_EMPTY, ERROR_MANDATORY_PARAM_EMPTY, new String[] {TranslationAppConstants.TEXT});
+    }
+
+    // the markup separates the texts sent in one eTranslation job, it cannot be part of the texts
+    if (translationRequest.getText().stream().anyMatch(ETranslationTranslationService::containsDelimiter)) {
+      throw new ParamValidationException("Invalid text, the eTranslation delimiter markup is not allowed", ERROR_INVALID_PARAM_VALUE, ERROR_INVALID_PARAM_VALUE, new String[] {TranslationAppConstants.TEXT, "the eTranslation delimiter markup"});
+    }
+
+    if (StringUtils.isEmpty(translationRequest.getTarget())) {
+      throw new ParamValidationException("Mandatory parameter missing: " + TranslationAppConstants.TARGET_LANG, ERROR_MANDATORY_PARAM_EMPTY, ERROR_MANDATORY_PARAM_EMPTY, new String[] {TranslationAppConstants.TARGET_LANG});
+    }
+
+    if (translationRequest.getTimeout() != null && translationRequest.getTimeout() <= 0) {
+      throw new ParamValidationException("Invalid timeout: " + translationRequest.getTimeout(), ERROR_INVALID_PARAM_VALUE, ERROR_INVALID_PARAM_VALUE, new String[] {TranslationAppConstants.TIMEOUT, String.valueOf(translationRequest.getTimeout())});
+    }
+    
+    //validate language pair
+    final LanguagePair languagePair = new LanguagePair(translationRequest.getSource(), translationRequest.getTarget());
+    if(!isTranslationSupported(languagePair)) {
+      throw new ParamValidationException("Language pair not supported: " + languagePair, ERROR_MANDATORY_PARAM_EMPTY, ERROR_INVALID_PARAM_VALUE, new String[] {LanguagePair.generateKey(TranslationAppConstants.SOURCE_LANG, TranslationAppConstants.TARGET_LANG) , languagePair.toString()});
+    }
+  }
+
+  /**
+   * Translates the sub-requests of a batch. The sub-requests are grouped by language pair, service
+   * and caching options, the texts are deduplicated within each group and the groups are
+   * translated in parallel. Errors are reported individually for each of the sub-requests. All
+   * groups share the deadline of the batch, the groups not completed in time fail with 504.
+   * 
+   * @param translationRequests the sub-requests of the batch
+   * @param timeoutMillis the time budget requested by the client, or null for the default
+   * @return the batch response containing one result for each sub-request, in the same order
+   */
+  public BatchTranslationResponse translateBatch(List<TranslationRequest> translationRequests,
+      Long timeoutMillis) {
+    List<BatchTranslationResult> results =
+        new ArrayList<>(Collections.nCopies(translationRequests.size(), null));
+    Map<String, BatchTranslationGroup> groups = new LinkedHashMap<>();
+    for (int i = 0; i < translationRequests.size(); i++) {
+      final TranslationRequest translationRequest = translationRequests.get(i);
+      try {
+        validateRequest(translationRequest);
+      } catch (ParamValidationException e) {
+        results.set(i, new BatchTranslationResult(e.getResponseStatus().value(), e.getMessage()));
+        continue;
+      }
+      groups.computeIfAbsent(BatchTranslationGroup.buildKey(translationRequest),
+          key -> new BatchTranslationGroup(translationRequest))
+          .add(i, translationRequest.getText());
+    }
+
+    // submit the groups for parallel processing
+    final Deadline deadline = createDeadline(timeoutMillis);
+    Map<BatchTranslationGroup, Future<TranslationResponse>> groupResponses = new LinkedHashMap<>();
+    try (Deadline.Scope deadlineScope = deadline.attach()) {
+      for (BatchTranslationGroup group : groups.values()) {
+        groupResponses.put(group, batchTranslationExecutor
+            .submit(Deadline.propagate(() -> translate(group.getGroupRequest()))));
+      }
+    }
+
+    // collect the results
+    for (Map.Entry<BatchTranslationGroup, Future<TranslationResponse>> groupResponse : groupResponses
+        .entrySet()) {
+      collectGroupResults(groupResponse.getKey(), groupResponse.getValue(), results, deadline);
+    }
+
+    if (logger.isDebugEnabled()) {
+      logger.debug("Batch with {} requests translated in {} groups", translationRequests.size(),
+          groups.size());
+    }
+    return new BatchTranslationResponse(results);
+  }
+
+  private void collectGroupResults(BatchTranslationGroup group,
+      Future<TranslationResponse> groupResponse, List<BatchTranslationResult> results,
+      Deadline deadline) {
+    try {
+      group.fillResults(groupResponse.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS),
+          results);
+    } catch (TimeoutException e) {
+      // the result would not be sent in time anyway, stop the calls in progress
+      groupResponse.cancel(true);
+      group.fillErrors(HttpStatus.GATEWAY_TIMEOUT.value(), "Request deadline of "
+          + deadline.getTimeoutMillis() + " ms exceeded", results);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof EuropeanaI18nApiException) {
+        EuropeanaI18nApiException apiException = (EuropeanaI18nApiException) e.getCause();
+        group.fillErrors(apiException.getResponseStatus().value(), apiException.getMessage(),
+            results);
+      } else {
+        logger.error("Unexpected error when processing batch translation group", e.getCause());
+        group.fillErrors(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+            String.valueOf(e.getCause()), results);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      group.fillErrors(HttpStatus.SERVICE_UNAVAILABLE.value(),
+          "Batch translation processing was interrupted", results);
+    }
+  }
+
+  /**
+   * Translates the texts of the request. The request is processed within its deadline, which is
+   * propagated to the translation services. 
+   * 
+   * @param translationRequest the translation request
+   * @return the translation response
+   * @throws EuropeanaI18nApiException if the translation fails, or the deadline expires
+   */
   public TranslationResponse translate(TranslationRequest translationRequest)
       throws EuropeanaI18nApiException {
+    try (Deadline.Scope deadlineScope = attachDeadline(translationRequest.getTimeout())) {
+      List<TranslationObj> translObjs = buildTranslationObjectList(translationRequest);
+      // pre processing for translation
+      preProcess(translObjs);
+      // get the configured translation services, wrapped into caching services
+      List<CachedTranslationService> cachedTranslationServices =
+          selectCachedTranslationServices(translationRequest);
+
+      // calling the translation services and creating the results
+      String serviceId = null;
+      try {
+        // send the values which are not yet translated (isTranslated=false) for the translations
+        serviceId = translateWithServices(
+            translObjs.stream().filter(to -> !to.isTranslated()).collect(Collectors.toList()),
+            cachedTranslationServices);
+      } catch (TranslationException translationError) {
+        throwApiException(translationError);
+      }
+
+      return buildTranslationResponse(translationRequest, translObjs, serviceId);
+    }
+  }
+
+  /**
+   * Asynchronous variant of the translation method, the request is translated by the request
+   * executor, so that the calling (servlet) thread is not blocked while waiting for the translation
+   * services. The deadline starts when the request is received, the time spent in the queue of the
+   * executor is part of it.
+   * 
+   * @param translationRequest the translation request
+   * @return the future completed with the translation response, or with the
+   *         {@link EuropeanaI18nApiException} if the translation fails, e.g. with the
+   *         {@link ServiceSaturatedException} if the request executor is full
+   */
+  public CompletableFuture<TranslationResponse> translateAsync(
+      TranslationRequest translationRequest) {
+    CompletableFuture<TranslationResponse> response = new CompletableFuture<>();
+    try (Deadline.Scope deadlineScope = attachDeadline(translationRequest.getTimeout())) {
+      translationRequestExecutor.execute(Deadline.propagate(() -> {
+        try {
+          response.complete(translateQueued(translationRequest));
+        } catch (EuropeanaI18nApiException | RuntimeException e) {
+          response.completeExceptionally(e);
+        }
+      }));
+    } catch (RejectedExecutionException e) {
+      response.completeExceptionally(new ServiceSaturatedException(
+          "Too many concurrent translation requests!", ERROR_SERVICE_SATURATED,
+          ERROR_SERVICE_SATURATED, null, REQUEST_RETRY_AFTER_SECONDS, e));
+    }
+    return response;
+  }
+
+  /**
+   * The requests which waited in the queue until their deadline expired are not sent to the
+   * translation services anymore
+   */
+  private TranslationResponse translateQueued(TranslationRequest translationRequest)
+      throws EuropeanaI18nApiException {
+    try {
+      Deadline.checkCurrent("translation of the queued request");
+    } catch (DeadlineExceededException e) {
+      throwApiException(
+          new TranslationException(e.getMessage(), HttpStatus.GATEWAY_TIMEOUT.value(), e));
+    }
+    return translate(translationRequest);
+  }
+
+  /**
+   * Translates the texts of the request into several target languages. The targets served by the
+   * same translation services are translated together, e.g. with a single eTranslation job for all
+   * of them, and the translations of every target are cached. Errors are reported individually for
+   * each target.
+   * 
+   * @param multiTargetRequest the request with the list of target languages
+   * @return the response containing one result for each target, in the order of the request
+   * @throws ParamValidationException if the request has no targets or no texts
+   */
+  public BatchTranslationResponse translateMultiTarget(
+      MultiTargetTranslationRequest multiTargetRequest) throws ParamValidationException {
+    final List<String> targets = multiTargetRequest.getTargets();
+    if (targets == null || targets.isEmpty() || targets.contains(null)) {
+      throw new ParamValidationException("Mandatory parameter missing: " + TranslationAppConstants.TARGET_LANGS, ERROR_MANDATORY_PARAM_EMPTY, ERROR_MANDATORY_PARAM_EMPTY, new String[] {TranslationAppConstants.TARGET_LANGS});
+    }
+    if (multiTargetRequest.getText() == null || multiTargetRequest.getText().contains(null)) {
+      throw new ParamValidationException("Mandatory parameter missing: " + TranslationAppConstants.TEXT, ERROR_MANDATORY_PARAM_EMPTY, ERROR_MANDATORY_PARAM_EMPTY, new String[] {TranslationAppConstants.TEXT});
+    }
+
+    List<BatchTranslationResult> results =
+        new ArrayList<>(Collections.nCopies(targets.size(), null));
+    try (Deadline.Scope deadlineScope = attachDeadline(multiTargetRequest.getTimeout())) {
+      // group the targets by the selected services, the texts are pre-processed only once
+      Map<String, List<Integer>> groups = new LinkedHashMap<>();
+      Map<String, List<CachedTranslationService>> groupServices = new LinkedHashMap<>();
+      for (int i = 0; i < targets.size(); i++) {
+        final TranslationRequest targetRequest = buildTargetRequest(multiTargetRequest, targets.get(i));
+        try {
+          validateRequest(targetRequest);
+          List<CachedTranslationService> services = selectCachedTranslationServices(targetRequest);
+          final String groupKey = services.stream().map(TranslationService::getServiceId)
+              .collect(Collectors.joining(","));
+          groupServices.putIfAbsent(groupKey, services);
+          groups.computeIfAbsent(groupKey, key -> new ArrayList<>()).add(i);
+        } catch (ParamValidationException e) {
+          results.set(i, new BatchTranslationResult(e.getResponseStatus().value(), e.getMessage()));
+        }
+      }
+
+      List<TranslationObj> texts = buildTranslationObjectList(multiTargetRequest);
+      preProcess(texts);
+      for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+        translateTargetGroup(texts, targets, group.getValue(), groupServices.get(group.getKey()),
+            results);
+      }
+    }
+    return new BatchTranslationResponse(results);
+  }
+
+  private void translateTargetGroup(List<TranslationObj> texts, List<String> targets,
+      List<Integer> targetIndexes, List<CachedTranslationService> cachedTranslationServices,
+      List<BatchTranslationResult> results) {
+    Map<String, List<TranslationObj>> translObjsByTarget = new LinkedHashMap<>();
+    for (Integer targetIndex : targetIndexes) {
+      translObjsByTarget.putIfAbsent(targets.get(targetIndex),
+          copyForTarget(texts, targets.get(targetIndex)));
+    }
+    // the texts not eligible for translation are the same for all targets
+    Map<String, List<TranslationObj>> toTranslate = new LinkedHashMap<>();
+    translObjsByTarget.forEach((target, translObjs) -> toTranslate.put(target,
+        translObjs.stream().filter(to -> !to.isTranslated()).collect(Collectors.toList())));
+
+    String serviceId = null;
+    Map<String, TranslationException> targetErrors = Map.of();
+    try {
+      serviceId = invokeServices(cachedTranslationServices,
+          service -> service.translateMultiTarget(toTranslate));
+    } catch (MultiTargetTranslationException translationError) {
+      // only the failed targets are reported as errors, the other ones with the service which
+      // translated them (not necessarily the first one)
+      serviceId = translationError.getServiceId();
+      targetErrors = translationError.getTargetErrors();
+    } catch (TranslationException translationError) {
+      final BatchTranslationResult errorResult = toErrorResult(translationError);
+      for (Integer targetIndex : targetIndexes) {
+        results.set(targetIndex, errorResult);
+      }
+      return;
+    }
+    for (Integer targetIndex : targetIndexes) {
+      final String target = targets.get(targetIndex);
+      if (targetErrors.containsKey(target)) {
+        results.set(targetIndex, toErrorResult(targetErrors.get(target)));
+        continue;
+      }
+      BatchTranslationResult result = new BatchTranslationResult(HttpStatus.OK.value(), null);
+      result.setTranslations(translObjsByTarget.get(target).stream()
+          .map(TranslationObj::getTranslation).collect(Collectors.toList()));
+      result.setLang(target);
+      result.setService(serviceId);
+      results.set(targetIndex, result);
+    }
+  }
+
+  /**
+   * The error result has the status and message of the api exception thrown for the error
+   */
+  private BatchTranslationResult toErrorResult(TranslationException translationError) {
+    try {
+      throwApiException(translationError);
+    } catch (EuropeanaI18nApiException e) {
+      return new BatchTranslationResult(e.getResponseStatus().value(), e.getMessage());
+    }
+    // not reached, an api exception is always thrown
+    return new BatchTranslationResult(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+        translationError.getMessage());
+  }
+
+  private List<TranslationObj> copyForTarget(List<TranslationObj> texts, String target) {
+    List<TranslationObj> translObjs = new ArrayList<>(texts.size());
+    for (TranslationObj text : texts) {
+      TranslationObj translObj = buildTranslationObject(text.getSourceLang(), target, text.getText());
+      translObj.setTranslated(text.isTranslated());
+      translObjs.add(translObj);
+    }
+    return translObjs;
+  }
+
+  private TranslationRequest buildTargetRequest(MultiTargetTranslationRequest multiTargetRequest,
+      String target) {
+    TranslationRequest targetRequest = new TranslationRequest();
+    targetRequest.setSource(multiTargetRequest.getSource());
+    targetRequest.setTarget(target);
+    targetRequest.setService(multiTargetRequest.getService());
+    targetRequest.setFallback(multiTargetRequest.getFallback());
+    targetRequest.setText(multiTargetRequest.getText());
+    targetRequest.setCaching(multiTargetRequest.useCaching());
+    targetRequest.setTimeout(multiTargetRequest.getTimeout());
+    return targetRequest;
+  }
+
+  /**
+   * Streaming variant of the translation method. The translations which do not require the
+   * invocation of the translation services (e.g. cached or same language texts) are delivered
+   * first, the remaining texts are split in chunks which are translated in parallel and delivered
+   * to the listener as soon as they are available. The request is validated and the translation
+   * services are selected before the method returns, while the chunks are processed
+   * asynchronously, within the deadline of the request.
+   * 
+   * @param translationRequest the translation request
+   * @param listener the listener receiving the translated chunks
+   * @throws EuropeanaI18nApiException if the translation services cannot be selected for the
+   *         request
+   */
+  public void translateStreaming(TranslationRequest translationRequest,
+      TranslationStreamListener listener) throws EuropeanaI18nApiException {
+    try (Deadline.Scope deadlineScope = attachDeadline(translationRequest.getTimeout())) {
+      startStreaming(translationRequest, listener);
+    }
+  }
+
+  private void startStreaming(TranslationRequest translationRequest,
+      TranslationStreamListener listener) throws EuropeanaI18nApiException {
     List<TranslationObj> translObjs = buildTranslationObjectList(translationRequest);
-    // pre processing for translation
+    preProcess(translObjs);
+    List<CachedTranslationService> cachedTranslationServices =
+        selectCachedTranslationServices(translationRequest);
+    final String primaryServiceId = cachedTranslationServices.get(0).getServiceId();
+
+    // fill cached, same language and non translatable values
+    cachedTranslationServices.get(0).fillWithoutTranslationService(
+        translObjs.stream().filter(to -> !to.isTranslated()).collect(Collectors.toList()));
+    List<Integer> availableIndexes = new ArrayList<>();
+    List<Integer> pendingIndexes = new ArrayList<>();
+    for (int i = 0; i < translObjs.size(); i++) {
+      if (translObjs.get(i).isTranslated() || translObjs.get(i).getTranslation() != null
+          || translObjs.get(i).isRetrievedFromCache()) {
+        availableIndexes.add(i);
+      } else {
+        pendingIndexes.add(i);
+      }
+    }
+
+    if (!availableIndexes.isEmpty()) {
+      listener.onChunk(buildTranslationChunk(translationRequest, translObjs, availableIndexes,
+          primaryServiceId));
+    }
+
+    if (pendingIndexes.isEmpty()) {
+      listener.onComplete();
+      return;
+    }
+
+    // translate the remaining values in chunks
+    final List<List<Integer>> chunks =
+        Lists.partition(pendingIndexes, translationConfig.getStreamChunkSize());
+    final AtomicInteger remainingChunks = new AtomicInteger(chunks.size());
+    // a lock instead of synchronized, to avoid pinning virtual threads while writing the response
+    final Lock listenerLock = new ReentrantLock();
+    for (List<Integer> chunk : chunks) {
+      // the chunks are translated with the deadline of the request
+      batchTranslationExecutor.execute(Deadline.propagate(() -> {
+        TranslationChunk translationChunk = translateChunk(translationRequest, translObjs, chunk,
+            cachedTranslationServices);
+        listenerLock.lock();
+        try {
+          listener.onChunk(translationChunk);
+          if (remainingChunks.decrementAndGet() == 0) {
+            listener.onComplete();
+          }
+        } finally {
+          listenerLock.unlock();
+        }
+      }));
+    }
+  }
+
+  private TranslationChunk translateChunk(TranslationRequest translationRequest,
+      List<TranslationObj> translObjs, List<Integer> chunk,
+      List<CachedTranslationService> cachedTranslationServices) {
+    final List<TranslationObj> chunkObjs =
+        chunk.stream().map(translObjs::get).collect(Collectors.toList());
+    try {
+      String serviceId = translateWithServices(chunkObjs, cachedTranslationServices);
+      return buildTranslationChunk(translationRequest, translObjs, chunk, serviceId);
+    } catch (TranslationException e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Translation of streamed chunk failed, indexes: {}", chunk, e);
+      }
+      TranslationChunk errorChunk = new TranslationChunk(chunk);
+      errorChunk.setLang(translationRequest.getTarget());
+      errorChunk.setError(e.getMessage());
+      return errorChunk;
+    } catch (RuntimeException e) {
+      logger.error("Unexpected error when translating streamed chunk, indexes: {}", chunk, e);
+      TranslationChunk errorChunk = new TranslationChunk(chunk);
+      errorChunk.setLang(translationRequest.getTarget());
+      errorChunk.setError(String.valueOf(e));
+      return errorChunk;
+    }
+  }
+
+  private TranslationChunk buildTranslationChunk(TranslationRequest translationRequest,
+      List<TranslationObj> translObjs, List<Integer> indexes, String serviceId) {
+    TranslationChunk chunk = new TranslationChunk(indexes);
+    chunk.setTranslations(
+        indexes.stream().map(i -> translObjs.get(i).getTranslation()).collect(Collectors.toList()));
+    chunk.setLang(translationRequest.getTarget());
+    chunk.setService(serviceId);
+    return chunk;
+  }
+
+  private void preProcess(List<TranslationObj> translObjs) {
     try {
       translationServiceProvider.getTranslationServicePreProcessor().translate(translObjs);
     } catch (TranslationException e) {
      logger.error("Error during the pre processing ", e);
     }
-    // get the configured translation services
+  }
+
+  private List<CachedTranslationService> selectCachedTranslationServices(
+      TranslationRequest translationRequest) throws ParamValidationException {
     LanguagePair languagePair =
         new LanguagePair(translationRequest.getSource(), translationRequest.getTarget());
     TranslationService translationService =
@@ -61,17 +524,40 @@ public class TranslationWebService extends BaseWebService {
     }
 
     // build the list of caching services
-    List<TranslationService> cachedTranslationServices = buildCachedTranslationServices(
-        translationRequest.useCaching(), translationService, fallback);
+    return buildCachedTranslationServices(translationRequest.useCaching(), translationService,
+        fallback);
+  }
 
-    // calling the translation services and creating the results
+  /**
+   * Calls the translation services in the given order, until one of them succeeds. The fallback
+   * services are not called if the request deadline is too close.
+   * 
+   * @param translObjs the objects to translate
+   * @param cachedTranslationServices the ordered list of services (i.e. preferred and fallback)
+   * @return the id of the service that translated the objects
+   * @throws TranslationException the error of the first service, if none of them succeeded
+   */
+  private String translateWithServices(List<TranslationObj> translObjs,
+      List<CachedTranslationService> cachedTranslationServices) throws TranslationException {
+    return invokeServices(cachedTranslationServices, service -> service.translate(translObjs));
+  }
+
+  private String invokeServices(List<CachedTranslationService> cachedTranslationServices,
+      ServiceInvocation invocation) throws TranslationException {
     TranslationException translationError = null;
     String serviceId = null;
     for (TranslationService cachedTranslationService : cachedTranslationServices) {
+      if (translationError != null && !hasTimeForFallback()) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Not enough time left for calling the fallback service: {}",
+              cachedTranslationService.getServiceId());
+        }
+        break;
+      }
       try {
         serviceId = cachedTranslationService.getServiceId();
-        // send the values which are not yet translated (isTranslated=false) for the translations
-        cachedTranslationService.translate(translObjs.stream().filter(to -> !to.isTranslated()).collect(Collectors.toList()));
+        Deadline.checkCurrent("call to translation service " + serviceId);
+        invocation.invoke(cachedTranslationService);
         // update service ID after the translate() method, because the serviceId may change (depending if there is sth in the cache)
         //NOTE: is this really needed?
         serviceId = cachedTranslationService.getServiceId();
@@ -79,24 +565,29 @@ public class TranslationWebService extends BaseWebService {
         translationError = null;
         break;
       } catch (TranslationException ex) {
-        // keep the original exception for error response
-        if (translationError == null) {
+        // keep the original exception for error response, unless the fallback service translated
+        // some of the targets
+        if (translationError == null || ex instanceof MultiTargetTranslationException) {
           translationError = ex;
         }
         if (logger.isDebugEnabled()) {
           logger.debug("Error when calling translation service: " + serviceId, ex);
         }
+      } catch (DeadlineExceededException ex) {
+        if (translationError == null) {
+          translationError =
+              new TranslationException(ex.getMessage(), HttpStatus.GATEWAY_TIMEOUT.value(), ex);
+        }
+        break;
       }
     }
 
     if (translationError != null) {
-      throwApiException(translationError);
+      throw translationError;
     }
-
-    return buildTranslationResponse(translationRequest, translObjs, serviceId);
+    return serviceId;
   }
 
-
   private TranslationResponse buildTranslationResponse(TranslationRequest translationRequest,
                                                        List<TranslationObj> translObjs, String serviceId) {
     TranslationResponse result = new TranslationResponse();
@@ -107,9 +598,9 @@ public class TranslationWebService extends BaseWebService {
     return result;
   }
 
-  private List<TranslationService> buildCachedTranslationServices(boolean useCaching,
+  private List<CachedTranslationService> buildCachedTranslationServices(boolean useCaching,
       TranslationService translationService, TranslationService fallback) {
-    List<TranslationService> cachedTranslationServices = new ArrayList<TranslationService>();
+    List<CachedTranslationService> cachedTranslationServices = new ArrayList<>();
     // if(translationRequest.useCaching() && isCachingEnabled()) {
     cachedTranslationServices
         .add(instantiateCachedTranslationService(useCaching, translationService));
@@ -138,17 +629,12 @@ public class TranslationWebService extends BaseWebService {
   private List<TranslationObj> buildTranslationObjectList(TranslationRequest translationRequest) {
     // create a list of objects to be translated
     List<TranslationObj> translObjs = new ArrayList<TranslationObj>(translationRequest.getText().size());
-    if(shouldTruncateText(translationRequest)) {
-      limitTextSizeForETranslation(translationRequest, translObjs);
-    } else {
-      fillTranslationObjects(translObjs, translationRequest);
-    }
+    fillTranslationObjects(translObjs, translationRequest);
     return translObjs;
   }
   
   private void fillTranslationObjects(List<TranslationObj> translationObjects,
       TranslationRequest translationRequest) {
-    //when we do not need the above method limitTextSizeForETranslationStressTest, leave just this for loop (as was before)
     final String source = translationRequest.getSource();
     final String target = translationRequest.getTarget();
     
@@ -169,87 +655,28 @@ public class TranslationWebService extends BaseWebService {
     return newTranslObj;
   }
   
-  /*
-   * This method is used only for the purpose of eTranslation stress test and can be excluded afterwards
-   */
-  private void limitTextSizeForETranslation(TranslationRequest translationRequest, List<TranslationObj> translationObjects) {
-    StringBuilder translJointString = new StringBuilder(TranslationUtils.STRING_BUILDER_INIT_SIZE);
-    
-    TranslationObj newTranslObj;
-    
-    for (String inputText : translationRequest.getText()) {
-        
-       //append delimiter if needed and doesn't exceed the limit 
-       if(!translJointString.isEmpty() && !exceedesSnippetLimit(translJointString, ETranslationTranslationService.MARKUP_DELIMITER)) {
-          //append new paragraph delimiter
-          translJointString.append(ETranslationTranslationService.MARKUP_DELIMITER);
-        } else if(exceedesSnippetLimit(translJointString, ETranslationTranslationService.MARKUP_DELIMITER)){
-          //cannot add more text as limit will exceed, if the delimiter is appended
-          //stop if delimiter cannot be appended
-          break;
-        }
-        
-        if(!exceedesSnippetLimit(translJointString, inputText)) {
-          //no truncation needed
-          //append to joint string
-          translJointString.append(inputText);
-          //add to translation objects
-          newTranslObj = buildTranslationObject(translationRequest.getSource(), translationRequest.getTarget(), inputText);
-          translationObjects.add(newTranslObj);
-         } else {
-          //truncation is needed
-          final int charsAvailableForSnippet = ETranslationTranslationService.ETRANSLATION_SNIPPET_LIMIT - translJointString.length();
-          //ensure end index is smaller or equal than the length of the text
-          //TODO: eventually ensure to break at last space (or punctuation) char
-          final int lastCharIndex = Math.min(charsAvailableForSnippet, inputText.length());
-          String truncatedInput=inputText.substring(0, lastCharIndex);
-          
-          //append to joint string
-          translJointString.append(truncatedInput);
-          
-          //add to translation objects
-          newTranslObj = buildTranslationObject(translationRequest.getSource(), translationRequest.getTarget(), truncatedInput);
-          translationObjects.add(newTranslObj);
-          
-          //stop after truncated text
-          break;
-        }
-      }
-  }
-
-  private boolean exceedesSnippetLimit(StringBuilder translJointString, String textToAppend) {
-    return translJointString.length() + textToAppend.length() >= ETranslationTranslationService.ETRANSLATION_SNIPPET_LIMIT;
-  }
-
-  private boolean shouldTruncateText(TranslationRequest translationRequest) {
-    return translationConfig.isEtranslationTruncate()
-        && ETranslationTranslationService.DEFAULT_SERVICE_ID.equals(translationRequest.getService());
-  }
-
   private TranslationService selectTranslationService(TranslationRequest translationRequest,
       LanguagePair languagePair) throws ParamValidationException {
     final String serviceId = translationRequest.getService();
     if (serviceId != null) {
       // get the translation service by id
       return getTranslationService(serviceId, languagePair);
-    } else if (languagePair.getSrcLang() != null) {
-      // search in language mappings
-      TranslationService translationService = selectFromLanguageMappings(languagePair);
-      if (translationService != null) {
-        return translationService;
-      }
     }
 
-    // if none selected pick the default
-    final String defaultServiceId = translationServiceProvider.getTranslationServicesConfig()
-        .getTranslationConfig().getDefaultServiceId();
-    return getTranslationService(defaultServiceId, languagePair);
-  }
+    // search in language mappings
+    final LanguageRoutingTable routingTable = translationServiceProvider.getRoutingTable();
+    TranslationService translationService =
+        routingTable.getMappedService(languagePair.getSrcLang(), languagePair.getTargetLang());
+    if (translationService == null) {
+      // if none selected pick the default
+      translationService =
+          verifyLanguagePairSupport(routingTable.getDefaultService(), languagePair);
+    }
 
-  private TranslationService selectFromLanguageMappings(LanguagePair languagePair) {
-    final String key =
-        LanguagePair.generateKey(languagePair.getSrcLang(), languagePair.getTargetLang());
-    return translationServiceProvider.getLangMappings4TranslateServices().getOrDefault(key, null);
+    // the adaptive routing may move the request away from a degraded service
+    final AdaptiveServiceRouter serviceRouter = translationServiceProvider.getServiceRouter();
+    return serviceRouter == null ? translationService
+        : serviceRouter.select(languagePair, translationService);
   }
 
   private TranslationService getTranslationService(final String serviceId,
@@ -269,6 +696,11 @@ public class TranslationWebService extends BaseWebService {
                   + String.join(", ", translationServiceProvider.getTranslationServices().keySet())
                   + ")"});
     }
+    return verifyLanguagePairSupport(result, languagePair);
+  }
+
+  private TranslationService verifyLanguagePairSupport(TranslationService result,
+      LanguagePair languagePair) throws ParamValidationException {
     if (!result.isSupported(languagePair.getSrcLang(), languagePair.getTargetLang())) {
       throw new ParamValidationException("Language pair not supported:" + languagePair,
           ERROR_INVALID_PARAM_VALUE, ERROR_INVALID_PARAM_VALUE,
@@ -280,33 +712,8 @@ public class TranslationWebService extends BaseWebService {
 
   public boolean isTranslationSupported(LanguagePair languagePair) {
     // check if the "source" and "target" params are supported
-    List<TranslationLangPairCfg> langPairCfgList = translationServiceProvider
-        .getTranslationServicesConfig().getTranslationConfig().getSupported();
-    if (languagePair.getSrcLang() == null) {
-      return isTargetInList(languagePair.getTargetLang(), langPairCfgList);
-    }
-
-    return isLangPairInList(languagePair, langPairCfgList);
-  }
-
-  private boolean isLangPairInList(LanguagePair languagePair,
-      List<TranslationLangPairCfg> langPairCfgList) {
-    for (TranslationLangPairCfg langPairCfg : langPairCfgList) {
-      if (langPairCfg.getSrcLang().contains(languagePair.getSrcLang())
-          && langPairCfg.getTargetLang().contains(languagePair.getTargetLang())) {
-        return true;
-      }
-    }
-    return false;
-  }
-
-  private boolean isTargetInList(String targetLang, List<TranslationLangPairCfg> langPairCfgList) {
-    for (TranslationLangPairCfg translationLangPairCfg : langPairCfgList) {
-      if (translationLangPairCfg.getTargetLang().contains(targetLang)) {
-        return true;
-      }
-    }
-    return false;
+    return translationServiceProvider.getRoutingTable().isSupported(languagePair.getSrcLang(),
+        languagePair.getTargetLang());
   }
 
   @PreDestroy
@@ -318,6 +725,14 @@ public class TranslationWebService extends BaseWebService {
     }
   }
 
+  /**
+   * A call to a translation service, e.g. for single or multiple targets
+   */
+  @FunctionalInterface
+  private interface ServiceInvocation {
+    void invoke(TranslationService translationService) throws TranslationException;
+  }
+
   public RedisCacheService getRedisCacheService() {
     return redisCacheService;
   }